@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Fails the build when the jautodoc goal would modify any file, without writing anything. Takes the same parameters
+ * as the jautodoc goal; files are checked in this JVM.
+ */
+@Mojo(name = "check", defaultPhase = LifecyclePhase.VERIFY, requiresProject = false)
+public class JautodocCheckMojo extends JautodocMojo {
+
+    /**
+     * Stop at the first file that would be modified and cancel the files still being checked; false checks every file
+     * and lists all that would be modified.
+     */
+    @Parameter(defaultValue = "true", property = "failFast")
+    private boolean failFast;
+
+    @Override
+    protected boolean isCheck() {
+        return true;
+    }
+
+    @Override
+    protected boolean isFailFast() {
+        return this.failFast;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc;
+
+import com.hazendaz.maven.jautodoc.core.JautodocResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Merges the per-shard summaries written by the jautodoc goal (with {@code shardCount > 1}) into one report.
+ * <p>
+ * Collect the {@code result-shard-*.properties} files of all nodes into one directory, then run this goal there.
+ */
+@Mojo(name = "merge-results", requiresProject = false)
+public class JautodocMergeResultsMojo extends AbstractMojo {
+
+    /** The shard result file name prefix. */
+    private static final String SHARD_PREFIX = "result-shard-";
+
+    /** Directory containing the result-shard-&lt;index&gt;.properties files to merge. */
+    @Parameter(defaultValue = "${project.build.directory}/jautodoc", property = "resultsDirectory")
+    private File resultsDirectory;
+
+    /** File the merged result is written to. */
+    @Parameter(defaultValue = "${project.build.directory}/jautodoc/result.properties", property = "mergedResult")
+    private File mergedResult;
+
+    /** File the merged Javadoc coverage is written to, when the shards counted coverage. */
+    @Parameter(defaultValue = "${project.build.directory}/jautodoc/coverage.json", property = "coverageReport")
+    private File coverageReport;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (this.resultsDirectory == null || !this.resultsDirectory.isDirectory()) {
+            this.getLog().info("No jautodoc shard results to merge");
+            return;
+        }
+
+        final List<Path> shardFiles;
+        try (Stream<Path> stream = Files.list(this.resultsDirectory.toPath())) {
+            shardFiles = stream.filter(p -> {
+                final var name = p.getFileName().toString();
+                return name.startsWith(JautodocMergeResultsMojo.SHARD_PREFIX) && name.endsWith(".properties");
+            }).sorted().collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Unable to list " + this.resultsDirectory, e);
+        }
+
+        final List<JautodocResult> results = new ArrayList<>();
+        for (final Path shardFile : shardFiles) {
+            try {
+                results.add(JautodocResult.load(shardFile));
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Unable to read shard result " + shardFile, e);
+            }
+        }
+
+        final var merged = JautodocResult.merge(results);
+        final var log = this.getLog();
+        log.info("Merged jautodoc results of " + results.size() + " shard(s)");
+        JautodocMojo.logCounts(log, merged);
+
+        if (this.mergedResult != null) {
+            try {
+                merged.store(this.mergedResult.toPath());
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Unable to write merged result " + this.mergedResult, e);
+            }
+        }
+        if (!merged.getCoverage().isEmpty()) {
+            JautodocMojo.writeCoverage(log, merged.getCoverage(), this.coverageReport);
+        }
+    }
+}
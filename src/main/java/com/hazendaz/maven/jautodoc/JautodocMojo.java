@@ -6,22 +6,59 @@
  */
 package com.hazendaz.maven.jautodoc;
 
+import com.hazendaz.maven.jautodoc.core.ForkedJautodocEngine;
+import com.hazendaz.maven.jautodoc.core.GitRepository;
+import com.hazendaz.maven.jautodoc.core.InheritedDocMode;
+import com.hazendaz.maven.jautodoc.core.JautodocCheckResult;
 import com.hazendaz.maven.jautodoc.core.JautodocConfiguration;
+import com.hazendaz.maven.jautodoc.core.JautodocListener;
 import com.hazendaz.maven.jautodoc.core.JautodocMode;
+import com.hazendaz.maven.jautodoc.core.JautodocOutcome;
+import com.hazendaz.maven.jautodoc.core.JautodocResult;
+import com.hazendaz.maven.jautodoc.core.JavadocCoverage;
+import com.hazendaz.maven.jautodoc.core.ShardPartitioner;
 import com.hazendaz.maven.jautodoc.core.StandaloneJautodocEngine;
+import com.hazendaz.maven.jautodoc.core.TreeStamp;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.DefaultDependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionException;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectDependenciesResolver;
 import org.codehaus.plexus.util.DirectoryScanner;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.util.artifact.JavaScopes;
+import org.eclipse.aether.util.filter.DependencyFilterUtils;
+import org.sonatype.plexus.build.incremental.BuildContext;
 
 /**
  * The Class JautodocMojo.
@@ -32,6 +69,9 @@ public class JautodocMojo extends AbstractMojo {
     /** The static files comment. */
     private static final String FILE_S = " file(s)";
 
+    /** File name of the tree stamp of the last successful run inside the work directory. */
+    private static final String STAMP_FILE = "tree.stamp";
+
     /** Skip run of plugin. */
     @Parameter(defaultValue = "false", alias = "skip", property = "skip")
     private boolean skip;
@@ -91,10 +131,91 @@ public class JautodocMojo extends AbstractMojo {
     @Parameter(defaultValue = "true", property = "excludeOverrides")
     private boolean excludeOverrides;
 
+    /**
+     * For excludeOverrides, also detect methods that override or implement a supertype method without an @Override
+     * annotation, by resolving all files once against the compile classpath before processing.
+     */
+    @Parameter(defaultValue = "false", property = "resolveOverrides")
+    private boolean resolveOverrides;
+
+    /** The project, whose compile classpath is resolved only when resolveOverrides or sourceJarDocs needs it. */
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    /** The session, for resolving the compile classpath. */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    /** The source roots of the project, used by resolveOverrides. */
+    @Parameter(defaultValue = "${project.compileSourceRoots}", readonly = true)
+    private List<String> compileSourceRoots;
+
+    /**
+     * Count documented and undocumented types, fields, methods and constructors per package and visibility while
+     * processing, log the totals and write them to coverageReport. Every file is parsed: cached outputs, processed git
+     * blobs and skipUnchanged are not used.
+     */
+    @Parameter(defaultValue = "false", property = "coverage")
+    private boolean coverage;
+
+    /**
+     * Leave the files untouched and report the changes as one unified diff instead, written to diffFile or else logged.
+     * Changes of the Eclipse formatter are not included.
+     */
+    @Parameter(defaultValue = "false", property = "dryRun")
+    private boolean dryRun;
+
+    /** File the dryRun diff is written to, with paths relative to the base directory; unset logs the diff. */
+    @Parameter(property = "diffFile")
+    private File diffFile;
+
+    /**
+     * Fail the check goal or a dryRun when a file could not be checked or diffed, because it failed to parse or
+     * exceeded the per-file time budget; false only warns about such files.
+     */
+    @Parameter(defaultValue = "true", property = "failOnUnchecked")
+    private boolean failOnUnchecked;
+
+    /** JSON file the coverage counts are written to. */
+    @Parameter(defaultValue = "${project.build.directory}/jautodoc/coverage.json", property = "coverageReport")
+    private File coverageReport;
+
+    /**
+     * Per-package overrides of the comment switches, one rule per entry, written
+     * {@code <package prefix>: <switch>[=true|false], ...} and applied to the package and its subpackages. Switches:
+     * types, fields, methods, public, protected, package, private, getterSetterOnly, excludeGetterSetter,
+     * excludeOverrides and skip, e.g. {@code com.acme.internal: private=false} or {@code com.acme.generated: skip}.
+     */
+    @Parameter
+    private List<String> packageRules;
+
     /** Add 'todo' auto generated javadoc. */
     @Parameter(defaultValue = "false", property = "addTodoForAutodoc")
     private boolean addTodoForAutodoc;
 
+    /**
+     * Comment text templates, tried in order before the built-in text, one per entry, written
+     * {@code <kind> <name regex> [returns <type regex>] -> <text>} with kind type, field, constructor, method, param,
+     * return or throws. The text may use ${name}, ${type} and the groups ${1} to ${9}, each optionally as .words or
+     * .Words, e.g. {@code method (add|remove)(\w+)Listener -> ${1.Words}s a ${2.words} listener.}
+     */
+    @Parameter
+    private List<String> commentTemplates;
+
+    /**
+     * Replacements for the words split from identifiers, one per entry, written {@code <words>=<replacement>}, e.g.
+     * {@code dto=data transfer object} or {@code url=URL}. Words match case-insensitively and as whole words only.
+     */
+    @Parameter
+    private List<String> wordReplacements;
+
+    /**
+     * File of further word replacements, one {@code <words>=<replacement>} entry per line. Blank lines and lines
+     * starting with # are ignored. Entries here are applied after, and win over, {@code wordReplacements}.
+     */
+    @Parameter(property = "wordReplacementsFile")
+    private File wordReplacementsFile;
+
     /** Create comment from element name. */
     @Parameter(defaultValue = "true", property = "createDummyComment")
     private boolean createDummyComment;
@@ -119,6 +240,35 @@ public class JautodocMojo extends AbstractMojo {
     @Parameter(defaultValue = "true", property = "getterSetterFromFieldReplace")
     private boolean getterSetterFromFieldReplace;
 
+    /**
+     * With getterSetterFromField, also take descriptions from fields declared in superclasses in other files. A
+     * project-wide index of field Javadoc is built in parallel before processing and kept in the work directory, so
+     * later runs only reindex changed files.
+     */
+    @Parameter(defaultValue = "false", property = "projectFieldIndex")
+    private boolean projectFieldIndex;
+
+    /**
+     * How to comment methods that override or implement a documented method of a supertype in this project: 'none' -
+     * like other methods, 'copy' - copy the supertype's Javadoc, 'inherit' - write {@code {@inheritDoc}}. Supertype
+     * methods are found through the project-wide index of projectFieldIndex, and such methods are commented even when
+     * excludeOverrides is set.
+     */
+    @Parameter(defaultValue = "none", property = "inheritedDoc")
+    private String inheritedDoc;
+
+    /**
+     * With inheritedDoc, also take the Javadoc of overridden library methods from the -sources.jar files that sit next
+     * to the compile classpath jars in the local repository. Missing source jars are not downloaded. Each jar is
+     * scanned once and its index kept under cacheDirectory for all later builds.
+     */
+    @Parameter(defaultValue = "false", property = "sourceJarDocs")
+    private boolean sourceJarDocs;
+
+    /** Further source archives for sourceJarDocs, such as the src.zip of a JDK. */
+    @Parameter
+    private List<File> sourceJars;
+
     /** Add file header. */
     @Parameter(defaultValue = "false", property = "addHeader")
     private boolean addHeader;
@@ -135,6 +285,146 @@ public class JautodocMojo extends AbstractMojo {
     @Parameter(defaultValue = "false", property = "headerOnly")
     private boolean headerOnly;
 
+    /** Per-file time budget in seconds after which processing of that file is cancelled (0 = unlimited). */
+    @Parameter(defaultValue = "60", property = "fileTimeout")
+    private int fileTimeout;
+
+    /** Seconds after which a file that is still being processed is logged as slow (0 = never). */
+    @Parameter(defaultValue = "10", property = "slowFileWarning")
+    private int slowFileWarning;
+
+    /** Number of files processed concurrently; the upper bound when adaptiveThreads is enabled. */
+    @Parameter(defaultValue = "1", property = "threads")
+    private int threads;
+
+    /**
+     * Adjust the number of active workers between minThreads and threads while running, based on measured throughput
+     * and garbage collection pressure.
+     */
+    @Parameter(defaultValue = "false", property = "adaptiveThreads")
+    private boolean adaptiveThreads;
+
+    /** Lower bound on active workers when adaptiveThreads is enabled. */
+    @Parameter(defaultValue = "1", property = "minThreads")
+    private int minThreads;
+
+    /**
+     * Cap on the estimated heap bytes held by files being processed at the same time (0 = half of the maximum heap).
+     * Files larger than the cap are processed alone.
+     */
+    @Parameter(defaultValue = "0", property = "maxInFlightBytes")
+    private long maxInFlightBytes;
+
+    /** Directory holding state kept between runs, such as per-file timings used for scheduling. */
+    @Parameter(defaultValue = "${project.build.directory}/jautodoc", property = "workDirectory")
+    private File workDirectory;
+
+    /**
+     * Only process files that differ from this git ref (e.g. origin/main or HEAD), staged or not, plus untracked files
+     * that are not ignored. Read from the local repository only.
+     */
+    @Parameter(property = "changedSince")
+    private String changedSince;
+
+    /**
+     * Together with changedSince, only generate Javadoc for declarations overlapping lines changed since that ref, and
+     * leave the rest of each changed file alone.
+     */
+    @Parameter(defaultValue = "false", property = "changedLinesOnly")
+    private boolean changedLinesOnly;
+
+    /**
+     * File listing the files to process, one path per line, relative to the base directory or absolute. Blank lines and
+     * lines starting with # are ignored. Replaces the directory scan.
+     */
+    @Parameter(property = "fileList")
+    private File fileList;
+
+    /**
+     * Skip the run when no source file was added, removed or modified (by size and timestamp) and the configuration is
+     * unchanged since the last successful run. The check only reads file metadata, including that of the word
+     * replacements file, and runs before templates, rules or word replacements are parsed and before any parser or
+     * formatter classes are loaded. A file edited without changing its size or timestamp is not noticed, so this is
+     * off by default.
+     */
+    @Parameter(defaultValue = "false", property = "skipUnchanged")
+    private boolean skipUnchanged;
+
+    /** Zero-based index of the shard this node processes when the file list is split across several machines. */
+    @Parameter(defaultValue = "0", property = "shardIndex")
+    private int shardIndex;
+
+    /**
+     * Number of shards the file list is split into. Every node must use the same value and see the same checkout; each
+     * processes the files of its own shardIndex and stores its summary as result-shard-&lt;index&gt;.properties in the
+     * work directory for the merge-results goal.
+     */
+    @Parameter(defaultValue = "1", property = "shardCount")
+    private int shardCount;
+
+    /**
+     * Number of worker JVMs to split the files across (0 = process in this JVM). The threads, time budget and memory
+     * settings apply to each worker separately.
+     */
+    @Parameter(defaultValue = "0", property = "forkCount")
+    private int forkCount;
+
+    /** Space-separated JVM arguments for the worker JVMs, such as -Xmx1g. */
+    @Parameter(property = "forkArgLine")
+    private String forkArgLine;
+
+    /**
+     * Reuse outputs from a content-addressed cache shared by all checkouts on this machine. A file whose exact content
+     * was processed before with the same settings and plugin version is written from the cache without parsing.
+     */
+    @Parameter(defaultValue = "false", property = "useCache")
+    private boolean useCache;
+
+    /** Directory of the output cache. */
+    @Parameter(defaultValue = "${user.home}/.m2/jautodoc-cache", property = "cacheDirectory")
+    private File cacheDirectory;
+
+    /** Size in bytes above which the least recently used cache entries are evicted. */
+    @Parameter(defaultValue = "268435456", property = "cacheMaxBytes")
+    private long cacheMaxBytes;
+
+    /** Base URL of a remote HTTP output cache shared between machines (GET and PUT of entries by key). */
+    @Parameter(property = "remoteCacheUrl")
+    private String remoteCacheUrl;
+
+    /** Connect and request timeout of the remote cache in milliseconds. */
+    @Parameter(defaultValue = "2000", property = "remoteCacheTimeout")
+    private int remoteCacheTimeout;
+
+    /** Upload outputs computed by this build to the remote cache, typically only enabled on CI. */
+    @Parameter(defaultValue = "false", property = "remoteCachePush")
+    private boolean remoteCachePush;
+
+    /**
+     * Skip files whose size and modification time match the git index and whose content was already processed, without
+     * reading them. Processed contents are remembered in the work directory.
+     */
+    @Parameter(defaultValue = "false", property = "useGitIndex")
+    private boolean useGitIndex;
+
+    /** The plugin descriptor, used to build the classpath of the worker JVMs. */
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
+
+    /**
+     * The build context. In an IDE incremental build (m2e) it reports which resources changed and is told which files
+     * were rewritten; on the command line every build is a full build.
+     */
+    @Component
+    private BuildContext buildContext;
+
+    /** Resolves the dependencies of the project on demand. */
+    @Component
+    private ProjectDependenciesResolver dependenciesResolver;
+
+    /** The compile classpath, once resolved. */
+    private List<String> classpathElements;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         // Check if plugin run should be skipped
@@ -145,29 +435,144 @@ public class JautodocMojo extends AbstractMojo {
 
         final var startClock = System.currentTimeMillis();
 
-        final List<File> files = new ArrayList<>();
-        if (this.basedir != null && this.basedir.exists() && this.basedir.isDirectory()) {
-            files.addAll(this.addCollectionFiles(this.basedir));
+        if (this.shardCount > 1 && (this.shardIndex < 0 || this.shardIndex >= this.shardCount)) {
+            throw new MojoExecutionException(
+                    "shardIndex must be between 0 and " + (this.shardCount - 1) + " but was " + this.shardIndex);
+        }
+
+        if (this.changedLinesOnly && (this.changedSince == null || this.changedSince.isBlank())) {
+            throw new MojoExecutionException("changedLinesOnly requires changedSince to name the ref to diff against");
         }
 
-        final var numberOfFiles = files.size();
         final var log = this.getLog();
+        final var incremental = this.fileList == null && this.buildContext != null
+                && this.buildContext.isIncremental();
+
+        List<Path> files = new ArrayList<>();
+        if (this.fileList != null) {
+            files.addAll(this.readFileList(this.fileList));
+        } else if (this.basedir != null && this.basedir.exists() && this.basedir.isDirectory()) {
+            final var found = incremental ? this.addChangedFiles(this.basedir) : this.addCollectionFiles(this.basedir);
+            files.addAll(found.stream().map(File::toPath).collect(Collectors.toList()));
+            if (incremental) {
+                log.info("Incremental build: " + files.size() + " changed" + JautodocMojo.FILE_S);
+            }
+        }
+
+        final var scanned = files;
+        if (this.changedSince != null && !this.changedSince.isBlank()) {
+            final var total = files.size();
+            files = this.filterChanged(files, this.changedSince.trim());
+            log.info("Changed since " + this.changedSince.trim() + ": " + files.size() + " of " + total
+                    + JautodocMojo.FILE_S);
+        }
+        if (this.shardCount > 1) {
+            final var total = files.size();
+            files = ShardPartitioner.select(files, this.basedir != null ? this.basedir.toPath() : null,
+                    this.shardIndex, this.shardCount);
+            log.info("Shard " + this.shardIndex + " of " + this.shardCount + ": " + files.size() + " of " + total
+                    + JautodocMojo.FILE_S);
+        }
+
+        // An incremental build sees only the delta, whose stamp must not replace the one of the whole tree
+        final var stampFile = this.skipUnchanged && this.workDirectory != null && !incremental && !this.coverage
+                && !this.dryRun
+                ? this.workDirectory.toPath().resolve(JautodocMojo.STAMP_FILE)
+                : null;
+        final var stampConfiguration = stampFile != null ? this.newConfiguration() : null;
+        if (stampConfiguration != null) {
+            this.setIndexSources(stampConfiguration, files, scanned, false);
+        }
+        final var stampSettings = stampFile != null ? this.stampSettings() : null;
+        // Dependencies are resolved only once the stamp missed, so the stamp covers the ones the last run resolved
+        if (stampFile != null && TreeStamp.compute(files, stampConfiguration, stampSettings,
+                TreeStamp.readDependencies(stampFile)).equals(TreeStamp.read(stampFile))) {
+            log.info("Sources unchanged since the last successful run, skipping " + files.size() + JautodocMojo.FILE_S);
+            return;
+        }
+
+        final var configuration = this.loadConfiguration();
+        this.setIndexSources(configuration, files, scanned, incremental);
+
+        if (this.isCheck()) {
+            this.check(files, configuration);
+            return;
+        }
+        if (this.dryRun) {
+            this.dryRun(files, configuration);
+            return;
+        }
+
+        final var numberOfFiles = files.size();
         log.info("Number of files to be jautodoc'd: " + numberOfFiles);
 
         if (numberOfFiles > 0) {
             try {
-                final var configuration = this.loadConfiguration();
-                final var engine = new StandaloneJautodocEngine(configuration);
-                final var rc = engine.process(files.stream().map(File::toPath).collect(Collectors.toList()));
+                final var written = new ConcurrentLinkedQueue<Path>();
+                final var listener = new JautodocListener() {
+                    @Override
+                    public void fileWritten(final Path file) {
+                        written.add(file);
+                    }
+
+                    @Override
+                    public void fileStillRunning(final Path file, final Duration elapsed) {
+                        log.warn("Still processing " + file + " after " + elapsed.toMillis() + "ms");
+                    }
+
+                    @Override
+                    public void fileTimedOut(final Path file, final Duration elapsed) {
+                        log.warn("Timed out processing " + file + " after " + elapsed.toMillis() + "ms");
+                    }
+
+                    @Override
+                    public void indexTimedOut(final Path file, final Duration elapsed) {
+                        JautodocMojo.logIndexTimeout(log, file, elapsed);
+                    }
+
+                    @Override
+                    public void workerOutput(final String line) {
+                        log.debug("[worker] " + line);
+                    }
+                };
+                final JautodocResult rc;
+                if (this.forkCount > 0) {
+                    log.info("Forking " + Math.min(this.forkCount, numberOfFiles) + " worker JVM(s)");
+                    final var engine = new ForkedJautodocEngine(configuration, this.workerClasspath(), this.forkCount);
+                    if (this.forkArgLine != null && !this.forkArgLine.isBlank()) {
+                        engine.setJvmArguments(Arrays.asList(this.forkArgLine.trim().split("\\s+")));
+                    }
+                    engine.setListener(listener);
+                    rc = engine.process(files);
+                } else {
+                    final var engine = new StandaloneJautodocEngine(configuration);
+                    engine.setListener(listener);
+                    rc = engine.process(files);
+                }
+
+                // Let the IDE pick up rewritten files; unchanged files are never written
+                if (this.buildContext != null) {
+                    for (final Path file : written) {
+                        this.buildContext.refresh(file.toFile());
+                    }
+                }
 
                 // Finish processing
                 final var endClock = System.currentTimeMillis();
 
-                log.info("Successfully formatted: " + rc.getSuccessCount() + JautodocMojo.FILE_S);
-                log.info("Fail to format:         " + rc.getFailCount() + JautodocMojo.FILE_S);
-                log.info("Skipped:                " + rc.getSkippedCount() + JautodocMojo.FILE_S);
-                log.info("Read only skipped:      " + rc.getReadOnlyCount() + JautodocMojo.FILE_S);
+                JautodocMojo.logCounts(log, rc);
+                final var filesPerSecond = numberOfFiles * 1000.0 / Math.max(1, endClock - startClock);
+                log.info("Throughput:             " + String.format(Locale.ROOT, "%.1f", filesPerSecond)
+                        + JautodocMojo.FILE_S + "/s");
                 log.info("Approximate time taken: " + (endClock - startClock) / 1000 + "s");
+                this.storeShardResult(rc);
+                if (this.coverage) {
+                    JautodocMojo.writeCoverage(log, rc.getCoverage(), this.coverageReport);
+                }
+                if (stampFile != null && rc.getFailCount() == 0 && rc.getSkippedCount() == 0
+                        && rc.getTimedOutCount() == 0) {
+                    this.storeStamp(stampFile, files, stampConfiguration, stampSettings, configuration);
+                }
             } catch (final RuntimeException e) {
                 throw new MojoExecutionException("Unable to process sources", e);
             }
@@ -175,12 +580,621 @@ public class JautodocMojo extends AbstractMojo {
 
     }
 
+    /**
+     * Checks if this goal only checks the files instead of rewriting them.
+     *
+     * @return true, if check
+     */
+    protected boolean isCheck() {
+        return false;
+    }
+
+    /**
+     * Checks if a check stops at the first file that would change.
+     *
+     * @return true, if fail fast
+     */
+    protected boolean isFailFast() {
+        return true;
+    }
+
+    /**
+     * Fails the build if processing would modify any of the files, writing none of them.
+     *
+     * @param files
+     *            the files
+     * @param configuration
+     *            the configuration
+     *
+     * @throws MojoExecutionException
+     *             if the check itself fails
+     * @throws MojoFailureException
+     *             if a file would be modified, or could not be checked unless failOnUnchecked is off
+     */
+    private void check(final List<Path> files, final JautodocConfiguration configuration)
+            throws MojoExecutionException, MojoFailureException {
+        final var log = this.getLog();
+        log.info("Number of files to be checked: " + files.size());
+        final var engine = new StandaloneJautodocEngine(configuration);
+        // Only listed when nothing would change: a fail-fast stop also skips the files it cancels
+        final var skipped = new ConcurrentLinkedQueue<Path>();
+        engine.setListener(new JautodocListener() {
+            @Override
+            public void fileTimedOut(final Path file, final Duration elapsed) {
+                log.warn("Timed out checking " + file + " after " + elapsed.toMillis() + "ms");
+            }
+
+            @Override
+            public void indexTimedOut(final Path file, final Duration elapsed) {
+                JautodocMojo.logIndexTimeout(log, file, elapsed);
+            }
+
+            @Override
+            public void fileProcessed(final Path file, final JautodocOutcome outcome) {
+                if (outcome == JautodocOutcome.SKIPPED) {
+                    skipped.add(file);
+                }
+            }
+        });
+        final JautodocCheckResult result;
+        try {
+            result = engine.check(files, this.isFailFast());
+        } catch (final RuntimeException e) {
+            throw new MojoExecutionException("Unable to check sources", e);
+        }
+        final var violations = result.getViolations();
+        if (violations.isEmpty()) {
+            final var unchecked = result.getUncheckedCount();
+            if (unchecked == 0) {
+                log.info("No file would be modified");
+                return;
+            }
+            for (final Path file : skipped) {
+                log.warn("Could not check " + file);
+            }
+            this.reportUnchecked("check", unchecked);
+            return;
+        }
+        for (final Path file : violations) {
+            log.error("Would be modified: " + file);
+        }
+        throw new MojoFailureException(this.isFailFast()
+                ? "Jautodoc would modify " + violations.size() + JautodocMojo.FILE_S
+                        + "; stopped at the first, set failFast=false to list all"
+                : "Jautodoc would modify " + violations.size() + JautodocMojo.FILE_S);
+    }
+
+    /**
+     * Writes or logs the diff of the changes processing would make, one file at a time as the files finish.
+     *
+     * @param files
+     *            the files
+     * @param configuration
+     *            the configuration
+     *
+     * @throws MojoExecutionException
+     *             if the files cannot be processed or the diff cannot be written
+     * @throws MojoFailureException
+     *             if a file could not be diffed, unless failOnUnchecked is off
+     */
+    private void dryRun(final List<Path> files, final JautodocConfiguration configuration)
+            throws MojoExecutionException, MojoFailureException {
+        final var log = this.getLog();
+        log.info("Dry run over " + files.size() + JautodocMojo.FILE_S);
+        if (configuration.isUseEclipseFormatter()) {
+            log.warn("The dry run diff does not include changes of the Eclipse formatter");
+        }
+        final var changed = new AtomicInteger();
+        final var failure = new AtomicReference<IOException>();
+        final JautodocResult rc;
+        try (Writer writer = this.diffFile != null ? JautodocMojo.newWriter(this.diffFile.toPath()) : null) {
+            final var engine = new StandaloneJautodocEngine(configuration);
+            engine.setListener(new JautodocListener() {
+                @Override
+                public void fileDiff(final Path file, final String diff) {
+                    changed.incrementAndGet();
+                    if (writer == null) {
+                        synchronized (log) {
+                            diff.lines().forEach(log::info);
+                        }
+                        return;
+                    }
+                    try {
+                        synchronized (writer) {
+                            writer.write(diff);
+                        }
+                    } catch (final IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+
+                @Override
+                public void fileTimedOut(final Path file, final Duration elapsed) {
+                    log.warn("Timed out diffing " + file + " after " + elapsed.toMillis() + "ms");
+                }
+
+                @Override
+                public void indexTimedOut(final Path file, final Duration elapsed) {
+                    JautodocMojo.logIndexTimeout(log, file, elapsed);
+                }
+
+                @Override
+                public void fileProcessed(final Path file, final JautodocOutcome outcome) {
+                    if (outcome == JautodocOutcome.SKIPPED) {
+                        log.warn("Could not diff " + file);
+                    }
+                }
+            });
+            rc = engine.dryRun(files, this.basedir != null ? this.basedir.toPath() : null);
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Unable to write diff " + this.diffFile, e);
+        } catch (final RuntimeException e) {
+            throw new MojoExecutionException("Unable to process sources", e);
+        }
+        log.info("Would modify " + changed.get() + JautodocMojo.FILE_S
+                + (this.diffFile != null && changed.get() > 0 ? ", diff written to " + this.diffFile : ""));
+        if (rc.getFailCount() > 0) {
+            log.warn("Not found: " + rc.getFailCount() + JautodocMojo.FILE_S);
+        }
+        final var unchecked = rc.getSkippedCount() + rc.getTimedOutCount();
+        if (unchecked > 0) {
+            log.warn("Skipped: " + rc.getSkippedCount() + JautodocMojo.FILE_S + ", timed out: " + rc.getTimedOutCount()
+                    + JautodocMojo.FILE_S);
+            this.reportUnchecked("diff", unchecked);
+        }
+    }
+
+    /**
+     * Fails the build, or only warns when failOnUnchecked is off, because files could not be checked or diffed.
+     *
+     * @param action
+     *            what could not be done to the files
+     * @param unchecked
+     *            the number of files that failed to parse or timed out
+     *
+     * @throws MojoFailureException
+     *             unless failOnUnchecked is off
+     */
+    private void reportUnchecked(final String action, final int unchecked) throws MojoFailureException {
+        final var message = "Jautodoc could not " + action + " " + unchecked + JautodocMojo.FILE_S
+                + " that failed to parse or timed out";
+        if (this.failOnUnchecked) {
+            throw new MojoFailureException(message + "; set failOnUnchecked=false to only warn");
+        }
+        this.getLog().warn(message);
+    }
+
+    /**
+     * Opens a file for writing, creating its directory.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the writer
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static Writer newWriter(final Path file) throws IOException {
+        final var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Logs a file the project doc index left out, or the override resolution pass dropped, because of the per-file
+     * time budget.
+     *
+     * @param log
+     *            the log
+     * @param file
+     *            the file, null for the override resolution pass
+     * @param elapsed
+     *            the time spent
+     */
+    private static void logIndexTimeout(final Log log, final Path file, final Duration elapsed) {
+        if (file == null) {
+            log.warn("Timed out resolving overrides after " + elapsed.toMillis()
+                    + "ms, only methods annotated @Override are treated as overrides");
+            return;
+        }
+        log.warn("Timed out indexing " + file + " after " + elapsed.toMillis()
+                + "ms, its docs are not inherited by other files");
+    }
+
+    /**
+     * Logs the outcome counts of a result.
+     *
+     * @param log
+     *            the log
+     * @param rc
+     *            the result
+     */
+    static void logCounts(final Log log, final JautodocResult rc) {
+        log.info("Successfully formatted: " + rc.getSuccessCount() + JautodocMojo.FILE_S);
+        log.info("Fail to format:         " + rc.getFailCount() + JautodocMojo.FILE_S);
+        log.info("Skipped:                " + rc.getSkippedCount() + JautodocMojo.FILE_S);
+        log.info("Read only skipped:      " + rc.getReadOnlyCount() + JautodocMojo.FILE_S);
+        log.info("Timed out:              " + rc.getTimedOutCount() + JautodocMojo.FILE_S);
+        log.info("Up to date:             " + rc.getUpToDateCount() + JautodocMojo.FILE_S);
+        log.info("Concurrency:            " + rc.getConcurrency() + " thread(s)");
+        final var coverage = rc.getCoverage();
+        if (!coverage.isEmpty()) {
+            final var total = coverage.getDocumented() + coverage.getUndocumented();
+            log.info("Javadoc coverage:       " + coverage.getDocumented() + " of " + total + " declaration(s) ("
+                    + String.format(Locale.ROOT, "%.1f", coverage.getDocumented() * 100.0 / Math.max(1, total))
+                    + "%), " + coverage.getGenerated() + " generated");
+        }
+    }
+
+    /**
+     * Writes the coverage report.
+     *
+     * @param log
+     *            the log
+     * @param coverage
+     *            the coverage
+     * @param report
+     *            the report file, null for none
+     *
+     * @throws MojoExecutionException
+     *             if the report cannot be written
+     */
+    static void writeCoverage(final Log log, final JavadocCoverage coverage, final File report)
+            throws MojoExecutionException {
+        if (report == null) {
+            return;
+        }
+        try {
+            coverage.writeJson(report.toPath());
+            log.info("Javadoc coverage report: " + report);
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Unable to write coverage report " + report, e);
+        }
+    }
+
+    /**
+     * Stores the result of this shard in the work directory so it can be merged with the other shards.
+     *
+     * @param rc
+     *            the result
+     */
+    private void storeShardResult(final JautodocResult rc) {
+        if (this.shardCount <= 1 || this.workDirectory == null) {
+            return;
+        }
+        final var file = this.workDirectory.toPath().resolve("result-shard-" + this.shardIndex + ".properties");
+        try {
+            rc.store(file);
+        } catch (final IOException e) {
+            this.getLog().warn("Unable to store shard result " + file, e);
+        }
+    }
+
+    /**
+     * Reads an explicit list of files to process.
+     *
+     * @param list
+     *            the list file
+     *
+     * @return the listed java files
+     *
+     * @throws MojoExecutionException
+     *             if the list cannot be read
+     */
+    private List<Path> readFileList(final File list) throws MojoExecutionException {
+        final var base = this.basedir != null ? this.basedir.toPath() : Path.of("");
+        final List<Path> files = new ArrayList<>();
+        try {
+            for (final String line : Files.readAllLines(list.toPath(), StandardCharsets.UTF_8)) {
+                final var name = line.trim();
+                if (!name.isEmpty() && !name.startsWith("#") && name.endsWith(".java")) {
+                    files.add(base.resolve(name).normalize());
+                }
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Unable to read file list " + list, e);
+        }
+        return files;
+    }
+
+    /**
+     * Collects the configured word replacements followed by those of the replacements file.
+     *
+     * @return the word replacements
+     *
+     * @throws MojoExecutionException
+     *             if the file cannot be read
+     */
+    private List<String> readWordReplacements() throws MojoExecutionException {
+        final List<String> entries = new ArrayList<>();
+        if (this.wordReplacements != null) {
+            entries.addAll(this.wordReplacements);
+        }
+        if (this.wordReplacementsFile != null) {
+            try {
+                for (final String line : Files.readAllLines(this.wordReplacementsFile.toPath(),
+                        StandardCharsets.UTF_8)) {
+                    final var entry = line.trim();
+                    if (!entry.isEmpty() && !entry.startsWith("#")) {
+                        entries.add(entry);
+                    }
+                }
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Unable to read word replacements " + this.wordReplacementsFile, e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Keeps the files that git reports as changed since {@code ref} or untracked.
+     *
+     * @param files
+     *            the candidate files
+     * @param ref
+     *            the git ref
+     *
+     * @return the changed files, in their original order
+     *
+     * @throws MojoExecutionException
+     *             if git cannot answer, for example because the ref does not exist
+     */
+    private List<Path> filterChanged(final List<Path> files, final String ref) throws MojoExecutionException {
+        final Set<Path> changed = new HashSet<>();
+        try {
+            final var directory = this.basedir != null ? this.basedir.toPath() : Path.of("").toAbsolutePath();
+            for (final Path path : GitRepository.open(directory).changedFiles(ref)) {
+                changed.add(JautodocMojo.realPath(path));
+            }
+        } catch (final IOException e) {
+            throw new MojoExecutionException("Unable to determine files changed since " + ref, e);
+        }
+        final List<Path> result = new ArrayList<>();
+        for (final Path file : files) {
+            if (changed.contains(JautodocMojo.realPath(file))) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves symbolic links so that paths reported by git and paths found by the scan compare equal.
+     *
+     * @param path
+     *            the path
+     *
+     * @return the real path, or the normalized absolute path when it does not exist
+     */
+    private static Path realPath(final Path path) {
+        try {
+            return path.toRealPath();
+        } catch (final IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Collects the source jars of the compile classpath jars that are present locally, followed by the configured
+     * source jars.
+     *
+     * @return the source jars
+     *
+     * @throws MojoExecutionException
+     *             if the compile classpath cannot be resolved
+     */
+    private List<Path> sourceJarPaths() throws MojoExecutionException {
+        final List<Path> jars = new ArrayList<>();
+        for (final String element : this.compileClasspath()) {
+            if (element.endsWith(".jar")) {
+                final var sources = Path.of(element.substring(0, element.length() - 4) + "-sources.jar");
+                if (Files.isRegularFile(sources)) {
+                    jars.add(sources);
+                }
+            }
+        }
+        if (this.sourceJars != null) {
+            for (final File jar : this.sourceJars) {
+                jars.add(jar.toPath());
+            }
+        }
+        return jars;
+    }
+
+    /**
+     * Resolves the compile classpath of the project the first time it is needed: the output directory followed by the
+     * compile scope dependencies. The goals do not ask Maven to resolve dependencies up front, so builds that use
+     * neither resolveOverrides nor sourceJarDocs never resolve them.
+     *
+     * @return the classpath elements
+     *
+     * @throws MojoExecutionException
+     *             if the dependencies cannot be resolved
+     */
+    private List<String> compileClasspath() throws MojoExecutionException {
+        if (this.classpathElements != null) {
+            return this.classpathElements;
+        }
+        final List<String> elements = new ArrayList<>();
+        if (this.project != null && this.session != null && this.dependenciesResolver != null) {
+            elements.add(this.project.getBuild().getOutputDirectory());
+            final var request = new DefaultDependencyResolutionRequest(this.project,
+                    this.session.getRepositorySession())
+                    .setResolutionFilter(DependencyFilterUtils.classpathFilter(JavaScopes.COMPILE));
+            try {
+                for (final Dependency dependency : this.dependenciesResolver.resolve(request).getDependencies()) {
+                    final var file = dependency.getArtifact().getFile();
+                    if (file != null) {
+                        elements.add(file.getAbsolutePath());
+                    }
+                }
+            } catch (final DependencyResolutionException e) {
+                throw new MojoExecutionException("Unable to resolve the compile classpath", e);
+            }
+        }
+        this.classpathElements = elements;
+        return elements;
+    }
+
+    /**
+     * Converts classpath or source root entries to paths, dropping those that do not exist.
+     *
+     * @param elements
+     *            the elements, may be null
+     *
+     * @return the existing paths
+     */
+    private static List<Path> existingPaths(final List<String> elements) {
+        final List<Path> paths = new ArrayList<>();
+        if (elements != null) {
+            for (final String element : elements) {
+                final var path = Path.of(element);
+                if (Files.exists(path)) {
+                    paths.add(path);
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Stores the stamp of the tree as left by this run, so that the next run can skip when nothing changed.
+     *
+     * @param stampFile
+     *            the stamp file
+     * @param files
+     *            the processed files
+     * @param configuration
+     *            the configuration from {@link #newConfiguration()}
+     * @param settings
+     *            the settings from {@link #stampSettings()}
+     * @param resolved
+     *            the configuration of the run, with the dependencies it resolved
+     */
+    private void storeStamp(final Path stampFile, final List<Path> files, final JautodocConfiguration configuration,
+            final String settings, final JautodocConfiguration resolved) {
+        final List<Path> dependencies = new ArrayList<>(resolved.getClasspath());
+        dependencies.addAll(resolved.getSourceJars());
+        try {
+            TreeStamp.write(stampFile, TreeStamp.compute(files, configuration, settings, dependencies), dependencies);
+        } catch (final IOException e) {
+            this.getLog().warn("Unable to store tree stamp " + stampFile, e);
+        }
+    }
+
+    /**
+     * Builds the classpath of the worker JVMs from the plugin artifact and its dependencies.
+     *
+     * @return the classpath
+     *
+     * @throws MojoExecutionException
+     *             if the plugin classpath is not available
+     */
+    private String workerClasspath() throws MojoExecutionException {
+        if (this.plugin == null) {
+            throw new MojoExecutionException("forkCount requires the plugin descriptor to build the worker classpath");
+        }
+        final var entries = new LinkedHashSet<String>();
+        final var pluginArtifact = this.plugin.getPluginArtifact();
+        if (pluginArtifact != null && pluginArtifact.getFile() != null) {
+            entries.add(pluginArtifact.getFile().getAbsolutePath());
+        }
+        if (this.plugin.getArtifacts() != null) {
+            for (final Artifact artifact : this.plugin.getArtifacts()) {
+                if (artifact.getFile() != null) {
+                    entries.add(artifact.getFile().getAbsolutePath());
+                }
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * Has the project doc index cover the whole tree when only part of it is processed, so that docs of other files
+     * are still found and a partial run writes what a full one would.
+     *
+     * @param configuration
+     *            the configuration
+     * @param files
+     *            the files to process
+     * @param scanned
+     *            the files found before changedSince and sharding narrowed them
+     * @param incremental
+     *            whether the files are the delta of an incremental build, in which case the tree is scanned again
+     */
+    private void setIndexSources(final JautodocConfiguration configuration, final List<Path> files,
+            final List<Path> scanned, final boolean incremental) {
+        if (configuration.isProjectDocIndexUsed() && (incremental || files.size() != scanned.size())) {
+            configuration.setIndexSources(incremental
+                    ? this.addCollectionFiles(this.basedir).stream().map(File::toPath).collect(Collectors.toList())
+                    : scanned);
+        }
+    }
+
+    /**
+     * Describes the settings that {@link #newConfiguration()} leaves out, without reading, parsing or resolving them:
+     * the raw comment templates, word replacements and package rules, the size and timestamp of the word replacements
+     * file, and the declared dependencies when resolveOverrides or sourceJarDocs would resolve them.
+     *
+     * @return the settings
+     */
+    private String stampSettings() {
+        final var settings = new StringBuilder();
+        settings.append(this.commentTemplates).append('\n');
+        settings.append(this.wordReplacements).append('\n');
+        settings.append(this.packageRules).append('\n');
+        if (this.wordReplacementsFile != null) {
+            settings.append(TreeStamp.identity(this.wordReplacementsFile.toPath()));
+        }
+        if ((this.resolveOverrides || this.sourceJarDocs) && this.project != null) {
+            for (final var dependency : this.project.getDependencies()) {
+                settings.append('\n').append(dependency.getManagementKey()).append(':')
+                        .append(dependency.getVersion()).append(':').append(dependency.getScope());
+            }
+        }
+        return settings.toString();
+    }
+
     /**
      * Load configuration.
      *
      * @return the configuration
+     *
+     * @throws MojoExecutionException
+     *             if a package rule, comment template or word replacement is malformed, the word replacements file
+     *             cannot be read, or the compile classpath cannot be resolved
+     */
+    private JautodocConfiguration loadConfiguration() throws MojoExecutionException {
+        final var configuration = this.newConfiguration();
+        if (this.resolveOverrides) {
+            configuration.setClasspath(JautodocMojo.existingPaths(this.compileClasspath()));
+        }
+        if (this.sourceJarDocs) {
+            configuration.setSourceJars(this.sourceJarPaths());
+        }
+        try {
+            configuration.setCommentTemplates(this.commentTemplates);
+            configuration.setWordReplacements(this.readWordReplacements());
+            configuration.setPackageRules(this.packageRules);
+        } catch (final IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        return configuration;
+    }
+
+    /**
+     * Builds the configuration from the plain parameters, leaving out the comment templates, word replacements and
+     * package rules, which need reading or parsing, and the classpath and source jars, which need resolving.
+     *
+     * @return the configuration
      */
-    private JautodocConfiguration loadConfiguration() {
+    private JautodocConfiguration newConfiguration() {
         final var configuration = new JautodocConfiguration();
         configuration.setAddHeader(this.addHeader);
         configuration.setAddTodoForAutodoc(this.addTodoForAutodoc);
@@ -190,9 +1204,20 @@ public class JautodocMojo extends AbstractMojo {
         configuration.setCreateDummyComment(this.createDummyComment);
         configuration.setExcludeGetterSetter(this.excludeGetterSetter);
         configuration.setExcludeOverrides(this.excludeOverrides);
+        configuration.setCollectCoverage(this.coverage);
+        if (this.resolveOverrides) {
+            configuration.setResolveOverrides(true);
+            configuration.setSourcepath(JautodocMojo.existingPaths(this.compileSourceRoots));
+        }
         configuration.setGetterSetterFromField(this.getterSetterFromField);
         configuration.setGetterSetterFromFieldFirst(this.getterSetterFromFieldFirst);
         configuration.setGetterSetterFromFieldReplace(this.getterSetterFromFieldReplace);
+        configuration.setProjectFieldIndex(this.projectFieldIndex);
+        configuration.setInheritedDocMode(InheritedDocMode.fromString(this.inheritedDoc));
+        if (this.sourceJarDocs) {
+            configuration.setSourceJarIndexDirectory(
+                    this.cacheDirectory != null ? this.cacheDirectory.toPath().resolve("source-jars") : null);
+        }
         configuration.setGetterSetterOnly(this.commentGetterSetterOnly);
         configuration.setMultiCommentHeader(this.multiCommentHeader);
         configuration.setReplaceHeader(this.replaceHeader);
@@ -204,6 +1229,24 @@ public class JautodocMojo extends AbstractMojo {
         configuration.setVisibilityPublic(this.commentPublic);
         configuration.setHeaderOnly(this.headerOnly);
         configuration.setMode(JautodocMode.fromString(this.mode));
+        configuration.setFileTimeoutSeconds(this.fileTimeout);
+        configuration.setSlowFileWarningSeconds(this.slowFileWarning);
+        configuration.setThreads(this.threads);
+        configuration.setAdaptiveThreads(this.adaptiveThreads);
+        configuration.setMinThreads(this.minThreads);
+        configuration.setMaxInFlightBytes(this.maxInFlightBytes);
+        configuration.setWorkDirectory(this.workDirectory != null ? this.workDirectory.toPath() : null);
+        if (this.useCache && this.cacheDirectory != null) {
+            configuration.setCacheDirectory(this.cacheDirectory.toPath());
+            configuration.setCacheMaxBytes(this.cacheMaxBytes);
+        }
+        if (this.changedLinesOnly) {
+            configuration.setChangedLinesRef(this.changedSince);
+        }
+        configuration.setRemoteCacheUrl(this.remoteCacheUrl);
+        configuration.setRemoteCacheTimeoutMillis(this.remoteCacheTimeout);
+        configuration.setRemoteCachePush(this.remoteCachePush);
+        configuration.setUseGitIndex(this.useGitIndex);
         return configuration;
     }
 
@@ -234,4 +1277,25 @@ public class JautodocMojo extends AbstractMojo {
         return foundFiles;
     }
 
+    /**
+     * Collects the java files an incremental build reports as added or modified.
+     *
+     * @param newBasedir
+     *            the new basedir
+     *
+     * @return the list
+     */
+    List<File> addChangedFiles(final File newBasedir) {
+        final var scanner = this.buildContext.newScanner(newBasedir);
+        scanner.setIncludes(new String[] { "**/*.java" });
+        scanner.addDefaultExcludes();
+        scanner.scan();
+
+        final List<File> foundFiles = new ArrayList<>();
+        for (final String filename : scanner.getIncludedFiles()) {
+            foundFiles.add(newBasedir.toPath().resolve(filename).toFile());
+        }
+        return foundFiles;
+    }
+
 }
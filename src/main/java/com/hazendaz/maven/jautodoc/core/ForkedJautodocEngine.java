@@ -0,0 +1,394 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link StandaloneJautodocEngine} in several worker JVMs, each on its own partition of the file list.
+ * <p>
+ * JDT keeps process-wide static state and every in-flight AST lives on one heap; separate processes sidestep both. The
+ * files are split with {@link ShardPartitioner}, every worker is started as {@code java -cp <classpath>
+ * JautodocWorker <config>} and receives its partition on standard input, and per-file outcomes are streamed back on
+ * standard output (see {@link JautodocWorker} for the line protocol) and forwarded to the {@link JautodocListener} as
+ * they arrive, as is every line a worker writes to standard error. A worker that exits with a non-zero code, or
+ * without reporting its result and every one of its files, fails the run with its exit code and the last lines it
+ * wrote to standard error.
+ * <p>
+ * Settings such as {@link JautodocConfiguration#getThreads()} apply per worker. A partition only depends on the paths
+ * and the worker count, so a worker meets the same files every run; each worker gets its own directory below the work
+ * directory for the timings and processed blobs of its files, and the workers never share those files. Every worker
+ * documents its partition against the project doc index of all the files; a stored index is refreshed here once and
+ * only read by the workers.
+ */
+public final class ForkedJautodocEngine {
+
+    /** Protocol tag for a per-file outcome. */
+    static final String FILE = "FILE";
+
+    /** Protocol tag for a file whose changed content was written back. */
+    static final String WRITTEN = "WRITTEN";
+
+    /** Protocol tag for a slow-file notification. */
+    static final String SLOW = "SLOW";
+
+    /** Protocol tag for a timed out file. */
+    static final String TIMEOUT = "TIMEOUT";
+
+    /** Protocol tag for a file the index pre-pass timed out on. */
+    static final String INDEX_TIMEOUT = "INDEX_TIMEOUT";
+
+    /** Protocol tag for the final worker summary. */
+    static final String RESULT = "RESULT";
+
+    /** Protocol tag for the coverage counts of one package, kind and visibility. */
+    static final String COVERAGE = "COVERAGE";
+
+    /** Number of standard error lines of a failed worker quoted in the failure. */
+    private static final int STDERR_TAIL_LINES = 20;
+
+    /** The config. */
+    private final JautodocConfiguration config;
+
+    /** The classpath of the worker JVMs. */
+    private final String classpath;
+
+    /** The number of worker JVMs. */
+    private final int forkCount;
+
+    /** Extra JVM arguments for the workers. */
+    private List<String> jvmArguments = List.of();
+
+    /** The java executable. */
+    private String javaExecutable = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    /** The listener. */
+    private JautodocListener listener = JautodocListener.NONE;
+
+    /**
+     * Instantiates a new forked jautodoc engine.
+     *
+     * @param config
+     *            the config
+     * @param classpath
+     *            the classpath containing this plugin and its dependencies
+     * @param forkCount
+     *            the number of worker JVMs
+     */
+    public ForkedJautodocEngine(final JautodocConfiguration config, final String classpath, final int forkCount) {
+        this.config = config;
+        this.classpath = classpath;
+        this.forkCount = Math.max(1, forkCount);
+    }
+
+    /**
+     * Sets the jvm arguments passed to every worker, such as {@code -Xmx1g}.
+     *
+     * @param jvmArguments
+     *            the new jvm arguments
+     */
+    public void setJvmArguments(final List<String> jvmArguments) {
+        this.jvmArguments = jvmArguments != null ? List.copyOf(jvmArguments) : List.of();
+    }
+
+    /**
+     * Sets the java executable used to launch workers.
+     *
+     * @param javaExecutable
+     *            the new java executable
+     */
+    public void setJavaExecutable(final String javaExecutable) {
+        if (javaExecutable != null && !javaExecutable.isBlank()) {
+            this.javaExecutable = javaExecutable;
+        }
+    }
+
+    /**
+     * Sets the listener. Notifications arrive from one reader thread per worker.
+     *
+     * @param listener
+     *            the new listener, null to ignore notifications
+     */
+    public void setListener(final JautodocListener listener) {
+        this.listener = listener != null ? listener : JautodocListener.NONE;
+    }
+
+    /**
+     * Processes the files in worker JVMs and returns the combined result. The concurrency of the result is the sum of
+     * the workers' concurrency. Throws {@link IllegalStateException} when a worker does not finish normally.
+     *
+     * @param files
+     *            the files
+     *
+     * @return the jautodoc result
+     */
+    public JautodocResult process(final List<Path> files) {
+        final var workerCount = Math.min(this.forkCount, files.size());
+        if (workerCount == 0) {
+            return new JautodocResult(0, 0, 0, 0, 0, 0, 0, null);
+        }
+
+        final var workerSettings = JautodocConfiguration.fromProperties(this.config.toProperties());
+        if (workerSettings.isProjectDocIndexUsed()) {
+            if (workerSettings.getIndexSources().isEmpty()) {
+                workerSettings.setIndexSources(files);
+            }
+            final var docIndexFile = StandaloneJautodocEngine.docIndexFile(workerSettings);
+            if (docIndexFile != null) {
+                // Refreshed once here, so that the workers only read it
+                StandaloneJautodocEngine.buildDocIndex(workerSettings, files,
+                        TimeUnit.SECONDS.toMillis(workerSettings.getFileTimeoutSeconds()), this.listener);
+                workerSettings.setDocIndexFile(docIndexFile);
+            }
+        }
+        final var workDirectory = workerSettings.getWorkDirectory();
+        final var workerConfig = workerSettings.toProperties();
+
+        final List<Path> configFiles = new ArrayList<>();
+        final var executor = Executors.newFixedThreadPool(workerCount, r -> {
+            final var thread = new Thread(r, "jautodoc-fork-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final var coverage = new JavadocCoverage();
+            final List<Future<int[]>> futures = new ArrayList<>();
+            final var partitions = ShardPartitioner.partition(files, null, workerCount);
+            for (var i = 0; i < partitions.size(); i++) {
+                final var partition = partitions.get(i);
+                if (partition.isEmpty()) {
+                    continue;
+                }
+                if (workDirectory != null) {
+                    workerConfig.setProperty("workDirectory",
+                            workDirectory.resolve("fork-" + (i + 1) + "-of-" + workerCount).toString());
+                }
+                final var configFile = Files.createTempFile("jautodoc-worker", ".properties");
+                configFiles.add(configFile);
+                try (Writer writer = Files.newBufferedWriter(configFile, StandardCharsets.UTF_8)) {
+                    workerConfig.store(writer, "Jautodoc worker configuration");
+                }
+                final var command = new ArrayList<String>();
+                command.add(this.javaExecutable);
+                command.addAll(this.jvmArguments);
+                command.add("-cp");
+                command.add(this.classpath);
+                command.add(JautodocWorker.class.getName());
+                command.add(configFile.toString());
+                futures.add(executor.submit(() -> this.runWorker(command, partition, coverage)));
+            }
+
+            final var counts = new int[JautodocOutcome.values().length + 1];
+            for (final Future<int[]> future : futures) {
+                final var workerCounts = future.get();
+                for (var i = 0; i < counts.length; i++) {
+                    counts[i] += workerCounts[i];
+                }
+            }
+            return new JautodocResult(counts[JautodocOutcome.SUCCESS.ordinal()],
+                    counts[JautodocOutcome.MISSING.ordinal()], counts[JautodocOutcome.SKIPPED.ordinal()],
+                    counts[JautodocOutcome.READ_ONLY.ordinal()], counts[JautodocOutcome.TIMED_OUT.ordinal()],
+                    counts[counts.length - 1], counts[JautodocOutcome.UP_TO_DATE.ordinal()], coverage);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to start jautodoc workers", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for jautodoc workers", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Jautodoc worker failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            for (final Path configFile : configFiles) {
+                try {
+                    Files.deleteIfExists(configFile);
+                } catch (final IOException e) {
+                    // best effort
+                }
+            }
+        }
+    }
+
+    /**
+     * Launches one worker, feeds it its files and collects its streamed outcomes.
+     *
+     * @param command
+     *            the command
+     * @param partition
+     *            the files for this worker
+     * @param coverage
+     *            the coverage that the counts streamed by the worker are added to
+     *
+     * @return outcome counts indexed by {@link JautodocOutcome#ordinal()}, followed by the worker's concurrency
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    private int[] runWorker(final List<String> command, final List<Path> partition, final JavadocCoverage coverage)
+            throws IOException, InterruptedException {
+        final var process = new ProcessBuilder(command).start();
+        try {
+            return this.readWorker(process, partition, coverage);
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Feeds a started worker its files, collects its streamed outcomes and checks that it finished normally.
+     *
+     * @param process
+     *            the worker process
+     * @param partition
+     *            the files for this worker
+     * @param coverage
+     *            the coverage that the counts streamed by the worker are added to
+     *
+     * @return outcome counts indexed by {@link JautodocOutcome#ordinal()}, followed by the worker's concurrency
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    private int[] readWorker(final Process process, final List<Path> partition, final JavadocCoverage coverage)
+            throws IOException, InterruptedException {
+        final Deque<String> stderrTail = new ArrayDeque<>();
+        final var stderrReader = new Thread(() -> this.drain(process, stderrTail), "jautodoc-fork-stderr");
+        stderrReader.setDaemon(true);
+        stderrReader.start();
+
+        try (Writer stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8)) {
+            for (final Path file : partition) {
+                stdin.write(file.toAbsolutePath().toString());
+                stdin.write('\n');
+            }
+        } catch (final IOException e) {
+            // The worker stopped reading, most likely because it died; its exit code is reported below
+        }
+
+        final var counts = new int[JautodocOutcome.values().length + 1];
+        var reported = 0;
+        var finished = false;
+        try (var stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = stdout.readLine()) != null) {
+                final var parts = line.split("\t", 3);
+                switch (parts[0]) {
+                    case FILE:
+                        if (parts.length == 3) {
+                            final var outcome = JautodocOutcome.valueOf(parts[1]);
+                            counts[outcome.ordinal()]++;
+                            reported++;
+                            this.listener.fileProcessed(Path.of(parts[2]), outcome);
+                        }
+                        break;
+                    case WRITTEN:
+                        if (parts.length == 2) {
+                            this.listener.fileWritten(Path.of(parts[1]));
+                        }
+                        break;
+                    case SLOW:
+                        if (parts.length == 3) {
+                            this.listener.fileStillRunning(Path.of(parts[2]),
+                                    Duration.ofMillis(Long.parseLong(parts[1])));
+                        }
+                        break;
+                    case TIMEOUT:
+                        if (parts.length == 3) {
+                            this.listener.fileTimedOut(Path.of(parts[2]), Duration.ofMillis(Long.parseLong(parts[1])));
+                        }
+                        break;
+                    case INDEX_TIMEOUT:
+                        if (parts.length == 3) {
+                            this.listener.indexTimedOut(parts[2].isEmpty() ? null : Path.of(parts[2]),
+                                    Duration.ofMillis(Long.parseLong(parts[1])));
+                        }
+                        break;
+                    case COVERAGE:
+                        final var entry = line.split("\t", -1);
+                        if (entry.length == 7) {
+                            coverage.add(entry[1], entry[2], entry[3], Integer.parseInt(entry[4]),
+                                    Integer.parseInt(entry[5]), Integer.parseInt(entry[6]));
+                        }
+                        break;
+                    case RESULT:
+                        final var fields = line.split("\t");
+                        counts[counts.length - 1] = Integer.parseInt(fields[fields.length - 1]);
+                        finished = true;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        final var exitCode = process.waitFor();
+        stderrReader.join();
+
+        if (exitCode != 0 || !finished || reported != partition.size()) {
+            final var message = new StringBuilder("Jautodoc worker exited with code ").append(exitCode);
+            if (!finished) {
+                message.append(" without reporting its result");
+            }
+            message.append(" after reporting ").append(reported).append(" of ").append(partition.size())
+                    .append(" files");
+            synchronized (stderrTail) {
+                if (!stderrTail.isEmpty()) {
+                    message.append("; standard error ended with:");
+                    for (final String line : stderrTail) {
+                        message.append(System.lineSeparator()).append(line);
+                    }
+                }
+            }
+            throw new IllegalStateException(message.toString());
+        }
+        return counts;
+    }
+
+    /**
+     * Passes the standard error of a worker on to the listener, keeping its last lines for a failure message.
+     *
+     * @param process
+     *            the worker process
+     * @param tail
+     *            the last lines, guarded by itself
+     */
+    private void drain(final Process process, final Deque<String> tail) {
+        try (var stderr = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = stderr.readLine()) != null) {
+                this.listener.workerOutput(line);
+                synchronized (tail) {
+                    if (tail.size() == ForkedJautodocEngine.STDERR_TAIL_LINES) {
+                        tail.removeFirst();
+                    }
+                    tail.addLast(line);
+                }
+            }
+        } catch (final IOException e) {
+            // The worker is gone; its exit code tells the rest
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only queries against a local git working tree, answered by the {@code git} command line client.
+ * <p>
+ * Every command used here only reads the local {@code .git} directory, so nothing touches the network. Paths are read
+ * NUL-separated ({@code -z}) so that unusual file names survive, and are returned as absolute paths.
+ */
+public final class GitRepository {
+
+    /** The git executable. */
+    private static final String GIT = "git";
+
+    /** Hunk header of a zero-context diff: {@code @@ -a[,b] +c[,d] @@}. */
+    private static final Pattern HUNK = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,(\\d+))? @@");
+
+    /** The top level directory of the working tree. */
+    private final Path topLevel;
+
+    /**
+     * Instantiates a new git repository.
+     *
+     * @param topLevel
+     *            the top level
+     */
+    private GitRepository(final Path topLevel) {
+        this.topLevel = topLevel;
+    }
+
+    /**
+     * Opens the working tree containing {@code directory}.
+     *
+     * @param directory
+     *            any directory inside the working tree
+     *
+     * @return the git repository
+     *
+     * @throws IOException
+     *             if git is not available or the directory is not inside a working tree
+     */
+    public static GitRepository open(final Path directory) throws IOException {
+        final var output = GitRepository.run(directory, GitRepository.GIT, "rev-parse", "--show-toplevel");
+        return new GitRepository(Path.of(output.trim()).toAbsolutePath().normalize());
+    }
+
+    /**
+     * Gets the top level directory of the working tree.
+     *
+     * @return the top level
+     */
+    public Path getTopLevel() {
+        return this.topLevel;
+    }
+
+    /**
+     * Returns the files that differ between {@code ref} and the working tree (staged or not), plus untracked files
+     * that are not ignored. Deleted files are left out.
+     *
+     * @param ref
+     *            the ref to compare against, e.g. {@code origin/main} or {@code HEAD}
+     *
+     * @return the absolute paths of the changed files
+     *
+     * @throws IOException
+     *             if git fails, for example because the ref does not exist
+     */
+    public Set<Path> changedFiles(final String ref) throws IOException {
+        final Set<Path> files = new LinkedHashSet<>();
+        files.addAll(this.paths(
+                this.git("diff", "--name-only", "-z", "--no-renames", "--diff-filter=d", ref, "--")));
+        files.addAll(this.paths(this.git("ls-files", "-z", "--others", "--exclude-standard")));
+        return files;
+    }
+
+    /**
+     * Returns the changed line ranges of every file that differs between {@code ref} and the working tree, in the
+     * line numbers of the working tree file. Each range is {@code {firstLine, lineCount}} with 1-based lines; a pure
+     * deletion is reported as a range of zero lines after {@code firstLine}. Untracked files are reported as changed in
+     * their entirety.
+     *
+     * @param ref
+     *            the ref to compare against
+     *
+     * @return the changed ranges keyed by absolute path
+     *
+     * @throws IOException
+     *             if git fails, for example because the ref does not exist
+     */
+    public Map<Path, List<int[]>> changedLines(final String ref) throws IOException {
+        final Map<Path, List<int[]>> changes = new HashMap<>();
+        List<int[]> current = null;
+        // Only the header between "diff --git" and the first hunk names the file; an added line may start with "++ "
+        var inHeader = false;
+        for (final String line : this.git("-c", "core.quotePath=off", "diff", "-U0", "--no-color", "--no-ext-diff",
+                "--no-renames", "--no-prefix", "--diff-filter=d", ref, "--").split("\n")) {
+            if (line.startsWith("diff --git ")) {
+                inHeader = true;
+                current = null;
+            } else if (inHeader && line.startsWith("+++ ")) {
+                // Git ends the name with a tab when it contains a space
+                var name = line.substring(4);
+                if (name.endsWith("\t")) {
+                    name = name.substring(0, name.length() - 1);
+                }
+                current = new ArrayList<>();
+                changes.put(this.topLevel.resolve(GitRepository.unquote(name)).normalize(), current);
+            } else if (line.startsWith("@@ ")) {
+                inHeader = false;
+                final var matcher = GitRepository.HUNK.matcher(line);
+                if (current != null && matcher.find()) {
+                    final var count = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 1;
+                    current.add(new int[] { Integer.parseInt(matcher.group(1)), count });
+                }
+            }
+        }
+        for (final Path untracked : this.paths(this.git("ls-files", "-z", "--others", "--exclude-standard"))) {
+            changes.put(untracked, List.of(new int[] { 1, Integer.MAX_VALUE }));
+        }
+        return changes;
+    }
+
+    /**
+     * Removes the C-style quoting git applies to unusual path names, including octal escapes of UTF-8 bytes.
+     *
+     * @param name
+     *            the name
+     *
+     * @return the unquoted name
+     */
+    private static String unquote(final String name) {
+        if (name.length() < 2 || name.charAt(0) != '"' || name.charAt(name.length() - 1) != '"') {
+            return name;
+        }
+        final var bytes = new ByteArrayOutputStream();
+        final var end = name.length() - 1;
+        for (var i = 1; i < end; i++) {
+            if (name.charAt(i) != '\\' || i + 1 == end) {
+                final var codePoint = name.codePointAt(i);
+                bytes.writeBytes(Character.toString(codePoint).getBytes(StandardCharsets.UTF_8));
+                i += Character.charCount(codePoint) - 1;
+                continue;
+            }
+            final var c = name.charAt(++i);
+            if (c >= '0' && c <= '7' && i + 2 < end) {
+                bytes.write(Integer.parseInt(name.substring(i, i + 3), 8));
+                i += 2;
+                continue;
+            }
+            switch (c) {
+                case 'a':
+                    bytes.write(7);
+                    break;
+                case 'b':
+                    bytes.write('\b');
+                    break;
+                case 'f':
+                    bytes.write('\f');
+                    break;
+                case 'n':
+                    bytes.write('\n');
+                    break;
+                case 'r':
+                    bytes.write('\r');
+                    break;
+                case 't':
+                    bytes.write('\t');
+                    break;
+                case 'v':
+                    bytes.write(11);
+                    break;
+                default:
+                    bytes.write(c);
+                    break;
+            }
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs git in the top level directory.
+     *
+     * @param args
+     *            the arguments
+     *
+     * @return the standard output
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    String git(final String... args) throws IOException {
+        final var command = new String[args.length + 1];
+        command[0] = GitRepository.GIT;
+        System.arraycopy(args, 0, command, 1, args.length);
+        return GitRepository.run(this.topLevel, command);
+    }
+
+    /**
+     * Splits NUL-separated repository-relative paths into absolute paths.
+     *
+     * @param output
+     *            the output
+     *
+     * @return the paths
+     */
+    private List<Path> paths(final String output) {
+        final List<Path> paths = new ArrayList<>();
+        for (final String name : output.split("\0")) {
+            if (!name.isEmpty()) {
+                paths.add(this.topLevel.resolve(name).normalize());
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Runs a command and returns its standard output.
+     *
+     * @param directory
+     *            the working directory
+     * @param command
+     *            the command
+     *
+     * @return the standard output
+     *
+     * @throws IOException
+     *             if the command cannot be started or exits with a non-zero status
+     */
+    private static String run(final Path directory, final String... command) throws IOException {
+        final var process = new ProcessBuilder(command).directory(directory.toFile()).start();
+        process.getOutputStream().close();
+        final var stderr = CompletableFuture.supplyAsync(() -> GitRepository.readAll(process.getErrorStream()));
+        final var stdout = GitRepository.readAll(process.getInputStream());
+        try {
+            final var status = process.waitFor();
+            if (status != 0) {
+                throw new IOException(String.join(" ", command) + " failed with exit code " + status + ": "
+                        + stderr.join().trim());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+            throw new IOException("Interrupted while running " + String.join(" ", command), e);
+        }
+        return stdout;
+    }
+
+    /**
+     * Reads a stream fully as UTF-8.
+     *
+     * @param in
+     *            the stream
+     *
+     * @return the text
+     */
+    private static String readAll(final InputStream in) {
+        final var bytes = new ByteArrayOutputStream();
+        try (in) {
+            in.transferTo(bytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+}
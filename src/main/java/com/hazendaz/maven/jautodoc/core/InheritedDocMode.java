@@ -0,0 +1,50 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.util.Locale;
+
+/**
+ * How methods that override or implement a documented method of a project-local supertype are commented.
+ */
+public enum InheritedDocMode {
+
+    /**
+     * Treat them like any other method: generated text, subject to {@link JautodocConfiguration#isExcludeOverrides()}.
+     */
+    NONE,
+
+    /**
+     * Copy the description and tags of the supertype method, renaming {@code @param} tags to the overriding method's
+     * parameter names.
+     */
+    COPY,
+
+    /**
+     * Write {@code {@inheritDoc}}, letting the javadoc tool inherit the description and tags.
+     */
+    INHERIT;
+
+    /**
+     * Resolves a mode from a plugin parameter string. Falls back to {@link #NONE} for null/blank/unknown values.
+     *
+     * @param mode
+     *            the mode string (case-insensitive), may be null
+     *
+     * @return the resolved InheritedDocMode, never null
+     */
+    public static InheritedDocMode fromString(final String mode) {
+        if (mode == null || mode.isBlank()) {
+            return NONE;
+        }
+        return switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "copy" -> COPY;
+            case "inherit", "inheritdoc" -> INHERIT;
+            default -> NONE;
+        };
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Minimal in-memory remote output cache speaking the protocol of {@link JautodocConfiguration#getRemoteCacheUrl()}:
+ * {@code GET /cache/<key>} returns 200 with the entry or 404, {@code PUT /cache/<key>} stores the request body.
+ * <p>
+ * It stands in for a real build-cache server in tests and offline set-ups and binds to the loopback address only.
+ * Entries are lost when the server is closed.
+ */
+public final class JautodocCacheServer implements AutoCloseable {
+
+    /** The context path. */
+    private static final String CONTEXT = "/cache/";
+
+    /** Valid keys: lower-case hex. */
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{16,128}");
+
+    /** The entries. */
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+
+    /** The request threads. */
+    private final ExecutorService executor;
+
+    /** The server. */
+    private final HttpServer server;
+
+    /**
+     * Starts a cache server on the loopback address.
+     *
+     * @param port
+     *            the port, 0 for any free port
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public JautodocCacheServer(final int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext(JautodocCacheServer.CONTEXT, this::handle);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            final var thread = new Thread(r, "jautodoc-cache-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(this.executor);
+        this.server.start();
+    }
+
+    /**
+     * Gets the base URI to use as remote cache url.
+     *
+     * @return the uri
+     */
+    public URI getUri() {
+        final var address = this.server.getAddress();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort() + JautodocCacheServer.CONTEXT);
+    }
+
+    /**
+     * Gets the number of stored entries.
+     *
+     * @return the entry count
+     */
+    public int getEntryCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Handles one request.
+     *
+     * @param exchange
+     *            the exchange
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final var key = exchange.getRequestURI().getPath().substring(JautodocCacheServer.CONTEXT.length());
+            if (!JautodocCacheServer.KEY.matcher(key).matches()) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            switch (exchange.getRequestMethod()) {
+                case "GET":
+                    final var entry = this.entries.get(key);
+                    if (entry == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                    } else {
+                        exchange.sendResponseHeaders(200, entry.length);
+                        exchange.getResponseBody().write(entry);
+                    }
+                    break;
+                case "PUT":
+                    this.entries.put(key, exchange.getRequestBody().readAllBytes());
+                    exchange.sendResponseHeaders(201, -1);
+                    break;
+                default:
+                    exchange.sendResponseHeaders(405, -1);
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+}
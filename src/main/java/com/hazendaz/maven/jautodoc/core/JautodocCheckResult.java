@@ -0,0 +1,63 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Result of a {@link StandaloneJautodocEngine#check(List, boolean)} call: the files that would change and the outcome
+ * counts of all files, so that files which could not be checked are not mistaken for files that are up to date.
+ */
+public final class JautodocCheckResult {
+
+    /** The files that would change, in the order they were given. */
+    private final List<Path> violations;
+
+    /** The outcome counts. */
+    private final JautodocResult result;
+
+    /**
+     * Instantiates a new jautodoc check result.
+     *
+     * @param violations
+     *            the violations
+     * @param result
+     *            the result
+     */
+    public JautodocCheckResult(final List<Path> violations, final JautodocResult result) {
+        this.violations = List.copyOf(violations);
+        this.result = result;
+    }
+
+    /**
+     * Gets the files that would change; in fail-fast mode at least one but not necessarily all.
+     *
+     * @return the violations
+     */
+    public List<Path> getViolations() {
+        return this.violations;
+    }
+
+    /**
+     * Gets the outcome counts. Files cancelled because a fail-fast check stopped count as skipped.
+     *
+     * @return the result
+     */
+    public JautodocResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * Gets the number of files that could not be checked, because they failed to parse or timed out.
+     *
+     * @return the unchecked count
+     */
+    public int getUncheckedCount() {
+        return this.result.getSkippedCount() + this.result.getTimedOutCount();
+    }
+}
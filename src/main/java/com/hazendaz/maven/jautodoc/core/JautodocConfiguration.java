@@ -6,12 +6,36 @@
  */
 package com.hazendaz.maven.jautodoc.core;
 
+import com.hazendaz.maven.jautodoc.core.internal.CommentTemplates;
+import com.hazendaz.maven.jautodoc.core.internal.DocumentationRules;
+import com.hazendaz.maven.jautodoc.core.internal.WordDictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Immutable configuration for the standalone Jautodoc engine. All properties mirror Eclipse JAutodoc's preferences to
  * maintain full compatibility.
  */
 public final class JautodocConfiguration {
 
+    /** Properties that only affect how the engine runs, not the text it produces; left out of the fingerprint. */
+    private static final Set<String> ENGINE_PROPERTIES = Set.of("fileTimeoutSeconds", "slowFileWarningSeconds",
+            "threads", "minThreads", "adaptiveThreads", "maxInFlightBytes", "workDirectory", "cacheDirectory",
+            "cacheMaxBytes", "remoteCacheUrl", "remoteCacheTimeoutMillis", "remoteCachePush",
+            "useGitIndex", "classpath", "sourcepath", "sourceJars", "sourceJarIndexDirectory", "collectCoverage",
+            "indexSources", "docIndexFile");
+
     // ---- Processing mode ----
 
     /** Javadoc processing mode (complete / keep / replace). */
@@ -68,6 +92,9 @@ public final class JautodocConfiguration {
     /** Exclude methods that override or implement a parent/interface method (@Override). */
     private boolean excludeOverrides = true;
 
+    /** Package-scoped overrides of the filters above, see {@link DocumentationRules}. */
+    private List<String> packageRules = List.of();
+
     // ---- Comment-generation options ----
 
     /** Generate a dummy description comment from the element name. */
@@ -79,6 +106,12 @@ public final class JautodocConfiguration {
     /** Prefix generated comments with TODO. */
     private boolean addTodoForAutodoc;
 
+    /** User-defined comment text templates, see {@link CommentTemplates}. */
+    private List<String> commentTemplates = List.of();
+
+    /** Replacements for the words of generated text, see {@link WordDictionary}. */
+    private List<String> wordReplacements = List.of();
+
     /** Format the output using the Eclipse JDT formatter after Javadoc insertion. */
     private boolean useEclipseFormatter;
 
@@ -93,6 +126,82 @@ public final class JautodocConfiguration {
     /** Replace existing getter/setter Javadoc when deriving from field. */
     private boolean getterSetterFromFieldReplace = true;
 
+    /** Also look up fields declared in superclasses in other files of the project. */
+    private boolean projectFieldIndex;
+
+    // ---- Overriding methods ----
+
+    /** How methods overriding a documented project-local method are commented. */
+    private InheritedDocMode inheritedDocMode = InheritedDocMode.NONE;
+
+    /** Source jars of the libraries, read for the Javadoc of overridden library methods. */
+    private List<Path> sourceJars = List.of();
+
+    /** Directory of the indexes of the source jars, shared between builds; null keeps them in memory. */
+    private Path sourceJarIndexDirectory;
+
+    /** Detect overriding methods without an {@code @Override} annotation by resolving bindings. */
+    private boolean resolveOverrides;
+
+    /** The compile classpath that bindings are resolved against. */
+    private List<Path> classpath = List.of();
+
+    /** The source roots that bindings are resolved against, for project types outside the processed files. */
+    private List<Path> sourcepath = List.of();
+
+    /** All java files of the project, indexed for field and inherited docs; empty to index the processed files. */
+    private List<Path> indexSources = List.of();
+
+    /** Stored project doc index to use instead of the one in the work directory; null for that one. */
+    private Path docIndexFile;
+
+    /** Count documented and undocumented declarations while processing. */
+    private boolean collectCoverage;
+
+    // ---- Engine options ----
+
+    /** Per-file processing time budget in seconds; zero or negative disables the limit. */
+    private int fileTimeoutSeconds;
+
+    /** Elapsed seconds after which a still running file is reported as slow; zero or negative disables reporting. */
+    private int slowFileWarningSeconds;
+
+    /** Number of files processed concurrently; the upper bound when {@link #adaptiveThreads} is set. */
+    private int threads = 1;
+
+    /** Adjust the number of active workers between {@link #minThreads} and {@link #threads} while running. */
+    private boolean adaptiveThreads;
+
+    /** Lower bound on active workers in adaptive mode. */
+    private int minThreads = 1;
+
+    /** Cap on the estimated working-set bytes of files in flight; zero or negative derives it from the heap size. */
+    private long maxInFlightBytes;
+
+    /** Directory for state kept between runs (such as per-file timings); null keeps no state. */
+    private Path workDirectory;
+
+    /** Git ref whose diff limits Javadoc edits to the declarations it touches; null edits every declaration. */
+    private String changedLinesRef;
+
+    /** Directory of the content-addressed output cache shared between checkouts; null disables the cache. */
+    private Path cacheDirectory;
+
+    /** Size above which the least recently used cache entries are evicted. */
+    private long cacheMaxBytes = 256L * 1024 * 1024;
+
+    /** Base URL of a remote HTTP output cache; null disables it. */
+    private String remoteCacheUrl;
+
+    /** Connect and request timeout of the remote cache in milliseconds. */
+    private int remoteCacheTimeoutMillis = 2000;
+
+    /** Whether outputs computed locally are uploaded to the remote cache. */
+    private boolean remoteCachePush;
+
+    /** Whether the git index is consulted to skip files whose content was already processed. */
+    private boolean useGitIndex;
+
     // =========================================================================
     // Getters & setters
     // =========================================================================
@@ -401,6 +510,37 @@ public final class JautodocConfiguration {
         this.excludeOverrides = excludeOverrides;
     }
 
+    /**
+     * Gets the package rules.
+     *
+     * @return the package rules
+     */
+    public List<String> getPackageRules() {
+        return this.packageRules;
+    }
+
+    /**
+     * Sets the package rules, for example {@code com.acme.internal: private=false}.
+     *
+     * @param packageRules
+     *            the new package rules, null for none
+     *
+     * @throws IllegalArgumentException
+     *             if a rule is malformed
+     */
+    public void setPackageRules(final List<String> packageRules) {
+        final List<String> rules = new ArrayList<>();
+        if (packageRules != null) {
+            for (final String rule : packageRules) {
+                if (rule != null && !rule.isBlank()) {
+                    DocumentationRules.validate(rule.trim());
+                    rules.add(rule.trim());
+                }
+            }
+        }
+        this.packageRules = List.copyOf(rules);
+    }
+
     /**
      * Checks if is creates the dummy comment.
      *
@@ -458,6 +598,69 @@ public final class JautodocConfiguration {
         this.addTodoForAutodoc = addTodoForAutodoc;
     }
 
+    /**
+     * Gets the comment templates.
+     *
+     * @return the comment templates
+     */
+    public List<String> getCommentTemplates() {
+        return this.commentTemplates;
+    }
+
+    /**
+     * Sets the comment templates, for example {@code method (add|remove)(\w+)Listener -> ${1.Words}s a ${2.words}
+     * listener.}
+     *
+     * @param commentTemplates
+     *            the new comment templates, null for none
+     *
+     * @throws IllegalArgumentException
+     *             if a template is malformed
+     */
+    public void setCommentTemplates(final List<String> commentTemplates) {
+        final List<String> templates = new ArrayList<>();
+        if (commentTemplates != null) {
+            for (final String template : commentTemplates) {
+                if (template != null && !template.isBlank()) {
+                    CommentTemplates.validate(template.trim());
+                    templates.add(template.trim());
+                }
+            }
+        }
+        this.commentTemplates = List.copyOf(templates);
+    }
+
+    /**
+     * Gets the word replacements.
+     *
+     * @return the word replacements
+     */
+    public List<String> getWordReplacements() {
+        return this.wordReplacements;
+    }
+
+    /**
+     * Sets the word replacements, for example {@code dto=data transfer object} or {@code url=URL}.
+     *
+     * @param wordReplacements
+     *            the new word replacements, null for none
+     *
+     * @throws IllegalArgumentException
+     *             if an entry is malformed
+     */
+    public void setWordReplacements(final List<String> wordReplacements) {
+        final List<String> entries = new ArrayList<>();
+        if (wordReplacements != null) {
+            for (final String entry : wordReplacements) {
+                if (entry != null && !entry.isBlank()) {
+                    WordDictionary.validate(entry.trim());
+                    entries.add(entry.trim());
+                }
+            }
+        }
+        this.wordReplacements = List.copyOf(entries);
+    }
+
     /**
      * Checks if is use eclipse formatter.
      *
@@ -533,4 +736,741 @@ public final class JautodocConfiguration {
     public void setGetterSetterFromFieldReplace(final boolean getterSetterFromFieldReplace) {
         this.getterSetterFromFieldReplace = getterSetterFromFieldReplace;
     }
+
+    /**
+     * Checks if is project field index.
+     *
+     * @return true, if is project field index
+     */
+    public boolean isProjectFieldIndex() {
+        return this.projectFieldIndex;
+    }
+
+    /**
+     * Sets whether {@link #isGetterSetterFromField()} also looks up fields declared in superclasses in other files,
+     * through an index of the whole project kept in {@link #getWorkDirectory()}.
+     *
+     * @param projectFieldIndex
+     *            the new project field index
+     */
+    public void setProjectFieldIndex(final boolean projectFieldIndex) {
+        this.projectFieldIndex = projectFieldIndex;
+    }
+
+    /**
+     * Gets the inherited doc mode.
+     *
+     * @return the inherited doc mode
+     */
+    public InheritedDocMode getInheritedDocMode() {
+        return this.inheritedDocMode;
+    }
+
+    /**
+     * Sets the inherited doc mode. Any mode other than {@link InheritedDocMode#NONE} builds the project-wide index of
+     * {@link #isProjectFieldIndex()}.
+     *
+     * @param inheritedDocMode
+     *            the new inherited doc mode
+     */
+    public void setInheritedDocMode(final InheritedDocMode inheritedDocMode) {
+        this.inheritedDocMode = inheritedDocMode != null ? inheritedDocMode : InheritedDocMode.NONE;
+    }
+
+    /**
+     * Gets the source jars.
+     *
+     * @return the source jars
+     */
+    public List<Path> getSourceJars() {
+        return this.sourceJars;
+    }
+
+    /**
+     * Sets the source jars. With an {@link #getInheritedDocMode()} other than {@link InheritedDocMode#NONE}, methods
+     * overriding a method of a library type declared in one of these jars take its Javadoc. Jars are only read, never
+     * downloaded.
+     *
+     * @param sourceJars
+     *            the new source jars, in classpath order, null for none
+     */
+    public void setSourceJars(final List<Path> sourceJars) {
+        this.sourceJars = sourceJars != null ? List.copyOf(sourceJars) : List.of();
+    }
+
+    /**
+     * Gets the source jar index directory.
+     *
+     * @return the source jar index directory
+     */
+    public Path getSourceJarIndexDirectory() {
+        return this.sourceJarIndexDirectory;
+    }
+
+    /**
+     * Sets the source jar index directory, where each source jar's index is kept after its first scan.
+     *
+     * @param sourceJarIndexDirectory
+     *            the new source jar index directory, null to scan the jars on every run
+     */
+    public void setSourceJarIndexDirectory(final Path sourceJarIndexDirectory) {
+        this.sourceJarIndexDirectory = sourceJarIndexDirectory;
+    }
+
+    /**
+     * Checks if is resolve overrides.
+     *
+     * @return true, if is resolve overrides
+     */
+    public boolean isResolveOverrides() {
+        return this.resolveOverrides;
+    }
+
+    /**
+     * Sets the resolve overrides. When set, all files are first resolved against {@link #getClasspath()} and
+     * {@link #getSourcepath()}, and methods found to override a supertype method count as overrides for
+     * {@link #isExcludeOverrides()} even without an {@code @Override} annotation.
+     *
+     * @param resolveOverrides
+     *            the new resolve overrides
+     */
+    public void setResolveOverrides(final boolean resolveOverrides) {
+        this.resolveOverrides = resolveOverrides;
+    }
+
+    /**
+     * Checks if is collect coverage.
+     *
+     * @return true, if is collect coverage
+     */
+    public boolean isCollectCoverage() {
+        return this.collectCoverage;
+    }
+
+    /**
+     * Sets the collect coverage. When set, the result carries a {@link JavadocCoverage} counted in the processing pass
+     * itself; cached outputs and processed blobs are then not trusted, so that every file is parsed once.
+     *
+     * @param collectCoverage
+     *            the new collect coverage
+     */
+    public void setCollectCoverage(final boolean collectCoverage) {
+        this.collectCoverage = collectCoverage;
+    }
+
+    /**
+     * Gets the classpath.
+     *
+     * @return the classpath
+     */
+    public List<Path> getClasspath() {
+        return this.classpath;
+    }
+
+    /**
+     * Sets the classpath.
+     *
+     * @param classpath
+     *            the new classpath, null for none
+     */
+    public void setClasspath(final List<Path> classpath) {
+        this.classpath = classpath != null ? List.copyOf(classpath) : List.of();
+    }
+
+    /**
+     * Gets the sourcepath.
+     *
+     * @return the sourcepath
+     */
+    public List<Path> getSourcepath() {
+        return this.sourcepath;
+    }
+
+    /**
+     * Sets the sourcepath.
+     *
+     * @param sourcepath
+     *            the new sourcepath, null for none
+     */
+    public void setSourcepath(final List<Path> sourcepath) {
+        this.sourcepath = sourcepath != null ? List.copyOf(sourcepath) : List.of();
+    }
+
+    /**
+     * Gets the index sources: every java file of the project, for the project doc index, when only some of them are
+     * processed.
+     *
+     * @return the index sources, empty to index the processed files
+     */
+    public List<Path> getIndexSources() {
+        return this.indexSources;
+    }
+
+    /**
+     * Sets the index sources.
+     *
+     * @param indexSources
+     *            the new index sources, null for none
+     */
+    public void setIndexSources(final List<Path> indexSources) {
+        this.indexSources = indexSources != null ? List.copyOf(indexSources) : List.of();
+    }
+
+    /**
+     * Checks if the project doc index is used, because field or inherited docs are looked up across files.
+     *
+     * @return true, if the project doc index is used
+     */
+    public boolean isProjectDocIndexUsed() {
+        final var fields = this.projectFieldIndex && this.getterSetterFromField;
+        return (fields || this.inheritedDocMode != InheritedDocMode.NONE) && !this.headerOnly;
+    }
+
+    /**
+     * Gets the doc index file.
+     *
+     * @return the doc index file, null to use the one in the work directory
+     */
+    public Path getDocIndexFile() {
+        return this.docIndexFile;
+    }
+
+    /**
+     * Sets the doc index file.
+     *
+     * @param docIndexFile
+     *            the new doc index file
+     */
+    public void setDocIndexFile(final Path docIndexFile) {
+        this.docIndexFile = docIndexFile;
+    }
+
+    /**
+     * Gets the file timeout seconds.
+     *
+     * @return the file timeout seconds
+     */
+    public int getFileTimeoutSeconds() {
+        return this.fileTimeoutSeconds;
+    }
+
+    /**
+     * Sets the file timeout seconds.
+     *
+     * @param fileTimeoutSeconds
+     *            the new file timeout seconds
+     */
+    public void setFileTimeoutSeconds(final int fileTimeoutSeconds) {
+        this.fileTimeoutSeconds = fileTimeoutSeconds;
+    }
+
+    /**
+     * Gets the slow file warning seconds.
+     *
+     * @return the slow file warning seconds
+     */
+    public int getSlowFileWarningSeconds() {
+        return this.slowFileWarningSeconds;
+    }
+
+    /**
+     * Sets the slow file warning seconds.
+     *
+     * @param slowFileWarningSeconds
+     *            the new slow file warning seconds
+     */
+    public void setSlowFileWarningSeconds(final int slowFileWarningSeconds) {
+        this.slowFileWarningSeconds = slowFileWarningSeconds;
+    }
+
+    /**
+     * Gets the threads.
+     *
+     * @return the threads
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Sets the threads.
+     *
+     * @param threads
+     *            the new threads
+     */
+    public void setThreads(final int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Gets the max in flight bytes.
+     *
+     * @return the max in flight bytes
+     */
+    public long getMaxInFlightBytes() {
+        return this.maxInFlightBytes;
+    }
+
+    /**
+     * Sets the max in flight bytes.
+     *
+     * @param maxInFlightBytes
+     *            the new max in flight bytes
+     */
+    public void setMaxInFlightBytes(final long maxInFlightBytes) {
+        this.maxInFlightBytes = maxInFlightBytes;
+    }
+
+    /**
+     * Gets the work directory.
+     *
+     * @return the work directory
+     */
+    public Path getWorkDirectory() {
+        return this.workDirectory;
+    }
+
+    /**
+     * Sets the work directory.
+     *
+     * @param workDirectory
+     *            the new work directory
+     */
+    public void setWorkDirectory(final Path workDirectory) {
+        this.workDirectory = workDirectory;
+    }
+
+    /**
+     * Checks if is adaptive threads.
+     *
+     * @return true, if is adaptive threads
+     */
+    public boolean isAdaptiveThreads() {
+        return this.adaptiveThreads;
+    }
+
+    /**
+     * Sets the adaptive threads.
+     *
+     * @param adaptiveThreads
+     *            the new adaptive threads
+     */
+    public void setAdaptiveThreads(final boolean adaptiveThreads) {
+        this.adaptiveThreads = adaptiveThreads;
+    }
+
+    /**
+     * Gets the min threads.
+     *
+     * @return the min threads
+     */
+    public int getMinThreads() {
+        return this.minThreads;
+    }
+
+    /**
+     * Sets the min threads.
+     *
+     * @param minThreads
+     *            the new min threads
+     */
+    public void setMinThreads(final int minThreads) {
+        this.minThreads = Math.max(1, minThreads);
+    }
+
+    /**
+     * Gets the changed lines ref.
+     *
+     * @return the changed lines ref
+     */
+    public String getChangedLinesRef() {
+        return this.changedLinesRef;
+    }
+
+    /**
+     * Sets the changed lines ref.
+     *
+     * @param changedLinesRef
+     *            the new changed lines ref
+     */
+    public void setChangedLinesRef(final String changedLinesRef) {
+        this.changedLinesRef = changedLinesRef != null && !changedLinesRef.isBlank() ? changedLinesRef.trim() : null;
+    }
+
+    /**
+     * Gets the cache directory.
+     *
+     * @return the cache directory
+     */
+    public Path getCacheDirectory() {
+        return this.cacheDirectory;
+    }
+
+    /**
+     * Sets the cache directory.
+     *
+     * @param cacheDirectory
+     *            the new cache directory
+     */
+    public void setCacheDirectory(final Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Gets the cache max bytes.
+     *
+     * @return the cache max bytes
+     */
+    public long getCacheMaxBytes() {
+        return this.cacheMaxBytes;
+    }
+
+    /**
+     * Sets the cache max bytes.
+     *
+     * @param cacheMaxBytes
+     *            the new cache max bytes
+     */
+    public void setCacheMaxBytes(final long cacheMaxBytes) {
+        this.cacheMaxBytes = cacheMaxBytes;
+    }
+
+    /**
+     * Gets the remote cache url.
+     *
+     * @return the remote cache url
+     */
+    public String getRemoteCacheUrl() {
+        return this.remoteCacheUrl;
+    }
+
+    /**
+     * Sets the remote cache url.
+     *
+     * @param remoteCacheUrl
+     *            the new remote cache url
+     */
+    public void setRemoteCacheUrl(final String remoteCacheUrl) {
+        this.remoteCacheUrl = remoteCacheUrl != null && !remoteCacheUrl.isBlank() ? remoteCacheUrl : null;
+    }
+
+    /**
+     * Gets the remote cache timeout millis.
+     *
+     * @return the remote cache timeout millis
+     */
+    public int getRemoteCacheTimeoutMillis() {
+        return this.remoteCacheTimeoutMillis;
+    }
+
+    /**
+     * Sets the remote cache timeout millis.
+     *
+     * @param remoteCacheTimeoutMillis
+     *            the new remote cache timeout millis
+     */
+    public void setRemoteCacheTimeoutMillis(final int remoteCacheTimeoutMillis) {
+        this.remoteCacheTimeoutMillis = Math.max(1, remoteCacheTimeoutMillis);
+    }
+
+    /**
+     * Checks if is remote cache push.
+     *
+     * @return true, if is remote cache push
+     */
+    public boolean isRemoteCachePush() {
+        return this.remoteCachePush;
+    }
+
+    /**
+     * Sets the remote cache push.
+     *
+     * @param remoteCachePush
+     *            the new remote cache push
+     */
+    public void setRemoteCachePush(final boolean remoteCachePush) {
+        this.remoteCachePush = remoteCachePush;
+    }
+
+    /**
+     * Checks if is use git index.
+     *
+     * @return true, if is use git index
+     */
+    public boolean isUseGitIndex() {
+        return this.useGitIndex;
+    }
+
+    /**
+     * Sets the use git index.
+     *
+     * @param useGitIndex
+     *            the new use git index
+     */
+    public void setUseGitIndex(final boolean useGitIndex) {
+        this.useGitIndex = useGitIndex;
+    }
+
+    // =========================================================================
+    // Serialization
+    // =========================================================================
+
+    /**
+     * Returns a SHA-256 hex digest of every setting that influences the generated text. Two configurations with the
+     * same fingerprint produce the same output for the same input; engine settings such as threads or timeouts are not
+     * part of it.
+     *
+     * @return the fingerprint
+     */
+    public String fingerprint() {
+        final var sorted = new TreeMap<String, String>();
+        this.toProperties().forEach((key, value) -> {
+            if (!JautodocConfiguration.ENGINE_PROPERTIES.contains(key)) {
+                sorted.put((String) key, (String) value);
+            }
+        });
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            sorted.forEach((key, value) -> {
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '=');
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            });
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Converts this configuration to properties, for handing it to another process or fingerprinting it.
+     *
+     * @return the properties
+     */
+    public Properties toProperties() {
+        final var properties = new Properties();
+        properties.setProperty("mode", this.mode.name());
+        properties.setProperty("headerText", this.headerText);
+        properties.setProperty("addHeader", Boolean.toString(this.addHeader));
+        properties.setProperty("replaceHeader", Boolean.toString(this.replaceHeader));
+        properties.setProperty("multiCommentHeader", Boolean.toString(this.multiCommentHeader));
+        properties.setProperty("headerOnly", Boolean.toString(this.headerOnly));
+        properties.setProperty("visibilityPublic", Boolean.toString(this.visibilityPublic));
+        properties.setProperty("visibilityPackage", Boolean.toString(this.visibilityPackage));
+        properties.setProperty("visibilityProtected", Boolean.toString(this.visibilityProtected));
+        properties.setProperty("visibilityPrivate", Boolean.toString(this.visibilityPrivate));
+        properties.setProperty("commentTypes", Boolean.toString(this.commentTypes));
+        properties.setProperty("commentFields", Boolean.toString(this.commentFields));
+        properties.setProperty("commentMethods", Boolean.toString(this.commentMethods));
+        properties.setProperty("getterSetterOnly", Boolean.toString(this.getterSetterOnly));
+        properties.setProperty("excludeGetterSetter", Boolean.toString(this.excludeGetterSetter));
+        properties.setProperty("excludeOverrides", Boolean.toString(this.excludeOverrides));
+        if (!this.packageRules.isEmpty()) {
+            properties.setProperty("packageRules", String.join("\n", this.packageRules));
+        }
+        properties.setProperty("createDummyComment", Boolean.toString(this.createDummyComment));
+        properties.setProperty("singleLineComment", Boolean.toString(this.singleLineComment));
+        properties.setProperty("addTodoForAutodoc", Boolean.toString(this.addTodoForAutodoc));
+        if (!this.commentTemplates.isEmpty()) {
+            properties.setProperty("commentTemplates", String.join("\n", this.commentTemplates));
+        }
+        if (!this.wordReplacements.isEmpty()) {
+            properties.setProperty("wordReplacements", String.join("\n", this.wordReplacements));
+        }
+        properties.setProperty("useEclipseFormatter", Boolean.toString(this.useEclipseFormatter));
+        properties.setProperty("getterSetterFromField", Boolean.toString(this.getterSetterFromField));
+        properties.setProperty("getterSetterFromFieldFirst", Boolean.toString(this.getterSetterFromFieldFirst));
+        properties.setProperty("getterSetterFromFieldReplace", Boolean.toString(this.getterSetterFromFieldReplace));
+        properties.setProperty("projectFieldIndex", Boolean.toString(this.projectFieldIndex));
+        properties.setProperty("inheritedDocMode", this.inheritedDocMode.name());
+        if (!this.sourceJars.isEmpty()) {
+            properties.setProperty("sourceJars", JautodocConfiguration.joinPaths(this.sourceJars));
+        }
+        if (this.sourceJarIndexDirectory != null) {
+            properties.setProperty("sourceJarIndexDirectory", this.sourceJarIndexDirectory.toString());
+        }
+        properties.setProperty("resolveOverrides", Boolean.toString(this.resolveOverrides));
+        if (!this.classpath.isEmpty()) {
+            properties.setProperty("classpath", JautodocConfiguration.joinPaths(this.classpath));
+        }
+        if (!this.sourcepath.isEmpty()) {
+            properties.setProperty("sourcepath", JautodocConfiguration.joinPaths(this.sourcepath));
+        }
+        if (!this.indexSources.isEmpty()) {
+            properties.setProperty("indexSources", JautodocConfiguration.joinPaths(this.indexSources));
+        }
+        if (this.docIndexFile != null) {
+            properties.setProperty("docIndexFile", this.docIndexFile.toString());
+        }
+        properties.setProperty("collectCoverage", Boolean.toString(this.collectCoverage));
+        properties.setProperty("fileTimeoutSeconds", Integer.toString(this.fileTimeoutSeconds));
+        properties.setProperty("slowFileWarningSeconds", Integer.toString(this.slowFileWarningSeconds));
+        properties.setProperty("threads", Integer.toString(this.threads));
+        properties.setProperty("minThreads", Integer.toString(this.minThreads));
+        properties.setProperty("adaptiveThreads", Boolean.toString(this.adaptiveThreads));
+        properties.setProperty("maxInFlightBytes", Long.toString(this.maxInFlightBytes));
+        if (this.workDirectory != null) {
+            properties.setProperty("workDirectory", this.workDirectory.toString());
+        }
+        if (this.changedLinesRef != null) {
+            properties.setProperty("changedLinesRef", this.changedLinesRef);
+        }
+        if (this.cacheDirectory != null) {
+            properties.setProperty("cacheDirectory", this.cacheDirectory.toString());
+        }
+        properties.setProperty("cacheMaxBytes", Long.toString(this.cacheMaxBytes));
+        if (this.remoteCacheUrl != null) {
+            properties.setProperty("remoteCacheUrl", this.remoteCacheUrl);
+        }
+        properties.setProperty("remoteCacheTimeoutMillis", Integer.toString(this.remoteCacheTimeoutMillis));
+        properties.setProperty("remoteCachePush", Boolean.toString(this.remoteCachePush));
+        properties.setProperty("useGitIndex", Boolean.toString(this.useGitIndex));
+        return properties;
+    }
+
+    /**
+     * Creates a configuration from properties written by {@link #toProperties()}. Missing keys keep their defaults.
+     *
+     * @param properties
+     *            the properties
+     *
+     * @return the jautodoc configuration
+     */
+    public static JautodocConfiguration fromProperties(final Properties properties) {
+        final var config = new JautodocConfiguration();
+        config.setMode(JautodocMode.fromString(properties.getProperty("mode")));
+        config.setHeaderText(properties.getProperty("headerText"));
+        config.addHeader = JautodocConfiguration.bool(properties, "addHeader", config.addHeader);
+        config.replaceHeader = JautodocConfiguration.bool(properties, "replaceHeader", config.replaceHeader);
+        config.multiCommentHeader = JautodocConfiguration.bool(properties, "multiCommentHeader",
+                config.multiCommentHeader);
+        config.headerOnly = JautodocConfiguration.bool(properties, "headerOnly", config.headerOnly);
+        config.visibilityPublic = JautodocConfiguration.bool(properties, "visibilityPublic", config.visibilityPublic);
+        config.visibilityPackage = JautodocConfiguration.bool(properties, "visibilityPackage",
+                config.visibilityPackage);
+        config.visibilityProtected = JautodocConfiguration.bool(properties, "visibilityProtected",
+                config.visibilityProtected);
+        config.visibilityPrivate = JautodocConfiguration.bool(properties, "visibilityPrivate",
+                config.visibilityPrivate);
+        config.commentTypes = JautodocConfiguration.bool(properties, "commentTypes", config.commentTypes);
+        config.commentFields = JautodocConfiguration.bool(properties, "commentFields", config.commentFields);
+        config.commentMethods = JautodocConfiguration.bool(properties, "commentMethods", config.commentMethods);
+        config.getterSetterOnly = JautodocConfiguration.bool(properties, "getterSetterOnly", config.getterSetterOnly);
+        config.excludeGetterSetter = JautodocConfiguration.bool(properties, "excludeGetterSetter",
+                config.excludeGetterSetter);
+        config.excludeOverrides = JautodocConfiguration.bool(properties, "excludeOverrides", config.excludeOverrides);
+        final var rules = properties.getProperty("packageRules");
+        config.setPackageRules(rules != null ? List.of(rules.split("\n")) : null);
+        config.createDummyComment = JautodocConfiguration.bool(properties, "createDummyComment",
+                config.createDummyComment);
+        config.singleLineComment = JautodocConfiguration.bool(properties, "singleLineComment",
+                config.singleLineComment);
+        config.addTodoForAutodoc = JautodocConfiguration.bool(properties, "addTodoForAutodoc",
+                config.addTodoForAutodoc);
+        final var templates = properties.getProperty("commentTemplates");
+        config.setCommentTemplates(templates != null ? List.of(templates.split("\n")) : null);
+        final var replacements = properties.getProperty("wordReplacements");
+        config.setWordReplacements(replacements != null ? List.of(replacements.split("\n")) : null);
+        config.useEclipseFormatter = JautodocConfiguration.bool(properties, "useEclipseFormatter",
+                config.useEclipseFormatter);
+        config.getterSetterFromField = JautodocConfiguration.bool(properties, "getterSetterFromField",
+                config.getterSetterFromField);
+        config.getterSetterFromFieldFirst = JautodocConfiguration.bool(properties, "getterSetterFromFieldFirst",
+                config.getterSetterFromFieldFirst);
+        config.getterSetterFromFieldReplace = JautodocConfiguration.bool(properties, "getterSetterFromFieldReplace",
+                config.getterSetterFromFieldReplace);
+        config.projectFieldIndex = JautodocConfiguration.bool(properties, "projectFieldIndex",
+                config.projectFieldIndex);
+        config.setInheritedDocMode(InheritedDocMode.fromString(properties.getProperty("inheritedDocMode")));
+        config.setSourceJars(JautodocConfiguration.splitPaths(properties.getProperty("sourceJars")));
+        final var sourceJarIndex = properties.getProperty("sourceJarIndexDirectory");
+        config.sourceJarIndexDirectory = sourceJarIndex != null ? Path.of(sourceJarIndex) : null;
+        config.resolveOverrides = JautodocConfiguration.bool(properties, "resolveOverrides", config.resolveOverrides);
+        config.setClasspath(JautodocConfiguration.splitPaths(properties.getProperty("classpath")));
+        config.setSourcepath(JautodocConfiguration.splitPaths(properties.getProperty("sourcepath")));
+        config.setIndexSources(JautodocConfiguration.splitPaths(properties.getProperty("indexSources")));
+        final var docIndex = properties.getProperty("docIndexFile");
+        config.docIndexFile = docIndex != null ? Path.of(docIndex) : null;
+        config.collectCoverage = JautodocConfiguration.bool(properties, "collectCoverage", config.collectCoverage);
+        config.setFileTimeoutSeconds(JautodocConfiguration.integer(properties, "fileTimeoutSeconds",
+                config.fileTimeoutSeconds));
+        config.setSlowFileWarningSeconds(JautodocConfiguration.integer(properties, "slowFileWarningSeconds",
+                config.slowFileWarningSeconds));
+        config.setThreads(JautodocConfiguration.integer(properties, "threads", config.threads));
+        config.setMinThreads(JautodocConfiguration.integer(properties, "minThreads", config.minThreads));
+        config.adaptiveThreads = JautodocConfiguration.bool(properties, "adaptiveThreads", config.adaptiveThreads);
+        config.maxInFlightBytes = Long.parseLong(properties.getProperty("maxInFlightBytes", "0"));
+        final var work = properties.getProperty("workDirectory");
+        config.workDirectory = work != null ? Path.of(work) : null;
+        config.setChangedLinesRef(properties.getProperty("changedLinesRef"));
+        final var cache = properties.getProperty("cacheDirectory");
+        config.cacheDirectory = cache != null ? Path.of(cache) : null;
+        config.cacheMaxBytes = Long
+                .parseLong(properties.getProperty("cacheMaxBytes", Long.toString(config.cacheMaxBytes)));
+        config.setRemoteCacheUrl(properties.getProperty("remoteCacheUrl"));
+        config.setRemoteCacheTimeoutMillis(JautodocConfiguration.integer(properties, "remoteCacheTimeoutMillis",
+                config.remoteCacheTimeoutMillis));
+        config.remoteCachePush = JautodocConfiguration.bool(properties, "remoteCachePush", config.remoteCachePush);
+        config.useGitIndex = JautodocConfiguration.bool(properties, "useGitIndex", config.useGitIndex);
+        return config;
+    }
+
+    /**
+     * Reads a boolean property.
+     *
+     * @param properties
+     *            the properties
+     * @param key
+     *            the key
+     * @param defaultValue
+     *            the default value
+     *
+     * @return the value
+     */
+    private static boolean bool(final Properties properties, final String key, final boolean defaultValue) {
+        final var value = properties.getProperty(key);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    /**
+     * Reads an int property.
+     *
+     * @param properties
+     *            the properties
+     * @param key
+     *            the key
+     * @param defaultValue
+     *            the default value
+     *
+     * @return the value
+     */
+    private static int integer(final Properties properties, final String key, final int defaultValue) {
+        final var value = properties.getProperty(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Joins paths into a property value, one per line.
+     *
+     * @param paths
+     *            the paths
+     *
+     * @return the value
+     */
+    private static String joinPaths(final List<Path> paths) {
+        return paths.stream().map(Path::toString).collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Splits a property value written by {@link #joinPaths(List)}.
+     *
+     * @param value
+     *            the value, may be null
+     *
+     * @return the paths, null when the value is null
+     */
+    private static List<Path> splitPaths(final String value) {
+        return value != null ? Stream.of(value.split("\n")).map(Path::of).toList() : null;
+    }
 }
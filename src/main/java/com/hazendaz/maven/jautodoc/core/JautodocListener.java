@@ -0,0 +1,108 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Receives progress notifications from {@link StandaloneJautodocEngine}. All methods default to no-ops so callers only
+ * override what they need. Implementations must be thread-safe: notifications may arrive from worker threads and from
+ * the watchdog thread.
+ */
+public interface JautodocListener {
+
+    /** A listener that ignores every notification. */
+    JautodocListener NONE = new JautodocListener() {
+    };
+
+    /**
+     * Called periodically by the watchdog while a file has been processing for longer than the configured warning
+     * threshold.
+     *
+     * @param file
+     *            the file still being processed
+     * @param elapsed
+     *            the time spent on the file so far
+     */
+    default void fileStillRunning(final Path file, final Duration elapsed) {
+        // no-op
+    }
+
+    /**
+     * Called when processing of a file was cancelled because it exceeded the per-file time budget.
+     *
+     * @param file
+     *            the file
+     * @param elapsed
+     *            the time spent on the file before cancellation took effect
+     */
+    default void fileTimedOut(final Path file, final Duration elapsed) {
+        // no-op
+    }
+
+    /**
+     * Called when a project-wide pre-pass gave up because a file exceeded the per-file time budget. The project doc
+     * index leaves the file out, so docs declared there are not found from other files; the override resolution pass
+     * is dropped as a whole, so only methods annotated {@code @Override} count as overrides.
+     *
+     * @param file
+     *            the file the doc index left out, or null when the override resolution pass was dropped
+     * @param elapsed
+     *            the time spent before cancellation took effect
+     */
+    default void indexTimedOut(final Path file, final Duration elapsed) {
+        // no-op
+    }
+
+    /**
+     * Called by {@link ForkedJautodocEngine} with each line a worker JVM writes to standard error, such as JVM warnings
+     * and library output. The last lines of a failed worker are also part of the failure.
+     *
+     * @param line
+     *            the line
+     */
+    default void workerOutput(final String line) {
+        // no-op
+    }
+
+    /**
+     * Called when the content of a file has changed and was written back, before
+     * {@link #fileProcessed(Path, JautodocOutcome)}. Files processed without any change are not written.
+     *
+     * @param file
+     *            the file
+     */
+    default void fileWritten(final Path file) {
+        // no-op
+    }
+
+    /**
+     * Called once for every file when its processing has finished, whatever the outcome.
+     *
+     * @param file
+     *            the file
+     * @param outcome
+     *            the outcome
+     */
+    default void fileProcessed(final Path file, final JautodocOutcome outcome) {
+        // no-op
+    }
+
+    /**
+     * Called during a dry run with the unified diff of a file that would change, as soon as the file is finished and
+     * before {@link #fileProcessed(Path, JautodocOutcome)}. Diffs of several files may arrive at the same time.
+     *
+     * @param file
+     *            the file
+     * @param diff
+     *            the diff, starting with its {@code ---} and {@code +++} lines
+     */
+    default void fileDiff(final Path file, final String diff) {
+        // no-op
+    }
+}
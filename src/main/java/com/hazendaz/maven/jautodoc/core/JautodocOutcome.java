@@ -0,0 +1,34 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+/**
+ * The outcome of processing a single file, as tallied into {@link JautodocResult}.
+ */
+public enum JautodocOutcome {
+
+    /** The file was processed (and written back if changed). */
+    SUCCESS,
+
+    /** The file could not be found on disk. */
+    MISSING,
+
+    /** The file was skipped due to a processing exception. */
+    SKIPPED,
+
+    /** The file was skipped because it is read-only. */
+    READ_ONLY,
+
+    /** Processing was cancelled because the file exceeded its time budget; the file was left untouched. */
+    TIMED_OUT,
+
+    /** The file was left alone because its content is known to be processed already. */
+    UP_TO_DATE,
+
+    /** A check or dry run found that processing would modify the file; the file was left untouched. */
+    WOULD_CHANGE
+}
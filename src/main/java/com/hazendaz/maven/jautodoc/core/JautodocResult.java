@@ -6,8 +6,20 @@
  */
 package com.hazendaz.maven.jautodoc.core;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Properties;
+
 /**
  * Aggregated result counts from a single Jautodoc processing run.
+ * <p>
+ * Results can be written to and read back from a properties file ({@link #store(Path)}, {@link #load(Path)}) and
+ * combined with {@link #merge(Collection)}, so that the summaries of several shards can be reported as one run.
  */
 public final class JautodocResult {
 
@@ -23,6 +35,18 @@ public final class JautodocResult {
     /** Number of files skipped because they were read-only. */
     private final int readOnlyCount;
 
+    /** Number of files whose processing was cancelled after exceeding the per-file time budget. */
+    private final int timedOutCount;
+
+    /** Number of workers processing files concurrently, averaged over the run when the pool adapts. */
+    private final int concurrency;
+
+    /** Number of files left alone because they were known to be processed already. */
+    private final int upToDateCount;
+
+    /** Javadoc coverage of the declarations visited. */
+    private final JavadocCoverage coverage;
+
     /**
      * Instantiates a new jautodoc result.
      *
@@ -34,13 +58,26 @@ public final class JautodocResult {
      *            the skipped count
      * @param readOnlyCount
      *            the read only count
+     * @param timedOutCount
+     *            the timed out count
+     * @param concurrency
+     *            the concurrency
+     * @param upToDateCount
+     *            the up to date count
+     * @param coverage
+     *            the coverage, or {@code null} for none
      */
     public JautodocResult(final int successCount, final int failCount, final int skippedCount,
-            final int readOnlyCount) {
+            final int readOnlyCount, final int timedOutCount, final int concurrency, final int upToDateCount,
+            final JavadocCoverage coverage) {
         this.successCount = successCount;
         this.failCount = failCount;
         this.skippedCount = skippedCount;
         this.readOnlyCount = readOnlyCount;
+        this.timedOutCount = timedOutCount;
+        this.concurrency = concurrency;
+        this.upToDateCount = upToDateCount;
+        this.coverage = coverage != null ? coverage : new JavadocCoverage();
     }
 
     /**
@@ -78,4 +115,127 @@ public final class JautodocResult {
     public int getReadOnlyCount() {
         return this.readOnlyCount;
     }
+
+    /**
+     * Gets the timed out count.
+     *
+     * @return the timed out count
+     */
+    public int getTimedOutCount() {
+        return this.timedOutCount;
+    }
+
+    /**
+     * Gets the concurrency.
+     *
+     * @return the concurrency
+     */
+    public int getConcurrency() {
+        return this.concurrency;
+    }
+
+    /**
+     * Gets the up to date count.
+     *
+     * @return the up to date count
+     */
+    public int getUpToDateCount() {
+        return this.upToDateCount;
+    }
+
+    /**
+     * Gets the coverage, empty unless {@link JautodocConfiguration#isCollectCoverage()} was set.
+     *
+     * @return the coverage
+     */
+    public JavadocCoverage getCoverage() {
+        return this.coverage;
+    }
+
+    /**
+     * Combines several results into one. Counts are summed; the concurrency is the highest of any input.
+     *
+     * @param results
+     *            the results
+     *
+     * @return the merged result
+     */
+    public static JautodocResult merge(final Collection<JautodocResult> results) {
+        var success = 0;
+        var fail = 0;
+        var skipped = 0;
+        var readOnly = 0;
+        var timedOut = 0;
+        var concurrency = 1;
+        var upToDate = 0;
+        final var coverage = new JavadocCoverage();
+        for (final JautodocResult result : results) {
+            success += result.successCount;
+            fail += result.failCount;
+            skipped += result.skippedCount;
+            readOnly += result.readOnlyCount;
+            timedOut += result.timedOutCount;
+            concurrency = Math.max(concurrency, result.concurrency);
+            upToDate += result.upToDateCount;
+            coverage.addAll(result.coverage);
+        }
+        return new JautodocResult(success, fail, skipped, readOnly, timedOut, concurrency, upToDate, coverage);
+    }
+
+    /**
+     * Writes this result as a properties file.
+     *
+     * @param file
+     *            the file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void store(final Path file) throws IOException {
+        final var properties = new Properties();
+        properties.setProperty("successCount", Integer.toString(this.successCount));
+        properties.setProperty("failCount", Integer.toString(this.failCount));
+        properties.setProperty("skippedCount", Integer.toString(this.skippedCount));
+        properties.setProperty("readOnlyCount", Integer.toString(this.readOnlyCount));
+        properties.setProperty("timedOutCount", Integer.toString(this.timedOutCount));
+        properties.setProperty("concurrency", Integer.toString(this.concurrency));
+        properties.setProperty("upToDateCount", Integer.toString(this.upToDateCount));
+        this.coverage.store(properties);
+        final var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Jautodoc result");
+        }
+    }
+
+    /**
+     * Reads a result previously written with {@link #store(Path)}. Missing keys read as zero.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the jautodoc result
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static JautodocResult load(final Path file) throws IOException {
+        final var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return new JautodocResult(Integer.parseInt(properties.getProperty("successCount", "0")),
+                    Integer.parseInt(properties.getProperty("failCount", "0")),
+                    Integer.parseInt(properties.getProperty("skippedCount", "0")),
+                    Integer.parseInt(properties.getProperty("readOnlyCount", "0")),
+                    Integer.parseInt(properties.getProperty("timedOutCount", "0")),
+                    Integer.parseInt(properties.getProperty("concurrency", "1")),
+                    Integer.parseInt(properties.getProperty("upToDateCount", "0")), JavadocCoverage.load(properties));
+        } catch (final NumberFormatException e) {
+            throw new IOException("Malformed jautodoc result " + file, e);
+        }
+    }
 }
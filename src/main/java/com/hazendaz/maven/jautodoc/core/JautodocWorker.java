@@ -0,0 +1,140 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Entry point of a worker JVM launched by {@link ForkedJautodocEngine}.
+ * <p>
+ * The only argument is the path of a properties file written by {@link JautodocConfiguration#toProperties()}. The
+ * files to process are read from standard input, one path per line, until end of stream. Progress is streamed back on
+ * standard output as tab-separated lines:
+ * <ul>
+ * <li>{@code FILE <outcome> <path>} once per file, preceded by {@code WRITTEN <path>} when its changed content was
+ * written back,
+ * <li>{@code SLOW <millis> <path>} and {@code TIMEOUT <millis> <path>} for watchdog and time budget notifications,
+ * <li>{@code INDEX_TIMEOUT <millis> <path>} for a file the index pre-pass left out, with an empty path when the
+ * override resolution pass was dropped,
+ * <li>{@code COVERAGE <package> <kind> <visibility> <documented> <undocumented> <generated>} per coverage entry when
+ * {@link JautodocConfiguration#isCollectCoverage()} is set,
+ * <li>{@code RESULT <success> <fail> <skipped> <readOnly> <timedOut> <concurrency>} at the end.
+ * </ul>
+ * Anything else written to {@code System.out} by libraries is redirected to standard error so that it cannot corrupt
+ * the protocol.
+ */
+public final class JautodocWorker {
+
+    /**
+     * Instantiates a new jautodoc worker.
+     */
+    private JautodocWorker() {
+    }
+
+    /**
+     * The main method.
+     *
+     * @param args
+     *            the configuration properties file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static void main(final String[] args) throws IOException {
+        final var out = new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8);
+        System.setOut(System.err);
+
+        final var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        final var config = JautodocConfiguration.fromProperties(properties);
+
+        final List<Path> files = new ArrayList<>();
+        try (var in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    files.add(Path.of(line));
+                }
+            }
+        }
+
+        final var engine = new StandaloneJautodocEngine(config);
+        engine.setListener(new JautodocListener() {
+            @Override
+            public void fileWritten(final Path file) {
+                JautodocWorker.send(out, ForkedJautodocEngine.WRITTEN + '\t' + file);
+            }
+
+            @Override
+            public void fileStillRunning(final Path file, final Duration elapsed) {
+                JautodocWorker.send(out, ForkedJautodocEngine.SLOW + '\t' + elapsed.toMillis() + '\t' + file);
+            }
+
+            @Override
+            public void fileTimedOut(final Path file, final Duration elapsed) {
+                JautodocWorker.send(out, ForkedJautodocEngine.TIMEOUT + '\t' + elapsed.toMillis() + '\t' + file);
+            }
+
+            @Override
+            public void indexTimedOut(final Path file, final Duration elapsed) {
+                JautodocWorker.send(out, ForkedJautodocEngine.INDEX_TIMEOUT + '\t' + elapsed.toMillis() + '\t'
+                        + (file != null ? file : ""));
+            }
+
+            @Override
+            public void fileProcessed(final Path file, final JautodocOutcome outcome) {
+                JautodocWorker.send(out, ForkedJautodocEngine.FILE + '\t' + outcome.name() + '\t' + file);
+            }
+        });
+        final var rc = engine.process(files);
+
+        for (final JavadocCoverage.Entry entry : rc.getCoverage().getEntries()) {
+            JautodocWorker.send(out,
+                    String.join("\t", ForkedJautodocEngine.COVERAGE, entry.getPackageName(), entry.getKind(),
+                            entry.getVisibility(), Integer.toString(entry.getDocumented()),
+                            Integer.toString(entry.getUndocumented()), Integer.toString(entry.getGenerated())));
+        }
+
+        JautodocWorker.send(out,
+                String.join("\t", ForkedJautodocEngine.RESULT, Integer.toString(rc.getSuccessCount()),
+                        Integer.toString(rc.getFailCount()), Integer.toString(rc.getSkippedCount()),
+                        Integer.toString(rc.getReadOnlyCount()), Integer.toString(rc.getTimedOutCount()),
+                        Integer.toString(rc.getConcurrency())));
+        out.flush();
+    }
+
+    /**
+     * Writes one protocol line; serialized because notifications arrive from several threads.
+     *
+     * @param out
+     *            the protocol stream
+     * @param line
+     *            the line
+     */
+    private static void send(final PrintStream out, final String line) {
+        synchronized (out) {
+            out.print(line);
+            out.print('\n');
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Javadoc coverage counts by package, declaration kind and visibility, gathered while the declarations are visited for
+ * generation, so that measuring coverage takes no parse of its own.
+ * <p>
+ * For every type, field, method and constructor it counts whether it had Javadoc before the run (documented or
+ * undocumented) and whether the run generated Javadoc for it. Visibility is taken from the declared modifiers, except
+ * that members of interfaces and annotation types count as public unless declared private. Counting is thread-safe.
+ */
+public final class JavadocCoverage {
+
+    /** Prefix of the coverage keys in result properties. */
+    private static final String PROPERTY_PREFIX = "coverage.";
+
+    /** Separator of package, kind and visibility in a key; sorts before any name character. */
+    private static final char SEPARATOR = '\u0000';
+
+    /** Counts by package, kind and visibility, each documented, undocumented and generated. */
+    private final Map<String, int[]> counts = new TreeMap<>();
+
+    /**
+     * Counts declarations.
+     *
+     * @param packageName
+     *            the package, empty for the unnamed package
+     * @param kind
+     *            the kind: type, field, method or constructor
+     * @param visibility
+     *            the visibility: public, protected, package or private
+     * @param documented
+     *            the number that had Javadoc
+     * @param undocumented
+     *            the number that had none
+     * @param generated
+     *            the number of undocumented ones that received Javadoc
+     */
+    public synchronized void add(final String packageName, final String kind, final String visibility,
+            final int documented, final int undocumented, final int generated) {
+        final var count = this.counts.computeIfAbsent(
+                packageName + JavadocCoverage.SEPARATOR + kind + JavadocCoverage.SEPARATOR + visibility,
+                k -> new int[3]);
+        count[0] += documented;
+        count[1] += undocumented;
+        count[2] += generated;
+    }
+
+    /**
+     * Adds all counts of another coverage.
+     *
+     * @param other
+     *            the other coverage
+     */
+    public void addAll(final JavadocCoverage other) {
+        for (final Entry entry : other.getEntries()) {
+            this.add(entry.packageName, entry.kind, entry.visibility, entry.documented, entry.undocumented,
+                    entry.generated);
+        }
+    }
+
+    /**
+     * Checks if nothing was counted.
+     *
+     * @return true, if empty
+     */
+    public synchronized boolean isEmpty() {
+        return this.counts.isEmpty();
+    }
+
+    /**
+     * Gets the number of declarations that had Javadoc.
+     *
+     * @return the documented count
+     */
+    public int getDocumented() {
+        return this.total(0);
+    }
+
+    /**
+     * Gets the number of declarations that had no Javadoc.
+     *
+     * @return the undocumented count
+     */
+    public int getUndocumented() {
+        return this.total(1);
+    }
+
+    /**
+     * Gets the number of undocumented declarations that received Javadoc.
+     *
+     * @return the generated count
+     */
+    public int getGenerated() {
+        return this.total(2);
+    }
+
+    /**
+     * Gets the counts, ordered by package, kind and visibility.
+     *
+     * @return the entries
+     */
+    public synchronized List<Entry> getEntries() {
+        final List<Entry> entries = new ArrayList<>(this.counts.size());
+        this.counts.forEach((key, count) -> {
+            final var parts = key.split(String.valueOf(JavadocCoverage.SEPARATOR), -1);
+            entries.add(new Entry(parts[0], parts[1], parts[2], count[0], count[1], count[2]));
+        });
+        return entries;
+    }
+
+    /**
+     * Writes the counts as a JSON report: the totals and one object per package, kind and visibility.
+     *
+     * @param file
+     *            the file
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public void writeJson(final Path file) throws IOException {
+        final var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(this.toJson());
+        }
+    }
+
+    /**
+     * Formats the counts as JSON, see {@link #writeJson(Path)}.
+     *
+     * @return the json
+     */
+    public String toJson() {
+        final var entries = this.getEntries();
+        final var sb = new StringBuilder(128 + entries.size() * 128);
+        sb.append("{\n");
+        sb.append("  \"documented\": ").append(this.getDocumented()).append(",\n");
+        sb.append("  \"undocumented\": ").append(this.getUndocumented()).append(",\n");
+        sb.append("  \"generated\": ").append(this.getGenerated()).append(",\n");
+        sb.append("  \"entries\": [");
+        for (var i = 0; i < entries.size(); i++) {
+            final var entry = entries.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\"package\": \"").append(JavadocCoverage.escape(entry.packageName));
+            sb.append("\", \"kind\": \"").append(entry.kind);
+            sb.append("\", \"visibility\": \"").append(entry.visibility);
+            sb.append("\", \"documented\": ").append(entry.documented);
+            sb.append(", \"undocumented\": ").append(entry.undocumented);
+            sb.append(", \"generated\": ").append(entry.generated).append('}');
+        }
+        sb.append(entries.isEmpty() ? "]\n" : "\n  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Adds the counts to result properties.
+     *
+     * @param properties
+     *            the properties
+     */
+    void store(final Properties properties) {
+        for (final Entry entry : this.getEntries()) {
+            properties.setProperty(
+                    JavadocCoverage.PROPERTY_PREFIX + entry.kind + '.' + entry.visibility + '.' + entry.packageName,
+                    entry.documented + "," + entry.undocumented + "," + entry.generated);
+        }
+    }
+
+    /**
+     * Reads the counts written by {@link #store(Properties)}.
+     *
+     * @param properties
+     *            the properties
+     *
+     * @return the coverage
+     *
+     * @throws NumberFormatException
+     *             if a count is malformed
+     */
+    static JavadocCoverage load(final Properties properties) {
+        final var coverage = new JavadocCoverage();
+        for (final String name : properties.stringPropertyNames()) {
+            if (!name.startsWith(JavadocCoverage.PROPERTY_PREFIX)) {
+                continue;
+            }
+            final var key = name.substring(JavadocCoverage.PROPERTY_PREFIX.length()).split("\\.", 3);
+            final var values = properties.getProperty(name).split(",");
+            if (key.length < 2 || values.length != 3) {
+                throw new NumberFormatException("Malformed coverage entry " + name);
+            }
+            coverage.add(key.length == 3 ? key[2] : "", key[0], key[1], Integer.parseInt(values[0].trim()),
+                    Integer.parseInt(values[1].trim()), Integer.parseInt(values[2].trim()));
+        }
+        return coverage;
+    }
+
+    /**
+     * Sums one count over all entries.
+     *
+     * @param index
+     *            the index of the count
+     *
+     * @return the total
+     */
+    private synchronized int total(final int index) {
+        var total = 0;
+        for (final int[] count : this.counts.values()) {
+            total += count[index];
+        }
+        return total;
+    }
+
+    /**
+     * Escapes a string for a JSON string literal.
+     *
+     * @param value
+     *            the value
+     *
+     * @return the escaped value
+     */
+    private static String escape(final String value) {
+        final var sb = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The counts of one package, kind and visibility.
+     */
+    public static final class Entry {
+
+        /** The package name. */
+        private final String packageName;
+
+        /** The kind. */
+        private final String kind;
+
+        /** The visibility. */
+        private final String visibility;
+
+        /** The documented count. */
+        private final int documented;
+
+        /** The undocumented count. */
+        private final int undocumented;
+
+        /** The generated count. */
+        private final int generated;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param packageName
+         *            the package name
+         * @param kind
+         *            the kind
+         * @param visibility
+         *            the visibility
+         * @param documented
+         *            the documented count
+         * @param undocumented
+         *            the undocumented count
+         * @param generated
+         *            the generated count
+         */
+        Entry(final String packageName, final String kind, final String visibility, final int documented,
+                final int undocumented, final int generated) {
+            this.packageName = packageName;
+            this.kind = kind;
+            this.visibility = visibility;
+            this.documented = documented;
+            this.undocumented = undocumented;
+            this.generated = generated;
+        }
+
+        /**
+         * Gets the package name.
+         *
+         * @return the package name
+         */
+        public String getPackageName() {
+            return this.packageName;
+        }
+
+        /**
+         * Gets the kind.
+         *
+         * @return the kind
+         */
+        public String getKind() {
+            return this.kind;
+        }
+
+        /**
+         * Gets the visibility.
+         *
+         * @return the visibility
+         */
+        public String getVisibility() {
+            return this.visibility;
+        }
+
+        /**
+         * Gets the documented count.
+         *
+         * @return the documented count
+         */
+        public int getDocumented() {
+            return this.documented;
+        }
+
+        /**
+         * Gets the undocumented count.
+         *
+         * @return the undocumented count
+         */
+        public int getUndocumented() {
+            return this.undocumented;
+        }
+
+        /**
+         * Gets the generated count.
+         *
+         * @return the generated count
+         */
+        public int getGenerated() {
+            return this.generated;
+        }
+    }
+}
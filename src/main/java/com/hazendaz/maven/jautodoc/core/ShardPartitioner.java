@@ -0,0 +1,170 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a file list into shards so that several machines can each process their own share of one source tree.
+ * <p>
+ * Each file's shard only depends on its normalized path relative to the base directory (always using {@code /}
+ * separators), so every node computes the same assignment without coordination, whatever else is in its list and
+ * whether its checkout uses CRLF or LF line endings. The shard is chosen by rendezvous hashing: every shard scores the
+ * file with a mix of the shard number and a stable 64-bit FNV-1a hash of the path, and the highest score wins. Shards
+ * therefore receive about the same number of files, and adding a file or changing a file's size never moves another
+ * file.
+ */
+public final class ShardPartitioner {
+
+    /** FNV-1a 64-bit offset basis. */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    /** FNV-1a 64-bit prime. */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Golden-ratio increment separating the shard seeds. */
+    private static final long SEED_STEP = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Instantiates a new shard partitioner.
+     */
+    private ShardPartitioner() {
+    }
+
+    /**
+     * Returns the files assigned to {@code shardIndex}, in their original order.
+     *
+     * @param files
+     *            all discovered files
+     * @param basedir
+     *            the base directory the relative paths are computed from
+     * @param shardIndex
+     *            the zero-based index of the shard to select
+     * @param shardCount
+     *            the total number of shards
+     *
+     * @return the files of the selected shard
+     */
+    public static List<Path> select(final List<Path> files, final Path basedir, final int shardIndex,
+            final int shardCount) {
+        if (shardCount <= 1) {
+            return files;
+        }
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(
+                    "shardIndex must be between 0 and " + (shardCount - 1) + " but was " + shardIndex);
+        }
+
+        final List<Path> result = new ArrayList<>();
+        for (final Path file : files) {
+            if (ShardPartitioner.shardOf(ShardPartitioner.relativePath(basedir, file), shardCount) == shardIndex) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits the files into all shards at once, each in their original order.
+     *
+     * @param files
+     *            all discovered files
+     * @param basedir
+     *            the base directory the relative paths are computed from
+     * @param shardCount
+     *            the total number of shards
+     *
+     * @return the files of every shard, indexed by shard
+     */
+    public static List<List<Path>> partition(final List<Path> files, final Path basedir, final int shardCount) {
+        final var count = Math.max(1, shardCount);
+        final List<List<Path>> shards = new ArrayList<>(count);
+        for (var shard = 0; shard < count; shard++) {
+            shards.add(new ArrayList<>());
+        }
+        for (final Path file : files) {
+            shards.get(ShardPartitioner.shardOf(ShardPartitioner.relativePath(basedir, file), count)).add(file);
+        }
+        return shards;
+    }
+
+    /**
+     * Returns the shard of a file.
+     *
+     * @param relative
+     *            the relative path of the file, with {@code /} separators
+     * @param shardCount
+     *            the total number of shards
+     *
+     * @return the zero-based shard index
+     */
+    static int shardOf(final String relative, final int shardCount) {
+        final var hash = ShardPartitioner.hash(relative);
+        var best = 0;
+        var bestScore = 0L;
+        for (var shard = 0; shard < shardCount; shard++) {
+            final var score = ShardPartitioner.mix(hash + (shard + 1) * ShardPartitioner.SEED_STEP);
+            if (shard == 0 || Long.compareUnsigned(score, bestScore) > 0) {
+                best = shard;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Scrambles the bits of a value with the SplitMix64 finalizer.
+     *
+     * @param value
+     *            the value
+     *
+     * @return the scrambled value
+     */
+    private static long mix(final long value) {
+        var z = value;
+        z = (z ^ z >>> 30) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ z >>> 27) * 0x94d049bb133111ebL;
+        return z ^ z >>> 31;
+    }
+
+    /**
+     * Computes the 64-bit FNV-1a hash of the UTF-8 bytes of {@code value}.
+     *
+     * @param value
+     *            the value
+     *
+     * @return the hash
+     */
+    static long hash(final String value) {
+        var hash = ShardPartitioner.FNV_OFFSET;
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= ShardPartitioner.FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Relative path of {@code file} using {@code /} separators, or the absolute path when it is outside the base.
+     *
+     * @param basedir
+     *            the basedir
+     * @param file
+     *            the file
+     *
+     * @return the relative path
+     */
+    private static String relativePath(final Path basedir, final Path file) {
+        final var absolute = file.toAbsolutePath().normalize();
+        final var base = basedir != null ? basedir.toAbsolutePath().normalize() : null;
+        final var relative = base != null && absolute.startsWith(base) ? base.relativize(absolute) : absolute;
+        return relative.toString().replace('\\', '/');
+    }
+}
@@ -6,15 +6,47 @@
  */
 package com.hazendaz.maven.jautodoc.core;
 
+import com.hazendaz.maven.jautodoc.core.internal.AdaptiveConcurrencyController;
+import com.hazendaz.maven.jautodoc.core.internal.AdmissionController;
+import com.hazendaz.maven.jautodoc.core.internal.ChangedRegions;
+import com.hazendaz.maven.jautodoc.core.internal.DeadlineProgressMonitor;
+import com.hazendaz.maven.jautodoc.core.internal.GitIndex;
 import com.hazendaz.maven.jautodoc.core.internal.HeaderProcessor;
+import com.hazendaz.maven.jautodoc.core.internal.HttpOutputCache;
 import com.hazendaz.maven.jautodoc.core.internal.JavaSourceProcessor;
+import com.hazendaz.maven.jautodoc.core.internal.LocalOutputCache;
+import com.hazendaz.maven.jautodoc.core.internal.LongestFirstScheduler;
+import com.hazendaz.maven.jautodoc.core.internal.OutputCache;
+import com.hazendaz.maven.jautodoc.core.internal.OutputCacheCodec;
+import com.hazendaz.maven.jautodoc.core.internal.OverrideIndex;
+import com.hazendaz.maven.jautodoc.core.internal.ProcessedBlobs;
+import com.hazendaz.maven.jautodoc.core.internal.ProcessingWatchdog;
+import com.hazendaz.maven.jautodoc.core.internal.ProjectDocIndex;
+import com.hazendaz.maven.jautodoc.core.internal.SourceJarDocIndex;
+import com.hazendaz.maven.jautodoc.core.internal.TieredOutputCache;
+import com.hazendaz.maven.jautodoc.core.internal.UnifiedDiff;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.core.formatter.CodeFormatter;
 import org.eclipse.jface.text.BadLocationException;
@@ -32,12 +64,55 @@ import org.eclipse.jface.text.Document;
  * <li>Optionally run the Eclipse JDT formatter ({@link CodeFormatter}).
  * <li>Write back only when the content has changed.
  * </ol>
+ * <p>
+ * Each file runs under its own time budget ({@link JautodocConfiguration#getFileTimeoutSeconds()}). Cancellation is
+ * requested through the {@link org.eclipse.core.runtime.IProgressMonitor} passed to the JDT parser, and a watchdog
+ * reports files that keep running past {@link JautodocConfiguration#getSlowFileWarningSeconds()} to the
+ * {@link JautodocListener}.
+ * <p>
+ * With {@link JautodocConfiguration#getThreads()} above one, files are processed on a worker pool under memory-aware
+ * admission control, see {@link AdmissionController}, in longest-processing-time-first order, see
+ * {@link LongestFirstScheduler}. Per-file timings are kept in {@link JautodocConfiguration#getWorkDirectory()} so that
+ * later runs schedule by measured durations instead of file sizes.
+ * <p>
+ * When {@link JautodocConfiguration#getCacheDirectory()} is set, outputs are also kept in a content-addressed cache
+ * (see {@link OutputCacheCodec}); a file whose exact bytes were processed before with the same settings is written from
+ * the cache without being parsed. A remote HTTP cache ({@link JautodocConfiguration#getRemoteCacheUrl()}) can be
+ * layered behind the local one; any remote failure falls through to local processing.
+ * <p>
+ * With {@link JautodocConfiguration#getChangedLinesRef()} set, git is asked once for the changed lines of every file,
+ * files without changes are left alone, and Javadoc is only generated for declarations overlapping a changed line.
+ * <p>
+ * With {@link JautodocConfiguration#isUseGitIndex()} the git index serves as stat cache: a file whose size and
+ * modification time still match its index entry, and whose blob id is one this engine produced or accepted before (see
+ * {@link ProcessedBlobs}), is reported {@link JautodocOutcome#UP_TO_DATE} without being read.
+ * <p>
+ * With {@link JautodocConfiguration#isProjectFieldIndex()} or an {@link JautodocConfiguration#getInheritedDocMode()} a
+ * {@link ProjectDocIndex} of all files is built first, so that accessors can be described from fields declared in a
+ * superclass in another file and overriding methods from the method they override. It covers
+ * {@link JautodocConfiguration#getIndexSources()} when only part of the project is processed, so that the output of a
+ * file does not depend on which other files are processed with it.
  */
 public final class StandaloneJautodocEngine {
 
+    /** File name of the per-file timing history inside the work directory. */
+    private static final String TIMINGS_FILE = "timings.tsv";
+
+    /** File name of the processed blob ids inside the work directory. */
+    private static final String PROCESSED_BLOBS_FILE = "processed-blobs.txt";
+
+    /** File name of the project-wide Javadoc index inside the work directory. */
+    private static final String DOC_INDEX_FILE = "project-docs.idx";
+
     /** The config. */
     private final JautodocConfiguration config;
 
+    /** The listener. */
+    private JautodocListener listener = JautodocListener.NONE;
+
+    /** Per-file time budget in milliseconds overriding the configured seconds, negative to use the configuration. */
+    private long fileTimeoutMillis = -1;
+
     /**
      * Instantiates a new standalone jautodoc engine.
      *
@@ -48,6 +123,36 @@ public final class StandaloneJautodocEngine {
         this.config = config;
     }
 
+    /**
+     * Sets the listener that receives slow-file and timeout notifications.
+     *
+     * @param listener
+     *            the new listener, null to ignore notifications
+     */
+    public void setListener(final JautodocListener listener) {
+        this.listener = listener != null ? listener : JautodocListener.NONE;
+    }
+
+    /**
+     * Sets a per-file time budget finer than {@link JautodocConfiguration#getFileTimeoutSeconds()}.
+     *
+     * @param fileTimeoutMillis
+     *            the budget in milliseconds, negative to use the configuration
+     */
+    void setFileTimeoutMillis(final long fileTimeoutMillis) {
+        this.fileTimeoutMillis = fileTimeoutMillis;
+    }
+
+    /**
+     * Gets the per-file time budget.
+     *
+     * @return the budget in milliseconds, zero or negative for none
+     */
+    private long timeBudgetMillis() {
+        return this.fileTimeoutMillis >= 0 ? this.fileTimeoutMillis
+                : TimeUnit.SECONDS.toMillis(this.config.getFileTimeoutSeconds());
+    }
+
     /**
      * Processes each file in the list and returns an aggregate result.
      *
@@ -57,36 +162,136 @@ public final class StandaloneJautodocEngine {
      * @return the jautodoc result
      */
     public JautodocResult process(final List<Path> files) {
-        var success = 0;
-        var fail = 0;
-        var skipped = 0;
-        var readOnly = 0;
-
-        final var sourceProcessor = new JavaSourceProcessor(this.config);
+        return this.execute(files, null, null);
+    }
 
+    /**
+     * Checks which files processing would modify, without writing any of them. Files are read from the output cache
+     * when possible, and otherwise only parsed until it is known whether an edit would change them; outputs are never
+     * assembled unless the Eclipse formatter is enabled, whose changes are only known by formatting.
+     * <p>
+     * In fail-fast mode no further file is started once the first one that would change is found, and the files still
+     * in flight are cancelled, so the result holds at least one file but not necessarily all.
+     *
+     * @param files
+     *            the files
+     * @param failFast
+     *            whether to stop at the first file that would change
+     *
+     * @return the files that would change, in the order of {@code files}, with the outcome counts; a file that could
+     *         not be checked is counted as skipped or timed out, not as a violation
+     */
+    public JautodocCheckResult check(final List<Path> files, final boolean failFast) {
+        final var check = new Check(failFast);
+        final var result = this.execute(files, check, null);
+        final List<Path> violations = new ArrayList<>();
         for (final Path file : files) {
-            if (!Files.exists(file)) {
-                fail++;
-                continue;
-            }
-            if (!Files.isWritable(file)) {
-                readOnly++;
-                continue;
+            if (check.violations.contains(file)) {
+                violations.add(file);
             }
-            try {
-                final var original = Files.readString(file, StandardCharsets.UTF_8);
-                final var result = this.processSource(original, sourceProcessor);
+        }
+        return new JautodocCheckResult(violations, result);
+    }
+
+    /**
+     * Reports the changes processing would make as a unified diff, without writing any file. The diff of each file is
+     * built from its edits as soon as the file is finished and handed to
+     * {@link JautodocListener#fileDiff(Path, String)}, so nothing is kept for the files already done. Changes of the
+     * Eclipse formatter are not included, so the output cache is not used and no file is recorded as processed.
+     *
+     * @param files
+     *            the files
+     * @param baseDirectory
+     *            the directory the paths in the diff are relative to, null for the paths as given
+     *
+     * @return the jautodoc result; files that would change are reported to the listener only
+     */
+    public JautodocResult dryRun(final List<Path> files, final Path baseDirectory) {
+        return this.execute(files, null, baseDirectory != null ? baseDirectory.toAbsolutePath().normalize()
+                : Path.of(""));
+    }
+
+    /**
+     * Processes, checks or diffs the files.
+     *
+     * @param files
+     *            the files
+     * @param check
+     *            the state of a check, null to process and write the files
+     * @param diffBase
+     *            the directory diff paths are relative to in a dry run, null to process the files; the empty path
+     *            keeps them as given
+     *
+     * @return the jautodoc result
+     */
+    private JautodocResult execute(final List<Path> files, final Check check, final Path diffBase) {
+        final var counts = new AtomicIntegerArray(JautodocOutcome.values().length);
+
+        final var sourceProcessor = new JavaSourceProcessor(this.config);
+        final var workDirectory = this.config.getWorkDirectory();
+        final var scheduler = new LongestFirstScheduler(
+                workDirectory != null ? workDirectory.resolve(StandaloneJautodocEngine.TIMINGS_FILE) : null);
 
-                if (!result.equals(original)) {
-                    Files.writeString(file, result, StandardCharsets.UTF_8);
+        // Output then also depends on other files and the classpath, so the index digests salt the caches. Which
+        // supertypes a file resolves is only known after parsing it, which a cache hit avoids, so the whole index is
+        // the salt: editing any indexed field or method doc misses every cached output of the next run
+        final var docIndex = StandaloneJautodocEngine.buildDocIndex(this.config, files, this.timeBudgetMillis(),
+                this.listener);
+        sourceProcessor.setProjectDocIndex(docIndex);
+        final var overrideIndex = this.buildOverrideIndex(files);
+        sourceProcessor.setOverrideIndex(overrideIndex);
+        final var sourceJarIndex = this.openSourceJarIndex();
+        sourceProcessor.setSourceJarDocIndex(sourceJarIndex);
+        final var coverage = new JavadocCoverage();
+        if (this.config.isCollectCoverage()) {
+            sourceProcessor.setCoverage(coverage);
+        }
+        var salt = this.config.fingerprint();
+        if (docIndex != null) {
+            salt += docIndex.getDigest();
+        }
+        if (overrideIndex != null) {
+            salt += overrideIndex.getDigest();
+        }
+        if (sourceJarIndex != null) {
+            salt += sourceJarIndex.getDigest();
+        }
+        final var cacheSalt = OutputCacheCodec.salt(salt);
+
+        final var changedLines = this.loadChangedLines(files);
+
+        final var gitIndex = this.openGitIndex(files);
+        final var processedBlobs = gitIndex != null ? new ProcessedBlobs(
+                workDirectory.resolve(StandaloneJautodocEngine.PROCESSED_BLOBS_FILE), cacheSalt, gitIndex.isSha256())
+                : null;
+
+        var concurrency = 1;
+        try (var watchdog = new ProcessingWatchdog(TimeUnit.SECONDS.toMillis(this.config.getSlowFileWarningSeconds()),
+                (file, elapsed) -> this.listener.fileStillRunning(file, elapsed)); var cache = this.openCache()) {
+            final var run = new Run(sourceProcessor, watchdog, scheduler, cache, cacheSalt, changedLines, gitIndex,
+                    processedBlobs, check, diffBase);
+            if (this.config.getThreads() <= 1) {
+                for (final Path file : files) {
+                    if (run.isStopped()) {
+                        break;
+                    }
+                    final var outcome = this.processFile(file, run);
+                    counts.incrementAndGet(outcome.ordinal());
+                    this.listener.fileProcessed(file, outcome);
                 }
-                success++;
-            } catch (final Exception e) {
-                skipped++;
+            } else {
+                concurrency = this.processConcurrently(scheduler.order(files), run, counts);
             }
         }
+        scheduler.save();
+        if (processedBlobs != null) {
+            processedBlobs.save(gitIndex.blobIds());
+        }
 
-        return new JautodocResult(success, fail, skipped, readOnly);
+        return new JautodocResult(counts.get(JautodocOutcome.SUCCESS.ordinal()),
+                counts.get(JautodocOutcome.MISSING.ordinal()), counts.get(JautodocOutcome.SKIPPED.ordinal()),
+                counts.get(JautodocOutcome.READ_ONLY.ordinal()), counts.get(JautodocOutcome.TIMED_OUT.ordinal()),
+                concurrency, counts.get(JautodocOutcome.UP_TO_DATE.ordinal()), coverage);
     }
 
     /**
@@ -98,13 +303,498 @@ public final class StandaloneJautodocEngine {
      * @return the string
      */
     public String processSource(final String source) {
-        return this.processSource(source, new JavaSourceProcessor(this.config));
+        return this.processSource(source, new JavaSourceProcessor(this.config), null, null);
     }
 
     // -------------------------------------------------------------------------
     // Private helpers
     // -------------------------------------------------------------------------
 
+    /**
+     * Processes the files on a fixed worker pool. Files are admitted one by one through an {@link AdmissionController}
+     * so that the estimated working set of everything in flight stays under
+     * {@link JautodocConfiguration#getMaxInFlightBytes()}; a file that does not fit waits here, in order, until enough
+     * running files have finished.
+     * <p>
+     * In adaptive mode ({@link JautodocConfiguration#isAdaptiveThreads()}) the pool is sized to the upper bound and an
+     * {@link AdaptiveConcurrencyController} decides how many of its threads may work at once.
+     *
+     * @param files
+     *            the files
+     * @param run
+     *            the state shared by all files of this run
+     * @param counts
+     *            the outcome counters
+     *
+     * @return the number of workers, averaged over the run in adaptive mode
+     */
+    private int processConcurrently(final List<Path> files, final Run run, final AtomicIntegerArray counts) {
+        final var admission = new AdmissionController(this.resolveMaxInFlightBytes());
+        final var threadIds = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(this.config.getThreads(), r -> {
+            final var thread = new Thread(r, "jautodoc-worker-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final var adaptive = this.config.isAdaptiveThreads()
+                ? new AdaptiveConcurrencyController(this.config.getMinThreads(), this.config.getThreads())
+                : null;
+        final List<Future<?>> futures = new ArrayList<>(files.size());
+        try {
+            for (final Path file : files) {
+                if (run.isStopped()) {
+                    break;
+                }
+                final var size = this.sizeOf(file);
+                final var granted = admission.acquire(AdmissionController.estimateWorkingSet(size));
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (adaptive != null) {
+                            adaptive.acquire();
+                        }
+                        try {
+                            if (run.isStopped()) {
+                                // Queued before a fail-fast check stopped
+                                return null;
+                            }
+                            final var outcome = this.processFile(file, run);
+                            counts.incrementAndGet(outcome.ordinal());
+                            this.listener.fileProcessed(file, outcome);
+                        } finally {
+                            if (adaptive != null) {
+                                adaptive.release(size);
+                            }
+                        }
+                    } finally {
+                        admission.release(granted);
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            return adaptive != null ? adaptive.getAverageLimit() : this.config.getThreads();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing sources", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof final Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Unable to process sources", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            if (adaptive != null) {
+                adaptive.close();
+            }
+        }
+    }
+
+    /**
+     * Asks git for the changed lines of every file when {@link JautodocConfiguration#getChangedLinesRef()} is set.
+     *
+     * @param files
+     *            the files
+     *
+     * @return the changed line ranges keyed by real path, or null when edits are not restricted
+     */
+    private Map<Path, List<int[]>> loadChangedLines(final List<Path> files) {
+        final var ref = this.config.getChangedLinesRef();
+        if (ref == null || files.isEmpty()) {
+            return null;
+        }
+        try {
+            final var directory = files.get(0).toAbsolutePath().getParent();
+            final Map<Path, List<int[]>> changed = new HashMap<>();
+            GitRepository.open(directory).changedLines(ref)
+                    .forEach((path, lines) -> changed.put(StandaloneJautodocEngine.realPath(path), lines));
+            return changed;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Unable to read changes since " + ref, e);
+        }
+    }
+
+    /**
+     * Builds the project-wide Javadoc index when {@link JautodocConfiguration#isProjectDocIndexUsed()}, over
+     * {@link JautodocConfiguration#getIndexSources()} or else the processed files, reusing the stored index for
+     * unchanged files.
+     *
+     * @param config
+     *            the config
+     * @param files
+     *            the processed files
+     * @param timeoutMillis
+     *            the time budget of each parse in milliseconds
+     * @param listener
+     *            told about files left out because their parse exceeded the budget
+     *
+     * @return the field doc index, or null when not used
+     */
+    static ProjectDocIndex buildDocIndex(final JautodocConfiguration config, final List<Path> files,
+            final long timeoutMillis, final JautodocListener listener) {
+        if (!config.isProjectDocIndexUsed()) {
+            return null;
+        }
+        return ProjectDocIndex.build(config.getIndexSources().isEmpty() ? files : config.getIndexSources(),
+                StandaloneJautodocEngine.docIndexFile(config), Math.max(1, config.getThreads()), timeoutMillis,
+                listener::indexTimedOut);
+    }
+
+    /**
+     * Gets the stored project doc index of a configuration.
+     *
+     * @param config
+     *            the config
+     *
+     * @return the index file, or null when none is kept
+     */
+    static Path docIndexFile(final JautodocConfiguration config) {
+        if (config.getDocIndexFile() != null) {
+            return config.getDocIndexFile();
+        }
+        return config.getWorkDirectory() != null
+                ? config.getWorkDirectory().resolve(StandaloneJautodocEngine.DOC_INDEX_FILE)
+                : null;
+    }
+
+    /**
+     * Opens the index of the library source jars when {@link JautodocConfiguration#getInheritedDocMode()} is set and
+     * there are {@link JautodocConfiguration#getSourceJars()}, scanning only jars not indexed by an earlier build.
+     *
+     * @return the source jar doc index, or null when not used
+     */
+    private SourceJarDocIndex openSourceJarIndex() {
+        if (this.config.getInheritedDocMode() == InheritedDocMode.NONE || this.config.getSourceJars().isEmpty()
+                || this.config.isHeaderOnly()) {
+            return null;
+        }
+        return SourceJarDocIndex.open(this.config.getSourceJars(), this.config.getSourceJarIndexDirectory());
+    }
+
+    /**
+     * Resolves the files against the classpath when {@link JautodocConfiguration#isResolveOverrides()} is set, to find
+     * overriding methods without an {@code @Override} annotation. A file exceeding the per-file time budget cancels
+     * the pass, and the run goes on with the empty index.
+     *
+     * @param files
+     *            the files
+     *
+     * @return the override index, or null when not used
+     */
+    private OverrideIndex buildOverrideIndex(final List<Path> files) {
+        if (!this.config.isResolveOverrides() || this.config.isHeaderOnly()) {
+            return null;
+        }
+        if (!this.config.isExcludeOverrides() && this.config.getPackageRules().isEmpty()) {
+            // Nothing would exclude an override, so knowing them changes nothing
+            return null;
+        }
+        final List<Path> existing = new ArrayList<>(files.size());
+        for (final Path file : files) {
+            if (Files.isRegularFile(file)) {
+                existing.add(file);
+            }
+        }
+        final var monitor = new DeadlineProgressMonitor(this.timeBudgetMillis());
+        final var start = System.nanoTime();
+        try {
+            return OverrideIndex.build(existing, this.config.getClasspath(), this.config.getSourcepath(), monitor);
+        } catch (final OperationCanceledException e) {
+            this.listener.indexTimedOut(null, Duration.ofNanos(System.nanoTime() - start));
+            return OverrideIndex.EMPTY;
+        }
+    }
+
+    /**
+     * Reads the git index of the repository containing the files when {@link JautodocConfiguration#isUseGitIndex()}
+     * is set. Processed blob ids are kept in the work directory, so one is required.
+     *
+     * @param files
+     *            the files
+     *
+     * @return the git index, or null when it is not used or there is none
+     */
+    private GitIndex openGitIndex(final List<Path> files) {
+        if (!this.config.isUseGitIndex() || this.config.getWorkDirectory() == null
+                || this.config.getChangedLinesRef() != null || this.config.isCollectCoverage() || files.isEmpty()) {
+            // In changed-lines mode the output depends on the diff, not only on the content; coverage needs every file
+            return null;
+        }
+        return GitIndex.locate(files.get(0).toAbsolutePath().getParent());
+    }
+
+    /**
+     * Resolves symbolic links so that paths reported by git and the paths being processed compare equal.
+     *
+     * @param path
+     *            the path
+     *
+     * @return the real path, or the normalized absolute path when it does not exist
+     */
+    static Path realPath(final Path path) {
+        try {
+            return path.toRealPath();
+        } catch (final IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Counts the lines of a text.
+     *
+     * @param text
+     *            the text
+     *
+     * @return the number of line breaks
+     */
+    private static int lineCount(final String text) {
+        var count = 0;
+        for (var i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Opens the configured output caches: local, remote, or the local one in front of the remote one.
+     *
+     * @return the cache, or null when caching is disabled
+     */
+    private OutputCache openCache() {
+        if (this.config.getChangedLinesRef() != null) {
+            // Output then depends on the diff as well as the content
+            return null;
+        }
+        final var directory = this.config.getCacheDirectory();
+        final OutputCache local = directory != null ? new LocalOutputCache(directory, this.config.getCacheMaxBytes())
+                : null;
+        final var url = this.config.getRemoteCacheUrl();
+        final OutputCache remote = url != null
+                ? new HttpOutputCache(url, this.config.getRemoteCacheTimeoutMillis(), this.config.isRemoteCachePush())
+                : null;
+        if (local != null && remote != null) {
+            return new TieredOutputCache(local, remote);
+        }
+        return local != null ? local : remote;
+    }
+
+    /**
+     * Resolves the in-flight byte budget, defaulting to half of the maximum heap.
+     *
+     * @return the budget in bytes
+     */
+    private long resolveMaxInFlightBytes() {
+        final var configured = this.config.getMaxInFlightBytes();
+        return configured > 0 ? configured : Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    /**
+     * Returns the size of the file, or zero when it cannot be determined.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the size in bytes
+     */
+    private long sizeOf(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (final IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * Processes a single file under its time budget.
+     *
+     * @param file
+     *            the file
+     * @param run
+     *            the state shared by all files of this run
+     *
+     * @return the outcome
+     */
+    private JautodocOutcome processFile(final Path file, final Run run) {
+        if (!Files.exists(file)) {
+            return JautodocOutcome.MISSING;
+        }
+        if (run.check == null && run.diffBase == null && !Files.isWritable(file)) {
+            return JautodocOutcome.READ_ONLY;
+        }
+        final var changedLines = run.changedLinesOf(file);
+        if (changedLines != null && changedLines.isEmpty()) {
+            // Untouched by the diff: nothing to do, not even the header
+            return JautodocOutcome.SUCCESS;
+        }
+        if (run.processedBlobs != null && run.processedBlobs
+                .contains(run.gitIndex.cleanBlobId(StandaloneJautodocEngine.realPath(file)))) {
+            return JautodocOutcome.UP_TO_DATE;
+        }
+        final var monitor = new DeadlineProgressMonitor(this.timeBudgetMillis());
+        final var start = System.nanoTime();
+        run.watchdog.start(file);
+        if (run.check != null) {
+            run.check.started(monitor);
+        }
+        try {
+            final var bytes = Files.readAllBytes(file);
+            final var original = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+            final var cache = run.cache;
+            final var key = cache != null ? OutputCacheCodec.key(run.cacheSalt, bytes) : null;
+            if (run.diffBase != null) {
+                return this.diffFile(file, run, monitor, changedLines, original, start);
+            }
+            // A cached output skips the parse that coverage is counted in
+            var result = cache != null && !this.config.isCollectCoverage()
+                    ? OutputCacheCodec.decode(original, cache.get(key))
+                    : null;
+            final var hit = result != null;
+            if (run.check != null) {
+                return this.checkFile(file, run, monitor, changedLines, bytes, original, hit ? result : null, start);
+            }
+            if (!hit) {
+                result = this.processSource(original, run.sourceProcessor, monitor, changedLines);
+                if (cache != null) {
+                    cache.put(key, OutputCacheCodec.encode(original, result));
+                }
+            }
+
+            final var output = result.equals(original) ? bytes : result.getBytes(StandardCharsets.UTF_8);
+            if (output != bytes) {
+                Files.write(file, output);
+                this.listener.fileWritten(file);
+            }
+            if (run.processedBlobs != null) {
+                run.processedBlobs.record(output);
+            }
+            if (!hit) {
+                run.scheduler.record(file, original.length(), System.nanoTime() - start);
+            }
+            return JautodocOutcome.SUCCESS;
+        } catch (final OperationCanceledException e) {
+            if (monitor.isTimedOut()) {
+                this.listener.fileTimedOut(file, Duration.ofNanos(System.nanoTime() - start));
+                return JautodocOutcome.TIMED_OUT;
+            }
+            return JautodocOutcome.SKIPPED;
+        } catch (final Exception e) {
+            return JautodocOutcome.SKIPPED;
+        } finally {
+            run.watchdog.finish(file);
+            if (run.check != null) {
+                run.check.finished(monitor);
+            }
+        }
+    }
+
+    /**
+     * Reports the diff of a file to the listener. The blob is never recorded as processed, even without a diff: the
+     * diff leaves out Eclipse formatter changes, which a real run would still make.
+     *
+     * @param file
+     *            the file
+     * @param run
+     *            the state shared by all files of this run
+     * @param monitor
+     *            the per-file deadline monitor
+     * @param changedLines
+     *            the changed lines of the file, null when edits are not restricted
+     * @param original
+     *            the decoded content
+     * @param start
+     *            the start time in nanoseconds
+     *
+     * @return {@link JautodocOutcome#WOULD_CHANGE} or {@link JautodocOutcome#SUCCESS}
+     */
+    private JautodocOutcome diffFile(final Path file, final Run run, final DeadlineProgressMonitor monitor,
+            final List<int[]> changedLines, final String original, final long start) {
+        final var headed = HeaderProcessor.process(original, this.config);
+        final var regions = changedLines != null ? ChangedRegions.ofLines(headed, changedLines,
+                StandaloneJautodocEngine.lineCount(headed) - StandaloneJautodocEngine.lineCount(original)) : null;
+        final var edits = run.sourceProcessor.edits(headed, monitor, regions);
+        final var diff = UnifiedDiff.format(run.diffPath(file), original, headed, edits);
+        run.scheduler.record(file, original.length(), System.nanoTime() - start);
+        if (diff.isEmpty()) {
+            return JautodocOutcome.SUCCESS;
+        }
+        this.listener.fileDiff(file, diff);
+        return JautodocOutcome.WOULD_CHANGE;
+    }
+
+    /**
+     * Checks whether processing would change a file, recording it as a violation if so.
+     *
+     * @param file
+     *            the file
+     * @param run
+     *            the state shared by all files of this run
+     * @param monitor
+     *            the per-file deadline monitor
+     * @param changedLines
+     *            the changed lines of the file, null when edits are not restricted
+     * @param bytes
+     *            the content of the file
+     * @param original
+     *            the decoded content
+     * @param cached
+     *            the cached output, null on a cache miss
+     * @param start
+     *            the start time in nanoseconds
+     *
+     * @return {@link JautodocOutcome#WOULD_CHANGE} or {@link JautodocOutcome#SUCCESS}
+     */
+    private JautodocOutcome checkFile(final Path file, final Run run, final DeadlineProgressMonitor monitor,
+            final List<int[]> changedLines, final byte[] bytes, final String original, final String cached,
+            final long start) {
+        final boolean changed;
+        if (cached != null) {
+            changed = !cached.equals(original);
+        } else {
+            changed = this.wouldChange(original, run.sourceProcessor, monitor, changedLines);
+            run.scheduler.record(file, original.length(), System.nanoTime() - start);
+        }
+        if (changed) {
+            run.check.violation(file);
+            return JautodocOutcome.WOULD_CHANGE;
+        }
+        if (run.processedBlobs != null) {
+            run.processedBlobs.record(bytes);
+        }
+        return JautodocOutcome.SUCCESS;
+    }
+
+    /**
+     * Checks whether {@link #processSource(String, JavaSourceProcessor, DeadlineProgressMonitor, List)} would change a
+     * source, stopping at the first step that does.
+     *
+     * @param source
+     *            the source
+     * @param sourceProcessor
+     *            the source processor
+     * @param monitor
+     *            the per-file deadline monitor, may be null
+     * @param changedLines
+     *            the changed line ranges, null to process every declaration
+     *
+     * @return true, if the source would change
+     */
+    private boolean wouldChange(final String source, final JavaSourceProcessor sourceProcessor,
+            final DeadlineProgressMonitor monitor, final List<int[]> changedLines) {
+        if (this.config.isUseEclipseFormatter()) {
+            // Whether the formatter changes anything is only known by formatting
+            return !this.processSource(source, sourceProcessor, monitor, changedLines).equals(source);
+        }
+        final var headed = HeaderProcessor.process(source, this.config);
+        if (!headed.equals(source)) {
+            return true;
+        }
+        final var regions = changedLines != null ? ChangedRegions.ofLines(headed, changedLines, 0) : null;
+        return sourceProcessor.wouldChange(headed, monitor, regions);
+    }
+
     /**
      * Process source.
      *
@@ -112,20 +802,30 @@ public final class StandaloneJautodocEngine {
      *            the source
      * @param sourceProcessor
      *            the source processor
+     * @param monitor
+     *            the per-file deadline monitor, may be null
+     * @param changedLines
+     *            the changed line ranges of {@code source} to restrict Javadoc edits to, null for no restriction
      *
      * @return the string
      */
-    private String processSource(final String source, final JavaSourceProcessor sourceProcessor) {
+    private String processSource(final String source, final JavaSourceProcessor sourceProcessor,
+            final DeadlineProgressMonitor monitor, final List<int[]> changedLines) {
         var result = source;
 
         // 1. Header
         result = HeaderProcessor.process(result, this.config);
 
-        // 2. Javadoc
-        result = sourceProcessor.process(result);
+        // 2. Javadoc, shifting changed lines by however many lines the header step added or removed
+        final var regions = changedLines != null ? ChangedRegions.ofLines(result, changedLines,
+                StandaloneJautodocEngine.lineCount(result) - StandaloneJautodocEngine.lineCount(source)) : null;
+        result = sourceProcessor.process(result, monitor, regions);
 
         // 3. Eclipse formatter (optional)
         if (this.config.isUseEclipseFormatter()) {
+            if (monitor != null) {
+                monitor.checkCanceled();
+            }
             result = this.format(result);
         }
 
@@ -158,4 +858,188 @@ public final class StandaloneJautodocEngine {
         }
         return doc.get();
     }
+
+    /**
+     * State shared by all files of one {@link StandaloneJautodocEngine#process(List)} call.
+     */
+    private static final class Run {
+
+        /** The source processor. */
+        final JavaSourceProcessor sourceProcessor;
+
+        /** The watchdog tracking in-flight files. */
+        final ProcessingWatchdog watchdog;
+
+        /** The scheduler recording per-file timings. */
+        final LongestFirstScheduler scheduler;
+
+        /** The output cache, may be null. */
+        final OutputCache cache;
+
+        /** The salt of cache keys. */
+        final String cacheSalt;
+
+        /** Changed line ranges keyed by real path, null when edits are not restricted. */
+        final Map<Path, List<int[]>> changedLines;
+
+        /** The git index, null when not used. */
+        final GitIndex gitIndex;
+
+        /** The blob ids known to be processed, null when the git index is not used. */
+        final ProcessedBlobs processedBlobs;
+
+        /** The state of a check, null when files are processed and written. */
+        final Check check;
+
+        /** The directory diff paths are relative to in a dry run, null when files are processed and written. */
+        final Path diffBase;
+
+        /**
+         * Instantiates a new run.
+         *
+         * @param sourceProcessor
+         *            the source processor
+         * @param watchdog
+         *            the watchdog
+         * @param scheduler
+         *            the scheduler
+         * @param cache
+         *            the cache
+         * @param cacheSalt
+         *            the cache salt
+         * @param changedLines
+         *            the changed lines
+         * @param gitIndex
+         *            the git index
+         * @param processedBlobs
+         *            the processed blobs
+         * @param check
+         *            the check
+         * @param diffBase
+         *            the diff base
+         */
+        Run(final JavaSourceProcessor sourceProcessor, final ProcessingWatchdog watchdog,
+                final LongestFirstScheduler scheduler, final OutputCache cache, final String cacheSalt,
+                final Map<Path, List<int[]>> changedLines, final GitIndex gitIndex,
+                final ProcessedBlobs processedBlobs, final Check check, final Path diffBase) {
+            this.sourceProcessor = sourceProcessor;
+            this.watchdog = watchdog;
+            this.scheduler = scheduler;
+            this.cache = cache;
+            this.cacheSalt = cacheSalt;
+            this.changedLines = changedLines;
+            this.gitIndex = gitIndex;
+            this.processedBlobs = processedBlobs;
+            this.check = check;
+            this.diffBase = diffBase;
+        }
+
+        /**
+         * Gets the path of a file as shown in a diff.
+         *
+         * @param file
+         *            the file
+         *
+         * @return the path relative to the diff base when below it, with forward slashes
+         */
+        String diffPath(final Path file) {
+            var path = file;
+            if (!this.diffBase.toString().isEmpty()) {
+                final var absolute = file.toAbsolutePath().normalize();
+                path = absolute.startsWith(this.diffBase) ? this.diffBase.relativize(absolute) : absolute;
+            }
+            return path.toString().replace('\\', '/');
+        }
+
+        /**
+         * Checks if a fail-fast check has found a file that would change, so no further file should be started.
+         *
+         * @return true, if stopped
+         */
+        boolean isStopped() {
+            return this.check != null && this.check.stopped;
+        }
+
+        /**
+         * Changed line ranges of a file; an empty list for a file git reports as unchanged.
+         *
+         * @param file
+         *            the file
+         *
+         * @return the ranges, or null when edits are not restricted
+         */
+        List<int[]> changedLinesOf(final Path file) {
+            if (this.changedLines == null) {
+                return null;
+            }
+            return this.changedLines.getOrDefault(StandaloneJautodocEngine.realPath(file), List.of());
+        }
+    }
+
+    /**
+     * State of one {@link StandaloneJautodocEngine#check(List, boolean)} call.
+     */
+    private static final class Check {
+
+        /** Whether to stop at the first file that would change. */
+        private final boolean failFast;
+
+        /** The files that would change. */
+        final Set<Path> violations = ConcurrentHashMap.newKeySet();
+
+        /** The monitors of the files in flight, cancelled when a fail-fast check stops. */
+        private final Set<DeadlineProgressMonitor> inFlight = ConcurrentHashMap.newKeySet();
+
+        /** Set once a fail-fast check found a file that would change. */
+        volatile boolean stopped;
+
+        /**
+         * Instantiates a new check.
+         *
+         * @param failFast
+         *            the fail fast
+         */
+        Check(final boolean failFast) {
+            this.failFast = failFast;
+        }
+
+        /**
+         * Registers the monitor of a file being started, cancelling it right away if the check already stopped.
+         *
+         * @param monitor
+         *            the monitor
+         */
+        void started(final DeadlineProgressMonitor monitor) {
+            this.inFlight.add(monitor);
+            if (this.stopped) {
+                monitor.setCanceled(true);
+            }
+        }
+
+        /**
+         * Unregisters the monitor of a finished file.
+         *
+         * @param monitor
+         *            the monitor
+         */
+        void finished(final DeadlineProgressMonitor monitor) {
+            this.inFlight.remove(monitor);
+        }
+
+        /**
+         * Records a file that would change; in fail-fast mode, stops the check and cancels the files in flight.
+         *
+         * @param file
+         *            the file
+         */
+        void violation(final Path file) {
+            this.violations.add(file);
+            if (this.failFast) {
+                this.stopped = true;
+                for (final DeadlineProgressMonitor monitor : this.inFlight) {
+                    monitor.setCanceled(true);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core;
+
+import com.hazendaz.maven.jautodoc.core.internal.OutputCacheCodec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fingerprint of a source tree built from file metadata only, used to skip a run when nothing changed since the last
+ * successful one.
+ * <p>
+ * The stamp covers the sorted absolute paths of the files with their sizes and modification times, the configuration
+ * fingerprint, the plugin version and any settings the caller keeps outside the configuration. The fingerprint leaves
+ * out the sourcepath and index sources, whose content also shapes the output when overrides are resolved or docs are
+ * inherited, so those entries are added the same way, by path, size and modification time. So are the dependency
+ * files, the classpath and source jars, which the caller passes separately: resolving them costs more than the
+ * stamp saves, so a stored stamp keeps the list a run resolved, and the next run stamps that list instead. A
+ * directory entry only changes with its own timestamp, not with every file below it. No file is read, and
+ * this class deliberately depends on nothing that pulls in JDT, so a build whose stamp matches never loads the parser
+ * or formatter classes.
+ */
+public final class TreeStamp {
+
+    /**
+     * Instantiates a new tree stamp.
+     */
+    private TreeStamp() {
+    }
+
+    /**
+     * Computes the stamp of the files for a configuration.
+     *
+     * @param files
+     *            the files
+     * @param config
+     *            the config
+     * @param settings
+     *            further settings that are not part of {@code config}, such as unparsed parameters
+     * @param dependencies
+     *            the classpath entries and source jars the output depends on
+     *
+     * @return the stamp as hex
+     */
+    public static String compute(final List<Path> files, final JautodocConfiguration config, final String settings,
+            final List<Path> dependencies) {
+        final List<String> paths = new ArrayList<>(files.size());
+        for (final Path file : files) {
+            paths.add(file.toAbsolutePath().normalize().toString());
+        }
+        paths.sort(null);
+
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(OutputCacheCodec.salt(config.fingerprint()).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update((settings != null ? settings : "").getBytes(StandardCharsets.UTF_8));
+        for (final String path : paths) {
+            digest.update((byte) '\n');
+            digest.update(TreeStamp.identity(Path.of(path)).getBytes(StandardCharsets.UTF_8));
+        }
+        TreeStamp.update(digest, "sourcepath", config.getSourcepath());
+        TreeStamp.update(digest, "dependencies", dependencies);
+        if (config.isProjectDocIndexUsed()) {
+            final List<Path> indexSources = new ArrayList<>(config.getIndexSources());
+            indexSources.sort(null);
+            TreeStamp.update(digest, "indexSources", indexSources);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds the identities of a list of files to a digest.
+     *
+     * @param digest
+     *            the digest
+     * @param name
+     *            the name of the list, so that equal entries of different lists differ
+     * @param files
+     *            the files
+     */
+    private static void update(final MessageDigest digest, final String name, final List<Path> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        digest.update(("\n[" + name + ']').getBytes(StandardCharsets.UTF_8));
+        for (final Path file : files) {
+            digest.update((byte) '\n');
+            digest.update(TreeStamp.identity(file).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Describes a file by its absolute path, size and modification time, without reading it.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the identity, ending in {@code ?} when the file cannot be found
+     */
+    public static String identity(final Path file) {
+        final var path = file.toAbsolutePath().normalize().toString();
+        try {
+            final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return path + '\t' + attributes.size() + '\t' + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        } catch (final IOException e) {
+            return path + '?';
+        }
+    }
+
+    /**
+     * Reads a stored stamp.
+     *
+     * @param file
+     *            the stamp file
+     *
+     * @return the stamp, or null when there is none
+     */
+    public static String read(final Path file) {
+        try {
+            final var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            return lines.isEmpty() ? null : lines.get(0).trim();
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the dependency files stored with a stamp.
+     *
+     * @param file
+     *            the stamp file
+     *
+     * @return the dependencies, empty when there is no stamp
+     */
+    public static List<Path> readDependencies(final Path file) {
+        final List<Path> dependencies = new ArrayList<>();
+        try {
+            final var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (final String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                if (!line.isEmpty()) {
+                    dependencies.add(Path.of(line));
+                }
+            }
+        } catch (final IOException e) {
+            // no stamp
+        }
+        return dependencies;
+    }
+
+    /**
+     * Stores a stamp.
+     *
+     * @param file
+     *            the stamp file
+     * @param stamp
+     *            the stamp
+     * @param dependencies
+     *            the dependency files the stamp was computed with, one per line after the stamp
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    public static void write(final Path file, final String stamp, final List<Path> dependencies) throws IOException {
+        final List<String> lines = new ArrayList<>(dependencies.size() + 1);
+        lines.add(stamp);
+        for (final Path dependency : dependencies) {
+            lines.add(dependency.toString());
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+}
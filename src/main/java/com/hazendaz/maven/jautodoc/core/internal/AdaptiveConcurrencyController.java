@@ -0,0 +1,273 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Grows or shrinks the number of workers allowed to process files at the same time, within fixed bounds.
+ * <p>
+ * Workers call {@link #acquire()} before and {@link #release(long)} after each file. A sampling thread measures the
+ * source bytes completed per second, so that a few large files do not read as a slowdown, and the fraction of wall time
+ * spent in garbage collection, then hill-climbs: it keeps moving the limit in the current direction while throughput
+ * improves, reverses when throughput drops, and always backs off when GC overhead is high. A window in which fewer than
+ * {@value #MIN_COMPLETIONS} files finished is widened instead of judged, and a window in which no worker waited for a
+ * permit, such as the tail of a run, leaves the limit alone because the limit did not bound the work. Waits are
+ * counted in {@link #acquire()}, so a worker that waited and got its permit before the sample still counts. The pool
+ * itself is sized to the upper bound; the limit only gates how many of those threads work at once.
+ */
+public final class AdaptiveConcurrencyController implements AutoCloseable {
+
+    /** Sampling interval in milliseconds. */
+    private static final long SAMPLE_MILLIS = 500;
+
+    /** Fraction of wall time spent in GC above which the controller backs off. */
+    private static final double GC_PRESSURE_LIMIT = 0.20;
+
+    /** Relative throughput drop treated as a regression rather than noise. */
+    private static final double REGRESSION = 0.05;
+
+    /** Files that must finish within a window before its throughput is compared. */
+    private static final int MIN_COMPLETIONS = 4;
+
+    /** The lower bound. */
+    private final int min;
+
+    /** The upper bound. */
+    private final int max;
+
+    /** Gate for active workers. */
+    private final ResizableSemaphore permits;
+
+    /** Files completed so far. */
+    private final AtomicLong completed = new AtomicLong();
+
+    /** Source bytes of the files completed so far. */
+    private final AtomicLong completedBytes = new AtomicLong();
+
+    /** Acquires that found no free permit and had to wait. */
+    private final AtomicLong waits = new AtomicLong();
+
+    /** Creation timestamp. */
+    private final long startNanos;
+
+    /** The sampling scheduler. */
+    private final ScheduledExecutorService sampler;
+
+    /** The current limit; only written by the sampling thread. */
+    private volatile int limit;
+
+    /** +1 while growing, -1 while shrinking. */
+    private int direction = 1;
+
+    /** Throughput of the previous sample, bytes per second. */
+    private double lastThroughput = -1;
+
+    /** Completed count at the previous sample. */
+    private long lastCompleted;
+
+    /** Completed bytes at the previous sample. */
+    private long lastCompletedBytes;
+
+    /** Wait count at the previous sample. */
+    private long lastWaits;
+
+    /** Sum of each limit held multiplied by the nanoseconds it was held, up to {@link #limitSinceNanos}. */
+    private double limitNanos;
+
+    /** Timestamp at which the current limit took effect. */
+    private long limitSinceNanos;
+
+    /** Accumulated GC milliseconds at the previous sample. */
+    private long lastGcMillis;
+
+    /** Timestamp of the previous sample. */
+    private long lastSampleNanos;
+
+    /**
+     * Instantiates a new adaptive concurrency controller.
+     *
+     * @param min
+     *            the minimum number of active workers
+     * @param max
+     *            the maximum number of active workers
+     */
+    public AdaptiveConcurrencyController(final int min, final int max) {
+        this.max = Math.max(1, max);
+        this.min = Math.max(1, Math.min(min, this.max));
+        this.limit = Math.max(this.min, Math.min(this.max, Runtime.getRuntime().availableProcessors()));
+        this.permits = new ResizableSemaphore(this.limit);
+        this.lastGcMillis = AdaptiveConcurrencyController.gcMillis();
+        this.startNanos = System.nanoTime();
+        this.lastSampleNanos = this.startNanos;
+        this.limitSinceNanos = this.startNanos;
+        this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var thread = new Thread(r, "jautodoc-concurrency");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sampler.scheduleAtFixedRate(this::sample, AdaptiveConcurrencyController.SAMPLE_MILLIS,
+                AdaptiveConcurrencyController.SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Blocks until the worker may start on a file.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        if (!this.permits.tryAcquire()) {
+            this.waits.incrementAndGet();
+            this.permits.acquire();
+        }
+    }
+
+    /**
+     * Signals that the worker finished a file.
+     *
+     * @param bytes
+     *            the size of the file
+     */
+    public void release(final long bytes) {
+        this.completedBytes.addAndGet(bytes);
+        this.completed.incrementAndGet();
+        this.permits.release();
+    }
+
+    /**
+     * Gets the current worker limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Gets the limit averaged over the time since this controller was created, weighting each limit by how long it was
+     * held.
+     *
+     * @return the average limit, rounded
+     */
+    public synchronized int getAverageLimit() {
+        final var now = System.nanoTime();
+        final var elapsed = now - this.startNanos;
+        if (elapsed <= 0) {
+            return this.limit;
+        }
+        final var total = this.limitNanos + (double) this.limit * (now - this.limitSinceNanos);
+        return (int) Math.max(this.min, Math.min(this.max, Math.round(total / elapsed)));
+    }
+
+    /**
+     * Takes one sample and adjusts the limit.
+     */
+    private void sample() {
+        final var now = System.nanoTime();
+        final var done = this.completed.get();
+        final var doneBytes = this.completedBytes.get();
+        final var waited = this.waits.get();
+        final var gc = AdaptiveConcurrencyController.gcMillis();
+        final var elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(now - this.lastSampleNanos));
+        final var gcFraction = (double) (gc - this.lastGcMillis) / elapsedMillis;
+        final var pressure = gcFraction > AdaptiveConcurrencyController.GC_PRESSURE_LIMIT;
+        if (!pressure && done - this.lastCompleted < AdaptiveConcurrencyController.MIN_COMPLETIONS) {
+            // Too few files to tell a trend from one slow file; keep measuring over a longer window
+            return;
+        }
+        final var throughput = (doneBytes - this.lastCompletedBytes) * 1000.0 / elapsedMillis;
+        this.lastSampleNanos = now;
+        this.lastCompleted = done;
+        this.lastCompletedBytes = doneBytes;
+        this.lastGcMillis = gc;
+        final var bounded = waited != this.lastWaits || this.permits.hasQueuedThreads();
+        this.lastWaits = waited;
+        if (!pressure && !bounded) {
+            // No worker waited for a permit at any time in this window, so the limit did not bound it
+            return;
+        }
+
+        if (pressure) {
+            this.direction = -1;
+        } else if (this.lastThroughput >= 0
+                && throughput < this.lastThroughput * (1 - AdaptiveConcurrencyController.REGRESSION)) {
+            this.direction = -this.direction;
+        }
+        this.lastThroughput = throughput;
+
+        final var target = Math.max(this.min, Math.min(this.max, this.limit + this.direction));
+        if (target > this.limit) {
+            this.permits.release();
+        } else if (target < this.limit) {
+            this.permits.reducePermits(1);
+        }
+        this.setLimit(target, now);
+    }
+
+    /**
+     * Records a new limit for {@link #getAverageLimit()}.
+     *
+     * @param target
+     *            the new limit
+     * @param now
+     *            the current timestamp
+     */
+    private synchronized void setLimit(final int target, final long now) {
+        this.limitNanos += (double) this.limit * (now - this.limitSinceNanos);
+        this.limitSinceNanos = now;
+        this.limit = target;
+    }
+
+    /**
+     * Total collection time reported by all garbage collectors.
+     *
+     * @return the accumulated GC time in milliseconds
+     */
+    private static long gcMillis() {
+        var total = 0L;
+        for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, bean.getCollectionTime());
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        this.sampler.shutdownNow();
+    }
+
+    /**
+     * Semaphore whose permit count can be lowered while permits are held.
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        /** The constant serialVersionUID. */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Instantiates a new resizable semaphore.
+         *
+         * @param permits
+         *            the initial permits
+         */
+        ResizableSemaphore(final int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(final int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+/**
+ * Caps the estimated number of bytes held by files that are being processed concurrently.
+ * <p>
+ * While a file is in flight it holds its source {@code String}, the {@code char[]} copy handed to the parser, the AST
+ * and the {@code StringBuilder} used to apply edits, all at the same time. {@link #estimateWorkingSet(long)} turns a
+ * file length into a rough working-set estimate, and {@link #acquire(long)} blocks until that estimate fits under the
+ * budget. A file whose estimate exceeds the whole budget is admitted only once nothing else is in flight, so it is
+ * processed alone instead of being rejected.
+ */
+public final class AdmissionController {
+
+    /**
+     * Approximate heap bytes needed per byte of UTF-8 source: two UTF-16 copies (string and parser buffer), the edit
+     * buffer, and an AST that typically weighs in at ten to twenty times the source size.
+     */
+    private static final long WORKING_SET_FACTOR = 24;
+
+    /** The budget in bytes. */
+    private final long capacity;
+
+    /** The bytes currently admitted. */
+    private long inFlight;
+
+    /**
+     * Instantiates a new admission controller.
+     *
+     * @param capacity
+     *            the maximum number of estimated bytes in flight; must be positive
+     */
+    public AdmissionController(final long capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Estimates the heap working set needed to process a file of the given length.
+     *
+     * @param fileLength
+     *            the file length in bytes
+     *
+     * @return the estimated working set in bytes
+     */
+    public static long estimateWorkingSet(final long fileLength) {
+        return Math.max(1, fileLength) * AdmissionController.WORKING_SET_FACTOR;
+    }
+
+    /**
+     * Blocks until {@code bytes} can be admitted without exceeding the budget, then reserves them. Requests larger than
+     * the budget are clamped to it, which admits them only when nothing else is in flight.
+     *
+     * @param bytes
+     *            the estimated working set
+     *
+     * @return the number of bytes actually reserved, to be handed back to {@link #release(long)}
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public synchronized long acquire(final long bytes) throws InterruptedException {
+        final var granted = Math.min(Math.max(1, bytes), this.capacity);
+        while (this.inFlight > 0 && this.inFlight + granted > this.capacity) {
+            this.wait();
+        }
+        this.inFlight += granted;
+        return granted;
+    }
+
+    /**
+     * Releases a reservation made by {@link #acquire(long)}.
+     *
+     * @param granted
+     *            the value returned by {@link #acquire(long)}
+     */
+    public synchronized void release(final long granted) {
+        this.inFlight -= granted;
+        this.notifyAll();
+    }
+
+    /**
+     * Gets the bytes currently in flight.
+     *
+     * @return the in flight bytes
+     */
+    public synchronized long getInFlight() {
+        return this.inFlight;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Character ranges of a source that were touched by a change, used to restrict Javadoc generation to the declarations a
+ * diff actually touched.
+ * <p>
+ * Built from 1-based line ranges as reported by a zero-context diff. A range of zero lines (a pure deletion) names the
+ * line after which lines were removed, 0 for the top of the file, and becomes an empty range at the start of the
+ * following line, so a declaration that lost lines still counts as touched. Ranges are sorted and merged, and
+ * {@link #overlaps(int, int)} is a binary search.
+ */
+public final class ChangedRegions {
+
+    /** Sorted, non-overlapping {@code [start, end]} offset pairs, inclusive on both ends. */
+    private final int[] bounds;
+
+    /**
+     * Instantiates new changed regions.
+     *
+     * @param bounds
+     *            the bounds
+     */
+    private ChangedRegions(final int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Converts line ranges to character ranges of {@code source}.
+     *
+     * @param source
+     *            the source the line numbers refer to, after shifting
+     * @param lineRanges
+     *            {@code {firstLine, lineCount}} pairs, 1-based
+     * @param lineShift
+     *            lines to add to every line number, e.g. when a header was inserted above the diffed content
+     *
+     * @return the changed regions
+     */
+    public static ChangedRegions ofLines(final String source, final List<int[]> lineRanges, final int lineShift) {
+        final List<Integer> lineStarts = new ArrayList<>();
+        lineStarts.add(0);
+        for (var i = 0; i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                lineStarts.add(i + 1);
+            }
+        }
+
+        final List<int[]> ranges = new ArrayList<>(lineRanges.size());
+        for (final int[] lines : lineRanges) {
+            if (lines[1] <= 0) {
+                // Pure deletion after line 'after', 0 at the top: an empty range at the start of the next line
+                final var after = Math.max(0, lines[0] + lineShift);
+                final var at = ChangedRegions.lineStart(lineStarts, after + 1, source.length());
+                ranges.add(new int[] { at, at });
+            } else {
+                final var first = Math.max(1, lines[0] + lineShift);
+                final long last = (long) first + lines[1] - 1;
+                final var start = ChangedRegions.lineStart(lineStarts, first, source.length());
+                final var end = last >= lineStarts.size() ? source.length()
+                        : ChangedRegions.lineStart(lineStarts, (int) last + 1, source.length()) - 1;
+                ranges.add(new int[] { start, Math.max(start, end) });
+            }
+        }
+        ranges.sort(Comparator.comparingInt((final int[] r) -> r[0]));
+
+        final var merged = new int[ranges.size() * 2];
+        var size = 0;
+        for (final int[] range : ranges) {
+            if (size > 0 && range[0] <= merged[size - 1] + 1) {
+                merged[size - 1] = Math.max(merged[size - 1], range[1]);
+            } else {
+                merged[size++] = range[0];
+                merged[size++] = range[1];
+            }
+        }
+        return new ChangedRegions(Arrays.copyOf(merged, size));
+    }
+
+    /**
+     * A single changed character range, as reported by an editor.
+     *
+     * @param start
+     *            the start offset
+     * @param end
+     *            the end offset, exclusive; equal to {@code start} for a caret position
+     *
+     * @return the changed regions
+     */
+    public static ChangedRegions ofOffsets(final int start, final int end) {
+        return new ChangedRegions(new int[] { start, Math.max(start, end - 1) });
+    }
+
+    /**
+     * Checks whether any changed range intersects {@code [start, end]}, both inclusive.
+     *
+     * @param start
+     *            the start offset
+     * @param end
+     *            the end offset
+     *
+     * @return true, if the span was touched
+     */
+    public boolean overlaps(final int start, final int end) {
+        // Find the first range whose end is >= start
+        var low = 0;
+        var high = this.bounds.length / 2;
+        while (low < high) {
+            final var mid = (low + high) >>> 1;
+            if (this.bounds[mid * 2 + 1] < start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < this.bounds.length / 2 && this.bounds[low * 2] <= end;
+    }
+
+    /**
+     * Checks if no line was changed.
+     *
+     * @return true, if empty
+     */
+    public boolean isEmpty() {
+        return this.bounds.length == 0;
+    }
+
+    /**
+     * Offset of the start of a 1-based line, clamped to the source length.
+     *
+     * @param lineStarts
+     *            the line start offsets
+     * @param line
+     *            the line
+     * @param length
+     *            the source length
+     *
+     * @return the offset
+     */
+    private static int lineStart(final List<Integer> lineStarts, final int line, final int length) {
+        return line - 1 < lineStarts.size() ? lineStarts.get(line - 1) : length;
+    }
+}
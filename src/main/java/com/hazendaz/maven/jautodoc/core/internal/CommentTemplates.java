@@ -0,0 +1,371 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * User-defined comment templates, matched on element kind, name and type, in the spirit of the regex templates of the
+ * Eclipse JAutodoc plugin.
+ * <p>
+ * A template is written {@code <kind> <name regex> [returns <type regex>] -> <text>}, where kind is one of
+ * {@code type}, {@code field}, {@code constructor}, {@code method}, {@code param}, {@code return} or {@code throws}.
+ * The name regex must match the whole element name (the class name for constructors, the method name for return
+ * tags), the type regex the whole declared type (field and parameter type, method return type). Templates are tried in
+ * order and the first match wins; without a match the built-in text is used. The text may use {@code ${name}},
+ * {@code ${type}}, the capture groups {@code ${1}} to {@code ${9}} (numbered across the name and then the type regex),
+ * and the suffixes {@code .words} (lower case words) and {@code .Words} (first word capitalized) on any of them, for
+ * example {@code method (add|remove)(\w+)Listener -> ${1.Words}s a ${2.words} listener.}
+ * <p>
+ * All regexes are compiled once into a single alternation, one named group per template, that is matched against
+ * {@code kind \u0001 name \u0001 type}. Rendered results, including misses, are memoized per subject, so repeated
+ * signatures cost a map lookup.
+ */
+public final class CommentTemplates {
+
+    /** No templates. */
+    static final CommentTemplates NONE = new CommentTemplates(List.of(), null);
+
+    /** The element kinds. */
+    private static final List<String> KINDS = List.of("type", "field", "constructor", "method", "param", "return",
+            "throws");
+
+    /** Separator of the subject parts, never part of a Java name or type. */
+    private static final char SEPARATOR = '\u0001';
+
+    /** A variable reference in template text. */
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{(name|type|[1-9])(?:\\.(words|Words))?\\}");
+
+    /** The start of a named group in a user regex. */
+    private static final Pattern NAMED_GROUP = Pattern.compile("\\(\\?<[a-zA-Z]");
+
+    /** The compiled templates, in priority order. */
+    private final List<Template> templates;
+
+    /** The combined matcher, null without templates. */
+    private final Pattern combined;
+
+    /** Rendered text by subject, empty for a miss. */
+    private final DeclarationMemo<Optional<String>> memo = new DeclarationMemo<>(8192);
+
+    /**
+     * Instantiates new comment templates.
+     *
+     * @param templates
+     *            the templates
+     * @param combined
+     *            the combined
+     */
+    private CommentTemplates(final List<Template> templates, final Pattern combined) {
+        this.templates = templates;
+        this.combined = combined;
+    }
+
+    /**
+     * Compiles templates.
+     *
+     * @param definitions
+     *            the template definitions
+     *
+     * @return the comment templates
+     *
+     * @throws IllegalArgumentException
+     *             if a definition is malformed
+     */
+    static CommentTemplates compile(final List<String> definitions) {
+        if (definitions.isEmpty()) {
+            return CommentTemplates.NONE;
+        }
+        final List<Template> templates = new ArrayList<>(definitions.size());
+        final var alternation = new StringBuilder();
+        var group = 1;
+        for (final String definition : definitions) {
+            final var template = CommentTemplates.parse(definition, group);
+            if (!alternation.isEmpty()) {
+                alternation.append('|');
+            }
+            alternation.append("(?<t").append(templates.size()).append('>').append(Pattern.quote(template.kind))
+                    .append(CommentTemplates.SEPARATOR).append("(?:").append(template.nameRegex).append(')')
+                    .append(CommentTemplates.SEPARATOR).append("(?:").append(template.typeRegex).append("))");
+            group += 1 + template.groupCount;
+            templates.add(template);
+        }
+        return new CommentTemplates(List.copyOf(templates), Pattern.compile(alternation.toString()));
+    }
+
+    /**
+     * Validates a template definition.
+     *
+     * @param definition
+     *            the definition
+     *
+     * @throws IllegalArgumentException
+     *             if the definition is malformed
+     */
+    public static void validate(final String definition) {
+        CommentTemplates.parse(definition, 1);
+    }
+
+    /**
+     * Checks if there is no template.
+     *
+     * @return true, if empty
+     */
+    boolean isEmpty() {
+        return this.templates.isEmpty();
+    }
+
+    /**
+     * Renders the first template matching the element.
+     *
+     * @param kind
+     *            the element kind
+     * @param name
+     *            the element name
+     * @param type
+     *            the declared type, empty when there is none
+     * @param words
+     *            splits an identifier into lower case words
+     *
+     * @return the rendered text, or null when no template matches
+     */
+    String render(final String kind, final String name, final String type, final UnaryOperator<String> words) {
+        if (this.combined == null) {
+            return null;
+        }
+        final var subject = kind + CommentTemplates.SEPARATOR + name + CommentTemplates.SEPARATOR + type;
+        return this.memo.get(subject, () -> {
+            final var matcher = this.combined.matcher(subject);
+            if (!matcher.matches()) {
+                return Optional.empty();
+            }
+            for (var i = 0; i < this.templates.size(); i++) {
+                if (matcher.start("t" + i) >= 0) {
+                    return Optional.of(this.templates.get(i).render(matcher, name, type, words));
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Parses a template definition.
+     *
+     * @param definition
+     *            the definition
+     * @param firstGroup
+     *            the index of the template's group in the combined pattern
+     *
+     * @return the template
+     */
+    private static Template parse(final String definition, final int firstGroup) {
+        final var arrow = definition.indexOf(" -> ");
+        if (arrow < 0) {
+            throw new IllegalArgumentException(
+                    "Template must be '<kind> <name regex> [returns <type regex>] -> <text>': " + definition);
+        }
+        final var head = definition.substring(0, arrow).trim().split("\\s+");
+        final var text = definition.substring(arrow + 4).trim();
+        if (head.length != 2 && (head.length != 4 || !"returns".equals(head[2]))) {
+            throw new IllegalArgumentException(
+                    "Template must be '<kind> <name regex> [returns <type regex>] -> <text>': " + definition);
+        }
+        final var kind = head[0].toLowerCase(Locale.ROOT);
+        if (!CommentTemplates.KINDS.contains(kind)) {
+            throw new IllegalArgumentException("Unknown kind '" + head[0] + "' in template: " + definition
+                    + ", expected one of " + CommentTemplates.KINDS);
+        }
+        final var nameRegex = CommentTemplates.unanchor(head[1]);
+        final var typeRegex = head.length == 4 ? CommentTemplates.unanchor(head[3]) : ".*";
+        final int groupCount;
+        try {
+            groupCount = Pattern.compile(nameRegex).matcher("").groupCount()
+                    + Pattern.compile(typeRegex).matcher("").groupCount();
+        } catch (final PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid regex in template: " + definition, e);
+        }
+        if (CommentTemplates.hasNamedGroup(nameRegex) || CommentTemplates.hasNamedGroup(typeRegex)) {
+            throw new IllegalArgumentException("Named groups are not supported in templates: " + definition);
+        }
+
+        final List<Object> parts = new ArrayList<>();
+        final var matcher = CommentTemplates.VARIABLE.matcher(text);
+        var last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                parts.add(text.substring(last, matcher.start()));
+            }
+            final var variable = matcher.group(1);
+            final var group = Character.isDigit(variable.charAt(0)) ? Integer.parseInt(variable) : 0;
+            if (group > groupCount) {
+                throw new IllegalArgumentException("Template refers to group " + group + " but its regexes have "
+                        + groupCount + ": " + definition);
+            }
+            parts.add(new Variable(variable, group > 0 ? firstGroup + group : 0, matcher.group(2)));
+            last = matcher.end();
+        }
+        if (last < text.length()) {
+            parts.add(text.substring(last));
+        }
+        return new Template(kind, nameRegex, typeRegex, groupCount, List.copyOf(parts));
+    }
+
+    /**
+     * Strips the anchors of a regex, which always has to match a whole subject part and is embedded in the combined
+     * pattern where {@code ^} and {@code $} would never match.
+     *
+     * @param regex
+     *            the regex
+     *
+     * @return the regex without leading {@code ^} and trailing {@code $}
+     */
+    private static String unanchor(final String regex) {
+        var result = regex;
+        if (result.startsWith("^")) {
+            result = result.substring(1);
+        }
+        if (result.endsWith("$") && !result.endsWith("\\$")) {
+            result = result.substring(0, result.length() - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Checks for a named group, whose name could clash with the template groups of the combined pattern.
+     *
+     * @param regex
+     *            the regex
+     *
+     * @return true, if the regex declares a named group
+     */
+    private static boolean hasNamedGroup(final String regex) {
+        return CommentTemplates.NAMED_GROUP.matcher(regex).find();
+    }
+
+    /**
+     * A compiled template.
+     */
+    private static final class Template {
+
+        /** The kind. */
+        final String kind;
+
+        /** The name regex. */
+        final String nameRegex;
+
+        /** The type regex. */
+        final String typeRegex;
+
+        /** The number of capture groups in both regexes. */
+        final int groupCount;
+
+        /** Literal strings and variables. */
+        final List<Object> parts;
+
+        /**
+         * Instantiates a new template.
+         *
+         * @param kind
+         *            the kind
+         * @param nameRegex
+         *            the name regex
+         * @param typeRegex
+         *            the type regex
+         * @param groupCount
+         *            the group count
+         * @param parts
+         *            the parts
+         */
+        Template(final String kind, final String nameRegex, final String typeRegex, final int groupCount,
+                final List<Object> parts) {
+            this.kind = kind;
+            this.nameRegex = nameRegex;
+            this.typeRegex = typeRegex;
+            this.groupCount = groupCount;
+            this.parts = parts;
+        }
+
+        /**
+         * Renders the text for a match.
+         *
+         * @param matcher
+         *            the combined matcher after a successful match
+         * @param name
+         *            the name
+         * @param type
+         *            the type
+         * @param words
+         *            the word splitter
+         *
+         * @return the text
+         */
+        String render(final Matcher matcher, final String name, final String type, final UnaryOperator<String> words) {
+            final var sb = new StringBuilder();
+            for (final Object part : this.parts) {
+                if (part instanceof final Variable variable) {
+                    String value;
+                    if (variable.group > 0) {
+                        value = matcher.group(variable.group);
+                    } else {
+                        value = "name".equals(variable.name) ? name : type;
+                    }
+                    if (value == null) {
+                        value = "";
+                    }
+                    if (variable.format != null) {
+                        value = words.apply(value);
+                        if ("Words".equals(variable.format) && !value.isEmpty()) {
+                            value = Character.toUpperCase(value.charAt(0)) + value.substring(1);
+                        }
+                    }
+                    sb.append(value);
+                } else {
+                    sb.append((String) part);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * A variable reference in template text.
+     */
+    private static final class Variable {
+
+        /** The variable name. */
+        final String name;
+
+        /** The group in the combined pattern, 0 for name and type. */
+        final int group;
+
+        /** The format, words or Words, null for the raw value. */
+        final String format;
+
+        /**
+         * Instantiates a new variable.
+         *
+         * @param name
+         *            the name
+         * @param group
+         *            the group
+         * @param format
+         *            the format
+         */
+        Variable(final String name, final int group, final String format) {
+            this.name = name;
+            this.group = group;
+            this.format = format;
+        }
+    }
+}
@@ -14,10 +14,62 @@ import java.util.Locale;
  * Generates Javadoc description strings from Java element names using Eclipse JAutodoc-compatible camelCase splitting.
  * <p>
  * All generated text matches the patterns produced by the Eclipse JAutodoc plugin so that migrating from the IDE plugin
- * to the Maven plugin produces identical output.
+ * to the Maven plugin produces identical output. User-defined {@link CommentTemplates} are consulted first through
+ * {@link #fromTemplate(String, String, String)}, and a {@link WordDictionary} rewrites the split words.
  */
 final class CommentTextGenerator {
 
+    /** The user-defined templates. */
+    private final CommentTemplates templates;
+
+    /** The word replacements. */
+    private final WordDictionary dictionary;
+
+    /**
+     * Instantiates a new comment text generator without templates or word replacements.
+     */
+    CommentTextGenerator() {
+        this(CommentTemplates.NONE, WordDictionary.NONE);
+    }
+
+    /**
+     * Instantiates a new comment text generator.
+     *
+     * @param templates
+     *            the user-defined templates
+     * @param dictionary
+     *            the word replacements
+     */
+    CommentTextGenerator(final CommentTemplates templates, final WordDictionary dictionary) {
+        this.templates = templates;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Renders the first user-defined template matching an element.
+     *
+     * @param kind
+     *            the element kind, as in {@link CommentTemplates}
+     * @param name
+     *            the element name
+     * @param type
+     *            the declared type, empty when there is none
+     *
+     * @return the text, or null when no template matches
+     */
+    String fromTemplate(final String kind, final String name, final String type) {
+        return this.templates.render(kind, name, type, this::splitCamelCaseLower);
+    }
+
+    /**
+     * Checks for templates.
+     *
+     * @return true, if templates are configured
+     */
+    boolean hasTemplates() {
+        return !this.templates.isEmpty();
+    }
+
     // -------------------------------------------------------------------------
     // Type-level generators
     // -------------------------------------------------------------------------
@@ -249,7 +301,7 @@ final class CommentTextGenerator {
     // -------------------------------------------------------------------------
 
     /**
-     * Split camel case lower.
+     * Split camel case lower, then apply the word replacements.
      *
      * @param name
      *            the name
@@ -261,14 +313,8 @@ final class CommentTextGenerator {
         if (words.isEmpty()) {
             return name != null ? name : "";
         }
-        final var sb = new StringBuilder();
-        for (var i = 0; i < words.size(); i++) {
-            if (i > 0) {
-                sb.append(' ');
-            }
-            sb.append(words.get(i).toLowerCase(Locale.ROOT));
-        }
-        return sb.toString();
+        words.replaceAll(word -> word.toLowerCase(Locale.ROOT));
+        return this.dictionary.apply(words);
     }
 
     /**
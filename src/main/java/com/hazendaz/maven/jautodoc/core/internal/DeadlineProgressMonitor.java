@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * A progress monitor that reports itself as cancelled once a fixed deadline has passed or {@link #setCanceled(boolean)}
+ * has been called.
+ * <p>
+ * Handed to {@code ASTParser.createAST} so that JDT aborts AST conversion with an {@link OperationCanceledException}
+ * when the per-file time budget is exhausted; the Javadoc visitor polls the same monitor between declarations. A pass
+ * over many files, such as {@code ASTParser.createASTs}, {@link #restart() restarts} the budget after each file.
+ */
+public final class DeadlineProgressMonitor extends NullProgressMonitor {
+
+    /** The time budget in nanoseconds. */
+    private final long timeoutNanos;
+
+    /** The deadline as a {@link System#nanoTime()} value, only meaningful when {@link #bounded} is true. */
+    private volatile long deadlineNanos;
+
+    /** Whether a deadline applies at all. */
+    private final boolean bounded;
+
+    /** Set once the deadline has been observed as expired. */
+    private volatile boolean timedOut;
+
+    /**
+     * Instantiates a new deadline progress monitor.
+     *
+     * @param timeoutMillis
+     *            the time budget in milliseconds; zero or negative means no deadline
+     */
+    public DeadlineProgressMonitor(final long timeoutMillis) {
+        this.bounded = timeoutMillis > 0;
+        this.timeoutNanos = this.bounded ? timeoutMillis * 1_000_000L : 0L;
+        this.deadlineNanos = System.nanoTime() + this.timeoutNanos;
+    }
+
+    /**
+     * Grants the whole time budget again from now, unless the deadline has already been observed as expired.
+     */
+    public void restart() {
+        if (!this.timedOut) {
+            this.deadlineNanos = System.nanoTime() + this.timeoutNanos;
+        }
+    }
+
+    @Override
+    public boolean isCanceled() {
+        if (super.isCanceled()) {
+            return true;
+        }
+        if (this.bounded && System.nanoTime() - this.deadlineNanos >= 0) {
+            this.timedOut = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the deadline expired (as opposed to an explicit cancellation).
+     *
+     * @return true, if is timed out
+     */
+    public boolean isTimedOut() {
+        return this.timedOut;
+    }
+
+    /**
+     * Throws {@link OperationCanceledException} when this monitor has been cancelled or its deadline has passed.
+     */
+    public void checkCanceled() {
+        if (this.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    /**
+     * Throws {@link OperationCanceledException} when the given monitor, which may be null, has been cancelled.
+     *
+     * @param monitor
+     *            the monitor
+     */
+    static void checkCanceled(final IProgressMonitor monitor) {
+        if (monitor != null && monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded memo of generated comment bodies keyed by a compact declaration signature, so that the getters, setters and
+ * constructors that repeat across a code base are generated once per run.
+ * <p>
+ * The memo belongs to one {@link JavaSourceProcessor}, whose configuration is fixed, so configuration flags are not
+ * part of the key. It is split into stripes, each an access-ordered map guarded by its own lock, to keep worker threads
+ * from contending on a single lock; each stripe evicts its least recently used entry once full. The same structure
+ * memoizes rendered {@link CommentTemplates} text.
+ *
+ * @param <V>
+ *            the memoized value type
+ */
+public final class DeclarationMemo<V> {
+
+    /** The number of stripes, a power of two. */
+    private static final int STRIPES = 16;
+
+    /** The stripes. */
+    private final List<Stripe<V>> stripes = new ArrayList<>(DeclarationMemo.STRIPES);
+
+    /** The hits. */
+    private final LongAdder hits = new LongAdder();
+
+    /** The misses. */
+    private final LongAdder misses = new LongAdder();
+
+    /** The evictions. */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Instantiates a new declaration memo.
+     *
+     * @param capacity
+     *            the maximum number of entries, spread evenly over the stripes
+     */
+    public DeclarationMemo(final int capacity) {
+        final var perStripe = Math.max(1, capacity / DeclarationMemo.STRIPES);
+        for (var i = 0; i < DeclarationMemo.STRIPES; i++) {
+            this.stripes.add(new Stripe<>(perStripe, this.evictions));
+        }
+    }
+
+    /**
+     * Returns the memoized value for the signature, generating and storing it on a miss. Generation runs outside the
+     * lock; two threads missing the same key at once both generate it.
+     *
+     * @param signature
+     *            the declaration signature
+     * @param generator
+     *            generates the value on a miss
+     *
+     * @return the value
+     */
+    V get(final String signature, final Supplier<V> generator) {
+        final var stripe = this.stripes.get(DeclarationMemo.spread(signature.hashCode()) & DeclarationMemo.STRIPES - 1);
+        V value;
+        synchronized (stripe) {
+            value = stripe.get(signature);
+        }
+        if (value != null) {
+            this.hits.increment();
+            return value;
+        }
+        this.misses.increment();
+        value = generator.get();
+        synchronized (stripe) {
+            stripe.put(signature, value);
+        }
+        return value;
+    }
+
+    /**
+     * Gets the number of lookups answered from the memo.
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that generated a value.
+     *
+     * @return the misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the number of entries evicted to stay within capacity.
+     *
+     * @return the evictions
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the memo.
+     *
+     * @return the hit rate between 0 and 1, 0 before the first lookup
+     */
+    public double getHitRate() {
+        final var h = this.getHits();
+        final var total = h + this.getMisses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Spreads hash bits so that stripes are picked by more than the lowest bits.
+     *
+     * @param hash
+     *            the hash
+     *
+     * @return the spread hash
+     */
+    private static int spread(final int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * A generated comment body: the description and the tag lines, without indentation.
+     */
+    static final class Body {
+
+        /** The description. */
+        final String description;
+
+        /** The tag lines. */
+        final List<String> tags;
+
+        /**
+         * Instantiates a new body.
+         *
+         * @param description
+         *            the description
+         * @param tags
+         *            the tags
+         */
+        Body(final String description, final List<String> tags) {
+            this.description = description;
+            this.tags = List.copyOf(tags);
+        }
+    }
+
+    /**
+     * One stripe: an access-ordered map that evicts its eldest entry once over capacity.
+     *
+     * @param <V>
+     *            the value type
+     */
+    private static final class Stripe<V> extends LinkedHashMap<String, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The capacity. */
+        private final int capacity;
+
+        /** The eviction counter of the memo. */
+        private final transient LongAdder evictions;
+
+        /**
+         * Instantiates a new stripe.
+         *
+         * @param capacity
+         *            the capacity
+         * @param evictions
+         *            the eviction counter
+         */
+        Stripe(final int capacity, final LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+            if (this.size() > this.capacity) {
+                this.evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
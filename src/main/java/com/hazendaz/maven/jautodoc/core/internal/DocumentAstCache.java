@@ -0,0 +1,113 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+/**
+ * Small LRU cache of parsed compilation units keyed by document id, so that an editor asking for edits several times
+ * for the same version of a document parses it only once.
+ * <p>
+ * An entry is reused only for the same version and source length; callers must change the version whenever the text
+ * changes. Access is synchronized, the cached trees are only read afterwards.
+ */
+final class DocumentAstCache {
+
+    /** The maximum number of documents kept. */
+    private final int capacity;
+
+    /** The entries in access order. */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Instantiates a new document AST cache.
+     *
+     * @param capacity
+     *            the maximum number of documents kept
+     */
+    DocumentAstCache(final int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return this.size() > DocumentAstCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached entry for this version of the document.
+     *
+     * @param documentId
+     *            the document id
+     * @param version
+     *            the version
+     * @param source
+     *            the source
+     *
+     * @return the entry, or null when the document was not parsed at this version
+     */
+    synchronized Entry get(final String documentId, final long version, final String source) {
+        final var entry = this.entries.get(documentId);
+        return entry != null && entry.version == version && entry.sourceLength == source.length() ? entry : null;
+    }
+
+    /**
+     * Caches a parsed version of a document, replacing any older version.
+     *
+     * @param documentId
+     *            the document id
+     * @param entry
+     *            the entry
+     */
+    synchronized void put(final String documentId, final Entry entry) {
+        this.entries.put(documentId, entry);
+    }
+
+    /**
+     * A parsed document version.
+     */
+    static final class Entry {
+
+        /** The version. */
+        final long version;
+
+        /** The source length, a guard against callers reusing a version. */
+        final int sourceLength;
+
+        /** The compilation unit. */
+        final CompilationUnit unit;
+
+        /** The field javadoc map of the unit. */
+        final Map<String, String> fieldJavadocMap;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param version
+         *            the version
+         * @param sourceLength
+         *            the source length
+         * @param unit
+         *            the unit
+         * @param fieldJavadocMap
+         *            the field javadoc map
+         */
+        Entry(final long version, final int sourceLength, final CompilationUnit unit,
+                final Map<String, String> fieldJavadocMap) {
+            this.version = version;
+            this.sourceLength = sourceLength;
+            this.unit = unit;
+            this.fieldJavadocMap = fieldJavadocMap;
+        }
+    }
+}
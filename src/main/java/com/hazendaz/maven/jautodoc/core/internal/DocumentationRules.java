@@ -0,0 +1,321 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import com.hazendaz.maven.jautodoc.core.JautodocConfiguration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.Modifier;
+
+/**
+ * Which declarations receive Javadoc, compiled from the global {@link JautodocConfiguration} switches and the
+ * package-scoped overrides of {@link JautodocConfiguration#getPackageRules()}.
+ * <p>
+ * A rule is written {@code <package prefix>: <switch>[=true|false], ...} and applies to the package and all its
+ * subpackages; a switch without value means {@code true}. The switches are {@code types}, {@code fields},
+ * {@code methods}, {@code public}, {@code protected}, {@code package}, {@code private}, {@code getterSetterOnly},
+ * {@code excludeGetterSetter}, {@code excludeOverrides} and {@code skip} (leave the package untouched). For example
+ * {@code com.acme.internal: private=false} or {@code com.acme.generated: skip}.
+ * <p>
+ * Rules are compiled into a trie of package segments. Each node carries the switches of its deepest enclosing rule
+ * applied on top of its parent's, already expanded into a 64-bit decision mask over member kind, visibility,
+ * getter/setter and {@code @Override}. A compilation unit then costs one trie walk and each declaration one bit test.
+ */
+public final class DocumentationRules {
+
+    /** Member kind: type, enum or annotation type. */
+    public static final int TYPE = 0;
+
+    /** Member kind: field. */
+    public static final int FIELD = 1;
+
+    /** Member kind: method. */
+    public static final int METHOD = 2;
+
+    /** Member kind: constructor. */
+    public static final int CONSTRUCTOR = 3;
+
+    /** Visibility index: public. */
+    private static final int PUBLIC = 0;
+
+    /** Visibility index: protected. */
+    private static final int PROTECTED = 1;
+
+    /** Visibility index: package-private. */
+    private static final int PACKAGE = 2;
+
+    /** Visibility index: private. */
+    private static final int PRIVATE = 3;
+
+    /** Switch names in the order of the switch array. */
+    private static final List<String> SWITCHES = List.of("types", "fields", "methods", "public", "protected", "package",
+            "private", "getterSetterOnly", "excludeGetterSetter", "excludeOverrides", "skip");
+
+    /** The root of the trie, for the unnamed package and every package without rule. */
+    private final Node root;
+
+    /**
+     * Instantiates new documentation rules.
+     *
+     * @param root
+     *            the root
+     */
+    private DocumentationRules(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles the rules of a configuration.
+     *
+     * @param config
+     *            the config
+     *
+     * @return the documentation rules
+     *
+     * @throws IllegalArgumentException
+     *             if a rule is malformed
+     */
+    public static DocumentationRules compile(final JautodocConfiguration config) {
+        final var defaults = new Boolean[] { config.isCommentTypes(), config.isCommentFields(),
+                config.isCommentMethods(), config.isVisibilityPublic(), config.isVisibilityProtected(),
+                config.isVisibilityPackage(), config.isVisibilityPrivate(), config.isGetterSetterOnly(),
+                config.isExcludeGetterSetter(), config.isExcludeOverrides(), false };
+        final var root = new Node();
+
+        // Insert rules, later rules for the same prefix overriding earlier ones switch by switch
+        for (final String rule : config.getPackageRules()) {
+            final var parsed = DocumentationRules.parse(rule);
+            var node = root;
+            for (final String segment : parsed.getKey().split("\\.")) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            if (node.overrides == null) {
+                node.overrides = new Boolean[DocumentationRules.SWITCHES.size()];
+            }
+            final var overrides = parsed.getValue();
+            for (var i = 0; i < overrides.length; i++) {
+                if (overrides[i] != null) {
+                    node.overrides[i] = overrides[i];
+                }
+            }
+        }
+        DocumentationRules.resolve(root, defaults);
+        return new DocumentationRules(root);
+    }
+
+    /**
+     * Validates a rule.
+     *
+     * @param rule
+     *            the rule
+     *
+     * @throws IllegalArgumentException
+     *             if the rule is malformed
+     */
+    public static void validate(final String rule) {
+        DocumentationRules.parse(rule);
+    }
+
+    /**
+     * Returns the decision mask of a package.
+     *
+     * @param packageName
+     *            the fully qualified package name, empty for the unnamed package
+     *
+     * @return the decision mask
+     */
+    public long maskFor(final String packageName) {
+        var node = this.root;
+        var mask = node.mask;
+        var start = 0;
+        while (start < packageName.length()) {
+            var end = packageName.indexOf('.', start);
+            if (end < 0) {
+                end = packageName.length();
+            }
+            node = node.children.get(packageName.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            mask = node.mask;
+            start = end + 1;
+        }
+        return mask;
+    }
+
+    /**
+     * Looks a declaration up in a decision mask.
+     *
+     * @param mask
+     *            the mask of the enclosing package
+     * @param kind
+     *            the member kind
+     * @param modifiers
+     *            the modifiers
+     * @param accessor
+     *            whether the method is a getter or setter
+     * @param override
+     *            whether the method is annotated {@code @Override}
+     *
+     * @return true, if the declaration receives Javadoc
+     */
+    public static boolean allows(final long mask, final int kind, final int modifiers, final boolean accessor,
+            final boolean override) {
+        final int visibility;
+        if (Modifier.isPublic(modifiers)) {
+            visibility = DocumentationRules.PUBLIC;
+        } else if (Modifier.isProtected(modifiers)) {
+            visibility = DocumentationRules.PROTECTED;
+        } else if (Modifier.isPrivate(modifiers)) {
+            visibility = DocumentationRules.PRIVATE;
+        } else {
+            visibility = DocumentationRules.PACKAGE;
+        }
+        return (mask >>> DocumentationRules.bit(kind, visibility, accessor, override) & 1L) != 0;
+    }
+
+    /**
+     * Bit index of a decision.
+     *
+     * @param kind
+     *            the kind
+     * @param visibility
+     *            the visibility
+     * @param accessor
+     *            the accessor
+     * @param override
+     *            the override
+     *
+     * @return the bit, 0 to 63
+     */
+    private static int bit(final int kind, final int visibility, final boolean accessor, final boolean override) {
+        return ((kind * 4 + visibility) * 2 + (accessor ? 1 : 0)) * 2 + (override ? 1 : 0);
+    }
+
+    /**
+     * Resolves the effective switches and mask of a node and its subtree.
+     *
+     * @param node
+     *            the node
+     * @param inherited
+     *            the switches of the parent
+     */
+    private static void resolve(final Node node, final Boolean[] inherited) {
+        final var switches = inherited.clone();
+        if (node.overrides != null) {
+            for (var i = 0; i < switches.length; i++) {
+                if (node.overrides[i] != null) {
+                    switches[i] = node.overrides[i];
+                }
+            }
+        }
+        node.mask = DocumentationRules.mask(switches);
+        for (final Node child : node.children.values()) {
+            DocumentationRules.resolve(child, switches);
+        }
+    }
+
+    /**
+     * Expands switches into a decision mask with one bit per member kind, visibility, accessor flag and override flag.
+     *
+     * @param s
+     *            the switches, in {@link #SWITCHES} order
+     *
+     * @return the mask
+     */
+    private static long mask(final Boolean[] s) {
+        if (s[10]) {
+            return 0L;
+        }
+        var mask = 0L;
+        for (var kind = DocumentationRules.TYPE; kind <= DocumentationRules.CONSTRUCTOR; kind++) {
+            for (var visibility = DocumentationRules.PUBLIC; visibility <= DocumentationRules.PRIVATE; visibility++) {
+                for (var a = 0; a < 2; a++) {
+                    for (var o = 0; o < 2; o++) {
+                        final var accessor = a == 1;
+                        final var override = o == 1;
+                        var allowed = s[3 + visibility];
+                        if (kind == DocumentationRules.TYPE) {
+                            allowed &= s[0];
+                        } else if (kind == DocumentationRules.FIELD) {
+                            allowed &= s[1];
+                        } else {
+                            allowed &= s[2] && !(s[9] && override) && !(s[8] && accessor)
+                                    && !(s[7] && !accessor && kind == DocumentationRules.METHOD);
+                        }
+                        if (allowed) {
+                            mask |= 1L << DocumentationRules.bit(kind, visibility, accessor, override);
+                        }
+                    }
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Parses a rule into its package prefix and switch overrides.
+     *
+     * @param rule
+     *            the rule
+     *
+     * @return the prefix and the overrides, null where a switch is not set
+     */
+    private static Map.Entry<String, Boolean[]> parse(final String rule) {
+        final var colon = rule.indexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Package rule must be '<package>: <switch>[=true|false], ...': " + rule);
+        }
+        final var prefix = rule.substring(0, colon).trim();
+        if (prefix.isEmpty() || prefix.startsWith(".") || prefix.endsWith(".") || prefix.contains("..")) {
+            throw new IllegalArgumentException("Invalid package prefix in rule: " + rule);
+        }
+        final var overrides = new Boolean[DocumentationRules.SWITCHES.size()];
+        final Map<String, Integer> index = new HashMap<>();
+        for (var i = 0; i < DocumentationRules.SWITCHES.size(); i++) {
+            index.put(DocumentationRules.SWITCHES.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        for (final String item : rule.substring(colon + 1).split(",")) {
+            final var trimmed = item.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            final var eq = trimmed.indexOf('=');
+            final var name = (eq < 0 ? trimmed : trimmed.substring(0, eq)).trim();
+            final var value = eq < 0 ? "true" : trimmed.substring(eq + 1).trim().toLowerCase(Locale.ROOT);
+            final var i = index.get(name.toLowerCase(Locale.ROOT));
+            if (i == null) {
+                throw new IllegalArgumentException("Unknown switch '" + name + "' in rule: " + rule
+                        + ", expected one of " + DocumentationRules.SWITCHES);
+            }
+            if (!"true".equals(value) && !"false".equals(value)) {
+                throw new IllegalArgumentException("Switch '" + name + "' must be true or false in rule: " + rule);
+            }
+            overrides[i] = Boolean.valueOf(value);
+        }
+        return Map.entry(prefix, overrides);
+    }
+
+    /**
+     * A trie node for one package segment.
+     */
+    private static final class Node {
+
+        /** The children by segment. */
+        final Map<String, Node> children = new HashMap<>();
+
+        /** The switches set by rules for exactly this package, null when there is none. */
+        Boolean[] overrides;
+
+        /** The decision mask. */
+        long mask;
+    }
+}
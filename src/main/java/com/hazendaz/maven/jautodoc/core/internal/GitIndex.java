@@ -0,0 +1,335 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only view of a git index file ({@code .git/index}, versions 2 to 4), used as a stat cache: when a working tree
+ * file still has the size and modification time recorded in the index, its content is the blob the index names, and
+ * that blob's id can be trusted without reading or hashing the file.
+ * <p>
+ * The index is read once, sequentially. Entries in a merge conflict, marked skip-worktree or intent-to-add are ignored.
+ * As in git itself, an entry modified in the same second as (or after) the index was written is "racily clean" and not
+ * trusted. Only size and modification time are compared; inode, device and change time are not portable to read from
+ * Java and are not checked.
+ */
+public final class GitIndex {
+
+    /** Index signature "DIRC". */
+    private static final int SIGNATURE = 0x44495243;
+
+    /** Extended flag: skip-worktree. */
+    private static final int SKIP_WORKTREE = 0x4000;
+
+    /** Extended flag: intent-to-add. */
+    private static final int INTENT_TO_ADD = 0x2000;
+
+    /** The working tree root. */
+    private final Path root;
+
+    /** Whether the repository uses SHA-256 object ids. */
+    private final boolean sha256;
+
+    /** Entries keyed by '/'-separated path relative to the root. */
+    private final Map<String, Entry> entries;
+
+    /** Modification time of the index file in nanoseconds. */
+    private final long indexModifiedNanos;
+
+    /**
+     * Instantiates a new git index.
+     *
+     * @param root
+     *            the root
+     * @param sha256
+     *            the sha 256
+     * @param entries
+     *            the entries
+     * @param indexModifiedNanos
+     *            the index modified nanos
+     */
+    private GitIndex(final Path root, final boolean sha256, final Map<String, Entry> entries,
+            final long indexModifiedNanos) {
+        this.root = root;
+        this.sha256 = sha256;
+        this.entries = entries;
+        this.indexModifiedNanos = indexModifiedNanos;
+    }
+
+    /**
+     * Finds the repository containing {@code directory} and reads its index.
+     *
+     * @param directory
+     *            a directory inside a working tree
+     *
+     * @return the index, or null when there is no repository or its index cannot be read
+     */
+    public static GitIndex locate(final Path directory) {
+        for (var dir = directory.toAbsolutePath().normalize(); dir != null; dir = dir.getParent()) {
+            final var dotGit = dir.resolve(".git");
+            try {
+                if (Files.isDirectory(dotGit)) {
+                    return GitIndex.read(dir.toRealPath(), dotGit);
+                }
+                if (Files.isRegularFile(dotGit)) {
+                    // Linked worktree or submodule: ".git" is a file pointing at the real git directory
+                    final var pointer = Files.readString(dotGit, StandardCharsets.UTF_8).trim();
+                    if (pointer.startsWith("gitdir:")) {
+                        return GitIndex.read(dir.toRealPath(), dir.resolve(pointer.substring(7).trim()));
+                    }
+                    return null;
+                }
+            } catch (final IOException | RuntimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the index of a git directory.
+     *
+     * @param root
+     *            the working tree root
+     * @param gitDir
+     *            the git directory
+     *
+     * @return the git index
+     *
+     * @throws IOException
+     *             if the index is missing or malformed
+     */
+    static GitIndex read(final Path root, final Path gitDir) throws IOException {
+        final var indexFile = gitDir.resolve("index");
+        final var modified = Files.getLastModifiedTime(indexFile).to(TimeUnit.NANOSECONDS);
+        final var sha256 = GitIndex.usesSha256(gitDir);
+        final var hashLength = sha256 ? 32 : 20;
+        final var buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+
+        if (buffer.getInt() != GitIndex.SIGNATURE) {
+            throw new IOException("Not a git index: " + indexFile);
+        }
+        final var version = buffer.getInt();
+        if (version < 2 || version > 4) {
+            throw new IOException("Unsupported git index version " + version + ": " + indexFile);
+        }
+        final var count = buffer.getInt();
+
+        final Map<String, Entry> entries = new HashMap<>(count * 2);
+        var previousPath = new byte[0];
+        for (var i = 0; i < count; i++) {
+            final var start = buffer.position();
+            buffer.getInt(); // ctime seconds
+            buffer.getInt(); // ctime nanoseconds
+            final var mtimeSeconds = buffer.getInt() & 0xffffffffL;
+            final var mtimeNanos = buffer.getInt() & 0xffffffffL;
+            buffer.position(buffer.position() + 16); // dev, ino, mode, uid
+            buffer.getInt(); // gid
+            final var size = buffer.getInt() & 0xffffffffL;
+            final var id = new byte[hashLength];
+            buffer.get(id);
+            final var flags = buffer.getShort() & 0xffff;
+            var extended = 0;
+            if (version >= 3 && (flags & 0x4000) != 0) {
+                extended = buffer.getShort() & 0xffff;
+            }
+
+            final byte[] path;
+            if (version == 4) {
+                final var strip = GitIndex.readVarint(buffer);
+                final var suffix = GitIndex.readNulTerminated(buffer);
+                final var keep = previousPath.length - (int) strip;
+                path = new byte[keep + suffix.length];
+                System.arraycopy(previousPath, 0, path, 0, keep);
+                System.arraycopy(suffix, 0, path, keep, suffix.length);
+            } else {
+                path = GitIndex.readNulTerminated(buffer);
+                // Entries are NUL-padded to a multiple of eight bytes
+                final var length = buffer.position() - start;
+                buffer.position(start + (length + 7 & ~7));
+            }
+            previousPath = path;
+
+            final var stage = flags >> 12 & 0x3;
+            if (stage == 0 && (extended & (GitIndex.SKIP_WORKTREE | GitIndex.INTENT_TO_ADD)) == 0) {
+                final var modifiedNanos = mtimeSeconds * 1_000_000_000L + mtimeNanos;
+                entries.put(new String(path, StandardCharsets.UTF_8),
+                        new Entry(modifiedNanos, mtimeNanos == 0, size, HexFormat.of().formatHex(id)));
+            }
+        }
+        return new GitIndex(root, sha256, entries, modified);
+    }
+
+    /**
+     * Gets the working tree root.
+     *
+     * @return the root
+     */
+    public Path getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Checks if the repository uses SHA-256 object ids.
+     *
+     * @return true, if SHA-256
+     */
+    public boolean isSha256() {
+        return this.sha256;
+    }
+
+    /**
+     * Returns the blob id of {@code file} when its current size and modification time match its index entry.
+     *
+     * @param file
+     *            the file, as a real path
+     *
+     * @return the blob id as hex, or null when the file is not in the index or may have changed
+     */
+    public String cleanBlobId(final Path file) {
+        if (!file.startsWith(this.root)) {
+            return null;
+        }
+        final var entry = this.entries.get(this.root.relativize(file).toString().replace('\\', '/'));
+        if (entry == null) {
+            return null;
+        }
+        try {
+            final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            final var modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            final var sameTime = entry.noNanos
+                    ? TimeUnit.NANOSECONDS.toSeconds(modified) == TimeUnit.NANOSECONDS.toSeconds(entry.modifiedNanos)
+                    : modified == entry.modifiedNanos;
+            // Sizes are stored truncated to 32 bits
+            final var sameSize = (attributes.size() & 0xffffffffL) == entry.size;
+            final var racy = TimeUnit.NANOSECONDS.toSeconds(modified) >= TimeUnit.NANOSECONDS
+                    .toSeconds(this.indexModifiedNanos);
+            return sameTime && sameSize && !racy ? entry.blobId : null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the ids of all blobs the index names.
+     *
+     * @return the blob ids
+     */
+    public Set<String> blobIds() {
+        final Set<String> ids = new HashSet<>(this.entries.size() * 2);
+        for (final Entry entry : this.entries.values()) {
+            ids.add(entry.blobId);
+        }
+        return ids;
+    }
+
+    /**
+     * Reads the extensions.objectFormat setting of the repository configuration.
+     *
+     * @param gitDir
+     *            the git dir
+     *
+     * @return true, if the repository uses SHA-256
+     */
+    private static boolean usesSha256(final Path gitDir) {
+        try {
+            final var config = Files.readString(gitDir.resolve("config"), StandardCharsets.UTF_8)
+                    .toLowerCase(Locale.ROOT).replace(" ", "").replace("\t", "");
+            return config.contains("objectformat=sha256");
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads git's offset varint used by index version 4.
+     *
+     * @param buffer
+     *            the buffer
+     *
+     * @return the value
+     */
+    private static long readVarint(final ByteBuffer buffer) {
+        var b = buffer.get() & 0xff;
+        long value = b & 0x7f;
+        while ((b & 0x80) != 0) {
+            b = buffer.get() & 0xff;
+            value = (value + 1) << 7 | b & 0x7f;
+        }
+        return value;
+    }
+
+    /**
+     * Reads bytes up to and excluding the next NUL, consuming the NUL.
+     *
+     * @param buffer
+     *            the buffer
+     *
+     * @return the bytes
+     */
+    private static byte[] readNulTerminated(final ByteBuffer buffer) {
+        final var start = buffer.position();
+        var end = start;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        final var bytes = new byte[end - start];
+        buffer.get(bytes);
+        buffer.get(); // the NUL
+        return bytes;
+    }
+
+    /**
+     * An index entry.
+     */
+    private static final class Entry {
+
+        /** The modification time in nanoseconds. */
+        final long modifiedNanos;
+
+        /** Whether the index recorded whole seconds only. */
+        final boolean noNanos;
+
+        /** The size, truncated to 32 bits. */
+        final long size;
+
+        /** The blob id. */
+        final String blobId;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param modifiedNanos
+         *            the modified nanos
+         * @param noNanos
+         *            the no nanos
+         * @param size
+         *            the size
+         * @param blobId
+         *            the blob id
+         */
+        Entry(final long modifiedNanos, final boolean noNanos, final long size, final String blobId) {
+            this.modifiedNanos = modifiedNanos;
+            this.noNanos = noNanos;
+            this.size = size;
+            this.blobId = blobId;
+        }
+    }
+}
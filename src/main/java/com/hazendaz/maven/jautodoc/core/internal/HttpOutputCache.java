@@ -0,0 +1,100 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * {@link OutputCache} backed by a remote HTTP server, in the style of the Gradle and Maven build caches: an entry is
+ * fetched with {@code GET <base>/<key>} and uploaded with {@code PUT <base>/<key>}.
+ * <p>
+ * Any status other than 200 on a GET is a miss. The first transport failure (connection refused, timeout) disables the
+ * cache for the rest of the run so that an unreachable server costs one timeout rather than one per file; processing
+ * then simply continues locally.
+ */
+public final class HttpOutputCache implements OutputCache {
+
+    /** The base URI, ending with a slash. */
+    private final URI base;
+
+    /** The request timeout. */
+    private final Duration timeout;
+
+    /** Whether entries are uploaded. */
+    private final boolean push;
+
+    /** The client. */
+    private final HttpClient client;
+
+    /** Set after a transport failure. */
+    private volatile boolean disabled;
+
+    /**
+     * Instantiates a new http output cache.
+     *
+     * @param baseUrl
+     *            the base url
+     * @param timeoutMillis
+     *            the connect and request timeout in milliseconds
+     * @param push
+     *            whether {@link #put(String, byte[])} uploads entries
+     */
+    public HttpOutputCache(final String baseUrl, final int timeoutMillis, final boolean push) {
+        this.base = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.push = push;
+        this.client = HttpClient.newBuilder().connectTimeout(this.timeout).build();
+    }
+
+    @Override
+    public byte[] get(final String key) {
+        if (this.disabled) {
+            return null;
+        }
+        try {
+            final var request = HttpRequest.newBuilder(this.base.resolve(key)).timeout(this.timeout).GET().build();
+            final var response = this.client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 ? response.body() : null;
+        } catch (final IOException | RuntimeException e) {
+            this.disabled = true;
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void put(final String key, final byte[] entry) {
+        if (!this.push || this.disabled) {
+            return;
+        }
+        try {
+            final var request = HttpRequest.newBuilder(this.base.resolve(key)).timeout(this.timeout)
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(entry)).build();
+            this.client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (final IOException | RuntimeException e) {
+            this.disabled = true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if the cache was disabled after a transport failure.
+     *
+     * @return true, if disabled
+     */
+    public boolean isDisabled() {
+        return this.disabled;
+    }
+}
@@ -6,7 +6,9 @@
  */
 package com.hazendaz.maven.jautodoc.core.internal;
 
+import com.hazendaz.maven.jautodoc.core.InheritedDocMode;
 import com.hazendaz.maven.jautodoc.core.JautodocConfiguration;
+import com.hazendaz.maven.jautodoc.core.JavadocCoverage;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -16,10 +18,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
 import org.eclipse.jdt.core.dom.BodyDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
@@ -47,6 +52,12 @@ import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
  * <li>Sort edits by descending offset and apply them to the source {@link StringBuilder} so that earlier offsets are
  * not disturbed.
  * </ol>
+ * <p>
+ * When {@link ChangedRegions} are given, only declarations touched by them receive edits, and subtrees that lie
+ * entirely outside every region are not visited at all.
+ * <p>
+ * Editors use {@link #edits(String, long, String, int, int, IProgressMonitor)} instead, which returns the edits for the
+ * declarations around a changed range without applying them and keeps the parsed tree of recent document versions.
  */
 public final class JavaSourceProcessor {
 
@@ -54,6 +65,20 @@ public final class JavaSourceProcessor {
     private final JautodocConfiguration config;
     /** The generator. */
     private final CommentTextGenerator generator;
+    /** Parsed trees of recently edited documents. */
+    private final DocumentAstCache astCache = new DocumentAstCache(8);
+    /** Generated method comment bodies by declaration signature, shared by all files and threads. */
+    private final DeclarationMemo<DeclarationMemo.Body> memo = new DeclarationMemo<>(4096);
+    /** Which declarations receive Javadoc, per package. */
+    private final DocumentationRules rules;
+    /** Field Javadoc of the other files of the project. */
+    private ProjectDocIndex projectDocIndex = ProjectDocIndex.EMPTY;
+    /** Methods resolved as overriding without an annotation. */
+    private OverrideIndex overrideIndex = OverrideIndex.EMPTY;
+    /** Method Javadoc of library types. */
+    private SourceJarDocIndex sourceJarDocIndex = SourceJarDocIndex.EMPTY;
+    /** Coverage counted by {@link #process(String, IProgressMonitor, ChangedRegions)}, null for none. */
+    private JavadocCoverage coverage;
 
     /**
      * Instantiates a new java source processor.
@@ -63,7 +88,9 @@ public final class JavaSourceProcessor {
      */
     public JavaSourceProcessor(final JautodocConfiguration config) {
         this.config = config;
-        this.generator = new CommentTextGenerator();
+        this.generator = new CommentTextGenerator(CommentTemplates.compile(config.getCommentTemplates()),
+                WordDictionary.compile(config.getWordReplacements()));
+        this.rules = DocumentationRules.compile(config);
     }
 
     /**
@@ -75,31 +102,50 @@ public final class JavaSourceProcessor {
      * @return the string
      */
     public String process(final String source) {
-        if (this.config.isHeaderOnly()) {
-            return source; // header-only mode: skip all Javadoc changes
-        }
-
-        final var parser = ASTParser.newParser(AST.JLS21);
-        parser.setSource(source.toCharArray());
-        parser.setKind(ASTParser.K_COMPILATION_UNIT);
-
-        final Map<String, String> options = JavaCore.getOptions();
-        options.put(JavaCore.COMPILER_SOURCE, "21");
-        options.put(JavaCore.COMPILER_COMPLIANCE, "21");
-        options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, "21");
-        parser.setCompilerOptions(options);
+        return this.process(source, null);
+    }
 
-        final var cu = (CompilationUnit) parser.createAST(null);
+    /**
+     * Processes the given Java source string and returns the (possibly modified) result, aborting with an
+     * {@link org.eclipse.core.runtime.OperationCanceledException} as soon as {@code monitor} reports cancellation.
+     *
+     * @param source
+     *            the source
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     *
+     * @return the string
+     */
+    public String process(final String source, final IProgressMonitor monitor) {
+        return this.process(source, monitor, null);
+    }
 
-        // Pre-build field-name → existing-Javadoc-text map for getterSetterFromField feature
-        final var fieldJavadocMap = this.buildFieldJavadocMap(cu, source);
+    /**
+     * Processes the given Java source string like {@link #process(String, IProgressMonitor)}, restricted to the
+     * declarations that overlap {@code regions}.
+     *
+     * @param source
+     *            the source
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     * @param regions
+     *            the changed regions of {@code source}, null to process every declaration
+     *
+     * @return the string
+     */
+    public String process(final String source, final IProgressMonitor monitor, final ChangedRegions regions) {
+        if (this.config.isHeaderOnly() || regions != null && regions.isEmpty()) {
+            return source; // header-only mode: skip all Javadoc changes
+        }
 
-        final List<JavadocEdit> edits = new ArrayList<>();
-        cu.accept(new JavadocVisitor(source, this.config, this.generator, fieldJavadocMap, edits));
+        final var cu = JavaSourceProcessor.parse(source, monitor);
+        final List<JavadocEdit> edits = this.collectEdits(cu, this.buildFieldJavadocMap(cu, source), source, monitor,
+                regions, this.coverage);
 
         if (edits.isEmpty()) {
             return source;
         }
+        DeadlineProgressMonitor.checkCanceled(monitor);
 
         // Apply in descending offset order to preserve positions
         edits.sort(Comparator.comparingInt((final JavadocEdit e) -> e.offset).reversed());
@@ -111,6 +157,227 @@ public final class JavaSourceProcessor {
         return sb.toString();
     }
 
+    /**
+     * Checks whether {@link #process(String, IProgressMonitor, ChangedRegions)} would change the source, without
+     * applying any edit.
+     *
+     * @param source
+     *            the source
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     * @param regions
+     *            the changed regions of {@code source}, null to process every declaration
+     *
+     * @return true, if an edit would change the text
+     */
+    public boolean wouldChange(final String source, final IProgressMonitor monitor, final ChangedRegions regions) {
+        return !this.edits(source, monitor, regions).isEmpty();
+    }
+
+    /**
+     * Returns the edits {@link #process(String, IProgressMonitor, ChangedRegions)} would apply, leaving out those that
+     * replace a comment by the same text.
+     *
+     * @param source
+     *            the source
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     * @param regions
+     *            the changed regions of {@code source}, null to process every declaration
+     *
+     * @return the edits in ascending offset order
+     */
+    public List<JavadocEdit> edits(final String source, final IProgressMonitor monitor, final ChangedRegions regions) {
+        if (this.config.isHeaderOnly() || regions != null && regions.isEmpty()) {
+            return List.of();
+        }
+        final var cu = JavaSourceProcessor.parse(source, monitor);
+        final var edits = this.collectEdits(cu, this.buildFieldJavadocMap(cu, source), source, monitor, regions,
+                this.coverage);
+        edits.sort(Comparator.comparingInt((final JavadocEdit e) -> e.offset));
+        return edits;
+    }
+
+    /**
+     * Gets the memo of generated method comments, for its hit and eviction counts.
+     *
+     * @return the declaration memo
+     */
+    public DeclarationMemo<?> getDeclarationMemo() {
+        return this.memo;
+    }
+
+    /**
+     * Sets the project-wide field Javadoc index consulted by {@code getterSetterFromField} for fields declared in a
+     * superclass in another file.
+     *
+     * @param projectDocIndex
+     *            the new field doc index, null for none
+     */
+    public void setProjectDocIndex(final ProjectDocIndex projectDocIndex) {
+        this.projectDocIndex = projectDocIndex != null ? projectDocIndex : ProjectDocIndex.EMPTY;
+    }
+
+    /**
+     * Sets the methods resolved with bindings as overriding a supertype method, which {@code excludeOverrides} then
+     * treats like methods annotated with {@code @Override}.
+     *
+     * @param overrideIndex
+     *            the new override index, null for none
+     */
+    public void setOverrideIndex(final OverrideIndex overrideIndex) {
+        this.overrideIndex = overrideIndex != null ? overrideIndex : OverrideIndex.EMPTY;
+    }
+
+    /**
+     * Sets the method Javadoc of library types, consulted by {@code inheritedDocMode} for methods overriding a
+     * library method.
+     *
+     * @param sourceJarDocIndex
+     *            the new source jar doc index, null for none
+     */
+    public void setSourceJarDocIndex(final SourceJarDocIndex sourceJarDocIndex) {
+        this.sourceJarDocIndex = sourceJarDocIndex != null ? sourceJarDocIndex : SourceJarDocIndex.EMPTY;
+    }
+
+    /**
+     * Sets the coverage that every processed file adds its counts to, in the same pass that collects its edits. A file
+     * adds its counts only once its edits are complete, so a cancelled file is not counted.
+     *
+     * @param coverage
+     *            the new coverage, null to count nothing
+     */
+    public void setCoverage(final JavadocCoverage coverage) {
+        this.coverage = coverage;
+    }
+
+    /**
+     * Returns the edits for the declarations that intersect {@code [start, end)} of a document, without applying them,
+     * leaving out those that replace a comment by the same text. The parsed tree is cached per document, so repeated
+     * calls for the same version skip parsing.
+     *
+     * @param documentId
+     *            identifies the document, for example its path
+     * @param version
+     *            the document version; must change whenever the text changes
+     * @param source
+     *            the text of that version
+     * @param start
+     *            the start offset of the changed range
+     * @param end
+     *            the end offset of the changed range, exclusive; equal to {@code start} for a caret position
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     *
+     * @return the edits in ascending offset order, like {@link #edits(String, IProgressMonitor, ChangedRegions)}; apply
+     *         them from last to first so that earlier offsets stay valid
+     */
+    public List<JavadocEdit> edits(final String documentId, final long version, final String source, final int start,
+            final int end, final IProgressMonitor monitor) {
+        if (this.config.isHeaderOnly()) {
+            return List.of();
+        }
+        var cached = this.astCache.get(documentId, version, source);
+        if (cached == null) {
+            final var cu = JavaSourceProcessor.parse(source, monitor);
+            cached = new DocumentAstCache.Entry(version, source.length(), cu, this.buildFieldJavadocMap(cu, source));
+            this.astCache.put(documentId, cached);
+        }
+        final var edits = this.collectEdits(cached.unit, cached.fieldJavadocMap, source, monitor,
+                ChangedRegions.ofOffsets(start, end), null);
+        edits.sort(Comparator.comparingInt((final JavadocEdit e) -> e.offset));
+        return edits;
+    }
+
+    /**
+     * Parses a compilation unit without bindings.
+     *
+     * @param source
+     *            the source
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     *
+     * @return the compilation unit
+     */
+    private static CompilationUnit parse(final String source, final IProgressMonitor monitor) {
+        return JavaSourceProcessor.parse(source, monitor, false);
+    }
+
+    /**
+     * Parses a compilation unit without bindings.
+     *
+     * @param source
+     *            the source
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     * @param declarationsOnly
+     *            whether to skip method bodies, for callers that only look at declarations
+     *
+     * @return the compilation unit
+     */
+    static CompilationUnit parse(final String source, final IProgressMonitor monitor,
+            final boolean declarationsOnly) {
+        final var parser = ASTParser.newParser(AST.JLS21);
+        parser.setSource(source.toCharArray());
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setIgnoreMethodBodies(declarationsOnly);
+        parser.setCompilerOptions(JavaSourceProcessor.compilerOptions());
+
+        return (CompilationUnit) parser.createAST(monitor);
+    }
+
+    /**
+     * Gets the compiler options of every parse, for Java 21 sources.
+     *
+     * @return the compiler options
+     */
+    static Map<String, String> compilerOptions() {
+        final Map<String, String> options = JavaCore.getOptions();
+        options.put(JavaCore.COMPILER_SOURCE, "21");
+        options.put(JavaCore.COMPILER_COMPLIANCE, "21");
+        options.put(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, "21");
+        return options;
+    }
+
+    /**
+     * Walks the compilation unit and collects the edits.
+     *
+     * @param cu
+     *            the cu
+     * @param fieldJavadocMap
+     *            field name to existing Javadoc text, for the getterSetterFromField feature
+     * @param source
+     *            the source
+     * @param monitor
+     *            the progress monitor used to request cancellation, may be null
+     * @param regions
+     *            the changed regions, null to process every declaration
+     * @param coverage
+     *            the coverage to add the counts of the visited declarations to, null for none
+     *
+     * @return the edits that change the text, unordered
+     */
+    private List<JavadocEdit> collectEdits(final CompilationUnit cu, final Map<String, String> fieldJavadocMap,
+            final String source, final IProgressMonitor monitor, final ChangedRegions regions,
+            final JavadocCoverage coverage) {
+        final List<JavadocEdit> edits = new ArrayList<>();
+        final var packageName = cu.getPackage() != null ? cu.getPackage().getName().getFullyQualifiedName() : "";
+        final var mask = this.rules.maskFor(packageName);
+        // Counting needs the walk even where the rules allow no edits
+        if (mask != 0L || coverage != null) {
+            final var fileCoverage = coverage != null ? new JavadocCoverage() : null;
+            cu.accept(new JavadocVisitor(source, this.config, this.generator, this.memo, mask, fieldJavadocMap,
+                    this.projectDocIndex, this.overrideIndex, this.sourceJarDocIndex, edits, monitor, regions,
+                    packageName, fileCoverage));
+            if (coverage != null) {
+                coverage.addAll(fileCoverage);
+            }
+        }
+        // A replaced comment may come out exactly as it was
+        edits.removeIf(edit -> edit.length == edit.text.length() && source.startsWith(edit.text, edit.offset));
+        return edits;
+    }
+
     // -------------------------------------------------------------------------
     // Pre-pass: field javadoc map
     // -------------------------------------------------------------------------
@@ -163,10 +430,28 @@ public final class JavaSourceProcessor {
         private final JautodocConfiguration config;
         /** The generator. */
         private final CommentTextGenerator generator;
+        /** The memo of generated method comments. */
+        private final DeclarationMemo<DeclarationMemo.Body> memo;
+        /** The decision mask of the package, see {@link DocumentationRules}. */
+        private final long mask;
         /** The field javadoc map. */
         private final Map<String, String> fieldJavadocMap;
+        /** Field Javadoc of the other files of the project. */
+        private final ProjectDocIndex projectDocIndex;
+        /** Methods resolved as overriding without an annotation. */
+        private final OverrideIndex overrideIndex;
+        /** Method Javadoc of library types. */
+        private final SourceJarDocIndex sourceJarDocIndex;
         /** The edits. */
         private final List<JavadocEdit> edits;
+        /** The progress monitor polled for cancellation, may be null. */
+        private final IProgressMonitor monitor;
+        /** The changed regions edits are restricted to, null for no restriction. */
+        private final ChangedRegions regions;
+        /** The package of the compilation unit. */
+        private final String packageName;
+        /** The coverage counts of the file, null for none. */
+        private final JavadocCoverage coverage;
 
         /**
          * Instantiates a new javadoc visitor.
@@ -177,27 +462,141 @@ public final class JavaSourceProcessor {
          *            the config
          * @param generator
          *            the generator
+         * @param memo
+         *            the memo
+         * @param mask
+         *            the decision mask
          * @param fieldJavadocMap
          *            the field javadoc map
+         * @param projectDocIndex
+         *            the field doc index
+         * @param overrideIndex
+         *            the override index
+         * @param sourceJarDocIndex
+         *            the source jar doc index
          * @param edits
          *            the edits
+         * @param monitor
+         *            the monitor
+         * @param regions
+         *            the regions
+         * @param packageName
+         *            the package name
+         * @param coverage
+         *            the coverage, may be null
          */
         JavadocVisitor(final String source, final JautodocConfiguration config, final CommentTextGenerator generator,
-                final Map<String, String> fieldJavadocMap, final List<JavadocEdit> edits) {
+                final DeclarationMemo<DeclarationMemo.Body> memo, final long mask,
+                final Map<String, String> fieldJavadocMap, final ProjectDocIndex projectDocIndex,
+                final OverrideIndex overrideIndex, final SourceJarDocIndex sourceJarDocIndex,
+                final List<JavadocEdit> edits, final IProgressMonitor monitor, final ChangedRegions regions,
+                final String packageName, final JavadocCoverage coverage) {
             this.source = source;
             this.config = config;
             this.generator = generator;
+            this.memo = memo;
+            this.mask = mask;
             this.fieldJavadocMap = fieldJavadocMap;
+            this.projectDocIndex = projectDocIndex;
+            this.overrideIndex = overrideIndex;
+            this.sourceJarDocIndex = sourceJarDocIndex;
             this.edits = edits;
+            this.monitor = monitor;
+            this.regions = regions;
+            this.packageName = packageName;
+            this.coverage = coverage;
+        }
+
+        @Override
+        public boolean preVisit2(final ASTNode node) {
+            DeadlineProgressMonitor.checkCanceled(this.monitor);
+            // Prune subtrees that no changed region reaches
+            return this.regions == null || this.regions.overlaps(node.getStartPosition(),
+                    node.getStartPosition() + Math.max(0, node.getLength() - 1));
+        }
+
+        /**
+         * Checks whether the declaration itself was touched. A type only counts as touched through its Javadoc,
+         * modifiers or name, not through changes in its members.
+         *
+         * @param node
+         *            the node
+         *
+         * @return true, if the declaration may be edited
+         */
+        private boolean isTouched(final BodyDeclaration node) {
+            if (this.regions == null) {
+                return true;
+            }
+            final var start = node.getStartPosition();
+            var end = start + Math.max(0, node.getLength() - 1);
+            if (node instanceof final AbstractTypeDeclaration type) {
+                end = type.getName().getStartPosition() + type.getName().getLength() - 1;
+            }
+            return this.regions.overlaps(start, end);
+        }
+
+        /**
+         * Counts a declaration as documented or undocumented.
+         *
+         * @param node
+         *            the node
+         */
+        private void count(final BodyDeclaration node) {
+            if (this.coverage != null && this.isTouched(node)) {
+                final var documented = node.getJavadoc() != null;
+                this.coverage.add(this.packageName, JavadocVisitor.kind(node), JavadocVisitor.visibility(node),
+                        documented ? 1 : 0, documented ? 0 : 1, 0);
+            }
+        }
+
+        /**
+         * Gets the coverage kind of a declaration.
+         *
+         * @param node
+         *            the node
+         *
+         * @return type, field, method or constructor
+         */
+        private static String kind(final BodyDeclaration node) {
+            if (node instanceof AbstractTypeDeclaration) {
+                return "type";
+            }
+            if (node instanceof FieldDeclaration) {
+                return "field";
+            }
+            return node instanceof final MethodDeclaration md && md.isConstructor() ? "constructor" : "method";
+        }
+
+        /**
+         * Gets the effective visibility of a declaration; members of interfaces and annotation types are public
+         * unless declared private.
+         *
+         * @param node
+         *            the node
+         *
+         * @return public, protected, package or private
+         */
+        private static String visibility(final BodyDeclaration node) {
+            final var modifiers = node.getModifiers();
+            if (Modifier.isPrivate(modifiers)) {
+                return "private";
+            }
+            if (Modifier.isPublic(modifiers) || node.getParent() instanceof AnnotationTypeDeclaration
+                    || node.getParent() instanceof final TypeDeclaration type && type.isInterface()) {
+                return "public";
+            }
+            return Modifier.isProtected(modifiers) ? "protected" : "package";
         }
 
         // ---- Type declarations ----
 
         @Override
         public boolean visit(final TypeDeclaration node) {
-            if (this.config.isCommentTypes() && this.shouldCommentByVisibility(node.getModifiers())) {
+            this.count(node);
+            if (DocumentationRules.allows(this.mask, DocumentationRules.TYPE, node.getModifiers(), false, false)) {
                 final var name = node.getName().getIdentifier();
-                final var desc = this.generator.generateTypeComment(name, node.isInterface(), false, false);
+                final var desc = this.typeDescription(name, node.isInterface(), false, false);
                 this.addJavadocEdit(node, desc, List.of());
             }
             return true; // always recurse into body
@@ -205,9 +604,10 @@ public final class JavaSourceProcessor {
 
         @Override
         public boolean visit(final EnumDeclaration node) {
-            if (this.config.isCommentTypes() && this.shouldCommentByVisibility(node.getModifiers())) {
+            this.count(node);
+            if (DocumentationRules.allows(this.mask, DocumentationRules.TYPE, node.getModifiers(), false, false)) {
                 final var name = node.getName().getIdentifier();
-                final var desc = this.generator.generateTypeComment(name, false, true, false);
+                final var desc = this.typeDescription(name, false, true, false);
                 this.addJavadocEdit(node, desc, List.of());
             }
             return true;
@@ -215,25 +615,51 @@ public final class JavaSourceProcessor {
 
         @Override
         public boolean visit(final AnnotationTypeDeclaration node) {
-            if (this.config.isCommentTypes() && this.shouldCommentByVisibility(node.getModifiers())) {
+            this.count(node);
+            if (DocumentationRules.allows(this.mask, DocumentationRules.TYPE, node.getModifiers(), false, false)) {
                 final var name = node.getName().getIdentifier();
-                final var desc = this.generator.generateTypeComment(name, false, false, true);
+                final var desc = this.typeDescription(name, false, false, true);
                 this.addJavadocEdit(node, desc, List.of());
             }
             return true;
         }
 
+        /**
+         * Type description, from the first matching template or else built in.
+         *
+         * @param name
+         *            the name
+         * @param isInterface
+         *            the is interface
+         * @param isEnum
+         *            the is enum
+         * @param isAnnotation
+         *            the is annotation
+         *
+         * @return the string
+         */
+        private String typeDescription(final String name, final boolean isInterface, final boolean isEnum,
+                final boolean isAnnotation) {
+            final var templated = this.generator.fromTemplate("type", name, "");
+            return templated != null ? templated
+                    : this.generator.generateTypeComment(name, isInterface, isEnum, isAnnotation);
+        }
+
         // ---- Field declarations ----
 
         @Override
         public boolean visit(final FieldDeclaration node) {
-            if (!this.config.isCommentFields() || !this.shouldCommentByVisibility(node.getModifiers())
+            this.count(node);
+            if (!DocumentationRules.allows(this.mask, DocumentationRules.FIELD, node.getModifiers(), false, false)
                     || node.fragments().isEmpty()) {
                 return false;
             }
             final var first = (VariableDeclarationFragment) node.fragments().get(0);
             final var fieldName = first.getName().getIdentifier();
-            var desc = this.generator.generateFieldComment(fieldName);
+            var desc = this.generator.fromTemplate("field", fieldName, node.getType().toString());
+            if (desc == null) {
+                desc = this.generator.generateFieldComment(fieldName);
+            }
             if (this.config.isAddTodoForAutodoc()) {
                 desc = "TODO " + desc;
             }
@@ -245,36 +671,204 @@ public final class JavaSourceProcessor {
 
         @Override
         public boolean visit(final MethodDeclaration node) {
-            // Skip methods that override/implement a parent or interface method
-            if (!this.config.isCommentMethods() || !this.shouldCommentByVisibility(node.getModifiers())
-                    || this.config.isExcludeOverrides() && JavadocVisitor.hasOverrideAnnotation(node)) {
-                return false;
-            }
-
+            this.count(node);
             final var name = node.getName().getIdentifier();
             final var paramCount = node.parameters().size();
             final var isGetter = this.generator.isGetter(name, paramCount);
             final var isSetter = this.generator.isSetter(name, paramCount);
 
-            // Apply getter/setter filters
-            if (this.config.isGetterSetterOnly() && !isGetter && !isSetter && !node.isConstructor()) {
+            // Overriding a documented project method: its documentation, whatever excludeOverrides says
+            final var inherited = this.inheritedBody(node);
+            if (inherited != null) {
+                if (DocumentationRules.allows(this.mask, DocumentationRules.METHOD, node.getModifiers(),
+                        isGetter || isSetter, false)) {
+                    this.addJavadocEdit(node, inherited.description, inherited.tags, true);
+                }
                 return false;
             }
-            if (this.config.isExcludeGetterSetter() && (isGetter || isSetter)) {
+
+            // Visibility, getter/setter and override filters in one lookup
+            if (!DocumentationRules.allows(this.mask,
+                    node.isConstructor() ? DocumentationRules.CONSTRUCTOR : DocumentationRules.METHOD,
+                    node.getModifiers(), isGetter || isSetter,
+                    JavadocVisitor.hasOverrideAnnotation(node) || this.overrideIndex.contains(node))) {
                 return false;
             }
 
-            // Build description
+            // Accessor comments taken from field Javadoc depend on more than the signature
+            final var body = this.config.isGetterSetterFromField() && (isGetter || isSetter)
+                    ? this.buildMethodBody(node, name, isGetter, isSetter)
+                    : this.memo.get(JavadocVisitor.signature(node, this.generator.hasTemplates()),
+                            () -> this.buildMethodBody(node, name, isGetter, isSetter));
+
+            this.addJavadocEdit(node, body.description, body.tags);
+            return false;
+        }
+
+        /**
+         * Builds the body of a method that overrides or implements a documented method of a supertype, found through
+         * the {@link ProjectDocIndex} or, for library types that are direct supertypes, the {@link SourceJarDocIndex}.
+         *
+         * @param node
+         *            the node
+         *
+         * @return the body, or null when the mode is off or there is no such supertype method
+         */
+        private DeclarationMemo.Body inheritedBody(final MethodDeclaration node) {
+            final var mode = this.config.getInheritedDocMode();
+            if (mode == InheritedDocMode.NONE || node.isConstructor() || Modifier.isStatic(node.getModifiers())
+                    || Modifier.isPrivate(node.getModifiers())) {
+                return null;
+            }
+            final List<Object> written = new ArrayList<>();
+            if (node.getParent() instanceof final TypeDeclaration type) {
+                if (type.getSuperclassType() != null) {
+                    written.add(type.getSuperclassType());
+                }
+                written.addAll(type.superInterfaceTypes());
+            } else if (node.getParent() instanceof final EnumDeclaration type) {
+                written.addAll(type.superInterfaceTypes());
+            }
+            if (written.isEmpty()) {
+                return null;
+            }
+            final var cu = (CompilationUnit) node.getRoot();
+            final var signature = ProjectDocIndex.signature(node);
+            var doc = this.projectDocIndex.lookupMethod(
+                    cu.getPackage() != null ? cu.getPackage().getName().getFullyQualifiedName() : "",
+                    ProjectDocIndex.simpleNames(written), signature);
+            if (doc == null) {
+                final List<List<String>> candidates = new ArrayList<>(written.size());
+                for (final Object type : written) {
+                    candidates.add(SourceJarDocIndex.candidates(type.toString(), cu));
+                }
+                doc = this.sourceJarDocIndex.lookupMethod(candidates, signature);
+            }
+            if (doc == null) {
+                return null;
+            }
+            if (mode == InheritedDocMode.INHERIT) {
+                return new DeclarationMemo.Body("{@inheritDoc}", List.of());
+            }
+            return JavadocVisitor.copiedBody(doc, node);
+        }
+
+        /**
+         * Copies the description and tags of a supertype method, renaming {@code @param} tags by position. Line breaks
+         * are kept; continuation lines of a tag stay with it.
+         *
+         * @param doc
+         *            the supertype method
+         * @param node
+         *            the overriding method
+         *
+         * @return the body
+         */
+        private static DeclarationMemo.Body copiedBody(final ProjectDocIndex.MethodDoc doc,
+                final MethodDeclaration node) {
+            final var stripped = doc.javadoc.replaceAll("^/\\*+", "").replaceAll("\\*/$", "");
+            final var description = new StringBuilder();
+            final List<StringBuilder> tags = new ArrayList<>();
+            for (final String raw : stripped.split("\r?\n", -1)) {
+                var line = raw.strip();
+                if (line.startsWith("*")) {
+                    line = line.substring(1);
+                    if (line.startsWith(" ")) {
+                        line = line.substring(1);
+                    }
+                }
+                line = line.stripTrailing();
+                if (line.startsWith("@")) {
+                    tags.add(new StringBuilder(line));
+                } else if (!tags.isEmpty()) {
+                    if (!line.isEmpty()) {
+                        tags.get(tags.size() - 1).append('\n').append(line);
+                    }
+                } else if (!line.isEmpty() || !description.isEmpty()) {
+                    description.append(line).append('\n');
+                }
+            }
+
+            final List<String> tagLines = new ArrayList<>(tags.size());
+            for (final StringBuilder tag : tags) {
+                var text = tag.toString();
+                if (text.startsWith("@param ")) {
+                    var end = 7;
+                    while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+                        end++;
+                    }
+                    final var index = doc.paramNames.indexOf(text.substring(7, end));
+                    if (index >= 0 && index < node.parameters().size()) {
+                        text = "@param " + ((SingleVariableDeclaration) node.parameters().get(index)).getName()
+                                .getIdentifier() + text.substring(end);
+                    }
+                }
+                tagLines.add(text);
+            }
+            return new DeclarationMemo.Body(description.toString().strip(), tagLines);
+        }
+
+        /**
+         * Builds the description and tag lines of a method.
+         *
+         * @param node
+         *            the node
+         * @param name
+         *            the name
+         * @param isGetter
+         *            the is getter
+         * @param isSetter
+         *            the is setter
+         *
+         * @return the body
+         */
+        private DeclarationMemo.Body buildMethodBody(final MethodDeclaration node, final String name,
+                final boolean isGetter, final boolean isSetter) {
             var desc = this.buildMethodDescription(node, name, isGetter, isSetter);
             if (this.config.isAddTodoForAutodoc()) {
                 desc = "TODO " + desc;
             }
+            return new DeclarationMemo.Body(desc, this.buildMethodTags(node, isGetter));
+        }
 
-            // Build tag lines
-            final var tags = this.buildMethodTags(node, isGetter);
-
-            this.addJavadocEdit(node, desc, tags);
-            return false;
+        /**
+         * Compact signature of everything the generated comment of a method depends on: kind (and class name for
+         * constructors), name, parameter names, return type and thrown types. Templates may also match parameter types,
+         * which are then part of the signature too.
+         *
+         * @param node
+         *            the node
+         * @param withParameterTypes
+         *            whether to include parameter types
+         *
+         * @return the signature
+         */
+        private static String signature(final MethodDeclaration node, final boolean withParameterTypes) {
+            final var sb = new StringBuilder(64);
+            if (node.isConstructor()) {
+                sb.append('C');
+                if (node.getParent() instanceof final TypeDeclaration t) {
+                    sb.append(t.getName().getIdentifier());
+                }
+            } else {
+                sb.append('M');
+            }
+            sb.append(' ').append(node.getName().getIdentifier()).append('(');
+            for (final Object obj : node.parameters()) {
+                final var param = (SingleVariableDeclaration) obj;
+                if (withParameterTypes) {
+                    sb.append(param.getType()).append(' ');
+                }
+                sb.append(param.getName().getIdentifier()).append(',');
+            }
+            sb.append(')');
+            if (node.getReturnType2() != null) {
+                sb.append(node.getReturnType2());
+            }
+            for (final Object obj : node.thrownExceptionTypes()) {
+                sb.append('!').append(obj);
+            }
+            return sb.toString();
         }
 
         // -------------------------------------------------------------------------
@@ -300,13 +894,19 @@ public final class JavaSourceProcessor {
             if (node.isConstructor()) {
                 final var parent = node.getParent();
                 final var className = parent instanceof final TypeDeclaration t ? t.getName().getIdentifier() : name;
-                return this.generator.generateConstructorComment(className);
+                final var templated = this.generator.fromTemplate("constructor", className, "");
+                return templated != null ? templated : this.generator.generateConstructorComment(className);
+            }
+            final var templated = this.generator.fromTemplate("method", name,
+                    node.getReturnType2() != null ? node.getReturnType2().toString() : "");
+            if (templated != null) {
+                return templated;
             }
             if (isGetter) {
-                return this.buildGetterDesc(name);
+                return this.buildGetterDesc(node, name);
             }
             if (isSetter) {
-                return this.buildSetterDesc(name);
+                return this.buildSetterDesc(node, name);
             }
             return this.generator.generateMethodComment(name);
         }
@@ -314,15 +914,16 @@ public final class JavaSourceProcessor {
         /**
          * Build getter desc.
          *
+         * @param node
+         *            the node
          * @param methodName
          *            the method name
          *
          * @return the string
          */
-        private String buildGetterDesc(final String methodName) {
+        private String buildGetterDesc(final MethodDeclaration node, final String methodName) {
             if (this.config.isGetterSetterFromField()) {
-                final var fieldName = this.generator.getFieldFromGetter(methodName);
-                final var fieldDoc = fieldName != null ? this.fieldJavadocMap.get(fieldName) : null;
+                final var fieldDoc = this.fieldDoc(node, this.generator.getFieldFromGetter(methodName));
                 if (fieldDoc != null) {
                     final var raw = JavadocVisitor.extractMainDescFromJavadocText(fieldDoc,
                             this.config.isGetterSetterFromFieldFirst());
@@ -335,15 +936,16 @@ public final class JavaSourceProcessor {
         /**
          * Build setter desc.
          *
+         * @param node
+         *            the node
          * @param methodName
          *            the method name
          *
          * @return the string
          */
-        private String buildSetterDesc(final String methodName) {
+        private String buildSetterDesc(final MethodDeclaration node, final String methodName) {
             if (this.config.isGetterSetterFromField()) {
-                final var fieldName = this.generator.getFieldFromSetter(methodName);
-                final var fieldDoc = fieldName != null ? this.fieldJavadocMap.get(fieldName) : null;
+                final var fieldDoc = this.fieldDoc(node, this.generator.getFieldFromSetter(methodName));
                 if (fieldDoc != null) {
                     final var raw = JavadocVisitor.extractMainDescFromJavadocText(fieldDoc,
                             this.config.isGetterSetterFromFieldFirst());
@@ -353,6 +955,32 @@ public final class JavaSourceProcessor {
             return this.generator.generateSetterComment(methodName);
         }
 
+        /**
+         * Finds the Javadoc of the field behind an accessor: first in this file, then in the superclasses of the
+         * declaring type through the project-wide index.
+         *
+         * @param node
+         *            the accessor
+         * @param fieldName
+         *            the field name, may be null
+         *
+         * @return the raw Javadoc comment, or null when not found
+         */
+        private String fieldDoc(final MethodDeclaration node, final String fieldName) {
+            if (fieldName == null) {
+                return null;
+            }
+            final var local = this.fieldJavadocMap.get(fieldName);
+            if (local != null || !(node.getParent() instanceof final TypeDeclaration type)
+                    || type.getSuperclassType() == null) {
+                return local;
+            }
+            final var cu = (CompilationUnit) node.getRoot();
+            return this.projectDocIndex.lookup(
+                    cu.getPackage() != null ? cu.getPackage().getName().getFullyQualifiedName() : "",
+                    ProjectDocIndex.simpleName(type.getSuperclassType().toString()), fieldName);
+        }
+
         /**
          * Returns {@code s} with the first character lower-cased.
          *
@@ -431,23 +1059,27 @@ public final class JavaSourceProcessor {
             for (final Object obj : node.parameters()) {
                 final var param = (SingleVariableDeclaration) obj;
                 final var pName = param.getName().getIdentifier();
-                tags.add("@param " + pName + " " + this.generator.generateParamComment(pName));
+                final var templated = this.generator.fromTemplate("param", pName, param.getType().toString());
+                tags.add("@param " + pName + " "
+                        + (templated != null ? templated : this.generator.generateParamComment(pName)));
             }
 
             // @return (non-void, non-constructor)
             if (!node.isConstructor() && node.getReturnType2() != null) {
                 final var retType = node.getReturnType2().toString();
                 if (!"void".equals(retType)) {
-                    String returnDesc;
-                    // Boolean getters use "true, if successful" unconditionally
-                    if (!isGetter || "boolean".equals(retType) || "Boolean".equals(retType)) {
-                        returnDesc = this.generator.generateReturnComment(retType);
-                    } else {
-                        // For other getters derive @return text from field name
-                        final var methodName = node.getName().getIdentifier();
-                        final var fieldName = this.generator.getFieldFromGetter(methodName);
-                        returnDesc = fieldName != null ? this.generator.generateParamComment(fieldName)
-                                : this.generator.generateReturnComment(retType);
+                    final var methodName = node.getName().getIdentifier();
+                    var returnDesc = this.generator.fromTemplate("return", methodName, retType);
+                    if (returnDesc == null) {
+                        // Boolean getters use "true, if successful" unconditionally
+                        if (!isGetter || "boolean".equals(retType) || "Boolean".equals(retType)) {
+                            returnDesc = this.generator.generateReturnComment(retType);
+                        } else {
+                            // For other getters derive @return text from field name
+                            final var fieldName = this.generator.getFieldFromGetter(methodName);
+                            returnDesc = fieldName != null ? this.generator.generateParamComment(fieldName)
+                                    : this.generator.generateReturnComment(retType);
+                        }
                     }
                     tags.add("@return " + returnDesc);
                 }
@@ -457,7 +1089,9 @@ public final class JavaSourceProcessor {
             for (final Object obj : node.thrownExceptionTypes()) {
                 final var exType = (Type) obj;
                 final var exName = exType.toString();
-                tags.add("@throws " + exName + " " + this.generator.generateThrowsComment(exName));
+                final var templated = this.generator.fromTemplate("throws", exName, "");
+                tags.add("@throws " + exName + " "
+                        + (templated != null ? templated : this.generator.generateThrowsComment(exName)));
             }
 
             return tags;
@@ -478,11 +1112,28 @@ public final class JavaSourceProcessor {
          *            the tag lines
          */
         private void addJavadocEdit(final BodyDeclaration node, final String description, final List<String> tagLines) {
+            this.addJavadocEdit(node, description, tagLines, false);
+        }
+
+        /**
+         * Add javadoc edit.
+         *
+         * @param node
+         *            the node
+         * @param description
+         *            the description, may span lines
+         * @param tagLines
+         *            the tag lines, each may span lines
+         * @param inherited
+         *            whether the description comes from a supertype, so is kept without createDummyComment
+         */
+        private void addJavadocEdit(final BodyDeclaration node, final String description, final List<String> tagLines,
+                final boolean inherited) {
             // Optionally suppress description
-            final var desc = this.config.isCreateDummyComment() ? description : "";
+            final var desc = inherited || this.config.isCreateDummyComment() ? description : "";
 
-            // If nothing to write, skip
-            if (desc.isEmpty() && tagLines.isEmpty()) {
+            // If nothing to write or the declaration is outside the changed regions, skip
+            if (desc.isEmpty() && tagLines.isEmpty() || !this.isTouched(node)) {
                 return;
             }
 
@@ -518,6 +1169,10 @@ public final class JavaSourceProcessor {
             final var javadocText = this.buildJavadocText(desc, tagLines, indent, isField);
             final var insertOffset = this.lineStartOffset(node.getStartPosition());
             this.edits.add(new JavadocEdit(insertOffset, 0, javadocText + "\n"));
+            if (this.coverage != null) {
+                this.coverage.add(this.packageName, JavadocVisitor.kind(node), JavadocVisitor.visibility(node), 0, 0,
+                        1);
+            }
         }
 
         /**
@@ -629,7 +1284,8 @@ public final class JavaSourceProcessor {
             final var closePos = existing.getStartPosition() + existing.getLength() - 2; // points at '*' of '*/'
             final var sb = new StringBuilder();
             for (final String line : missing) {
-                sb.append('\n').append(indent).append(" * ").append(line);
+                sb.append('\n');
+                JavadocVisitor.appendLines(sb, indent, line);
             }
             sb.append('\n').append(indent).append(' ');
             this.edits.add(new JavadocEdit(closePos, 0, sb.toString()));
@@ -664,20 +1320,44 @@ public final class JavaSourceProcessor {
             final var sb = new StringBuilder();
             sb.append(indent).append("/**\n");
             if (hasDesc) {
-                sb.append(indent).append(" * ").append(description).append('\n');
+                JavadocVisitor.appendLines(sb, indent, description);
+                sb.append('\n');
             }
             if (!tagLines.isEmpty()) {
                 if (hasDesc) {
                     sb.append(indent).append(" *\n");
                 }
                 for (final String tag : tagLines) {
-                    sb.append(indent).append(" * ").append(tag).append('\n');
+                    JavadocVisitor.appendLines(sb, indent, tag);
+                    sb.append('\n');
                 }
             }
             sb.append(indent).append(" */");
             return sb.toString();
         }
 
+        /**
+         * Appends text as comment lines, each prefixed with {@code indent} and {@code " * "}, without trailing
+         * whitespace on blank lines and without a final line break.
+         *
+         * @param sb
+         *            the sb
+         * @param indent
+         *            the indent
+         * @param text
+         *            the text, may span lines
+         */
+        private static void appendLines(final StringBuilder sb, final String indent, final String text) {
+            var first = true;
+            for (final String line : text.split("\n", -1)) {
+                if (!first) {
+                    sb.append('\n');
+                }
+                first = false;
+                sb.append(indent).append(line.isEmpty() ? " *" : " * " + line);
+            }
+        }
+
         /**
          * Computes the whitespace-only indentation for the line that contains {@code sourceOffset}.
          *
@@ -711,28 +1391,5 @@ public final class JavaSourceProcessor {
             }
             return p + 1; // character after the '\n', or 0 if no '\n' found
         }
-
-        // ---- Visibility filter ----
-
-        /**
-         * Should comment by visibility.
-         *
-         * @param modifiers
-         *            the modifiers
-         *
-         * @return true, if successful
-         */
-        private boolean shouldCommentByVisibility(final int modifiers) {
-            if (Modifier.isPublic(modifiers)) {
-                return this.config.isVisibilityPublic();
-            }
-            if (Modifier.isProtected(modifiers)) {
-                return this.config.isVisibilityProtected();
-            }
-            if (Modifier.isPrivate(modifiers)) {
-                return this.config.isVisibilityPrivate();
-            }
-            return this.config.isVisibilityPackage(); // package-private
-        }
     }
 }
@@ -9,9 +9,10 @@ package com.hazendaz.maven.jautodoc.core.internal;
 /**
  * A pending text replacement or insertion within a Java source string.
  * <p>
- * Edits are applied in descending offset order so that earlier offsets remain valid as later ones are applied first.
+ * Lists of edits are handed out in ascending offset order and applied in descending offset order, so that earlier
+ * offsets remain valid as later ones are applied first.
  */
-final class JavadocEdit {
+public final class JavadocEdit {
 
     /** Start character offset in the source string. */
     final int offset;
@@ -37,4 +38,31 @@ final class JavadocEdit {
         this.length = length;
         this.text = text;
     }
+
+    /**
+     * Gets the start character offset in the source string.
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Gets the number of characters to replace.
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return this.length;
+    }
+
+    /**
+     * Gets the replacement text.
+     *
+     * @return the text
+     */
+    public String getText() {
+        return this.text;
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * {@link OutputCache} kept in a directory on the local file system, typically {@code ~/.m2/jautodoc-cache}, and shared
+ * by every branch, worktree and project on the machine.
+ * <p>
+ * Each entry is one file {@code <first two key chars>/<key>.gz}, written to a temporary file and moved into place so
+ * that concurrent builds never see a partial entry. A hit refreshes the entry's modification time, which serves as its
+ * last access time. When this run stored new entries, {@link #close()} evicts least recently used entries until the
+ * directory is back under its size limit.
+ */
+public final class LocalOutputCache implements OutputCache {
+
+    /** Entry file suffix. */
+    private static final String SUFFIX = ".gz";
+
+    /** The cache directory. */
+    private final Path directory;
+
+    /** The size limit in bytes. */
+    private final long maxBytes;
+
+    /** Bytes stored during this run. */
+    private final AtomicLong stored = new AtomicLong();
+
+    /**
+     * Instantiates a new local output cache.
+     *
+     * @param directory
+     *            the cache directory, created on first store
+     * @param maxBytes
+     *            the size limit in bytes
+     */
+    public LocalOutputCache(final Path directory, final long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public byte[] get(final String key) {
+        final var file = this.entry(key);
+        try {
+            final var bytes = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return bytes;
+        } catch (final IOException e) {
+            // missing or unreadable entries are misses
+            return null;
+        }
+    }
+
+    @Override
+    public void put(final String key, final byte[] entry) {
+        final var file = this.entry(key);
+        try {
+            Files.createDirectories(file.getParent());
+            final var temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try {
+                Files.write(temp, entry);
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            this.stored.addAndGet(entry.length);
+        } catch (final IOException e) {
+            // best effort
+        }
+    }
+
+    /**
+     * Evicts least recently used entries when this run stored anything and the cache is over its limit.
+     */
+    @Override
+    public void close() {
+        if (this.stored.get() > 0) {
+            this.evict();
+        }
+    }
+
+    /**
+     * Deletes entries, oldest access first, until the total size is within the limit.
+     */
+    private void evict() {
+        final List<Entry> entries = new ArrayList<>();
+        var total = 0L;
+        try (Stream<Path> stream = Files.walk(this.directory, 2)) {
+            for (final Path file : (Iterable<Path>) stream::iterator) {
+                if (file.getFileName().toString().endsWith(LocalOutputCache.SUFFIX)) {
+                    final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    entries.add(new Entry(file, attributes.lastModifiedTime(), attributes.size()));
+                    total += attributes.size();
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            return;
+        }
+        if (total <= this.maxBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparing((final Entry e) -> e.accessed));
+        for (final Entry entry : entries) {
+            if (total <= this.maxBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(entry.file);
+                total -= entry.size;
+            } catch (final IOException e) {
+                // in use or already gone
+            }
+        }
+    }
+
+    /**
+     * Entry file of a key.
+     *
+     * @param key
+     *            the key
+     *
+     * @return the path
+     */
+    private Path entry(final String key) {
+        return this.directory.resolve(key.substring(0, 2)).resolve(key + LocalOutputCache.SUFFIX);
+    }
+
+    /**
+     * A cache entry considered for eviction.
+     */
+    private static final class Entry {
+
+        /** The entry file. */
+        final Path file;
+
+        /** The last access time. */
+        final FileTime accessed;
+
+        /** The size in bytes. */
+        final long size;
+
+        /**
+         * Instantiates a new entry.
+         *
+         * @param file
+         *            the file
+         * @param accessed
+         *            the accessed
+         * @param size
+         *            the size
+         */
+        Entry(final Path file, final FileTime accessed, final long size) {
+            this.file = file;
+            this.accessed = accessed;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders work longest-processing-time-first so that the largest files start early and the tail of a concurrent run is
+ * made of small files that keep every worker busy.
+ * <p>
+ * The predicted cost of a file is its duration recorded on a previous run when one is known. Files without history are
+ * estimated from their size, scaled by the average time per byte observed across the history so both kinds of estimate
+ * are comparable; on a first run the cost is simply the file size. Durations recorded by {@link #record(Path, long,
+ * long)} are persisted by {@link #save()} as one {@code micros<TAB>size<TAB>path} line per file.
+ */
+public final class LongestFirstScheduler {
+
+    /** The history file, or null when history is not persisted. */
+    private final Path historyFile;
+
+    /** Known timings keyed by absolute normalized path: {@code [durationMicros, size]}. */
+    private final Map<String, long[]> history = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new longest first scheduler, loading any history from {@code historyFile}.
+     *
+     * @param historyFile
+     *            the history file, may be null
+     */
+    public LongestFirstScheduler(final Path historyFile) {
+        this.historyFile = historyFile;
+        if (historyFile != null && Files.isRegularFile(historyFile)) {
+            this.load(historyFile);
+        }
+    }
+
+    /**
+     * Returns a copy of {@code files} ordered by descending predicted cost. Ties keep their original relative order.
+     *
+     * @param files
+     *            the files
+     *
+     * @return the ordered files
+     */
+    public List<Path> order(final List<Path> files) {
+        var knownMicros = 0L;
+        var knownBytes = 0L;
+        for (final long[] entry : this.history.values()) {
+            knownMicros += entry[0];
+            knownBytes += entry[1];
+        }
+        final var microsPerByte = knownBytes > 0 && knownMicros > 0 ? (double) knownMicros / knownBytes : 1.0;
+
+        final Map<Path, Double> cost = new HashMap<>();
+        for (final Path file : files) {
+            final var known = this.history.get(LongestFirstScheduler.key(file));
+            cost.put(file, known != null ? known[0] : LongestFirstScheduler.sizeOf(file) * microsPerByte);
+        }
+        final List<Path> ordered = new ArrayList<>(files);
+        ordered.sort(Comparator.comparingDouble((final Path p) -> cost.get(p)).reversed());
+        return ordered;
+    }
+
+    /**
+     * Records how long a file took to process.
+     *
+     * @param file
+     *            the file
+     * @param size
+     *            the file size in bytes
+     * @param durationNanos
+     *            the processing time in nanoseconds
+     */
+    public void record(final Path file, final long size, final long durationNanos) {
+        this.history.put(LongestFirstScheduler.key(file),
+                new long[] { Math.max(1, TimeUnit.NANOSECONDS.toMicros(durationNanos)), size });
+    }
+
+    /**
+     * Writes the history back to the history file, if any. Failures are ignored: history only affects ordering.
+     */
+    public void save() {
+        if (this.historyFile == null) {
+            return;
+        }
+        final var sb = new StringBuilder();
+        this.history.forEach((path, entry) -> sb.append(entry[0]).append('\t').append(entry[1]).append('\t')
+                .append(path).append('\n'));
+        try {
+            Files.createDirectories(this.historyFile.toAbsolutePath().getParent());
+            Files.writeString(this.historyFile, sb, StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            // best effort
+        }
+    }
+
+    /**
+     * Loads the history file, skipping malformed lines.
+     *
+     * @param file
+     *            the file
+     */
+    private void load(final Path file) {
+        try {
+            for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                final var parts = line.split("\t", 3);
+                if (parts.length == 3) {
+                    try {
+                        this.history.put(parts[2], new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) });
+                    } catch (final NumberFormatException e) {
+                        // skip malformed line
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            this.history.clear();
+        }
+    }
+
+    /**
+     * History key for a file.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the key
+     */
+    private static String key(final Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Returns the size of the file, or zero when it cannot be determined.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the size in bytes
+     */
+    static long sizeOf(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (final IOException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+/**
+ * Store of processed output keyed by content, see {@link OutputCacheCodec} for keys and the entry format.
+ * <p>
+ * A cache is an optimization only: implementations must never throw from {@link #get(String)} or
+ * {@link #put(String, byte[])} and treat every failure as a miss. Both methods are called from several worker threads.
+ */
+public interface OutputCache extends AutoCloseable {
+
+    /**
+     * Looks up an entry.
+     *
+     * @param key
+     *            the key
+     *
+     * @return the encoded entry, or null on a miss
+     */
+    byte[] get(String key);
+
+    /**
+     * Stores an entry.
+     *
+     * @param key
+     *            the key
+     * @param entry
+     *            the encoded entry
+     */
+    void put(String key, byte[] entry);
+
+    /**
+     * Called once at the end of a run, for example to evict old entries.
+     */
+    @Override
+    default void close() {
+        // nothing to release
+    }
+}
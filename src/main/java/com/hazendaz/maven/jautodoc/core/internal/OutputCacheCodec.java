@@ -0,0 +1,168 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keys and entry encoding shared by all {@link OutputCache} backends.
+ * <p>
+ * A key is the SHA-256 of a salt (plugin version and configuration fingerprint) followed by the raw input bytes, so an
+ * entry is only reused for byte-identical input processed by the same plugin build with the same settings. An entry is
+ * gzip-compressed: one flag byte, then, unless the flag says the input was left unchanged, the UTF-8 output.
+ */
+public final class OutputCacheCodec {
+
+    /** Entry flag: the output equals the input. */
+    private static final int UNCHANGED = 0;
+
+    /** Entry flag: the output follows. */
+    private static final int CHANGED = 1;
+
+    /** Location of the plugin's Maven metadata inside its jar. */
+    private static final String POM_PROPERTIES = "/META-INF/maven/com.github.hazendaz.maven/jautodoc-maven-plugin/"
+            + "pom.properties";
+
+    /** The plugin version, resolved once. */
+    private static final String PLUGIN_VERSION = OutputCacheCodec.resolvePluginVersion();
+
+    /**
+     * Instantiates a new output cache codec.
+     */
+    private OutputCacheCodec() {
+    }
+
+    /**
+     * Builds the salt mixed into every key.
+     *
+     * @param configFingerprint
+     *            the configuration fingerprint
+     *
+     * @return the salt
+     */
+    public static String salt(final String configFingerprint) {
+        return OutputCacheCodec.PLUGIN_VERSION + '\n' + configFingerprint;
+    }
+
+    /**
+     * Computes the key of an input.
+     *
+     * @param salt
+     *            the salt
+     * @param input
+     *            the raw input bytes
+     *
+     * @return the hex key
+     */
+    public static String key(final String salt, final byte[] input) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(input);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Encodes the output for an input.
+     *
+     * @param input
+     *            the input
+     * @param output
+     *            the output
+     *
+     * @return the compressed entry
+     */
+    public static byte[] encode(final String input, final String output) {
+        final var bytes = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(bytes)) {
+            if (output.equals(input)) {
+                gzip.write(OutputCacheCodec.UNCHANGED);
+            } else {
+                gzip.write(OutputCacheCodec.CHANGED);
+                gzip.write(output.getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an entry.
+     *
+     * @param input
+     *            the input the entry was looked up for
+     * @param entry
+     *            the compressed entry, may be null
+     *
+     * @return the output, or null when the entry is missing or corrupt
+     */
+    public static String decode(final String input, final byte[] entry) {
+        if (entry == null || entry.length == 0) {
+            return null;
+        }
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(entry))) {
+            final var flag = gzip.read();
+            if (flag == OutputCacheCodec.UNCHANGED) {
+                return input;
+            }
+            if (flag == OutputCacheCodec.CHANGED) {
+                return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            return null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the plugin version from the jar's Maven metadata. Snapshot and unpackaged builds also include the
+     * modification time of the code location, so a rebuilt plugin never reuses entries of an older build.
+     *
+     * @return the plugin version
+     */
+    private static String resolvePluginVersion() {
+        var version = "unknown";
+        try (var in = OutputCacheCodec.class.getResourceAsStream(OutputCacheCodec.POM_PROPERTIES)) {
+            if (in != null) {
+                final var properties = new Properties();
+                properties.load(in);
+                version = properties.getProperty("version", version);
+            }
+        } catch (final IOException e) {
+            // keep unknown
+        }
+        if ("unknown".equals(version) || version.endsWith("-SNAPSHOT")) {
+            try {
+                final var location = Path
+                        .of(OutputCacheCodec.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+                version += "@" + Files.getLastModifiedTime(location).toMillis();
+            } catch (final IOException | URISyntaxException | RuntimeException e) {
+                // keep version as is
+            }
+        }
+        return version;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+
+/**
+ * The methods of the project that override or implement a supertype method, found by resolving bindings against the
+ * project classpath, so that {@code excludeOverrides} also applies to methods without an {@code @Override}
+ * annotation.
+ * <p>
+ * All files are resolved in a single batched {@link ASTParser#createASTs} call, so they share one name environment and
+ * every type of the classpath is loaded at most once. Method bodies are skipped, and the inheritable methods of each
+ * supertype are collected once per run and shared by all its subtypes, which keeps the resolution pass close to the
+ * cost of a declarations-only parse. Methods of anonymous classes inside method bodies are not resolved and still rely
+ * on the annotation.
+ * <p>
+ * Methods are keyed by package, enclosing type names and the signature of {@link ProjectDocIndex}, which the binding
+ * free parse of the processing pass reproduces from the source alone.
+ * <p>
+ * The pass has the per-file time budget, granted again after each resolved file; once a file exceeds it the whole
+ * pass is cancelled, since a partial set of overrides would exclude some methods and not others.
+ */
+public final class OverrideIndex {
+
+    /** The empty index. */
+    public static final OverrideIndex EMPTY = new OverrideIndex(Set.of(), "");
+
+    /** The keys of the overriding methods. */
+    private final Set<String> overrides;
+
+    /** Digest of the keys. */
+    private final String digest;
+
+    /**
+     * Instantiates a new override index.
+     *
+     * @param overrides
+     *            the overrides
+     * @param digest
+     *            the digest
+     */
+    private OverrideIndex(final Set<String> overrides, final String digest) {
+        this.overrides = overrides;
+        this.digest = digest;
+    }
+
+    /**
+     * Resolves the files and collects their overriding methods.
+     *
+     * @param files
+     *            the java files to resolve
+     * @param classpath
+     *            the compile classpath of the project
+     * @param sourcepath
+     *            the source roots, for project types in files that are not processed
+     * @param monitor
+     *            the per-file deadline, restarted after each file, may be null
+     *
+     * @return the override index
+     *
+     * @throws OperationCanceledException
+     *             if the monitor was cancelled or a file exceeded its deadline
+     */
+    public static OverrideIndex build(final List<Path> files, final List<Path> classpath, final List<Path> sourcepath,
+            final DeadlineProgressMonitor monitor) {
+        if (files.isEmpty()) {
+            return OverrideIndex.EMPTY;
+        }
+        final var parser = ASTParser.newParser(AST.JLS21);
+        parser.setKind(ASTParser.K_COMPILATION_UNIT);
+        parser.setResolveBindings(true);
+        parser.setBindingsRecovery(true);
+        parser.setIgnoreMethodBodies(true);
+        parser.setCompilerOptions(JavaSourceProcessor.compilerOptions());
+        final var sourceRoots = OverrideIndex.strings(sourcepath);
+        final var encodings = new String[sourceRoots.length];
+        Arrays.fill(encodings, StandardCharsets.UTF_8.name());
+        parser.setEnvironment(OverrideIndex.strings(classpath), sourceRoots, encodings, true);
+
+        final var paths = OverrideIndex.strings(files);
+        final var fileEncodings = new String[paths.length];
+        Arrays.fill(fileEncodings, StandardCharsets.UTF_8.name());
+        final Set<String> overrides = new TreeSet<>();
+        final var requestor = new Requestor(overrides, monitor);
+        parser.createASTs(paths, fileEncodings, new String[0], requestor, monitor);
+        DeadlineProgressMonitor.checkCanceled(monitor);
+        return new OverrideIndex(overrides, OverrideIndex.digest(overrides));
+    }
+
+    /**
+     * Checks if a method was resolved as overriding a supertype method.
+     *
+     * @param node
+     *            the method, from a parse with or without bindings
+     *
+     * @return true, if it overrides
+     */
+    boolean contains(final MethodDeclaration node) {
+        return !this.overrides.isEmpty() && this.overrides.contains(OverrideIndex.key(node));
+    }
+
+    /**
+     * Gets the digest of the overriding methods, which changes whenever the set changes.
+     *
+     * @return the digest
+     */
+    public String getDigest() {
+        return this.digest;
+    }
+
+    /**
+     * Gets the number of overriding methods.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.overrides.size();
+    }
+
+    /**
+     * Gets the key of a method.
+     *
+     * @param node
+     *            the node
+     *
+     * @return the package, enclosing type names and signature
+     */
+    static String key(final MethodDeclaration node) {
+        final var sb = new StringBuilder('#' + ProjectDocIndex.signature(node));
+        for (var parent = node.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent instanceof final AbstractTypeDeclaration type) {
+                sb.insert(0, type.getName().getIdentifier()).insert(0, '.');
+            } else if (parent instanceof AnonymousClassDeclaration) {
+                sb.insert(0, ".$");
+            } else if (parent instanceof final CompilationUnit cu && cu.getPackage() != null) {
+                sb.insert(0, cu.getPackage().getName().getFullyQualifiedName());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts paths to strings.
+     *
+     * @param paths
+     *            the paths, may be null
+     *
+     * @return the absolute path strings
+     */
+    private static String[] strings(final List<Path> paths) {
+        if (paths == null) {
+            return new String[0];
+        }
+        final var strings = new String[paths.size()];
+        for (var i = 0; i < strings.length; i++) {
+            strings[i] = paths.get(i).toAbsolutePath().toString();
+        }
+        return strings;
+    }
+
+    /**
+     * Digests the keys.
+     *
+     * @param keys
+     *            the keys, sorted
+     *
+     * @return the hex digest
+     */
+    private static String digest(final Set<String> keys) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            for (final String key : keys) {
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Receives the resolved units one at a time and keeps only the keys of their overriding methods.
+     */
+    private static final class Requestor extends FileASTRequestor {
+
+        /** The keys of the overriding methods. */
+        private final Set<String> overrides;
+
+        /** Inheritable methods of each type by binding key, then by name, shared by all subtypes. */
+        private final Map<String, Map<String, List<IMethodBinding>>> inherited = new HashMap<>();
+
+        /** The per-file deadline, may be null. */
+        private final DeadlineProgressMonitor monitor;
+
+        /**
+         * Instantiates a new requestor.
+         *
+         * @param overrides
+         *            the overrides
+         * @param monitor
+         *            the monitor
+         */
+        Requestor(final Set<String> overrides, final DeadlineProgressMonitor monitor) {
+            this.overrides = overrides;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public void acceptAST(final String sourceFilePath, final CompilationUnit ast) {
+            ast.accept(new ASTVisitor() {
+                @Override
+                public boolean visit(final MethodDeclaration node) {
+                    if (!node.isConstructor() && !Modifier.isStatic(node.getModifiers())
+                            && !Modifier.isPrivate(node.getModifiers()) && Requestor.this.overrides(node)) {
+                        Requestor.this.overrides.add(OverrideIndex.key(node));
+                    }
+                    return true;
+                }
+            });
+            if (this.monitor != null) {
+                this.monitor.restart();
+            }
+        }
+
+        /**
+         * Checks if a method overrides a method of any supertype of its declaring type.
+         *
+         * @param node
+         *            the node
+         *
+         * @return true, if it overrides
+         */
+        private boolean overrides(final MethodDeclaration node) {
+            final var binding = node.resolveBinding();
+            if (binding == null || binding.getDeclaringClass() == null) {
+                return false;
+            }
+            final var candidates = this.inheritedMethods(binding.getDeclaringClass()).get(binding.getName());
+            if (candidates != null) {
+                for (final IMethodBinding candidate : candidates) {
+                    if (binding.overrides(candidate)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Gets the inheritable methods of all supertypes of a type, computed from those of its direct supertypes.
+         *
+         * @param type
+         *            the type
+         *
+         * @return the methods by name
+         */
+        private Map<String, List<IMethodBinding>> inheritedMethods(final ITypeBinding type) {
+            final var key = type.getKey();
+            final var cached = this.inherited.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            // Guards against cycles in erroneous code
+            this.inherited.put(key, Map.of());
+            final Map<String, List<IMethodBinding>> methods = new HashMap<>();
+            final List<ITypeBinding> supertypes = new ArrayList<>();
+            if (type.getSuperclass() != null) {
+                supertypes.add(type.getSuperclass());
+            }
+            supertypes.addAll(Arrays.asList(type.getInterfaces()));
+            final Set<String> seen = new HashSet<>();
+            for (final ITypeBinding supertype : supertypes) {
+                for (final IMethodBinding method : supertype.getDeclaredMethods()) {
+                    if (!method.isConstructor() && !Modifier.isStatic(method.getModifiers())
+                            && !Modifier.isPrivate(method.getModifiers()) && seen.add(method.getKey())) {
+                        methods.computeIfAbsent(method.getName(), name -> new ArrayList<>()).add(method);
+                    }
+                }
+                this.inheritedMethods(supertype).forEach((name, list) -> {
+                    for (final IMethodBinding method : list) {
+                        if (seen.add(method.getKey())) {
+                            methods.computeIfAbsent(name, n -> new ArrayList<>()).add(method);
+                        }
+                    }
+                });
+            }
+            this.inherited.put(key, methods);
+            return methods;
+        }
+    }
+}
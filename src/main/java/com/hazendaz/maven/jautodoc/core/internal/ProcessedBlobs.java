@@ -0,0 +1,141 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Git blob ids of file contents that are known to be fully processed under one configuration, used together with
+ * {@link GitIndex} to skip files without reading them.
+ * <p>
+ * The set is stored one id per line, after a first line holding the salt (plugin version and configuration
+ * fingerprint); a stored set with a different salt is discarded. Ids are computed exactly as git does
+ * ({@code "blob <length>\0"} followed by the content), so an output this engine wrote and the user later committed or
+ * staged is recognized through the index. On {@link #save(Set)} ids no longer named by the index are dropped, except
+ * those recorded by the current run.
+ */
+public final class ProcessedBlobs {
+
+    /** The backing file. */
+    private final Path file;
+
+    /** The salt. */
+    private final String salt;
+
+    /** Whether ids are SHA-256 instead of SHA-1. */
+    private final boolean sha256;
+
+    /** Ids loaded from the previous run. */
+    private final Set<String> known;
+
+    /** Ids recorded by this run. */
+    private final Set<String> recorded = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Loads the processed blobs stored in {@code file}.
+     *
+     * @param file
+     *            the file, need not exist
+     * @param salt
+     *            the salt of the current configuration
+     * @param sha256
+     *            whether the repository uses SHA-256 object ids
+     */
+    public ProcessedBlobs(final Path file, final String salt, final boolean sha256) {
+        this.file = file;
+        this.salt = salt;
+        this.sha256 = sha256;
+        this.known = new HashSet<>();
+        try {
+            final var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(salt)) {
+                this.known.addAll(lines.subList(1, lines.size()));
+            }
+        } catch (final IOException e) {
+            // Nothing processed yet
+        }
+    }
+
+    /**
+     * Checks whether content with this blob id was processed.
+     *
+     * @param blobId
+     *            the blob id, may be null
+     *
+     * @return true, if processed
+     */
+    public boolean contains(final String blobId) {
+        return blobId != null && (this.known.contains(blobId) || this.recorded.contains(blobId));
+    }
+
+    /**
+     * Records processed content.
+     *
+     * @param content
+     *            the content as written to disk
+     */
+    public void record(final byte[] content) {
+        this.recorded.add(this.blobId(content));
+    }
+
+    /**
+     * Stores the set, keeping only ids still present in the index or recorded by this run.
+     *
+     * @param live
+     *            the blob ids the index currently names
+     */
+    public void save(final Set<String> live) {
+        final List<String> lines = new ArrayList<>();
+        lines.add(this.salt);
+        for (final String id : this.known) {
+            if (live.contains(id) && !this.recorded.contains(id)) {
+                lines.add(id);
+            }
+        }
+        lines.addAll(this.recorded);
+        try {
+            Files.createDirectories(this.file.toAbsolutePath().getParent());
+            final var temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            // best effort
+        }
+    }
+
+    /**
+     * Computes the git blob id of the content.
+     *
+     * @param content
+     *            the content
+     *
+     * @return the blob id as hex
+     */
+    String blobId(final byte[] content) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(this.sha256 ? "SHA-256" : "SHA-1");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest not available", e);
+        }
+        digest.update(("blob " + content.length + '\0').getBytes(StandardCharsets.US_ASCII));
+        digest.update(content);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
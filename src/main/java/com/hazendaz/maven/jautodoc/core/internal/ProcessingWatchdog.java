@@ -0,0 +1,106 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Background watchdog that periodically reports files whose processing has been running for longer than a threshold.
+ * <p>
+ * Files are registered with {@link #start(Path)} and deregistered with {@link #finish(Path)}. A file that stays
+ * registered is reported once per threshold interval, so a stuck parse keeps producing log lines with a growing elapsed
+ * time rather than a single easily missed warning.
+ */
+public final class ProcessingWatchdog implements AutoCloseable {
+
+    /** In-flight files mapped to their {@link System#nanoTime()} start and last report time. */
+    private final Map<Path, long[]> inFlight = new ConcurrentHashMap<>();
+
+    /** The threshold in nanoseconds. */
+    private final long thresholdNanos;
+
+    /** The callback receiving slow-file reports. */
+    private final BiConsumer<Path, Duration> reporter;
+
+    /** The scheduler, or null when the watchdog is disabled. */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Instantiates a new processing watchdog.
+     *
+     * @param thresholdMillis
+     *            the report threshold in milliseconds; zero or negative disables the watchdog
+     * @param reporter
+     *            receives the stuck file and its elapsed time
+     */
+    public ProcessingWatchdog(final long thresholdMillis, final BiConsumer<Path, Duration> reporter) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.reporter = reporter;
+        if (thresholdMillis <= 0) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var thread = new Thread(r, "jautodoc-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final var period = Math.max(100L, thresholdMillis / 4);
+        this.scheduler.scheduleAtFixedRate(this::scan, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a file as in flight.
+     *
+     * @param file
+     *            the file
+     */
+    public void start(final Path file) {
+        if (this.scheduler != null) {
+            final var now = System.nanoTime();
+            this.inFlight.put(file, new long[] { now, now });
+        }
+    }
+
+    /**
+     * Deregisters a file.
+     *
+     * @param file
+     *            the file
+     */
+    public void finish(final Path file) {
+        this.inFlight.remove(file);
+    }
+
+    /**
+     * Reports every file that has exceeded the threshold since it started or since its last report.
+     */
+    private void scan() {
+        final var now = System.nanoTime();
+        this.inFlight.forEach((file, times) -> {
+            if (now - times[1] >= this.thresholdNanos) {
+                times[1] = now;
+                this.reporter.accept(file, Duration.ofNanos(now - times[0]));
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        this.inFlight.clear();
+    }
+}
@@ -0,0 +1,870 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+/**
+ * Project-wide index of field and method Javadoc by type, so that {@code getterSetterFromField} also finds fields
+ * declared in a superclass in another file, and overriding methods can copy or inherit the documentation of the method
+ * they override.
+ * <p>
+ * Without bindings, types are keyed by simple name and linked to their supertypes through the simple names of their
+ * {@code extends} and {@code implements} clauses. A lookup walks those links, preferring at each step a type of the
+ * same package and otherwise requiring the simple name to be unique in the project. Methods are keyed by name and
+ * erased simple parameter types; when that misses, for example on a type variable, a method of the same name and arity
+ * is used if it is the only one.
+ * <p>
+ * The index is built by a parallel pre-pass that parses declarations only, skipping method bodies. It is persisted as
+ * a compact binary file, normally in the work directory under {@code target/}, that the next run memory-maps: records
+ * of files whose size and modification time are unchanged are decoded from the mapping, the others are skipped by
+ * their length prefix and the files parsed again. Records of files that still exist but are not among the files given,
+ * as when a run processes only part of the tree, stay in the index and are refreshed the same way. Any unreadable or
+ * foreign index file is ignored and rebuilt. Each parse has the per-file time budget; a file exceeding it is left out
+ * of the index, and so parsed again by the next build.
+ */
+public final class ProjectDocIndex {
+
+    /** The empty index. */
+    public static final ProjectDocIndex EMPTY = new ProjectDocIndex(Map.of(), "", 0);
+
+    /** Magic number of the index file, "JADF". */
+    private static final int MAGIC = 0x4A414446;
+
+    /** Format version of the index file. */
+    private static final int VERSION = 2;
+
+    /** The longest superclass chain followed, and a tenth of the most supertypes searched for a method. */
+    private static final int MAX_DEPTH = 32;
+
+    /** Indexed types by simple name. */
+    private final Map<String, List<TypeEntry>> typesByName;
+
+    /** Digest of the indexed content. */
+    private final String digest;
+
+    /** The number of files parsed while building, as opposed to taken from the stored index. */
+    private final int parsedCount;
+
+    /**
+     * Instantiates a new field doc index.
+     *
+     * @param typesByName
+     *            the types by name
+     * @param digest
+     *            the digest
+     * @param parsedCount
+     *            the parsed count
+     */
+    private ProjectDocIndex(final Map<String, List<TypeEntry>> typesByName, final String digest,
+            final int parsedCount) {
+        this.typesByName = typesByName;
+        this.digest = digest;
+        this.parsedCount = parsedCount;
+    }
+
+    /**
+     * Builds the index of the files and of the other files still present from {@code indexFile}, reusing its records
+     * for unchanged files and storing the result there.
+     *
+     * @param files
+     *            the java files of the project
+     * @param indexFile
+     *            the stored index, null to keep the index in memory only
+     * @param threads
+     *            the number of parser threads
+     *
+     * @return the field doc index
+     */
+    public static ProjectDocIndex build(final List<Path> files, final Path indexFile, final int threads) {
+        return ProjectDocIndex.build(files, indexFile, threads, 0, (file, elapsed) -> {
+            // no budget, never called
+        });
+    }
+
+    /**
+     * Builds the index of the files and of the other files still present from {@code indexFile}, reusing its records
+     * for unchanged files and storing the result there.
+     *
+     * @param files
+     *            the java files of the project
+     * @param indexFile
+     *            the stored index, null to keep the index in memory only
+     * @param threads
+     *            the number of parser threads
+     * @param timeoutMillis
+     *            the time budget of each parse in milliseconds; zero or negative means no deadline
+     * @param timedOut
+     *            told about each file left out because its parse exceeded the budget
+     *
+     * @return the field doc index
+     */
+    public static ProjectDocIndex build(final List<Path> files, final Path indexFile, final int threads,
+            final long timeoutMillis, final BiConsumer<Path, Duration> timedOut) {
+        final Map<String, BasicFileAttributes> current = new HashMap<>();
+        for (final Path file : files) {
+            // Missing files are reported when processed
+            final var attributes = ProjectDocIndex.attributes(file);
+            if (attributes != null) {
+                current.put(ProjectDocIndex.key(file), attributes);
+            }
+        }
+        final Map<String, FileEntry> entries = new TreeMap<>();
+        if (indexFile != null) {
+            ProjectDocIndex.read(indexFile, current, entries);
+        }
+
+        final List<Path> stale = new ArrayList<>();
+        for (final String key : current.keySet()) {
+            if (!entries.containsKey(key)) {
+                stale.add(Path.of(key));
+            }
+        }
+        stale.sort(null);
+        for (final FileEntry entry : ProjectDocIndex.parseAll(stale, current, threads, timeoutMillis, timedOut)) {
+            entries.put(entry.path, entry);
+        }
+        if (indexFile != null && !stale.isEmpty()) {
+            ProjectDocIndex.write(indexFile, entries.values());
+        }
+
+        final Map<String, List<TypeEntry>> typesByName = new HashMap<>();
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (final FileEntry entry : entries.values()) {
+            for (final TypeEntry type : entry.types) {
+                typesByName.computeIfAbsent(type.name, n -> new ArrayList<>()).add(type);
+                digest.update(type.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return new ProjectDocIndex(typesByName, HexFormat.of().formatHex(digest.digest()), stale.size());
+    }
+
+    /**
+     * Looks up the Javadoc of a field declared by a superclass.
+     *
+     * @param packageName
+     *            the package of the type declaring the accessor
+     * @param superclass
+     *            the simple name of that type's superclass
+     * @param fieldName
+     *            the field name
+     *
+     * @return the raw Javadoc comment of the field, or null when not found
+     */
+    String lookup(final String packageName, final String superclass, final String fieldName) {
+        var pkg = packageName;
+        var name = superclass;
+        for (var depth = 0; name != null && depth < ProjectDocIndex.MAX_DEPTH; depth++) {
+            final var type = this.resolve(pkg, name);
+            if (type == null) {
+                return null;
+            }
+            final var doc = type.fields.get(fieldName);
+            if (doc != null) {
+                return doc;
+            }
+            pkg = type.packageName;
+            name = type.superclass;
+        }
+        return null;
+    }
+
+    /**
+     * Looks up the documentation of the method a method overrides or implements.
+     *
+     * @param packageName
+     *            the package of the type declaring the method
+     * @param supertypes
+     *            the simple names of that type's direct supertypes
+     * @param signature
+     *            the signature of the method, see {@link #signature(MethodDeclaration)}
+     *
+     * @return the documented method of the nearest supertype, or null when not found
+     */
+    MethodDoc lookupMethod(final String packageName, final List<String> supertypes, final String signature) {
+        final Deque<String[]> queue = new ArrayDeque<>();
+        for (final String supertype : supertypes) {
+            queue.add(new String[] { packageName, supertype });
+        }
+        final Set<TypeEntry> visited = new HashSet<>();
+        while (!queue.isEmpty() && visited.size() < ProjectDocIndex.MAX_DEPTH * 10) {
+            final var next = queue.poll();
+            final var type = this.resolve(next[0], next[1]);
+            if (type == null || !visited.add(type)) {
+                continue;
+            }
+            final var doc = ProjectDocIndex.match(type.methods, signature);
+            if (doc != null) {
+                return doc;
+            }
+            if (type.superclass != null) {
+                queue.add(new String[] { type.packageName, type.superclass });
+            }
+            for (final String supertype : type.interfaces) {
+                queue.add(new String[] { type.packageName, supertype });
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the method of a signature among the documented methods of a type, falling back to the only method of the
+     * same name and arity.
+     *
+     * @param methods
+     *            the documented methods by signature
+     * @param signature
+     *            the signature
+     *
+     * @return the method, or null when not found or ambiguous
+     */
+    static MethodDoc match(final Map<String, MethodDoc> methods, final String signature) {
+        var doc = methods.get(signature);
+        if (doc == null) {
+            final var open = signature.indexOf('(');
+            final var prefix = signature.substring(0, open + 1);
+            final var arity = signature.length() == open + 2 ? 0 : signature.split(",", -1).length;
+            for (final Map.Entry<String, MethodDoc> method : methods.entrySet()) {
+                if (method.getKey().startsWith(prefix) && method.getValue().paramNames.size() == arity) {
+                    if (doc != null) {
+                        return null; // overloaded: ambiguous
+                    }
+                    doc = method.getValue();
+                }
+            }
+        }
+        return doc;
+    }
+
+    /**
+     * Computes the key of a method: its name and the erased simple names of its parameter types, such as
+     * {@code put(String,List[])}.
+     *
+     * @param node
+     *            the method
+     *
+     * @return the signature
+     */
+    static String signature(final MethodDeclaration node) {
+        final var sb = new StringBuilder(node.getName().getIdentifier()).append('(');
+        var first = true;
+        for (final Object obj : node.parameters()) {
+            final var param = (SingleVariableDeclaration) obj;
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append(ProjectDocIndex.simpleName(param.getType().toString()));
+            if (param.isVarargs()) {
+                sb.append("[]");
+            }
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Gets the digest of the indexed content, which changes whenever any indexed field or method Javadoc changes.
+     *
+     * @return the digest
+     */
+    public String getDigest() {
+        return this.digest;
+    }
+
+    /**
+     * Gets the number of files parsed while building, as opposed to taken from the stored index.
+     *
+     * @return the parsed count
+     */
+    public int getParsedCount() {
+        return this.parsedCount;
+    }
+
+    /**
+     * Resolves a simple type name as seen from a package.
+     *
+     * @param packageName
+     *            the package
+     * @param name
+     *            the simple name
+     *
+     * @return the type, or null when unknown or ambiguous
+     */
+    private TypeEntry resolve(final String packageName, final String name) {
+        final var candidates = this.typesByName.get(name);
+        if (candidates == null) {
+            return null;
+        }
+        for (final TypeEntry candidate : candidates) {
+            if (candidate.packageName.equals(packageName)) {
+                return candidate;
+            }
+        }
+        return candidates.size() == 1 ? candidates.get(0) : null;
+    }
+
+    /**
+     * Parses files on a worker pool.
+     *
+     * @param files
+     *            the files
+     * @param attributes
+     *            the attributes of the files by key
+     * @param threads
+     *            the number of threads
+     * @param timeoutMillis
+     *            the time budget of each parse in milliseconds
+     * @param timedOut
+     *            told about each file whose parse exceeded the budget
+     *
+     * @return the entries of the files that could be read in time
+     */
+    private static List<FileEntry> parseAll(final List<Path> files, final Map<String, BasicFileAttributes> attributes,
+            final int threads, final long timeoutMillis, final BiConsumer<Path, Duration> timedOut) {
+        final List<FileEntry> entries = new ArrayList<>(files.size());
+        if (files.isEmpty()) {
+            return entries;
+        }
+        final var threadIds = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())), r -> {
+            final var thread = new Thread(r, "jautodoc-indexer-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<FileEntry>> futures = new ArrayList<>(files.size());
+            for (final Path file : files) {
+                final var attrs = attributes.get(ProjectDocIndex.key(file));
+                futures.add(executor.submit(() -> ProjectDocIndex.parse(file, attrs, timeoutMillis, timedOut)));
+            }
+            for (final Future<FileEntry> future : futures) {
+                final var entry = future.get();
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while indexing sources", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof final Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Unable to index sources", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses the declarations of one file.
+     *
+     * @param file
+     *            the file
+     * @param attributes
+     *            the attributes read before
+     * @param timeoutMillis
+     *            the time budget of the parse in milliseconds
+     * @param timedOut
+     *            told about the file if its parse exceeds the budget
+     *
+     * @return the entry, or null when the file cannot be read in time
+     */
+    private static FileEntry parse(final Path file, final BasicFileAttributes attributes, final long timeoutMillis,
+            final BiConsumer<Path, Duration> timedOut) {
+        final String source;
+        try {
+            source = Files.readString(file, StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            return null;
+        }
+        final var monitor = new DeadlineProgressMonitor(timeoutMillis);
+        final var start = System.nanoTime();
+        final CompilationUnit cu;
+        try {
+            cu = JavaSourceProcessor.parse(source, monitor, true);
+        } catch (final OperationCanceledException e) {
+            timedOut.accept(file, Duration.ofNanos(System.nanoTime() - start));
+            return null;
+        }
+        final var packageName = cu.getPackage() != null ? cu.getPackage().getName().getFullyQualifiedName() : "";
+        final List<TypeEntry> types = new ArrayList<>();
+        cu.accept(new ASTVisitor() {
+            @Override
+            public boolean visit(final TypeDeclaration node) {
+                final Map<String, String> fields = new TreeMap<>();
+                for (final FieldDeclaration field : node.getFields()) {
+                    final var jdoc = field.getJavadoc();
+                    if (jdoc != null) {
+                        final var text = source.substring(jdoc.getStartPosition(),
+                                jdoc.getStartPosition() + jdoc.getLength());
+                        for (final Object obj : field.fragments()) {
+                            fields.put(((VariableDeclarationFragment) obj).getName().getIdentifier(), text);
+                        }
+                    }
+                }
+                final Map<String, MethodDoc> methods = new TreeMap<>();
+                for (final MethodDeclaration method : node.getMethods()) {
+                    final var jdoc = method.getJavadoc();
+                    if (jdoc != null && !method.isConstructor() && !Modifier.isStatic(method.getModifiers())
+                            && !Modifier.isPrivate(method.getModifiers())) {
+                        final List<String> paramNames = new ArrayList<>();
+                        for (final Object obj : method.parameters()) {
+                            paramNames.add(((SingleVariableDeclaration) obj).getName().getIdentifier());
+                        }
+                        methods.put(ProjectDocIndex.signature(method), new MethodDoc(paramNames, source
+                                .substring(jdoc.getStartPosition(), jdoc.getStartPosition() + jdoc.getLength())));
+                    }
+                }
+                final var superclass = node.getSuperclassType();
+                types.add(new TypeEntry(packageName, node.getName().getIdentifier(),
+                        superclass != null ? ProjectDocIndex.simpleName(superclass.toString()) : null,
+                        ProjectDocIndex.simpleNames(node.superInterfaceTypes()), fields, methods));
+                return true;
+            }
+        });
+        return new FileEntry(ProjectDocIndex.key(file), attributes.size(), attributes.lastModifiedTime().toMillis(),
+                types);
+    }
+
+    /**
+     * Reduces a type as written in source, such as {@code com.acme.Base<T>} or {@code java.util.List<String>[]}, to
+     * its erased simple name.
+     *
+     * @param type
+     *            the type
+     *
+     * @return the simple name, keeping array brackets
+     */
+    static String simpleName(final String type) {
+        final var erased = new StringBuilder(type.length());
+        var depth = 0;
+        for (var i = 0; i < type.length(); i++) {
+            final var c = type.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (depth == 0 && !Character.isWhitespace(c)) {
+                erased.append(c);
+            }
+        }
+        return erased.substring(erased.lastIndexOf(".") + 1);
+    }
+
+    /**
+     * Reduces types to their simple names.
+     *
+     * @param types
+     *            the types
+     *
+     * @return the simple names
+     */
+    static List<String> simpleNames(final List<?> types) {
+        final List<String> names = new ArrayList<>(types.size());
+        for (final Object type : types) {
+            names.add(ProjectDocIndex.simpleName(type.toString()));
+        }
+        return names;
+    }
+
+    /**
+     * Gets the key of a file in the index.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the normalized absolute path
+     */
+    private static String key(final Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Reads the records of unchanged files from a stored index.
+     *
+     * @param indexFile
+     *            the index file
+     * @param current
+     *            the attributes of the current files by key; receives those of other stored files that still exist
+     * @param entries
+     *            receives the records of files whose size and modification time match
+     */
+    private static void read(final Path indexFile, final Map<String, BasicFileAttributes> current,
+            final Map<String, FileEntry> entries) {
+        try (var channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 || buffer.getInt() != ProjectDocIndex.MAGIC
+                    || buffer.getInt() != ProjectDocIndex.VERSION) {
+                return;
+            }
+            final var count = buffer.getInt();
+            final Map<String, FileEntry> read = new HashMap<>();
+            for (var i = 0; i < count; i++) {
+                final var length = buffer.getInt();
+                final var end = buffer.position() + length;
+                final var path = ProjectDocIndex.readString(buffer);
+                final var size = buffer.getLong();
+                final var modified = buffer.getLong();
+                var attributes = current.get(path);
+                if (attributes == null) {
+                    attributes = ProjectDocIndex.attributes(Path.of(path));
+                    if (attributes != null) {
+                        current.put(path, attributes);
+                    }
+                }
+                if (attributes != null && attributes.size() == size
+                        && attributes.lastModifiedTime().toMillis() == modified) {
+                    final var typeCount = buffer.getInt();
+                    final List<TypeEntry> types = new ArrayList<>(typeCount);
+                    for (var t = 0; t < typeCount; t++) {
+                        types.add(ProjectDocIndex.readType(buffer));
+                    }
+                    read.put(path, new FileEntry(path, size, modified, types));
+                }
+                buffer.position(end);
+            }
+            entries.putAll(read);
+        } catch (final IOException | BufferUnderflowException | IllegalArgumentException
+                | NegativeArraySizeException e) {
+            // Missing or damaged: rebuild
+        }
+    }
+
+    /**
+     * Reads the attributes of a file.
+     *
+     * @param file
+     *            the file
+     *
+     * @return the attributes, or null when the file is gone
+     */
+    private static BasicFileAttributes attributes(final Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a type record.
+     *
+     * @param buffer
+     *            the buffer
+     *
+     * @return the type entry
+     */
+    private static TypeEntry readType(final ByteBuffer buffer) {
+        final var packageName = ProjectDocIndex.readString(buffer);
+        final var name = ProjectDocIndex.readString(buffer);
+        final var superclass = ProjectDocIndex.readString(buffer);
+        final var interfaces = ProjectDocIndex.readStrings(buffer);
+        final var fieldCount = buffer.getInt();
+        final Map<String, String> fields = new TreeMap<>();
+        for (var f = 0; f < fieldCount; f++) {
+            fields.put(ProjectDocIndex.readString(buffer), ProjectDocIndex.readString(buffer));
+        }
+        final var methodCount = buffer.getInt();
+        final Map<String, MethodDoc> methods = new TreeMap<>();
+        for (var m = 0; m < methodCount; m++) {
+            final var signature = ProjectDocIndex.readString(buffer);
+            methods.put(signature,
+                    new MethodDoc(ProjectDocIndex.readStrings(buffer), ProjectDocIndex.readString(buffer)));
+        }
+        return new TypeEntry(packageName, name, superclass.isEmpty() ? null : superclass, interfaces, fields,
+                methods);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     *
+     * @param buffer
+     *            the buffer
+     *
+     * @return the string
+     */
+    static String readString(final ByteBuffer buffer) {
+        final var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a count-prefixed list of strings.
+     *
+     * @param buffer
+     *            the buffer
+     *
+     * @return the strings
+     */
+    static List<String> readStrings(final ByteBuffer buffer) {
+        final var count = buffer.getInt();
+        final List<String> strings = new ArrayList<>(Math.min(count, 64));
+        for (var i = 0; i < count; i++) {
+            strings.add(ProjectDocIndex.readString(buffer));
+        }
+        return strings;
+    }
+
+    /**
+     * Stores the index, best effort.
+     *
+     * @param indexFile
+     *            the index file
+     * @param entries
+     *            the entries
+     */
+    private static void write(final Path indexFile, final Iterable<FileEntry> entries) {
+        try {
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            final var temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (var out = new DataOutputStream(Files.newOutputStream(temp))) {
+                final var record = new ByteArrayOutputStream();
+                final var recordOut = new DataOutputStream(record);
+                final List<FileEntry> list = new ArrayList<>();
+                entries.forEach(list::add);
+                out.writeInt(ProjectDocIndex.MAGIC);
+                out.writeInt(ProjectDocIndex.VERSION);
+                out.writeInt(list.size());
+                for (final FileEntry entry : list) {
+                    record.reset();
+                    ProjectDocIndex.writeString(recordOut, entry.path);
+                    recordOut.writeLong(entry.size);
+                    recordOut.writeLong(entry.modified);
+                    recordOut.writeInt(entry.types.size());
+                    for (final TypeEntry type : entry.types) {
+                        ProjectDocIndex.writeString(recordOut, type.packageName);
+                        ProjectDocIndex.writeString(recordOut, type.name);
+                        ProjectDocIndex.writeString(recordOut, type.superclass != null ? type.superclass : "");
+                        ProjectDocIndex.writeStrings(recordOut, type.interfaces);
+                        recordOut.writeInt(type.fields.size());
+                        for (final Map.Entry<String, String> field : type.fields.entrySet()) {
+                            ProjectDocIndex.writeString(recordOut, field.getKey());
+                            ProjectDocIndex.writeString(recordOut, field.getValue());
+                        }
+                        recordOut.writeInt(type.methods.size());
+                        for (final Map.Entry<String, MethodDoc> method : type.methods.entrySet()) {
+                            ProjectDocIndex.writeString(recordOut, method.getKey());
+                            ProjectDocIndex.writeStrings(recordOut, method.getValue().paramNames);
+                            ProjectDocIndex.writeString(recordOut, method.getValue().javadoc);
+                        }
+                    }
+                    recordOut.flush();
+                    out.writeInt(record.size());
+                    record.writeTo(out);
+                }
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            // best effort
+        }
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     *
+     * @param out
+     *            the out
+     * @param value
+     *            the value
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes a count-prefixed list of strings.
+     *
+     * @param out
+     *            the out
+     * @param values
+     *            the values
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    static void writeStrings(final DataOutputStream out, final List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (final String value : values) {
+            ProjectDocIndex.writeString(out, value);
+        }
+    }
+
+    /**
+     * The indexed types of one file.
+     */
+    private static final class FileEntry {
+
+        /** The key of the file. */
+        final String path;
+
+        /** The size when indexed. */
+        final long size;
+
+        /** The modification time in milliseconds when indexed. */
+        final long modified;
+
+        /** The types. */
+        final List<TypeEntry> types;
+
+        /**
+         * Instantiates a new file entry.
+         *
+         * @param path
+         *            the path
+         * @param size
+         *            the size
+         * @param modified
+         *            the modified
+         * @param types
+         *            the types
+         */
+        FileEntry(final String path, final long size, final long modified, final List<TypeEntry> types) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.types = types;
+        }
+    }
+
+    /**
+     * An indexed type: its package, simple name, supertypes and documented fields and methods.
+     */
+    private static final class TypeEntry {
+
+        /** The package name. */
+        final String packageName;
+
+        /** The simple name. */
+        final String name;
+
+        /** The simple name of the superclass, null when there is no extends clause. */
+        final String superclass;
+
+        /** The simple names of the implemented, or for an interface extended, interfaces. */
+        final List<String> interfaces;
+
+        /** Raw field Javadoc by field name. */
+        final Map<String, String> fields;
+
+        /** Documented methods by signature. */
+        final Map<String, MethodDoc> methods;
+
+        /**
+         * Instantiates a new type entry.
+         *
+         * @param packageName
+         *            the package name
+         * @param name
+         *            the name
+         * @param superclass
+         *            the superclass
+         * @param interfaces
+         *            the interfaces
+         * @param fields
+         *            the fields
+         * @param methods
+         *            the methods
+         */
+        TypeEntry(final String packageName, final String name, final String superclass, final List<String> interfaces,
+                final Map<String, String> fields, final Map<String, MethodDoc> methods) {
+            this.packageName = packageName;
+            this.name = name;
+            this.superclass = superclass;
+            this.interfaces = interfaces;
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+        @Override
+        public String toString() {
+            return this.packageName + '.' + this.name + " extends " + this.superclass + " implements " + this.interfaces
+                    + ' ' + this.fields + ' ' + this.methods + '\n';
+        }
+    }
+
+    /**
+     * The documentation of an indexed method.
+     */
+    static final class MethodDoc {
+
+        /** The parameter names, in order. */
+        final List<String> paramNames;
+
+        /** The raw Javadoc comment. */
+        final String javadoc;
+
+        /**
+         * Instantiates a new method doc.
+         *
+         * @param paramNames
+         *            the param names
+         * @param javadoc
+         *            the javadoc
+         */
+        MethodDoc(final List<String> paramNames, final String javadoc) {
+            this.paramNames = List.copyOf(paramNames);
+            this.javadoc = javadoc;
+        }
+
+        @Override
+        public String toString() {
+            return this.paramNames + this.javadoc;
+        }
+    }
+}
@@ -0,0 +1,610 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+/**
+ * Method Javadoc of library types, read from their {@code -sources.jar} files, so that overrides of library methods
+ * can copy or inherit the library's own documentation.
+ * <p>
+ * Each jar is scanned once: its {@code .java} entries are read through the zip central directory and parsed for
+ * declarations only, and the documented methods and supertypes of every type are stored as a binary index file keyed
+ * by the jar's path, size and modification time. Later runs, of any project using the same jar, memory-map that file,
+ * read only its table of type names and decode a type's record when a lookup first reaches it. Jars are only read from
+ * disk; nothing is ever downloaded.
+ * <p>
+ * Unlike the project index, types are keyed by qualified name. A supertype as written in source is resolved through
+ * the single-type imports of its file, or else tried in the file's package, its on-demand imports and
+ * {@code java.lang}, in that order.
+ */
+public final class SourceJarDocIndex {
+
+    /** The empty index. */
+    public static final SourceJarDocIndex EMPTY = new SourceJarDocIndex(List.of(), "", 0);
+
+    /** Magic number of an index file, "JASJ". */
+    private static final int MAGIC = 0x4A41534A;
+
+    /** Format version of an index file. */
+    private static final int VERSION = 1;
+
+    /** The most types searched for a method. */
+    private static final int MAX_TYPES = 320;
+
+    /** The indexed jars, in classpath order. */
+    private final List<JarIndex> jars;
+
+    /** Digest of the identities of the jars. */
+    private final String digest;
+
+    /** The number of jars scanned while opening, as opposed to taken from their stored index. */
+    private final int scannedCount;
+
+    /**
+     * Instantiates a new source jar doc index.
+     *
+     * @param jars
+     *            the jars
+     * @param digest
+     *            the digest
+     * @param scannedCount
+     *            the scanned count
+     */
+    private SourceJarDocIndex(final List<JarIndex> jars, final String digest, final int scannedCount) {
+        this.jars = jars;
+        this.digest = digest;
+        this.scannedCount = scannedCount;
+    }
+
+    /**
+     * Opens the index of each jar, scanning the jars that have no up-to-date index file. Jars that cannot be read are
+     * left out.
+     *
+     * @param jars
+     *            the source jars, in classpath order
+     * @param indexDirectory
+     *            the directory of the index files, shared by all projects; null to keep the indexes in memory only
+     *
+     * @return the source jar doc index
+     */
+    public static SourceJarDocIndex open(final List<Path> jars, final Path indexDirectory) {
+        if (jars.isEmpty()) {
+            return SourceJarDocIndex.EMPTY;
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        final List<JarIndex> indexes = new ArrayList<>(jars.size());
+        var scanned = 0;
+        for (final Path jar : jars) {
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+            } catch (final IOException e) {
+                continue;
+            }
+            final var path = jar.toAbsolutePath().normalize().toString();
+            final var size = attributes.size();
+            final var modified = attributes.lastModifiedTime().toMillis();
+            final var indexFile = indexDirectory != null ? indexDirectory.resolve(SourceJarDocIndex.fileName(path))
+                    : null;
+            var buffer = indexFile != null ? SourceJarDocIndex.map(indexFile) : null;
+            var index = buffer != null ? JarIndex.read(buffer, size, modified) : null;
+            if (index == null) {
+                final byte[] bytes;
+                try {
+                    bytes = SourceJarDocIndex.scan(jar, size, modified);
+                } catch (final IOException | RuntimeException e) {
+                    continue;
+                }
+                scanned++;
+                buffer = indexFile != null && SourceJarDocIndex.write(indexFile, bytes)
+                        ? SourceJarDocIndex.map(indexFile)
+                        : null;
+                index = JarIndex.read(buffer != null ? buffer : ByteBuffer.wrap(bytes), size, modified);
+                if (index == null) {
+                    continue;
+                }
+            }
+            indexes.add(index);
+            digest.update((path + '\n' + size + '\n' + modified + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        return new SourceJarDocIndex(List.copyOf(indexes), HexFormat.of().formatHex(digest.digest()), scanned);
+    }
+
+    /**
+     * Looks up the documentation of the method a method overrides or implements.
+     *
+     * @param supertypes
+     *            for each direct supertype, its candidate qualified names, see {@link #candidates(String,
+     *            CompilationUnit)}
+     * @param signature
+     *            the signature of the method, see {@link ProjectDocIndex#signature(MethodDeclaration)}
+     *
+     * @return the documented method of the nearest supertype, or null when not found
+     */
+    ProjectDocIndex.MethodDoc lookupMethod(final List<List<String>> supertypes, final String signature) {
+        if (this.jars.isEmpty()) {
+            return null;
+        }
+        final Deque<List<String>> queue = new ArrayDeque<>(supertypes);
+        final Set<String> visited = new HashSet<>();
+        while (!queue.isEmpty() && visited.size() < SourceJarDocIndex.MAX_TYPES) {
+            final var candidates = queue.poll();
+            for (final String name : candidates) {
+                final var type = this.type(name);
+                if (type == null) {
+                    continue;
+                }
+                if (visited.add(name)) {
+                    final var doc = ProjectDocIndex.match(type.methods, signature);
+                    if (doc != null) {
+                        return doc;
+                    }
+                    queue.addAll(type.supertypes);
+                }
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the digest of the identities of the indexed jars, which changes whenever a jar is added, removed or
+     * replaced.
+     *
+     * @return the digest
+     */
+    public String getDigest() {
+        return this.digest;
+    }
+
+    /**
+     * Gets the number of jars scanned while opening, as opposed to taken from their stored index.
+     *
+     * @return the scanned count
+     */
+    public int getScannedCount() {
+        return this.scannedCount;
+    }
+
+    /**
+     * Lists the qualified names a type written in a compilation unit may refer to, most likely first.
+     *
+     * @param written
+     *            the type as written, such as {@code Comparable<T>} or {@code java.util.Map.Entry}
+     * @param cu
+     *            the compilation unit
+     *
+     * @return the candidate qualified names, erased
+     */
+    static List<String> candidates(final String written, final CompilationUnit cu) {
+        final var erased = SourceJarDocIndex.erase(written);
+        final var dot = erased.indexOf('.');
+        final var first = dot < 0 ? erased : erased.substring(0, dot);
+        if (dot >= 0 && Character.isLowerCase(first.charAt(0))) {
+            return List.of(erased);
+        }
+        final List<String> onDemand = new ArrayList<>();
+        for (final Object obj : cu.imports()) {
+            final var imported = (ImportDeclaration) obj;
+            if (imported.isStatic()) {
+                continue;
+            }
+            final var name = imported.getName().getFullyQualifiedName();
+            if (imported.isOnDemand()) {
+                onDemand.add(name + '.' + erased);
+            } else if (name.equals(first) || name.endsWith('.' + first)) {
+                return List.of(name + erased.substring(first.length()));
+            }
+        }
+        final List<String> candidates = new ArrayList<>(onDemand.size() + 2);
+        candidates.add(cu.getPackage() != null ? cu.getPackage().getName().getFullyQualifiedName() + '.' + erased
+                : erased);
+        candidates.addAll(onDemand);
+        candidates.add("java.lang." + erased);
+        return candidates;
+    }
+
+    /**
+     * Erases type arguments, array brackets and whitespace from a type as written.
+     *
+     * @param type
+     *            the type
+     *
+     * @return the erased name, still qualified as written
+     */
+    private static String erase(final String type) {
+        final var erased = new StringBuilder(type.length());
+        var depth = 0;
+        for (var i = 0; i < type.length(); i++) {
+            final var c = type.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (depth == 0 && c != '[' && c != ']' && !Character.isWhitespace(c)) {
+                erased.append(c);
+            }
+        }
+        return erased.toString();
+    }
+
+    /**
+     * Finds a type in the jars, the first jar declaring it winning.
+     *
+     * @param name
+     *            the qualified name
+     *
+     * @return the type, or null when no jar declares it
+     */
+    private TypeRecord type(final String name) {
+        for (final JarIndex jar : this.jars) {
+            final var type = jar.type(name);
+            if (type != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scans a jar into the bytes of its index.
+     *
+     * @param jar
+     *            the jar
+     * @param size
+     *            the size of the jar
+     * @param modified
+     *            the modification time of the jar
+     *
+     * @return the index bytes
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private static byte[] scan(final Path jar, final long size, final long modified) throws IOException {
+        final Map<String, byte[]> records = new TreeMap<>();
+        try (var zip = new ZipFile(jar.toFile(), StandardCharsets.UTF_8)) {
+            final var entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final var entry = entries.nextElement();
+                final var name = entry.getName();
+                if (entry.isDirectory() || !name.endsWith(".java") || name.endsWith("-info.java")) {
+                    continue;
+                }
+                final String source;
+                try (var in = zip.getInputStream(entry)) {
+                    source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                SourceJarDocIndex.index(source, records);
+            }
+        }
+
+        final var tableBytes = new ByteArrayOutputStream();
+        final var recordBytes = new ByteArrayOutputStream();
+        try (var table = new DataOutputStream(tableBytes)) {
+            table.writeInt(SourceJarDocIndex.MAGIC);
+            table.writeInt(SourceJarDocIndex.VERSION);
+            table.writeLong(size);
+            table.writeLong(modified);
+            table.writeInt(records.size());
+            for (final Map.Entry<String, byte[]> record : records.entrySet()) {
+                ProjectDocIndex.writeString(table, record.getKey());
+                table.writeInt(recordBytes.size());
+                recordBytes.write(record.getValue());
+            }
+        }
+        recordBytes.writeTo(tableBytes);
+        return tableBytes.toByteArray();
+    }
+
+    /**
+     * Indexes the documented types of one source file.
+     *
+     * @param source
+     *            the source
+     * @param records
+     *            receives the encoded type records by qualified name
+     */
+    private static void index(final String source, final Map<String, byte[]> records) {
+        final var cu = JavaSourceProcessor.parse(source, null, true);
+        cu.accept(new ASTVisitor() {
+            @Override
+            public boolean visit(final TypeDeclaration node) {
+                final List<List<String>> supertypes = new ArrayList<>();
+                if (node.getSuperclassType() != null) {
+                    supertypes.add(SourceJarDocIndex.candidates(node.getSuperclassType().toString(), cu));
+                }
+                for (final Object type : node.superInterfaceTypes()) {
+                    supertypes.add(SourceJarDocIndex.candidates(type.toString(), cu));
+                }
+                final var bytes = new ByteArrayOutputStream();
+                var documented = 0;
+                try (var out = new DataOutputStream(bytes)) {
+                    out.writeInt(supertypes.size());
+                    for (final List<String> candidates : supertypes) {
+                        ProjectDocIndex.writeStrings(out, candidates);
+                    }
+                    final var methods = new ByteArrayOutputStream();
+                    final var methodsOut = new DataOutputStream(methods);
+                    for (final MethodDeclaration method : node.getMethods()) {
+                        final var jdoc = method.getJavadoc();
+                        if (jdoc == null || method.isConstructor() || Modifier.isStatic(method.getModifiers())
+                                || Modifier.isPrivate(method.getModifiers())) {
+                            continue;
+                        }
+                        final List<String> paramNames = new ArrayList<>();
+                        for (final Object obj : method.parameters()) {
+                            paramNames.add(((SingleVariableDeclaration) obj).getName().getIdentifier());
+                        }
+                        ProjectDocIndex.writeString(methodsOut, ProjectDocIndex.signature(method));
+                        ProjectDocIndex.writeStrings(methodsOut, paramNames);
+                        ProjectDocIndex.writeString(methodsOut, source.substring(jdoc.getStartPosition(),
+                                jdoc.getStartPosition() + jdoc.getLength()));
+                        documented++;
+                    }
+                    methodsOut.flush();
+                    out.writeInt(documented);
+                    methods.writeTo(out);
+                } catch (final IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                if (documented > 0 || !supertypes.isEmpty()) {
+                    records.put(SourceJarDocIndex.qualifiedName(node, cu), bytes.toByteArray());
+                }
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Gets the qualified name of a type declaration, nested types joined with dots.
+     *
+     * @param node
+     *            the node
+     * @param cu
+     *            the compilation unit
+     *
+     * @return the qualified name
+     */
+    private static String qualifiedName(final AbstractTypeDeclaration node, final CompilationUnit cu) {
+        final var sb = new StringBuilder(node.getName().getIdentifier());
+        for (ASTNode parent = node.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent instanceof final AbstractTypeDeclaration type) {
+                sb.insert(0, '.').insert(0, type.getName().getIdentifier());
+            }
+        }
+        if (cu.getPackage() != null) {
+            sb.insert(0, '.').insert(0, cu.getPackage().getName().getFullyQualifiedName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the file name of the index of a jar.
+     *
+     * @param path
+     *            the normalized absolute path of the jar
+     *
+     * @return the file name
+     */
+    private static String fileName(final String path) {
+        try {
+            final var hash = MessageDigest.getInstance("SHA-256").digest(path.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16) + ".idx";
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Maps an index file.
+     *
+     * @param indexFile
+     *            the index file
+     *
+     * @return the mapped buffer, or null when the file cannot be read
+     */
+    private static ByteBuffer map(final Path indexFile) {
+        try (var channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores an index file, best effort.
+     *
+     * @param indexFile
+     *            the index file
+     * @param bytes
+     *            the bytes
+     *
+     * @return true, if stored
+     */
+    private static boolean write(final Path indexFile, final byte[] bytes) {
+        try {
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            final var temp = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The index of one jar: its table of types, whose records are decoded on first use.
+     */
+    private static final class JarIndex {
+
+        /** The buffer, positioned nowhere in particular; only duplicates are read. */
+        private final ByteBuffer buffer;
+
+        /** The offset of the first record. */
+        private final int recordsStart;
+
+        /** Record offsets, relative to the first record, by qualified type name. */
+        private final Map<String, Integer> offsets;
+
+        /** Decoded records. */
+        private final Map<String, TypeRecord> decoded = new ConcurrentHashMap<>();
+
+        /**
+         * Instantiates a new jar index.
+         *
+         * @param buffer
+         *            the buffer
+         * @param recordsStart
+         *            the records start
+         * @param offsets
+         *            the offsets
+         */
+        private JarIndex(final ByteBuffer buffer, final int recordsStart, final Map<String, Integer> offsets) {
+            this.buffer = buffer;
+            this.recordsStart = recordsStart;
+            this.offsets = offsets;
+        }
+
+        /**
+         * Reads the table of an index.
+         *
+         * @param buffer
+         *            the index bytes
+         * @param size
+         *            the current size of the jar
+         * @param modified
+         *            the current modification time of the jar
+         *
+         * @return the jar index, or null when the index is damaged, foreign or out of date
+         */
+        static JarIndex read(final ByteBuffer buffer, final long size, final long modified) {
+            try {
+                final var in = buffer.duplicate();
+                if (in.remaining() < 28 || in.getInt() != SourceJarDocIndex.MAGIC
+                        || in.getInt() != SourceJarDocIndex.VERSION || in.getLong() != size
+                        || in.getLong() != modified) {
+                    return null;
+                }
+                final var count = in.getInt();
+                final Map<String, Integer> offsets = new HashMap<>(Math.max(16, count * 2));
+                for (var i = 0; i < count; i++) {
+                    offsets.put(ProjectDocIndex.readString(in), in.getInt());
+                }
+                return new JarIndex(buffer, in.position(), offsets);
+            } catch (final BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Gets a type.
+         *
+         * @param name
+         *            the qualified name
+         *
+         * @return the type, or null when this jar does not declare it or its record is damaged
+         */
+        TypeRecord type(final String name) {
+            final var offset = this.offsets.get(name);
+            if (offset == null) {
+                return null;
+            }
+            return this.decoded.computeIfAbsent(name, n -> {
+                try {
+                    final var in = this.buffer.duplicate();
+                    in.position(this.recordsStart + offset);
+                    final var supertypeCount = in.getInt();
+                    final List<List<String>> supertypes = new ArrayList<>(supertypeCount);
+                    for (var i = 0; i < supertypeCount; i++) {
+                        supertypes.add(ProjectDocIndex.readStrings(in));
+                    }
+                    final var methodCount = in.getInt();
+                    final Map<String, ProjectDocIndex.MethodDoc> methods = new TreeMap<>();
+                    for (var m = 0; m < methodCount; m++) {
+                        final var signature = ProjectDocIndex.readString(in);
+                        methods.put(signature, new ProjectDocIndex.MethodDoc(ProjectDocIndex.readStrings(in),
+                                ProjectDocIndex.readString(in)));
+                    }
+                    return new TypeRecord(supertypes, methods);
+                } catch (final BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+                    return TypeRecord.DAMAGED;
+                }
+            });
+        }
+    }
+
+    /**
+     * A decoded type: the candidate names of its supertypes and its documented methods.
+     */
+    private static final class TypeRecord {
+
+        /** A record that could not be decoded. */
+        static final TypeRecord DAMAGED = new TypeRecord(List.of(), Map.of());
+
+        /** Candidate qualified names of each direct supertype. */
+        final List<List<String>> supertypes;
+
+        /** Documented methods by signature. */
+        final Map<String, ProjectDocIndex.MethodDoc> methods;
+
+        /**
+         * Instantiates a new type record.
+         *
+         * @param supertypes
+         *            the supertypes
+         * @param methods
+         *            the methods
+         */
+        TypeRecord(final List<List<String>> supertypes, final Map<String, ProjectDocIndex.MethodDoc> methods) {
+            this.supertypes = supertypes;
+            this.methods = methods;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+/**
+ * Local cache in front of a remote one. Lookups try the local cache first and copy remote hits into it; stores go to
+ * both.
+ */
+public final class TieredOutputCache implements OutputCache {
+
+    /** The local cache. */
+    private final OutputCache local;
+
+    /** The remote cache. */
+    private final OutputCache remote;
+
+    /**
+     * Instantiates a new tiered output cache.
+     *
+     * @param local
+     *            the local cache
+     * @param remote
+     *            the remote cache
+     */
+    public TieredOutputCache(final OutputCache local, final OutputCache remote) {
+        this.local = local;
+        this.remote = remote;
+    }
+
+    @Override
+    public byte[] get(final String key) {
+        final var entry = this.local.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        final var remoteEntry = this.remote.get(key);
+        if (remoteEntry != null) {
+            this.local.put(key, remoteEntry);
+        }
+        return remoteEntry;
+    }
+
+    @Override
+    public void put(final String key, final byte[] entry) {
+        this.local.put(key, entry);
+        this.remote.put(key, entry);
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.local.close();
+        } finally {
+            this.remote.close();
+        }
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Formats the changes of one file as a unified diff, built directly from its {@link JavadocEdit}s instead of comparing
+ * the text before and after them.
+ * <p>
+ * Every edit is widened to the whole lines it touches, edits sharing a line are combined, and changes less than two
+ * context widths apart share a hunk. Line terminators are kept as they are, and a last line without one is marked the
+ * way {@code diff} does, so the output applies with {@code git apply} or {@code patch -p1}.
+ */
+public final class UnifiedDiff {
+
+    /** Number of unchanged lines shown around each change. */
+    private static final int CONTEXT = 3;
+
+    /** The source the edits apply to. */
+    private final String source;
+
+    /** Start offsets of the lines of the source. */
+    private final int[] lineStarts;
+
+    /** Number of lines of the source. */
+    private final int lineCount;
+
+    /**
+     * Instantiates a new unified diff.
+     *
+     * @param source
+     *            the source
+     */
+    private UnifiedDiff(final String source) {
+        this.source = source;
+        var starts = new int[64];
+        var count = 0;
+        var i = 0;
+        while (i < source.length()) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            starts[count++] = i;
+            final var next = source.indexOf('\n', i);
+            if (next < 0) {
+                break;
+            }
+            i = next + 1;
+        }
+        this.lineStarts = starts;
+        this.lineCount = count;
+    }
+
+    /**
+     * Formats the diff of a file.
+     *
+     * @param path
+     *            the path shown in the diff header, with forward slashes
+     * @param source
+     *            the content of the file
+     * @param headed
+     *            the content after the header step, equal to {@code source} when the header is unchanged
+     * @param edits
+     *            the edits of {@code headed}, in ascending offset order and not overlapping
+     *
+     * @return the diff, empty when nothing changes
+     */
+    public static String format(final String path, final String source, final String headed,
+            final List<JavadocEdit> edits) {
+        final var sourceEdits = UnifiedDiff.toSource(source, headed, edits);
+        if (sourceEdits.isEmpty()) {
+            return "";
+        }
+        final var sb = new StringBuilder(256 + sourceEdits.size() * 256);
+        sb.append("--- a/").append(path).append('\n');
+        sb.append("+++ b/").append(path).append('\n');
+        new UnifiedDiff(source).appendHunks(sb, sourceEdits);
+        return sb.toString();
+    }
+
+    /**
+     * Moves the edits of the header-processed text onto the original text, preceded by the header change. Should an
+     * edit overlap the header change, which a header never reaches in practice, the whole change is one edit.
+     *
+     * @param source
+     *            the original text
+     * @param headed
+     *            the text after the header step
+     * @param edits
+     *            the edits of {@code headed}
+     *
+     * @return the edits of {@code source}, in ascending offset order
+     */
+    private static List<JavadocEdit> toSource(final String source, final String headed,
+            final List<JavadocEdit> edits) {
+        if (source.equals(headed)) {
+            return edits;
+        }
+        final var header = UnifiedDiff.difference(source, headed);
+        final var headerEnd = header.offset + header.text.length();
+        final var shift = header.text.length() - header.length;
+        final List<JavadocEdit> result = new ArrayList<>(edits.size() + 1);
+        var headerAdded = false;
+        for (final JavadocEdit edit : edits) {
+            if (edit.offset + edit.length <= header.offset) {
+                result.add(edit);
+            } else if (edit.offset >= headerEnd) {
+                if (!headerAdded) {
+                    result.add(header);
+                    headerAdded = true;
+                }
+                result.add(new JavadocEdit(edit.offset - shift, edit.length, edit.text));
+            } else {
+                final var sb = new StringBuilder(headed);
+                for (var i = edits.size() - 1; i >= 0; i--) {
+                    final var e = edits.get(i);
+                    sb.replace(e.offset, e.offset + e.length, e.text);
+                }
+                return List.of(UnifiedDiff.difference(source, sb.toString()));
+            }
+        }
+        if (!headerAdded) {
+            result.add(header);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the single edit turning one text into another, between their common prefix and suffix.
+     *
+     * @param from
+     *            the original text
+     * @param to
+     *            the changed text
+     *
+     * @return the edit
+     */
+    private static JavadocEdit difference(final String from, final String to) {
+        final var max = Math.min(from.length(), to.length());
+        var prefix = 0;
+        while (prefix < max && from.charAt(prefix) == to.charAt(prefix)) {
+            prefix++;
+        }
+        var suffix = 0;
+        while (suffix < max - prefix
+                && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) {
+            suffix++;
+        }
+        return new JavadocEdit(prefix, from.length() - prefix - suffix,
+                to.substring(prefix, to.length() - suffix));
+    }
+
+    /**
+     * Appends the hunks of the edits.
+     *
+     * @param sb
+     *            the output
+     * @param edits
+     *            the edits of the source, in ascending offset order
+     */
+    private void appendHunks(final StringBuilder sb, final List<JavadocEdit> edits) {
+        final var changes = this.changes(edits);
+        var shift = 0;
+        var first = 0;
+        while (first < changes.size()) {
+            // Changes whose context would touch share one hunk
+            var last = first;
+            while (last + 1 < changes.size()
+                    && changes.get(last + 1).oldFirst - changes.get(last).oldEnd <= 2 * UnifiedDiff.CONTEXT) {
+                last++;
+            }
+            final var start = Math.max(0, changes.get(first).oldFirst - UnifiedDiff.CONTEXT);
+            final var end = Math.min(this.lineCount, changes.get(last).oldEnd + UnifiedDiff.CONTEXT);
+            final var body = new StringBuilder();
+            var newCount = end - start;
+            var line = start;
+            for (var i = first; i <= last; i++) {
+                final var change = changes.get(i);
+                for (; line < change.oldFirst; line++) {
+                    UnifiedDiff.appendLine(body, ' ', this.line(line));
+                }
+                for (; line < change.oldEnd; line++) {
+                    UnifiedDiff.appendLine(body, '-', this.line(line));
+                }
+                for (final String added : change.newLines) {
+                    UnifiedDiff.appendLine(body, '+', added);
+                }
+                newCount += change.newLines.size() - (change.oldEnd - change.oldFirst);
+            }
+            for (; line < end; line++) {
+                UnifiedDiff.appendLine(body, ' ', this.line(line));
+            }
+            sb.append("@@ -").append(UnifiedDiff.range(start, end - start));
+            sb.append(" +").append(UnifiedDiff.range(start + shift, newCount)).append(" @@\n");
+            sb.append(body);
+            shift += newCount - (end - start);
+            first = last + 1;
+        }
+    }
+
+    /**
+     * Widens the edits to whole lines, combining edits that share a line.
+     *
+     * @param edits
+     *            the edits, in ascending offset order
+     *
+     * @return the changes, in ascending line order
+     */
+    private List<Change> changes(final List<JavadocEdit> edits) {
+        final List<Change> changes = new ArrayList<>(edits.size());
+        var groupStart = -1;
+        var groupEnd = -1;
+        final List<JavadocEdit> group = new ArrayList<>();
+        for (final JavadocEdit edit : edits) {
+            final var start = this.lineStartOf(edit.offset);
+            final var end = edit.offset + edit.length;
+            // The rest of the last line is part of the change unless the new text ends a line where the old part did
+            final var endsLine = this.isLineStart(end)
+                    && (edit.offset == start && edit.text.isEmpty() || edit.text.endsWith("\n"));
+            final var regionEnd = endsLine ? end : this.nextLineStart(end);
+            if (!group.isEmpty() && start < groupEnd) {
+                groupEnd = Math.max(groupEnd, regionEnd);
+            } else {
+                if (!group.isEmpty()) {
+                    changes.add(this.change(groupStart, groupEnd, group));
+                    group.clear();
+                }
+                groupStart = start;
+                groupEnd = regionEnd;
+            }
+            group.add(edit);
+        }
+        if (!group.isEmpty()) {
+            changes.add(this.change(groupStart, groupEnd, group));
+        }
+        return changes;
+    }
+
+    /**
+     * Builds the change of a group of edits.
+     *
+     * @param start
+     *            the start of the first line touched
+     * @param end
+     *            the end of the last line touched
+     * @param edits
+     *            the edits
+     *
+     * @return the change
+     */
+    private Change change(final int start, final int end, final List<JavadocEdit> edits) {
+        final var text = new StringBuilder(end - start + 256);
+        var position = start;
+        for (final JavadocEdit edit : edits) {
+            text.append(this.source, position, edit.offset).append(edit.text);
+            position = edit.offset + edit.length;
+        }
+        text.append(this.source, position, end);
+        final List<String> lines = new ArrayList<>();
+        for (var i = 0; i < text.length();) {
+            final var next = text.indexOf("\n", i);
+            final var stop = next < 0 ? text.length() : next + 1;
+            lines.add(text.substring(i, stop));
+            i = stop;
+        }
+        return new Change(this.lineAt(start), this.lineAt(end), lines);
+    }
+
+    /**
+     * Checks if an offset is the start of a line; the end of the text counts when the text ends with a line break.
+     *
+     * @param offset
+     *            the offset
+     *
+     * @return true, if a line starts there
+     */
+    private boolean isLineStart(final int offset) {
+        return offset == 0 || this.source.charAt(offset - 1) == '\n';
+    }
+
+    /**
+     * Gets the start of the line containing an offset.
+     *
+     * @param offset
+     *            the offset
+     *
+     * @return the line start
+     */
+    private int lineStartOf(final int offset) {
+        if (this.isLineStart(offset)) {
+            return offset;
+        }
+        return this.lineStarts[this.lineIndex(offset)];
+    }
+
+    /**
+     * Gets the start of the line after the one containing an offset.
+     *
+     * @param offset
+     *            the offset
+     *
+     * @return the next line start, or the end of the text
+     */
+    private int nextLineStart(final int offset) {
+        final var next = this.source.indexOf('\n', offset);
+        return next < 0 ? this.source.length() : next + 1;
+    }
+
+    /**
+     * Gets the index of the line starting at an offset.
+     *
+     * @param offset
+     *            a line start or the end of the text
+     *
+     * @return the line index, {@link #lineCount} for the end of the text
+     */
+    private int lineAt(final int offset) {
+        return offset >= this.source.length() ? this.lineCount : this.lineIndex(offset);
+    }
+
+    /**
+     * Gets the index of the line containing an offset before the end of the text.
+     *
+     * @param offset
+     *            the offset
+     *
+     * @return the line index
+     */
+    private int lineIndex(final int offset) {
+        final var found = Arrays.binarySearch(this.lineStarts, 0, this.lineCount, offset);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * Gets a line of the source with its terminator.
+     *
+     * @param index
+     *            the line index
+     *
+     * @return the line
+     */
+    private String line(final int index) {
+        final var end = index + 1 < this.lineCount ? this.lineStarts[index + 1] : this.source.length();
+        return this.source.substring(this.lineStarts[index], end);
+    }
+
+    /**
+     * Formats the line range of a hunk header.
+     *
+     * @param start
+     *            the zero-based first line
+     * @param count
+     *            the number of lines
+     *
+     * @return the range
+     */
+    private static String range(final int start, final int count) {
+        // An empty range names the line before it
+        return (count == 0 ? start : start + 1) + "," + count;
+    }
+
+    /**
+     * Appends a diff line.
+     *
+     * @param sb
+     *            the output
+     * @param marker
+     *            the marker: space, minus or plus
+     * @param line
+     *            the line, with its terminator if it has one
+     */
+    private static void appendLine(final StringBuilder sb, final char marker, final String line) {
+        sb.append(marker).append(line);
+        if (!line.endsWith("\n")) {
+            sb.append("\n\\ No newline at end of file\n");
+        }
+    }
+
+    /**
+     * Whole lines replaced by new ones.
+     */
+    private static final class Change {
+
+        /** Index of the first line replaced. */
+        final int oldFirst;
+
+        /** Index after the last line replaced. */
+        final int oldEnd;
+
+        /** The new lines, with their terminators. */
+        final List<String> newLines;
+
+        /**
+         * Instantiates a new change.
+         *
+         * @param oldFirst
+         *            the old first
+         * @param oldEnd
+         *            the old end
+         * @param newLines
+         *            the new lines
+         */
+        Change(final int oldFirst, final int oldEnd, final List<String> newLines) {
+            this.oldFirst = oldFirst;
+            this.oldEnd = oldEnd;
+            this.newLines = newLines;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Replacements for the lower case words split from identifiers, such as abbreviation expansions
+ * ({@code dto=data transfer object}, {@code cfg mgr=configuration manager}) and acronym casing ({@code url=URL}).
+ * <p>
+ * An entry is written {@code <words>=<replacement>}; the words are matched case-insensitively and only as whole words,
+ * and the replacement is written verbatim. Where entries overlap, the leftmost and then the longest match wins.
+ * <p>
+ * Entries are compiled once into an Aho-Corasick automaton over the space-joined words, so applying the dictionary
+ * takes one pass over the identifier, however many entries there are.
+ */
+public final class WordDictionary {
+
+    /** The empty dictionary. */
+    static final WordDictionary NONE = new WordDictionary(null);
+
+    /** The root of the automaton, null when there is no entry. */
+    private final Node root;
+
+    /**
+     * Instantiates a new word dictionary.
+     *
+     * @param root
+     *            the root
+     */
+    private WordDictionary(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles entries into a dictionary. Later entries for the same words replace earlier ones.
+     *
+     * @param entries
+     *            the entries
+     *
+     * @return the word dictionary
+     *
+     * @throws IllegalArgumentException
+     *             if an entry is malformed
+     */
+    static WordDictionary compile(final List<String> entries) {
+        if (entries.isEmpty()) {
+            return WordDictionary.NONE;
+        }
+        final var root = new Node(0);
+        for (final String entry : entries) {
+            final var parsed = WordDictionary.parse(entry);
+            var node = root;
+            for (var i = 0; i < parsed.getKey().length(); i++) {
+                final var depth = i + 1;
+                node = node.children.computeIfAbsent(parsed.getKey().charAt(i), c -> new Node(depth));
+            }
+            node.replacement = parsed.getValue();
+        }
+
+        // Breadth-first failure and output links
+        final var queue = new ArrayDeque<Node>();
+        for (final Node child : root.children.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            final var node = queue.poll();
+            for (final Map.Entry<Character, Node> edge : node.children.entrySet()) {
+                final var child = edge.getValue();
+                var fail = node.fail;
+                while (fail != root && !fail.children.containsKey(edge.getKey())) {
+                    fail = fail.fail;
+                }
+                final var target = fail.children.get(edge.getKey());
+                child.fail = target != null ? target : root;
+                child.output = child.fail.replacement != null ? child.fail : child.fail.output;
+                queue.add(child);
+            }
+        }
+        return new WordDictionary(root);
+    }
+
+    /**
+     * Validates an entry.
+     *
+     * @param entry
+     *            the entry
+     *
+     * @throws IllegalArgumentException
+     *             if the entry is malformed
+     */
+    public static void validate(final String entry) {
+        WordDictionary.parse(entry);
+    }
+
+    /**
+     * Joins lower case words with single spaces, replacing dictionary matches.
+     *
+     * @param words
+     *            the lower case words
+     *
+     * @return the text
+     */
+    String apply(final List<String> words) {
+        final var text = String.join(" ", words);
+        if (this.root == null) {
+            return text;
+        }
+
+        // Longest match starting at each word start, as end offset (exclusive) and replacement
+        final var length = text.length();
+        final var ends = new int[length];
+        Arrays.fill(ends, -1);
+        final var replacements = new String[length];
+        var node = this.root;
+        for (var i = 0; i < length; i++) {
+            final var c = text.charAt(i);
+            while (node != this.root && !node.children.containsKey(c)) {
+                node = node.fail;
+            }
+            node = node.children.getOrDefault(c, this.root);
+            if (i + 1 < length && text.charAt(i + 1) != ' ') {
+                continue;
+            }
+            for (var match = node.replacement != null ? node : node.output; match != null; match = match.output) {
+                final var start = i + 1 - match.depth;
+                if ((start == 0 || text.charAt(start - 1) == ' ') && i + 1 > ends[start]) {
+                    ends[start] = i + 1;
+                    replacements[start] = match.replacement;
+                }
+            }
+        }
+
+        final var sb = new StringBuilder(length + 16);
+        var i = 0;
+        while (i < length) {
+            if (ends[i] >= 0) {
+                sb.append(replacements[i]);
+                i = ends[i];
+            } else {
+                sb.append(text.charAt(i));
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses an entry into its normalized words and replacement.
+     *
+     * @param entry
+     *            the entry
+     *
+     * @return the words, lower case and single-space separated, and the replacement
+     */
+    private static Map.Entry<String, String> parse(final String entry) {
+        final var eq = entry.indexOf('=');
+        final var words = eq < 0 ? "" : String.join(" ", entry.substring(0, eq).trim().split("\\s+"));
+        final var replacement = eq < 0 ? "" : entry.substring(eq + 1).trim();
+        if (words.isEmpty() || replacement.isEmpty()) {
+            throw new IllegalArgumentException("Word replacement must be '<words>=<replacement>': " + entry);
+        }
+        return Map.entry(words.toLowerCase(Locale.ROOT), replacement);
+    }
+
+    /**
+     * An automaton state.
+     */
+    private static final class Node {
+
+        /** The transitions. */
+        final Map<Character, Node> children = new HashMap<>();
+
+        /** The length of the text leading here. */
+        final int depth;
+
+        /** The longest proper suffix state. */
+        Node fail;
+
+        /** The nearest suffix state that ends an entry, null when there is none. */
+        Node output;
+
+        /** The replacement when an entry ends here, null otherwise. */
+        String replacement;
+
+        /**
+         * Instantiates a new node.
+         *
+         * @param depth
+         *            the depth
+         */
+        Node(final int depth) {
+            this.depth = depth;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Runs the git command line for tests that need a real repository.
+ */
+public final class GitTestSupport {
+
+    /**
+     * Instantiates a new git test support.
+     */
+    private GitTestSupport() {
+        // utility class
+    }
+
+    /**
+     * Runs git in a directory, failing the test unless it exits with zero.
+     *
+     * @param directory
+     *            the directory
+     * @param args
+     *            the arguments
+     *
+     * @throws Exception
+     *             the exception
+     */
+    public static void git(final Path directory, final String... args) throws Exception {
+        final List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(args));
+        final Process process = new ProcessBuilder(command).directory(directory.toFile()).inheritIO().start();
+        Assertions.assertEquals(0, process.waitFor(), "git " + String.join(" ", args));
+    }
+}
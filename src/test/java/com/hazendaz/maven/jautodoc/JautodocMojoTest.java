@@ -6,20 +6,27 @@
  */
 package com.hazendaz.maven.jautodoc;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.apache.maven.api.plugin.testing.InjectMojo;
 import org.apache.maven.api.plugin.testing.MojoParameter;
 import org.apache.maven.api.plugin.testing.MojoTest;
+import org.apache.maven.plugin.MojoFailureException;
+import org.codehaus.plexus.util.DirectoryScanner;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.sonatype.plexus.build.incremental.BuildContext;
 
 /**
  * Tests for {@link JautodocMojo} using the Maven plugin testing harness.
@@ -82,6 +89,161 @@ class JautodocMojoTest {
         Assertions.assertEquals(before, after, "Skip should leave source files unchanged");
     }
 
+    /**
+     * A second run over a tree whose file metadata is unchanged exits without processing.
+     *
+     * @param mojo
+     *            the mojo
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    @InjectMojo(goal = "jautodoc", pom = "src/test/resources/mojo/jautodoc/pom.xml")
+    void unchangedTreeIsSkipped(final JautodocMojo mojo) throws Exception {
+        final Path basedir = this.copyProject("jautodoc");
+        final Path workDirectory = this.tempDir.resolve("work");
+        JautodocMojoTest.setField(mojo, "basedir", basedir.toFile());
+        JautodocMojoTest.setField(mojo, "workDirectory", workDirectory.toFile());
+        JautodocMojoTest.setField(mojo, "skipUnchanged", true);
+
+        mojo.execute();
+        Assertions.assertTrue(Files.exists(workDirectory.resolve("tree.stamp")), "Successful run should store a stamp");
+
+        // Turn the Javadoc into a plain comment without changing size or timestamp; a real run would add it back
+        final Path javaFile = basedir.resolve("src/main/java/test/Sample.java");
+        final var modified = Files.getLastModifiedTime(javaFile);
+        final String processed = Files.readString(javaFile, StandardCharsets.UTF_8);
+        final String blanked = processed.replace("/**", "/* ");
+        Files.writeString(javaFile, blanked, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(javaFile, modified);
+
+        mojo.execute();
+
+        Assertions.assertEquals(blanked, Files.readString(javaFile, StandardCharsets.UTF_8),
+                "Unchanged tree should not be processed again");
+    }
+
+    /**
+     * With changedSince only modified and untracked files are processed.
+     *
+     * @param mojo
+     *            the mojo
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    @InjectMojo(goal = "jautodoc", pom = "src/test/resources/mojo/jautodoc/pom.xml")
+    void changedSinceProcessesOnlyChangedFiles(final JautodocMojo mojo) throws Exception {
+        final Path basedir = this.copyProject("jautodoc");
+        final Path sample = basedir.resolve("src/main/java/test/Sample.java");
+        final Path untouched = sample.resolveSibling("Untouched.java");
+        final Path untracked = sample.resolveSibling("Untracked.java");
+        Files.writeString(untouched, "package test;\n\npublic class Untouched {\n}\n", StandardCharsets.UTF_8);
+        GitTestSupport.git(basedir, "init", "-q");
+        GitTestSupport.git(basedir, "add", ".");
+        GitTestSupport.git(basedir, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m",
+                "initial");
+        Files.writeString(sample, Files.readString(sample, StandardCharsets.UTF_8) + "\n", StandardCharsets.UTF_8);
+        Files.writeString(untracked, "package test;\n\npublic class Untracked {\n}\n", StandardCharsets.UTF_8);
+
+        JautodocMojoTest.setField(mojo, "basedir", basedir.toFile());
+        JautodocMojoTest.setField(mojo, "changedSince", "HEAD");
+        JautodocMojoTest.setField(mojo, "skipUnchanged", false);
+        mojo.execute();
+
+        Assertions.assertTrue(Files.readString(sample, StandardCharsets.UTF_8).contains("The Class Sample"));
+        Assertions.assertTrue(Files.readString(untracked, StandardCharsets.UTF_8).contains("The Class Untracked"));
+        Assertions.assertFalse(Files.readString(untouched, StandardCharsets.UTF_8).contains("/**"),
+                "Committed, unmodified files must be left alone");
+    }
+
+    /**
+     * An incremental IDE build processes only the delta reported by the build context and refreshes what it wrote.
+     *
+     * @param mojo
+     *            the mojo
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    @InjectMojo(goal = "jautodoc", pom = "src/test/resources/mojo/jautodoc/pom.xml")
+    void incrementalBuildProcessesOnlyDelta(final JautodocMojo mojo) throws Exception {
+        final Path basedir = this.copyProject("jautodoc");
+        final Path sample = basedir.resolve("src/main/java/test/Sample.java");
+        final Path untouched = sample.resolveSibling("Untouched.java");
+        Files.writeString(untouched, "package test;\n\npublic class Untouched {\n}\n", StandardCharsets.UTF_8);
+
+        final var refreshed = new ArrayList<File>();
+        final var context = (BuildContext) Proxy.newProxyInstance(BuildContext.class.getClassLoader(),
+                new Class<?>[] { BuildContext.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "isIncremental" -> true;
+                    case "newScanner" -> {
+                        // Delta of a single saved file
+                        final var scanner = new DirectoryScanner() {
+                            @Override
+                            public void setIncludes(final String[] includes) {
+                                super.setIncludes(new String[] { "src/main/java/test/Sample.java" });
+                            }
+                        };
+                        scanner.setBasedir((File) args[0]);
+                        yield scanner;
+                    }
+                    case "refresh" -> {
+                        refreshed.add((File) args[0]);
+                        yield null;
+                    }
+                    default -> null;
+                });
+        JautodocMojoTest.setField(mojo, "basedir", basedir.toFile());
+        JautodocMojoTest.setField(mojo, "buildContext", context);
+        mojo.execute();
+
+        Assertions.assertTrue(Files.readString(sample, StandardCharsets.UTF_8).contains("The Class Sample"));
+        Assertions.assertFalse(Files.readString(untouched, StandardCharsets.UTF_8).contains("/**"),
+                "Files outside the delta must be left alone");
+        Assertions.assertEquals(List.of(sample.toFile()), refreshed, "Processed file should be refreshed");
+    }
+
+    /**
+     * The check goal fails on a file that would change without writing it, and on a file it could not check unless
+     * failOnUnchecked is off.
+     *
+     * @param mojo
+     *            the mojo
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    @InjectMojo(goal = "check", pom = "src/test/resources/mojo/jautodoc/pom.xml")
+    void checkFailsOnChangedAndUncheckedFiles(final JautodocCheckMojo mojo) throws Exception {
+        final Path basedir = this.copyProject("jautodoc");
+        final Path sample = basedir.resolve("src/main/java/test/Sample.java");
+        final String before = Files.readString(sample, StandardCharsets.UTF_8);
+        JautodocMojoTest.setField(mojo, "basedir", basedir.toFile());
+        JautodocMojoTest.setField(mojo, "skipUnchanged", false);
+        JautodocMojoTest.setField(mojo, "failOnUnchecked", true);
+
+        final var changed = Assertions.assertThrows(MojoFailureException.class, mojo::execute);
+        Assertions.assertTrue(changed.getMessage().startsWith("Jautodoc would modify 1 file(s)"), changed.getMessage());
+        Assertions.assertEquals(before, Files.readString(sample, StandardCharsets.UTF_8), "Check must not write");
+
+        // Invalid UTF-8 cannot be parsed, so the file is neither a violation nor known to be unchanged
+        Files.delete(sample);
+        Files.write(sample.resolveSibling("Malformed.java"),
+                new byte[] { 'c', 'l', 'a', 's', 's', ' ', (byte) 0xC3, (byte) 0x28 });
+        final var unchecked = Assertions.assertThrows(MojoFailureException.class, mojo::execute);
+        Assertions.assertTrue(unchecked.getMessage().startsWith("Jautodoc could not check 1 file(s)"),
+                unchecked.getMessage());
+
+        // failOnUnchecked=false only warns
+        JautodocMojoTest.setField(mojo, "failOnUnchecked", false);
+        mojo.execute();
+    }
+
     /**
      * Copy project into temp dir.
      *
@@ -122,7 +284,7 @@ class JautodocMojoTest {
     }
 
     /**
-     * Sets the field.
+     * Sets a field declared by the class of the target or one of its superclasses.
      *
      * @param target
      *            the target
@@ -136,8 +298,16 @@ class JautodocMojoTest {
      */
     private static void setField(final Object target, final String name, final Object value)
             throws ReflectiveOperationException {
-        final Field field = target.getClass().getDeclaredField(name);
-        field.setAccessible(true);
-        field.set(target, value);
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                final Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (final NoSuchFieldException e) {
+                // declared further up
+            }
+        }
+        throw new NoSuchFieldException(name);
     }
 }
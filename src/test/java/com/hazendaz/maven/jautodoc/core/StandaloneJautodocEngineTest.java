@@ -6,13 +6,44 @@
  */
 package com.hazendaz.maven.jautodoc.core;
 
+import com.hazendaz.maven.jautodoc.GitTestSupport;
+import com.hazendaz.maven.jautodoc.core.internal.ChangedRegions;
+import com.hazendaz.maven.jautodoc.core.internal.DeadlineProgressMonitor;
+import com.hazendaz.maven.jautodoc.core.internal.JavaSourceProcessor;
+import com.hazendaz.maven.jautodoc.core.internal.LocalOutputCache;
+import com.hazendaz.maven.jautodoc.core.internal.LongestFirstScheduler;
+import com.hazendaz.maven.jautodoc.core.internal.OutputCacheCodec;
+import com.hazendaz.maven.jautodoc.core.internal.OverrideIndex;
+import com.hazendaz.maven.jautodoc.core.internal.ProcessingWatchdog;
+import com.hazendaz.maven.jautodoc.core.internal.ProjectDocIndex;
+import com.hazendaz.maven.jautodoc.core.internal.SourceJarDocIndex;
+
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.io.TempDir;
 
 /**
@@ -461,6 +492,93 @@ public class StandaloneJautodocEngineTest {
                 "@Override method must be commented when excludeOverrides=false");
     }
 
+    /**
+     * Package rules override the global switches for a package and its subpackages, and survive a properties round
+     * trip.
+     */
+    @Test
+    void packageRules_overrideSwitchesPerPackage() {
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setVisibilityPrivate(true);
+        cfg.setPackageRules(List.of("com.acme.internal: private=false", "com.acme.generated: skip"));
+        final var engine = new StandaloneJautodocEngine(JautodocConfiguration.fromProperties(cfg.toProperties()));
+
+        final var internal = engine.processSource("""
+                package com.acme.internal.util;
+                public class C {
+                    public void open() {}
+                    private void close() {}
+                }
+                """);
+        final var generated = "package com.acme.generated;\npublic class G {\n    public void run() {}\n}\n";
+        final var api = engine.processSource("package com.acme.api;\nclass A {\n    private void hide() {}\n}\n");
+
+        Assertions.assertTrue(internal.contains("Open."), "Public members stay documented");
+        Assertions.assertFalse(internal.contains("Close."), "Private members are skipped in internal subpackages");
+        Assertions.assertEquals(generated, engine.processSource(generated), "Skipped packages are left untouched");
+        Assertions.assertTrue(api.contains("Hide."), "Other packages keep the global switches");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> cfg.setPackageRules(List.of("com.acme: unknown")));
+    }
+
+    /**
+     * Comment templates take priority over the built-in text.
+     */
+    @Test
+    void commentTemplates_overrideBuiltInText() {
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setCommentTemplates(List.of(
+                "method ^(add|remove)([A-Z]\\w*)Listener$ -> ${1.Words}s a ${2.words} listener.",
+                "param \\w+ returns .*Listener -> the ${type.words} to notify",
+                "field LOG returns .*Logger -> The logger."));
+        final var engine = new StandaloneJautodocEngine(JautodocConfiguration.fromProperties(cfg.toProperties()));
+
+        final var result = engine.processSource("""
+                package p;
+                public class C {
+                    public static final Logger LOG = null;
+                    public void addChangeListener(ChangeListener listener) {}
+                    public void removeChangeListener(ChangeListener listener) {}
+                    public void close(int code) {}
+                }
+                """);
+
+        Assertions.assertTrue(result.contains("The logger."), result);
+        Assertions.assertTrue(result.contains("Adds a change listener."), result);
+        Assertions.assertTrue(result.contains("Removes a change listener."), result);
+        Assertions.assertTrue(result.contains("@param listener the change listener to notify"), result);
+        Assertions.assertTrue(result.contains("Close."), "Methods without matching template keep the built-in text");
+        Assertions.assertTrue(result.contains("@param code the code"), result);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> cfg.setCommentTemplates(List.of("method x -> ${1}")));
+    }
+
+    /**
+     * Word replacements expand abbreviations and fix acronym casing as whole words, longest match first.
+     */
+    @Test
+    void wordReplacements_expandWholeWords() {
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setWordReplacements(List.of("dto=data transfer object", "cfg=configuration",
+                "cfg mgr=configuration manager", "url=URL"));
+        final var engine = new StandaloneJautodocEngine(JautodocConfiguration.fromProperties(cfg.toProperties()));
+
+        final var result = engine.processSource("""
+                package p;
+                public class C {
+                    public String userDto;
+                    public String cfgMgrUrl;
+                    public String cfgs;
+                }
+                """);
+
+        Assertions.assertTrue(result.contains("The user data transfer object."), result);
+        Assertions.assertTrue(result.contains("The configuration manager URL."), result);
+        Assertions.assertTrue(result.contains("The cfgs."), "Only whole words are replaced");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> cfg.setWordReplacements(List.of("dto")));
+    }
+
     // =========================================================================
     // Result counters
     // =========================================================================
@@ -480,12 +598,1363 @@ public class StandaloneJautodocEngineTest {
         // intentionally not created
 
         final var result = new StandaloneJautodocEngine(StandaloneJautodocEngineTest.defaults())
-                .process(java.util.List.of(existing, missing));
+                .process(List.of(existing, missing));
 
         Assertions.assertEquals(1, result.getSuccessCount(), "One file should succeed");
         Assertions.assertEquals(1, result.getFailCount(), "One file should fail (missing)");
         Assertions.assertEquals(0, result.getSkippedCount());
         Assertions.assertEquals(0, result.getReadOnlyCount());
+        Assertions.assertEquals(0, result.getTimedOutCount());
+    }
+
+    /**
+     * Only files whose content changed are written and reported as written.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void resultCounters_onlyChangedFilesAreWritten() throws IOException {
+        final var file = this.tempDir.resolve("T.java");
+        Files.writeString(file, "package p;\npublic class T {}\n", StandardCharsets.UTF_8);
+
+        final var engine = new StandaloneJautodocEngine(StandaloneJautodocEngineTest.defaults());
+        final List<Path> written = new CopyOnWriteArrayList<>();
+        engine.setListener(new JautodocListener() {
+            @Override
+            public void fileWritten(final Path path) {
+                written.add(path);
+            }
+        });
+        engine.process(List.of(file));
+        Assertions.assertEquals(List.of(file), written);
+
+        written.clear();
+        final var result = engine.process(List.of(file));
+        Assertions.assertEquals(1, result.getSuccessCount());
+        Assertions.assertEquals(List.of(), written, "A documented file is processed without being written");
+    }
+
+    /**
+     * Concurrent processing under a tiny in-flight budget processes every file alone and still tallies them all.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void resultCounters_concurrentWithAdmissionControl() throws IOException {
+        final var files = new ArrayList<Path>();
+        for (var i = 0; i < 8; i++) {
+            final var file = this.tempDir.resolve("C" + i + ".java");
+            Files.writeString(file, "package p;\npublic class C" + i + " {}\n", StandardCharsets.UTF_8);
+            files.add(file);
+        }
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setThreads(4);
+        cfg.setMaxInFlightBytes(1);
+
+        final var result = new StandaloneJautodocEngine(cfg).process(files);
+
+        Assertions.assertEquals(8, result.getSuccessCount(), "All files should succeed");
+        for (var i = 0; i < 8; i++) {
+            Assertions.assertTrue(Files.readString(files.get(i), StandardCharsets.UTF_8).contains("The Class C" + i));
+        }
+    }
+
+    /**
+     * Adaptive mode stays within its configured bounds and reports the chosen concurrency.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void resultCounters_adaptiveConcurrencyWithinBounds() throws IOException {
+        final var files = new ArrayList<Path>();
+        for (var i = 0; i < 6; i++) {
+            final var file = this.tempDir.resolve("A" + i + ".java");
+            Files.writeString(file, "package p;\npublic class A" + i + " {}\n", StandardCharsets.UTF_8);
+            files.add(file);
+        }
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setThreads(3);
+        cfg.setMinThreads(2);
+        cfg.setAdaptiveThreads(true);
+
+        final var result = new StandaloneJautodocEngine(cfg).process(files);
+
+        Assertions.assertEquals(6, result.getSuccessCount(), "All files should succeed");
+        Assertions.assertTrue(result.getConcurrency() >= 2 && result.getConcurrency() <= 3,
+                "Concurrency must stay within [minThreads, threads]");
+    }
+
+    // =========================================================================
+    // Sharding
+    // =========================================================================
+
+    /**
+     * Every file lands in exactly one shard and the assignment does not depend on input order.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void sharding_partitionsDeterministically() throws IOException {
+        final var files = new ArrayList<Path>();
+        for (var i = 0; i < 10; i++) {
+            final var file = this.tempDir.resolve("S" + i + ".java");
+            Files.writeString(file, "class S" + i + " {}\n" + "// pad\n".repeat(i * 10), StandardCharsets.UTF_8);
+            files.add(file);
+        }
+        final var reversed = new ArrayList<>(files);
+        Collections.reverse(reversed);
+
+        final var seen = new HashSet<Path>();
+        for (var shard = 0; shard < 3; shard++) {
+            final var selected = ShardPartitioner.select(files, this.tempDir, shard, 3);
+            Assertions.assertFalse(selected.isEmpty(), "Every shard should receive work");
+            Assertions.assertEquals(new HashSet<>(selected),
+                    new HashSet<>(ShardPartitioner.select(reversed, this.tempDir, shard, 3)),
+                    "Assignment must not depend on discovery order");
+            for (final Path path : selected) {
+                Assertions.assertTrue(seen.add(path), "File assigned to more than one shard: " + path);
+            }
+        }
+        Assertions.assertEquals(files.size(), seen.size(), "Every file must be assigned");
+    }
+
+    /**
+     * A file keeps its shard when its content changes, as between CRLF and LF checkouts, and when other files come and
+     * go.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void sharding_dependsOnlyOnRelativePath() throws IOException {
+        final var files = new ArrayList<Path>();
+        for (var i = 0; i < 10; i++) {
+            final var file = this.tempDir.resolve("S" + i + ".java");
+            Files.writeString(file, "class S" + i + " {}\n", StandardCharsets.UTF_8);
+            files.add(file);
+        }
+        final var before = ShardPartitioner.select(files, this.tempDir, 1, 3);
+
+        for (final Path file : files) {
+            Files.writeString(file, Files.readString(file, StandardCharsets.UTF_8).replace("\n", "\r\n")
+                    + "// pad\r\n".repeat(50), StandardCharsets.UTF_8);
+        }
+        Assertions.assertEquals(before, ShardPartitioner.select(files, this.tempDir, 1, 3),
+                "File sizes must not move files between shards");
+
+        final var fewer = new ArrayList<>(files.subList(0, 5));
+        final var expected = new ArrayList<>(before);
+        expected.retainAll(fewer);
+        Assertions.assertEquals(expected, ShardPartitioner.select(fewer, this.tempDir, 1, 3),
+                "Other files must not move a file between shards");
+    }
+
+    /**
+     * Stored shard results merge into one summary.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void sharding_mergeStoredResults() throws IOException {
+        final var first = this.tempDir.resolve("result-shard-0.properties");
+        final var second = this.tempDir.resolve("result-shard-1.properties");
+        new JautodocResult(3, 1, 0, 0, 0, 2, 0, null).store(first);
+        new JautodocResult(4, 0, 1, 2, 1, 4, 0, null).store(second);
+
+        final var merged = JautodocResult
+                .merge(List.of(JautodocResult.load(first), JautodocResult.load(second)));
+
+        Assertions.assertEquals(7, merged.getSuccessCount());
+        Assertions.assertEquals(1, merged.getFailCount());
+        Assertions.assertEquals(1, merged.getSkippedCount());
+        Assertions.assertEquals(2, merged.getReadOnlyCount());
+        Assertions.assertEquals(1, merged.getTimedOutCount());
+        Assertions.assertEquals(4, merged.getConcurrency());
+    }
+
+    // =========================================================================
+    // Fork mode
+    // =========================================================================
+
+    /**
+     * The configuration handed to worker JVMs survives a properties round trip.
+     */
+    @Test
+    void fork_configurationRoundTrip() {
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setMode(JautodocMode.REPLACE);
+        cfg.setAddHeader(true);
+        cfg.setHeaderText("/* header */");
+        cfg.setThreads(3);
+        cfg.setMaxInFlightBytes(1234L);
+
+        final var copy = JautodocConfiguration.fromProperties(cfg.toProperties());
+
+        Assertions.assertEquals(JautodocMode.REPLACE, copy.getMode());
+        Assertions.assertTrue(copy.isAddHeader());
+        Assertions.assertEquals("/* header */", copy.getHeaderText());
+        Assertions.assertEquals(3, copy.getThreads());
+        Assertions.assertEquals(1234L, copy.getMaxInFlightBytes());
+        Assertions.assertFalse(copy.isVisibilityPrivate());
+    }
+
+    /**
+     * A worker JVM streams an outcome for each of its files, reports the totals and keeps its state in its own work
+     * directory.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void fork_workerStreamsOutcomesAndCounts() throws IOException {
+        final var first = this.tempDir.resolve("First.java");
+        final var second = this.tempDir.resolve("Second.java");
+        Files.writeString(first, "package p;\n\npublic class First {\n}\n", StandardCharsets.UTF_8);
+        Files.writeString(second, "package p;\n\npublic class Second {\n}\n", StandardCharsets.UTF_8);
+
+        final var outcomes = new ConcurrentHashMap<Path, JautodocOutcome>();
+        final var settings = StandaloneJautodocEngineTest.defaults();
+        final var work = this.tempDir.resolve("work");
+        settings.setWorkDirectory(work);
+        final var engine = new ForkedJautodocEngine(settings, System.getProperty("java.class.path"), 1);
+        engine.setListener(new JautodocListener() {
+            @Override
+            public void fileProcessed(final Path file, final JautodocOutcome outcome) {
+                outcomes.put(file, outcome);
+            }
+        });
+        final var result = engine.process(List.of(first, second));
+
+        Assertions.assertEquals(Map.of(first.toAbsolutePath(), JautodocOutcome.SUCCESS,
+                second.toAbsolutePath(), JautodocOutcome.SUCCESS), outcomes);
+        Assertions.assertEquals(2, result.getSuccessCount());
+        Assertions.assertEquals(0, result.getSkippedCount());
+        Assertions.assertEquals(1, result.getConcurrency());
+        Assertions.assertTrue(Files.readString(first, StandardCharsets.UTF_8).contains("/**"),
+                "The worker should have documented the file");
+        Assertions.assertTrue(Files.isDirectory(work.resolve("fork-1-of-1")),
+                "The worker should have used its own work directory");
+    }
+
+    /**
+     * A worker JVM that cannot start fails the run with its exit code and standard error.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void fork_failedWorkerFailsTheRun() throws IOException {
+        final var file = this.tempDir.resolve("A.java");
+        Files.writeString(file, "package p;\n\npublic class A {\n}\n", StandardCharsets.UTF_8);
+
+        final var engine = new ForkedJautodocEngine(StandaloneJautodocEngineTest.defaults(),
+                System.getProperty("java.class.path"), 1);
+        engine.setJvmArguments(List.of("-XX:+NoSuchJautodocOption"));
+        final List<String> stderr = new CopyOnWriteArrayList<>();
+        engine.setListener(new JautodocListener() {
+            @Override
+            public void workerOutput(final String line) {
+                stderr.add(line);
+            }
+        });
+
+        final var e = Assertions.assertThrows(IllegalStateException.class,
+                () -> engine.process(List.of(file)));
+        Assertions.assertTrue(e.getMessage().contains("exited with code"), e.getMessage());
+        Assertions.assertTrue(e.getMessage().contains("NoSuchJautodocOption"), e.getMessage());
+        Assertions.assertTrue(stderr.stream().anyMatch(line -> line.contains("NoSuchJautodocOption")),
+                "Standard error goes to the listener: " + stderr);
+    }
+
+    /**
+     * Compares in-process threads against forked workers on a synthetic tree. Run with
+     * {@code -Djautodoc.benchmark=true}; the tree size can be set with {@code -Djautodoc.benchmark.files}. The timings
+     * are published as report entries.
+     *
+     * @param reporter
+     *            the test reporter
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "jautodoc.benchmark", matches = "true")
+    void fork_benchmarkThreadsVersusWorkers(final TestReporter reporter) throws IOException {
+        final int fileCount = Integer.getInteger("jautodoc.benchmark.files", 2000);
+        final var workers = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        final var threadedTree = StandaloneJautodocEngineTest.syntheticTree(this.tempDir.resolve("threads"),
+                fileCount);
+        final var forkedTree = StandaloneJautodocEngineTest.syntheticTree(this.tempDir.resolve("forks"), fileCount);
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setThreads(workers);
+
+        var start = System.nanoTime();
+        final var threaded = new StandaloneJautodocEngine(cfg).process(threadedTree);
+        final var threadedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        final var workerCfg = StandaloneJautodocEngineTest.defaults();
+        start = System.nanoTime();
+        final var forked = new ForkedJautodocEngine(workerCfg, System.getProperty("java.class.path"), workers)
+                .process(forkedTree);
+        final var forkedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        reporter.publishEntry("threadsMillis", Long.toString(threadedMillis));
+        reporter.publishEntry("forkedWorkersMillis", Long.toString(forkedMillis));
+        Assertions.assertEquals(fileCount, threaded.getSuccessCount());
+        Assertions.assertEquals(fileCount, forked.getSuccessCount());
+        Assertions.assertEquals(workers, forked.getConcurrency());
+    }
+
+    /**
+     * Writes a tree of generated classes of varying size.
+     *
+     * @param root
+     *            the root directory
+     * @param count
+     *            the number of files
+     *
+     * @return the files
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    private static List<Path> syntheticTree(final Path root, final int count) throws IOException {
+        final var files = new ArrayList<Path>(count);
+        for (var i = 0; i < count; i++) {
+            final var dir = root.resolve("p" + i % 20);
+            Files.createDirectories(dir);
+            final var source = new StringBuilder("package p").append(i % 20).append(";\npublic class C").append(i)
+                    .append(" {\n");
+            for (var m = 0; m < 5 + i % 40; m++) {
+                source.append("    private int field").append(m).append(";\n");
+                source.append("    public int getField").append(m).append("() { return field").append(m)
+                        .append("; }\n");
+                source.append("    public void setField").append(m).append("(int value) { field").append(m)
+                        .append(" = value; }\n");
+            }
+            source.append("}\n");
+            final var file = dir.resolve("C" + i + ".java");
+            Files.writeString(file, source, StandardCharsets.UTF_8);
+            files.add(file);
+        }
+        return files;
+    }
+
+    // =========================================================================
+    // Output cache
+    // =========================================================================
+
+    /**
+     * A cache hit is written as is, without processing, and a miss populates the cache for an identical file elsewhere.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void cache_hitWritesCachedOutput() throws IOException {
+        final var source = "package p;\npublic class T {\n    public void doWork() {}\n}\n";
+        final var cacheDir = this.tempDir.resolve("cache");
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setCacheDirectory(cacheDir);
+
+        final var first = this.tempDir.resolve("a/T.java");
+        Files.createDirectories(first.getParent());
+        Files.writeString(first, source, StandardCharsets.UTF_8);
+        new StandaloneJautodocEngine(cfg).process(List.of(first));
+        final var processed = Files.readString(first, StandardCharsets.UTF_8);
+
+        final var key = OutputCacheCodec.key(OutputCacheCodec.salt(cfg.fingerprint()),
+                source.getBytes(StandardCharsets.UTF_8));
+        final var cache = new LocalOutputCache(cacheDir, Long.MAX_VALUE);
+        Assertions.assertEquals(processed, OutputCacheCodec.decode(source, cache.get(key)),
+                "Processed output should be cached under the content key");
+
+        cache.put(key, OutputCacheCodec.encode(source, "// from cache\n"));
+        final var second = this.tempDir.resolve("b/T.java");
+        Files.createDirectories(second.getParent());
+        Files.writeString(second, source, StandardCharsets.UTF_8);
+        final var result = new StandaloneJautodocEngine(cfg).process(List.of(second));
+
+        Assertions.assertEquals(1, result.getSuccessCount());
+        Assertions.assertEquals("// from cache\n", Files.readString(second, StandardCharsets.UTF_8),
+                "A hit must be written from the cache");
+    }
+
+    /**
+     * Settings that change the generated text change the fingerprint; engine settings do not.
+     */
+    @Test
+    void cache_fingerprintCoversGenerationSettingsOnly() {
+        final var base = StandaloneJautodocEngineTest.defaults();
+        final var threads = StandaloneJautodocEngineTest.defaults();
+        threads.setThreads(8);
+        threads.setFileTimeoutSeconds(5);
+        final var mode = StandaloneJautodocEngineTest.defaults();
+        mode.setMode(JautodocMode.REPLACE);
+
+        Assertions.assertEquals(base.fingerprint(), threads.fingerprint());
+        Assertions.assertNotEquals(base.fingerprint(), mode.fingerprint());
+    }
+
+    /**
+     * Closing the cache after storing entries evicts the least recently used ones down to the size limit.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void cache_evictsLeastRecentlyUsed() throws IOException {
+        final var cacheDir = this.tempDir.resolve("lru");
+        final var entry = OutputCacheCodec.encode("x", "y".repeat(1000));
+        final var cache = new LocalOutputCache(cacheDir, entry.length * 2L);
+        final var keys = new ArrayList<String>();
+        for (var i = 0; i < 4; i++) {
+            final var key = OutputCacheCodec.key("salt", new byte[] { (byte) i });
+            cache.put(key, entry);
+            Files.setLastModifiedTime(cacheDir.resolve(key.substring(0, 2)).resolve(key + ".gz"),
+                    FileTime.fromMillis(1_000_000L * (i + 1)));
+            keys.add(key);
+        }
+        cache.close();
+
+        Assertions.assertNull(cache.get(keys.get(0)), "Oldest entry should be evicted");
+        Assertions.assertNull(cache.get(keys.get(1)), "Second oldest entry should be evicted");
+        Assertions.assertNotNull(cache.get(keys.get(2)));
+        Assertions.assertNotNull(cache.get(keys.get(3)));
+    }
+
+    /**
+     * Outputs pushed to the remote cache by one build are served to another build with an empty local cache.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void remoteCache_sharesOutputsBetweenBuilds() throws IOException {
+        final var source = "package p;\npublic class T {\n    public void doWork() {}\n}\n";
+        try (var server = new JautodocCacheServer(0)) {
+            final var ci = StandaloneJautodocEngineTest.defaults();
+            ci.setRemoteCacheUrl(server.getUri().toString());
+            ci.setRemoteCachePush(true);
+            final var first = this.tempDir.resolve("ci/T.java");
+            Files.createDirectories(first.getParent());
+            Files.writeString(first, source, StandardCharsets.UTF_8);
+            new StandaloneJautodocEngine(ci).process(List.of(first));
+            Assertions.assertEquals(1, server.getEntryCount(), "The CI build should push its output");
+
+            final var dev = StandaloneJautodocEngineTest.defaults();
+            dev.setRemoteCacheUrl(server.getUri().toString());
+            dev.setCacheDirectory(this.tempDir.resolve("dev-cache"));
+            final var second = this.tempDir.resolve("dev/T.java");
+            Files.createDirectories(second.getParent());
+            Files.writeString(second, source, StandardCharsets.UTF_8);
+            final var result = new StandaloneJautodocEngine(dev).process(List.of(second));
+
+            Assertions.assertEquals(1, result.getSuccessCount());
+            Assertions.assertEquals(Files.readString(first, StandardCharsets.UTF_8),
+                    Files.readString(second, StandardCharsets.UTF_8));
+            Assertions.assertEquals(1, server.getEntryCount(), "A pull-only build must not push");
+        }
+    }
+
+    /**
+     * An unreachable remote cache falls through to local processing.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void remoteCache_unreachableFallsThrough() throws IOException {
+        final String url;
+        try (var server = new JautodocCacheServer(0)) {
+            url = server.getUri().toString();
+        }
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setRemoteCacheUrl(url);
+        cfg.setRemoteCacheTimeoutMillis(500);
+        cfg.setRemoteCachePush(true);
+        final var file = this.tempDir.resolve("T.java");
+        Files.writeString(file, "package p;\npublic class T {}\n", StandardCharsets.UTF_8);
+
+        final var result = new StandaloneJautodocEngine(cfg).process(List.of(file));
+
+        Assertions.assertEquals(1, result.getSuccessCount());
+        Assertions.assertTrue(Files.readString(file, StandardCharsets.UTF_8).contains("/**"),
+                "The file should still be processed locally");
+    }
+
+    // =========================================================================
+    // Changed lines only
+    // =========================================================================
+
+    /**
+     * Only declarations overlapping a changed line receive Javadoc; the enclosing type and other members do not.
+     */
+    @Test
+    void changedLines_onlyTouchedDeclarationsAreDocumented() {
+        final var source = """
+                package p;
+
+                public class T {
+
+                    public void first() {
+                    }
+
+                    public void second() {
+                        System.out.println();
+                    }
+                }
+                """;
+        final var regions = ChangedRegions.ofLines(source, List.of(new int[] { 9, 1 }), 0);
+
+        final var result = new JavaSourceProcessor(StandaloneJautodocEngineTest.defaults()).process(source, null,
+                regions);
+
+        Assertions.assertTrue(result.contains("Second."), "Touched method should be documented");
+        Assertions.assertFalse(result.contains("First."), "Untouched method must be left alone");
+        Assertions.assertFalse(result.contains("The Class T"), "Type is not touched by a change in a member");
+    }
+
+    /**
+     * Overlap checks treat both ends as inclusive and report deletions at the following line.
+     */
+    @Test
+    void changedLines_regionOverlap() {
+        final var source = "a\nbb\nccc\ndddd\n";
+        final var regions = ChangedRegions.ofLines(source, List.of(new int[] { 2, 1 }, new int[] { 3, 0 }),
+                0);
+
+        Assertions.assertFalse(regions.overlaps(0, 1), "Line 1 is unchanged");
+        Assertions.assertTrue(regions.overlaps(2, 2), "Line 2 changed");
+        Assertions.assertTrue(regions.overlaps(9, 12), "Deletion after line 3 touches line 4");
+        Assertions.assertFalse(regions.overlaps(6, 8), "Line 3 itself is unchanged");
+    }
+
+    /**
+     * A deletion at the top of the file, reported as {@code +0,0}, touches line 1 and nothing after it.
+     */
+    @Test
+    void changedLines_deletionAtTopAnchorsAtLineOne() {
+        final var source = "a\nbb\nccc\n";
+        final var regions = ChangedRegions.ofLines(source, List.of(new int[] { 0, 0 }), 0);
+
+        Assertions.assertTrue(regions.overlaps(0, 1), "Deletion above line 1 touches line 1");
+        Assertions.assertFalse(regions.overlaps(2, 4), "Line 2 is unchanged");
+
+        final var shifted = ChangedRegions.ofLines(source, List.of(new int[] { 0, 0 }), 1);
+        Assertions.assertTrue(shifted.overlaps(2, 4), "Below a one-line header the deletion touches line 2");
+        Assertions.assertFalse(shifted.overlaps(0, 1), "The header is unchanged");
+    }
+
+    /**
+     * Changed lines are keyed by the file names in the diff headers: a name with a space loses the tab git appends, and
+     * an added line starting with {@code ++} is not taken for a header.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void changedLines_gitHeadersOnlyNameFiles() throws Exception {
+        final var repo = this.tempDir.resolve("repo");
+        final var spaced = repo.resolve("My File.java");
+        final var plain = repo.resolve("Plain.java");
+        Files.createDirectories(repo);
+        Files.writeString(spaced, "a\nb\n", StandardCharsets.UTF_8);
+        Files.writeString(plain, "q\n", StandardCharsets.UTF_8);
+        GitTestSupport.git(repo, "init", "-q");
+        GitTestSupport.git(repo, "add", ".");
+        GitTestSupport.git(repo, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit",
+                "-q", "-m", "initial");
+        Files.writeString(spaced, "a\n++ added\nb\n", StandardCharsets.UTF_8);
+        Files.writeString(plain, "q\n++ x\n", StandardCharsets.UTF_8);
+
+        final var git = GitRepository.open(repo);
+        final var changes = git.changedLines("HEAD");
+
+        final var top = git.getTopLevel();
+        Assertions.assertEquals(Set.of(top.resolve("My File.java"), top.resolve("Plain.java")),
+                changes.keySet());
+        Assertions.assertArrayEquals(new int[] { 2, 1 }, changes.get(top.resolve("My File.java")).get(0));
+        Assertions.assertEquals(1, changes.get(top.resolve("Plain.java")).size());
+    }
+
+    /**
+     * Editor edits cover only the declaration around the changed range and are the same when served from the cached
+     * tree of the same document version.
+     */
+    @Test
+    void editorEdits_onlyDeclarationAroundChangedRange() {
+        final var source = """
+                package p;
+
+                public class T {
+
+                    public void first() {
+                    }
+
+                    public void second() {
+                        System.out.println();
+                    }
+                }
+                """;
+        final var caret = source.indexOf("System");
+        final var processor = new JavaSourceProcessor(StandaloneJautodocEngineTest.defaults());
+
+        final var edits = processor.edits("T.java", 1, source, caret, caret, null);
+        final var sb = new StringBuilder(source);
+        for (var i = edits.size() - 1; i >= 0; i--) {
+            final var edit = edits.get(i);
+            sb.replace(edit.getOffset(), edit.getOffset() + edit.getLength(), edit.getText());
+        }
+
+        Assertions.assertTrue(sb.toString().contains("Second."), "Edited method should be documented");
+        Assertions.assertFalse(sb.toString().contains("First."), "Other members must not be touched");
+        final var again = processor.edits("T.java", 1, source, caret, caret, null);
+        Assertions.assertEquals(edits.size(), again.size());
+        Assertions.assertEquals(edits.get(0).getText(), again.get(0).getText());
+    }
+
+    /**
+     * In replace mode, editor edits leave out comments that would be regenerated exactly as they are.
+     */
+    @Test
+    void editorEdits_leaveOutUnchangedComments() {
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setMode(JautodocMode.REPLACE);
+        final var processor = new JavaSourceProcessor(cfg);
+        final var source = processor.process("package p;\n\npublic class T {\n\n    public void run() {\n    }\n}\n");
+        final var caret = source.indexOf("run");
+
+        Assertions.assertTrue(source.contains("Run."), "The method should be documented first");
+        Assertions.assertEquals(List.of(), processor.edits("T.java", 1, source, caret, caret, null));
+    }
+
+    /**
+     * Repeated method shapes are generated once and served from the memo with identical text.
+     */
+    @Test
+    void declarationMemo_reusesRepeatedSignatures() {
+        final var processor = new JavaSourceProcessor(StandaloneJautodocEngineTest.defaults());
+        final var a = processor.process("package p;\npublic class A {\n    public int getValue() { return 0; }\n}\n");
+        final var b = processor.process("package p;\npublic class B {\n    public int getValue() { return 1; }\n}\n");
+
+        final var memo = processor.getDeclarationMemo();
+        Assertions.assertEquals(1, memo.getMisses());
+        Assertions.assertEquals(1, memo.getHits());
+        Assertions.assertEquals(0.5, memo.getHitRate());
+        final var doc = a.substring(a.indexOf("/**", a.indexOf("{")), a.indexOf("public int"));
+        Assertions.assertTrue(b.contains(doc), "Memoized comment should match the generated one");
+    }
+
+    // =========================================================================
+    // Git index
+    // =========================================================================
+
+    /**
+     * A file whose index entry is clean and names a blob this engine produced is skipped; once modified it is
+     * processed again.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void gitIndex_skipsCleanProcessedFiles() throws Exception {
+        final var repo = this.tempDir.resolve("repo");
+        final var file = repo.resolve("src/T.java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "package p;\npublic class T {}\n", StandardCharsets.UTF_8);
+        GitTestSupport.git(repo, "init", "-q");
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setWorkDirectory(this.tempDir.resolve("work"));
+        cfg.setUseGitIndex(true);
+        final var first = new StandaloneJautodocEngine(cfg).process(List.of(file));
+        Assertions.assertEquals(1, first.getSuccessCount());
+
+        // Stage the output with an mtime well before the index is written, so the entry is not racily clean
+        Files.setLastModifiedTime(file, FileTime
+                .fromMillis(System.currentTimeMillis() - 60_000L));
+        GitTestSupport.git(repo, "add", "src/T.java");
+        final var second = new StandaloneJautodocEngine(cfg).process(List.of(file));
+        Assertions.assertEquals(1, second.getUpToDateCount(), "Clean, processed file should be skipped");
+        Assertions.assertEquals(0, second.getSuccessCount());
+
+        Files.writeString(file, "package p;\npublic class T {\n    public void run() {}\n}\n",
+                StandardCharsets.UTF_8);
+        final var third = new StandaloneJautodocEngine(cfg).process(List.of(file));
+        Assertions.assertEquals(1, third.getSuccessCount(), "Modified file must be processed");
+        Assertions.assertTrue(Files.readString(file, StandardCharsets.UTF_8).contains("Run."));
+    }
+
+    /**
+     * Accessors are described from a field declared in a superclass in another file, and a stored index is only
+     * rebuilt for changed files.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void projectFieldIndex_findsSuperclassFieldsInOtherFiles() throws IOException {
+        final var base = this.tempDir.resolve("src/p/Base.java");
+        final var sub = this.tempDir.resolve("src/p/Sub.java");
+        Files.createDirectories(base.getParent());
+        Files.writeString(base, """
+                package p;
+                public class Base {
+                    /** Customer display name. */
+                    protected String name;
+                }
+                """, StandardCharsets.UTF_8);
+        Files.writeString(sub, """
+                package p;
+                public class Sub extends Base {
+                    public String getName() {
+                        return name;
+                    }
+                }
+                """, StandardCharsets.UTF_8);
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setGetterSetterFromField(true);
+        cfg.setProjectFieldIndex(true);
+        cfg.setWorkDirectory(this.tempDir.resolve("work"));
+        new StandaloneJautodocEngine(cfg).process(List.of(base, sub));
+        Assertions.assertTrue(Files.readString(sub, StandardCharsets.UTF_8).contains("Gets the customer display name."),
+                "Getter should be described from the superclass field");
+
+        final var indexFile = this.tempDir.resolve("index/project-docs.idx");
+        final var files = List.of(base, sub);
+        Assertions.assertEquals(2, ProjectDocIndex.build(files, indexFile, 2).getParsedCount());
+        final var unchanged = ProjectDocIndex.build(files, indexFile, 2);
+        Assertions.assertEquals(0, unchanged.getParsedCount(), "Unchanged files come from the stored index");
+        Files.writeString(base, Files.readString(base, StandardCharsets.UTF_8).replace("display", "full"),
+                StandardCharsets.UTF_8);
+        final var changed = ProjectDocIndex.build(files, indexFile, 2);
+        Assertions.assertEquals(1, changed.getParsedCount(), "Only the changed file is parsed again");
+        Assertions.assertNotEquals(unchanged.getDigest(), changed.getDigest());
+    }
+
+    /**
+     * The index pre-pass leaves out a file that exceeds the time budget, reports it, and parses it again next time.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void projectDocIndex_leavesOutFilesOverTimeBudget() throws IOException {
+        final var small = this.tempDir.resolve("src/p/Small.java");
+        Files.createDirectories(small.getParent());
+        Files.writeString(small, """
+                package p;
+                public class Small {
+                    /** The name. */
+                    protected String name;
+                }
+                """, StandardCharsets.UTF_8);
+        final var sb = new StringBuilder("package p;\npublic class Big {\n");
+        for (var i = 0; i < 3000; i++) {
+            sb.append("    /** Field ").append(i).append(". */\n    protected int field").append(i).append(";\n");
+        }
+        sb.append("}\n");
+        final var big = this.tempDir.resolve("src/p/Big.java");
+        Files.writeString(big, sb, StandardCharsets.UTF_8);
+
+        final var indexFile = this.tempDir.resolve("index/project-docs.idx");
+        final List<Path> timedOut = new CopyOnWriteArrayList<>();
+        final var index = ProjectDocIndex.build(List.of(small, big), indexFile, 2, 1,
+                (file, elapsed) -> timedOut.add(file));
+        Assertions.assertEquals(List.of(big), timedOut);
+        Assertions.assertEquals(ProjectDocIndex.build(List.of(small), null, 1).getDigest(), index.getDigest(),
+                "Only the file parsed in time is indexed");
+        Assertions.assertEquals(1, ProjectDocIndex.build(List.of(small, big), indexFile, 2).getParsedCount(),
+                "The timed out file is parsed again");
+    }
+
+    /**
+     * Overriding methods copy or inherit the documentation of a supertype method declared in another file.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void inheritedDoc_copiesOrInheritsSupertypeDocs() throws IOException {
+        final var base = this.tempDir.resolve("src/p/Base.java");
+        final var sub = this.tempDir.resolve("src/p/Sub.java");
+        Files.createDirectories(base.getParent());
+        Files.writeString(base, """
+                package p;
+                public class Base {
+                    /**
+                     * Formats a value for display.
+                     *
+                     * @param value
+                     *            the raw value
+                     * @return the display text
+                     */
+                    public String format(String value) {
+                        return value;
+                    }
+                }
+                """, StandardCharsets.UTF_8);
+        final var subSource = """
+                package p;
+                public class Sub extends Base {
+                    @Override
+                    public String format(String text) {
+                        return text.trim();
+                    }
+                }
+                """;
+        Files.writeString(sub, subSource, StandardCharsets.UTF_8);
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setInheritedDocMode(InheritedDocMode.COPY);
+        cfg.setWorkDirectory(this.tempDir.resolve("work"));
+        new StandaloneJautodocEngine(cfg).process(List.of(base, sub));
+        final var copied = Files.readString(sub, StandardCharsets.UTF_8);
+        Assertions.assertTrue(copied.contains("* Formats a value for display."), copied);
+        Assertions.assertTrue(copied.contains("* @param text\n"), "Param tag should be renamed: " + copied);
+        Assertions.assertTrue(copied.contains("*            the raw value"), copied);
+
+        Files.writeString(sub, subSource, StandardCharsets.UTF_8);
+        cfg.setInheritedDocMode(InheritedDocMode.INHERIT);
+        new StandaloneJautodocEngine(cfg).process(List.of(base, sub));
+        Assertions.assertTrue(Files.readString(sub, StandardCharsets.UTF_8).contains("* {@inheritDoc}"));
+    }
+
+    /**
+     * Runs over part of the tree, by shard or after a full run that stored the index, document overrides from the
+     * supertypes of files they do not process, exactly as a full run does.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void inheritedDoc_partialRunsMatchFullRun() throws IOException {
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setInheritedDocMode(InheritedDocMode.COPY);
+
+        final var full = StandaloneJautodocEngineTest.inheritanceTree(this.tempDir.resolve("full"));
+        new StandaloneJautodocEngine(cfg).process(full);
+
+        final var shardRoot = this.tempDir.resolve("shards");
+        final var sharded = StandaloneJautodocEngineTest.inheritanceTree(shardRoot);
+        cfg.setIndexSources(sharded);
+        for (var shard = 0; shard < 3; shard++) {
+            new StandaloneJautodocEngine(cfg).process(ShardPartitioner.select(sharded, shardRoot, shard, 3));
+        }
+        cfg.setIndexSources(null);
+
+        final var stored = StandaloneJautodocEngineTest.inheritanceTree(this.tempDir.resolve("stored"));
+        cfg.setWorkDirectory(this.tempDir.resolve("work"));
+        new StandaloneJautodocEngine(cfg).process(stored);
+        final var leafSource = Files.readString(full.get(2), StandardCharsets.UTF_8);
+        StandaloneJautodocEngineTest.inheritanceTree(this.tempDir.resolve("stored"));
+        new StandaloneJautodocEngine(cfg).process(List.of(stored.get(2)));
+
+        for (var i = 0; i < full.size(); i++) {
+            final var expected = Files.readString(full.get(i), StandardCharsets.UTF_8);
+            Assertions.assertEquals(expected, Files.readString(sharded.get(i), StandardCharsets.UTF_8));
+        }
+        Assertions.assertTrue(leafSource.contains("* Formats a value for display."), leafSource);
+        Assertions.assertEquals(leafSource, Files.readString(stored.get(2), StandardCharsets.UTF_8),
+                "The stored index should still cover the files not processed");
+    }
+
+    /**
+     * Writes a base class with a documented method, a subclass and a leaf class overriding it without Javadoc.
+     *
+     * @param root
+     *            the root directory
+     *
+     * @return the base, sub and leaf files
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    private static List<Path> inheritanceTree(final Path root) throws IOException {
+        final var base = root.resolve("p/Base.java");
+        final var sub = root.resolve("p/Sub.java");
+        final var leaf = root.resolve("p/Leaf.java");
+        Files.createDirectories(base.getParent());
+        Files.writeString(base, """
+                package p;
+                public class Base {
+                    /**
+                     * Formats a value for display.
+                     *
+                     * @param value
+                     *            the raw value
+                     * @return the display text
+                     */
+                    public String format(String value) {
+                        return value;
+                    }
+                }
+                """, StandardCharsets.UTF_8);
+        Files.writeString(sub, """
+                package p;
+                public class Sub extends Base {
+                }
+                """, StandardCharsets.UTF_8);
+        Files.writeString(leaf, """
+                package p;
+                public class Leaf extends Sub {
+                    @Override
+                    public String format(String text) {
+                        return text.trim();
+                    }
+                }
+                """, StandardCharsets.UTF_8);
+        return List.of(base, sub, leaf);
+    }
+
+    /**
+     * Overrides of a library method take its Javadoc from the library's source jar, which is scanned only once.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void sourceJars_supplyLibraryMethodDocs() throws IOException {
+        final var jar = this.tempDir.resolve("repo/greeter-1.0-sources.jar");
+        Files.createDirectories(jar.getParent());
+        try (var zip = new ZipOutputStream(Files.newOutputStream(jar))) {
+            zip.putNextEntry(new ZipEntry("lib/Greeter.java"));
+            zip.write("""
+                    package lib;
+                    public interface Greeter {
+                        /**
+                         * Greets someone by name.
+                         *
+                         * @param name
+                         *            who to greet
+                         * @return the greeting
+                         */
+                        String greet(String name);
+                    }
+                    """.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        final var hello = this.tempDir.resolve("src/app/Hello.java");
+        Files.createDirectories(hello.getParent());
+        Files.writeString(hello, """
+                package app;
+                import lib.Greeter;
+                public class Hello implements Greeter {
+                    @Override
+                    public String greet(String who) {
+                        return "Hello " + who;
+                    }
+                }
+                """, StandardCharsets.UTF_8);
+
+        final var indexDirectory = this.tempDir.resolve("jar-index");
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setInheritedDocMode(InheritedDocMode.COPY);
+        cfg.setSourceJars(List.of(jar));
+        cfg.setSourceJarIndexDirectory(indexDirectory);
+        new StandaloneJautodocEngine(cfg).process(List.of(hello));
+        final var result = Files.readString(hello, StandardCharsets.UTF_8);
+        Assertions.assertTrue(result.contains("* Greets someone by name."), result);
+        Assertions.assertTrue(result.contains("* @param who\n"), result);
+
+        Assertions.assertEquals(0, SourceJarDocIndex.open(List.of(jar), indexDirectory).getScannedCount(),
+                "The stored index is reused");
+        Assertions.assertEquals(1, SourceJarDocIndex.open(List.of(jar), null).getScannedCount());
+    }
+
+    /**
+     * With resolved bindings, excludeOverrides also skips implementations that lack an {@code @Override} annotation.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void resolveOverrides_excludesUnannotatedImplementations() throws IOException {
+        final var shape = this.tempDir.resolve("src/p/Shape.java");
+        final var circle = this.tempDir.resolve("src/p/Circle.java");
+        Files.createDirectories(shape.getParent());
+        Files.writeString(shape, """
+                package p;
+                /** A shape. */
+                public interface Shape {
+                    /** @return the area */
+                    double area();
+                }
+                """, StandardCharsets.UTF_8);
+        final var circleSource = """
+                package p;
+                /** A circle. */
+                public class Circle implements Shape {
+                    public double area() {
+                        return 3.14;
+                    }
+                    public double radius() {
+                        return 1;
+                    }
+                }
+                """;
+        Files.writeString(circle, circleSource, StandardCharsets.UTF_8);
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setExcludeOverrides(true);
+        cfg.setResolveOverrides(true);
+        cfg.setSourcepath(List.of(this.tempDir.resolve("src")));
+        new StandaloneJautodocEngine(cfg).process(List.of(circle));
+        final var resolved = Files.readString(circle, StandardCharsets.UTF_8);
+        Assertions.assertFalse(resolved.contains("Area."), "Implementation should be excluded: " + resolved);
+        Assertions.assertTrue(resolved.contains("Radius."), resolved);
+
+        Files.writeString(circle, circleSource, StandardCharsets.UTF_8);
+        cfg.setResolveOverrides(false);
+        new StandaloneJautodocEngine(cfg).process(List.of(circle));
+        Assertions.assertTrue(Files.readString(circle, StandardCharsets.UTF_8).contains("Area."),
+                "Without bindings only the annotation marks an override");
+
+        Assertions.assertThrows(OperationCanceledException.class,
+                () -> OverrideIndex.build(List.of(circle), List.of(), List.of(this.tempDir.resolve("src")),
+                        new DeadlineProgressMonitor(1)),
+                "The resolution pass has the per-file time budget");
+    }
+
+    /**
+     * Coverage is counted per package, kind and visibility in the processing pass, and survives the stored result.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void collectCoverage_countsDeclarationsByPackageKindAndVisibility() throws IOException {
+        final var widget = this.tempDir.resolve("p/Widget.java");
+        final var api = this.tempDir.resolve("p/q/Api.java");
+        Files.createDirectories(api.getParent());
+        Files.writeString(widget, """
+                package p;
+                /** A widget. */
+                public class Widget {
+                    private int size;
+                    /** The name. */
+                    protected String name;
+                    public Widget() {
+                    }
+                    public int size() {
+                        return size;
+                    }
+                }
+                """, StandardCharsets.UTF_8);
+        Files.writeString(api, """
+                package p.q;
+                public interface Api {
+                    void run();
+                }
+                """, StandardCharsets.UTF_8);
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setCollectCoverage(true);
+        final var coverage = new StandaloneJautodocEngine(cfg).process(List.of(widget, api)).getCoverage();
+
+        Assertions.assertEquals(2, coverage.getDocumented());
+        Assertions.assertEquals(5, coverage.getUndocumented());
+        Assertions.assertEquals(4, coverage.getGenerated(), "Private field is not commented with these settings");
+        final var json = coverage.toJson();
+        Assertions.assertTrue(json.contains("{\"package\": \"p\", \"kind\": \"field\", \"visibility\": \"private\", "
+                + "\"documented\": 0, \"undocumented\": 1, \"generated\": 0}"), json);
+        Assertions.assertTrue(json.contains("{\"package\": \"p.q\", \"kind\": \"method\", \"visibility\": \"public\", "
+                + "\"documented\": 0, \"undocumented\": 1, \"generated\": 1}"), "Interface members are public");
+
+        final var stored = this.tempDir.resolve("result.properties");
+        new JautodocResult(2, 0, 0, 0, 0, 1, 0, coverage).store(stored);
+        Assertions.assertEquals(json, JautodocResult.load(stored).getCoverage().toJson());
+
+        cfg.setCollectCoverage(false);
+        Assertions.assertTrue(new StandaloneJautodocEngine(cfg).process(List.of(widget)).getCoverage()
+                .isEmpty());
+    }
+
+    /**
+     * A check reports the files that processing would modify without writing them, and stops at the first in
+     * fail-fast mode.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void check_reportsFilesThatWouldChangeWithoutWriting() throws IOException {
+        final var source = """
+                package p;
+                public class Plain {
+                    public void run() {
+                    }
+                }
+                """;
+        final var first = this.tempDir.resolve("First.java");
+        final var second = this.tempDir.resolve("Second.java");
+        Files.writeString(first, source, StandardCharsets.UTF_8);
+        Files.writeString(second, source, StandardCharsets.UTF_8);
+        final var files = List.of(first, second);
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        final var engine = new StandaloneJautodocEngine(cfg);
+        Assertions.assertEquals(files, engine.check(files, false).getViolations());
+        Assertions.assertEquals(source, Files.readString(first, StandardCharsets.UTF_8), "Check must not write");
+        Assertions.assertEquals(List.of(first), engine.check(files, true).getViolations(),
+                "Fail-fast stops at the first file");
+
+        engine.process(List.of(first));
+        Assertions.assertEquals(List.of(second), engine.check(files, false).getViolations());
+
+        cfg.setMode(JautodocMode.REPLACE);
+        engine.process(List.of(second));
+        Assertions.assertTrue(engine.check(files, false).getViolations().isEmpty(),
+                "Replacing a comment by itself is no change");
+    }
+
+    /**
+     * A concurrent fail-fast check stops starting files after the first that would change: at most the files already
+     * in flight are reported, and nothing is written.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void check_failFastStopsConcurrentWorkers() throws IOException {
+        final var files = new ArrayList<Path>();
+        for (var i = 0; i < 40; i++) {
+            final var file = this.tempDir.resolve("C" + i + ".java");
+            Files.writeString(file, "package p;\npublic class C" + i + " {\n    public void run() {\n    }\n}\n",
+                    StandardCharsets.UTF_8);
+            files.add(file);
+        }
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        cfg.setThreads(4);
+        final var engine = new StandaloneJautodocEngine(cfg);
+
+        Assertions.assertEquals(files, engine.check(files, false).getViolations(), "Without fail-fast all are listed");
+        final var violations = engine.check(files, true).getViolations();
+        Assertions.assertFalse(violations.isEmpty());
+        Assertions.assertTrue(violations.size() <= 4, "Only files in flight may finish after the stop: " + violations);
+        for (final Path file : files) {
+            Assertions.assertFalse(Files.readString(file, StandardCharsets.UTF_8).contains("/**"),
+                    "Check must not write");
+        }
+    }
+
+    /**
+     * A check counts files it could not read or finish as unchecked instead of passing them as unchanged.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void check_countsFilesThatCouldNotBeChecked() throws IOException {
+        final var malformed = this.tempDir.resolve("Malformed.java");
+        Files.write(malformed, new byte[] { 'c', 'l', 'a', 's', 's', ' ', (byte) 0xC3, (byte) 0x28 });
+        final var sb = new StringBuilder("package p;\npublic class Big {\n");
+        for (var i = 0; i < 3000; i++) {
+            sb.append("    public int method").append(i).append("(int value) {\n        return value + ").append(i)
+                    .append(";\n    }\n");
+        }
+        sb.append("}\n");
+        final var big = this.tempDir.resolve("Big.java");
+        Files.writeString(big, sb, StandardCharsets.UTF_8);
+
+        final var engine = new StandaloneJautodocEngine(StandaloneJautodocEngineTest.defaults());
+        final var skipped = engine.check(List.of(malformed), false);
+        Assertions.assertTrue(skipped.getViolations().isEmpty());
+        Assertions.assertEquals(1, skipped.getResult().getSkippedCount());
+        Assertions.assertEquals(1, skipped.getUncheckedCount());
+
+        engine.setFileTimeoutMillis(1);
+        final var timedOut = engine.check(List.of(big), false);
+        Assertions.assertTrue(timedOut.getViolations().isEmpty());
+        Assertions.assertEquals(1, timedOut.getResult().getTimedOutCount());
+        Assertions.assertEquals(1, timedOut.getUncheckedCount());
+    }
+
+    /**
+     * A dry run hands each changed file's diff to the listener and writes nothing.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void dryRun_reportsUnifiedDiffWithoutWriting() throws IOException {
+        final var source = """
+                package p;
+                public class Plain {
+                    public void run() {
+                    }
+                }
+                """;
+        final var file = this.tempDir.resolve("p/Plain.java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source, StandardCharsets.UTF_8);
+
+        final var cfg = StandaloneJautodocEngineTest.defaults();
+        final var engine = new StandaloneJautodocEngine(cfg);
+        final Map<Path, String> diffs = new ConcurrentHashMap<>();
+        engine.setListener(new JautodocListener() {
+            @Override
+            public void fileDiff(final Path changed, final String diff) {
+                diffs.put(changed, diff);
+            }
+        });
+        engine.dryRun(List.of(file), this.tempDir);
+        Assertions.assertEquals(source, Files.readString(file, StandardCharsets.UTF_8), "Dry run must not write");
+
+        final var diff = diffs.get(file);
+        Assertions.assertNotNull(diff);
+        Assertions.assertTrue(diff.startsWith("--- a/p/Plain.java\n+++ b/p/Plain.java\n@@ -1,5 +1,"), diff);
+        engine.process(List.of(file));
+        final var processed = Files.readString(file, StandardCharsets.UTF_8);
+        final var expected = new StringBuilder();
+        diff.lines().skip(3).filter(line -> !line.startsWith("-")).forEach(line -> expected.append(line, 1,
+                line.length()).append('\n'));
+        Assertions.assertEquals(processed, expected.toString(), "The hunk covers the whole file");
+
+        diffs.clear();
+        engine.dryRun(List.of(file), null);
+        Assertions.assertTrue(diffs.isEmpty(), "A processed file has no diff");
+    }
+
+    // =========================================================================
+    // Longest-first scheduling
+    // =========================================================================
+
+    /**
+     * Scheduler orders by size on a first run and by recorded durations once history exists.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void scheduler_sizeFirstThenHistory() throws IOException {
+        final var small = this.tempDir.resolve("Small.java");
+        final var large = this.tempDir.resolve("Large.java");
+        Files.writeString(small, "class Small {}\n", StandardCharsets.UTF_8);
+        Files.writeString(large, "class Large {\n" + "    int x;\n".repeat(100) + "}\n", StandardCharsets.UTF_8);
+        final var history = this.tempDir.resolve("work/timings.tsv");
+
+        final var first = new LongestFirstScheduler(history);
+        Assertions.assertEquals(List.of(large, small), first.order(List.of(small, large)),
+                "Without history the larger file goes first");
+
+        // The small file turns out to be the slow one
+        first.record(small, Files.size(small), 5_000_000_000L);
+        first.record(large, Files.size(large), 1_000_000L);
+        first.save();
+
+        final var second = new LongestFirstScheduler(history);
+        Assertions.assertEquals(List.of(small, large), second.order(List.of(large, small)),
+                "Recorded durations take precedence over size");
+    }
+
+    // =========================================================================
+    // Per-file time budget
+    // =========================================================================
+
+    /**
+     * Cancelled monitor aborts source processing.
+     */
+    @Test
+    void timeout_cancelledMonitorAbortsProcessing() {
+        final var source = "package p;\npublic class T {\n    public void doWork() {}\n}\n";
+        final var monitor = new DeadlineProgressMonitor(0);
+        monitor.setCanceled(true);
+
+        final var processor = new JavaSourceProcessor(StandaloneJautodocEngineTest.defaults());
+
+        Assertions.assertThrows(OperationCanceledException.class, () -> processor.process(source, monitor),
+                "A cancelled monitor must abort processing");
+        Assertions.assertFalse(monitor.isTimedOut(), "Explicit cancellation is not a timeout");
+    }
+
+    /**
+     * A file that exceeds its budget ends TIMED_OUT, is reported to the listener and is left byte-identical.
+     *
+     * @throws IOException
+     *             the io exception
+     */
+    @Test
+    void timeout_engineLeavesFileUntouchedAndReportsIt() throws IOException {
+        final var sb = new StringBuilder("package p;\npublic class Big {\n");
+        for (var i = 0; i < 3000; i++) {
+            sb.append("    public int method").append(i).append("(int value) {\n        return value + ").append(i)
+                    .append(";\n    }\n");
+        }
+        sb.append("}\n");
+        final var file = this.tempDir.resolve("Big.java");
+        Files.writeString(file, sb, StandardCharsets.UTF_8);
+        final var before = Files.readAllBytes(file);
+
+        final var engine = new StandaloneJautodocEngine(StandaloneJautodocEngineTest.defaults());
+        engine.setFileTimeoutMillis(1);
+        final List<Path> timedOut = new CopyOnWriteArrayList<>();
+        final List<JautodocOutcome> outcomes = new CopyOnWriteArrayList<>();
+        engine.setListener(new JautodocListener() {
+            @Override
+            public void fileTimedOut(final Path timed, final Duration elapsed) {
+                timedOut.add(timed);
+            }
+
+            @Override
+            public void fileProcessed(final Path processed, final JautodocOutcome outcome) {
+                outcomes.add(outcome);
+            }
+        });
+        final var result = engine.process(List.of(file));
+
+        Assertions.assertEquals(1, result.getTimedOutCount());
+        Assertions.assertEquals(0, result.getSuccessCount());
+        Assertions.assertEquals(List.of(file), timedOut);
+        Assertions.assertEquals(List.of(JautodocOutcome.TIMED_OUT), outcomes);
+        Assertions.assertArrayEquals(before, Files.readAllBytes(file), "A timed out file must not be written");
+    }
+
+    /**
+     * The watchdog reports a file that stays in flight past the threshold, and stops once it is finished.
+     *
+     * @throws InterruptedException
+     *             the interrupted exception
+     */
+    @Test
+    void timeout_watchdogReportsSlowFile() throws InterruptedException {
+        final var file = this.tempDir.resolve("Slow.java");
+        final var reported = new CountDownLatch(1);
+        final var elapsedMillis = new AtomicLong();
+        try (var watchdog = new ProcessingWatchdog(20, (slow, elapsed) -> {
+            if (slow.equals(file)) {
+                elapsedMillis.set(elapsed.toMillis());
+                reported.countDown();
+            }
+        })) {
+            watchdog.start(file);
+            Assertions.assertTrue(reported.await(5, TimeUnit.SECONDS),
+                    "The watchdog should report the file");
+            Assertions.assertTrue(elapsedMillis.get() >= 20, "Reported after the threshold: " + elapsedMillis);
+            watchdog.finish(file);
+        }
+    }
+
+    /**
+     * Unbounded monitor never reports a timeout.
+     */
+    @Test
+    void timeout_unboundedMonitorNeverExpires() {
+        final var monitor = new DeadlineProgressMonitor(0);
+
+        Assertions.assertFalse(monitor.isCanceled(), "A zero budget means no deadline");
+        Assertions.assertFalse(monitor.isTimedOut());
     }
 
     // =========================================================================
@@ -553,7 +2022,7 @@ public class StandaloneJautodocEngineTest {
     private static String normalise(final String s) {
         return s.replace("\r\n", "\n").replace("\r", "\n")
                 // Trim trailing spaces on each line
-                .lines().map(String::stripTrailing).collect(java.util.stream.Collectors.joining("\n"))
+                .lines().map(String::stripTrailing).collect(Collectors.joining("\n"))
                 // Strip leading/trailing blank lines from the whole file
                 .strip();
     }
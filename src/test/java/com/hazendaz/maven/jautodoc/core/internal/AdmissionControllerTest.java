@@ -0,0 +1,113 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AdmissionController}. A blocked acquire is one that has not returned within {@link #BLOCKED_MILLIS}.
+ */
+class AdmissionControllerTest {
+
+    /** Milliseconds an acquire may take before it counts as blocked. */
+    private static final long BLOCKED_MILLIS = 200;
+
+    /** Seconds to wait for an acquire that must be admitted. */
+    private static final long ADMITTED_SECONDS = 10;
+
+    /**
+     * A second acquire that would exceed the byte cap waits while the first is in flight.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void byteCap_blocksSecondAcquire() throws Exception {
+        final var executor = Executors.newCachedThreadPool();
+        try {
+            final var controller = new AdmissionController(100);
+            Assertions.assertEquals(60, controller.acquire(60));
+
+            final var second = executor.submit(() -> controller.acquire(60));
+            Assertions.assertThrows(TimeoutException.class,
+                    () -> second.get(AdmissionControllerTest.BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(60, controller.getInFlight());
+
+            Assertions.assertEquals(40, controller.acquire(40), "A request that still fits is admitted");
+            Assertions.assertEquals(100, controller.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A file larger than the cap is clamped to it, admitted once nothing else is in flight and then holds the whole
+     * budget.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void oversizedFile_isAdmittedAlone() throws Exception {
+        final var executor = Executors.newCachedThreadPool();
+        try {
+            final var controller = new AdmissionController(100);
+            final var small = controller.acquire(10);
+
+            final var oversized = executor.submit(() -> controller.acquire(500));
+            Assertions.assertThrows(TimeoutException.class,
+                    () -> oversized.get(AdmissionControllerTest.BLOCKED_MILLIS, TimeUnit.MILLISECONDS),
+                    "An oversized file waits for the files in flight");
+
+            controller.release(small);
+            Assertions.assertEquals(Long.valueOf(100),
+                    oversized.get(AdmissionControllerTest.ADMITTED_SECONDS, TimeUnit.SECONDS));
+            Assertions.assertEquals(100, controller.getInFlight());
+
+            final var next = executor.submit(() -> controller.acquire(1));
+            Assertions.assertThrows(TimeoutException.class,
+                    () -> next.get(AdmissionControllerTest.BLOCKED_MILLIS, TimeUnit.MILLISECONDS),
+                    "Nothing is admitted next to an oversized file");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A release wakes every waiter that now fits.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void release_unblocksWaiters() throws Exception {
+        final var executor = Executors.newCachedThreadPool();
+        try {
+            final var controller = new AdmissionController(100);
+            final var first = controller.acquire(100);
+
+            final var second = executor.submit(() -> controller.acquire(50));
+            final var third = executor.submit(() -> controller.acquire(50));
+            Assertions.assertThrows(TimeoutException.class,
+                    () -> second.get(AdmissionControllerTest.BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+
+            controller.release(first);
+            Assertions.assertEquals(Long.valueOf(50),
+                    second.get(AdmissionControllerTest.ADMITTED_SECONDS, TimeUnit.SECONDS));
+            Assertions.assertEquals(Long.valueOf(50),
+                    third.get(AdmissionControllerTest.ADMITTED_SECONDS, TimeUnit.SECONDS));
+            Assertions.assertEquals(100, controller.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
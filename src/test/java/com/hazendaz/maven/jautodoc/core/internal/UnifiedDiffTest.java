@@ -0,0 +1,186 @@
+/*
+ * SPDX-License-Identifier: EPL-2.0
+ * See LICENSE file for details.
+ *
+ * Copyright 2018-2026 hazendaz
+ */
+package com.hazendaz.maven.jautodoc.core.internal;
+
+import com.hazendaz.maven.jautodoc.GitTestSupport;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link UnifiedDiff}. Every diff is also applied with {@code git apply} to the original file, which must
+ * then hold the edited text.
+ */
+class UnifiedDiffTest {
+
+    /** The temp dir. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Edits far apart get a hunk each, with three lines of context.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void distantEdits_getOneHunkEach() throws Exception {
+        final var source = UnifiedDiffTest.lines(20, "\n");
+        final var diff = this.formatAndApply(source, source,
+                List.of(new JavadocEdit(UnifiedDiffTest.offset(source, 3, "\n"), 0, "/** a */\n"),
+                        new JavadocEdit(UnifiedDiffTest.offset(source, 17, "\n"), 0, "/** b */\n")));
+
+        Assertions.assertEquals("""
+                --- a/A.java
+                +++ b/A.java
+                @@ -1,5 +1,6 @@
+                 line1
+                 line2
+                +/** a */
+                 line3
+                 line4
+                 line5
+                @@ -14,6 +15,7 @@
+                 line14
+                 line15
+                 line16
+                +/** b */
+                 line17
+                 line18
+                 line19
+                """, diff);
+    }
+
+    /**
+     * A header added by the header step is its own hunk and shifts the new line numbers of the hunks after it.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void insertedHeader_shiftsLaterHunks() throws Exception {
+        final var source = UnifiedDiffTest.lines(20, "\n");
+        final var headed = "/* header */\n" + source;
+        final var diff = this.formatAndApply(source, headed,
+                List.of(new JavadocEdit(UnifiedDiffTest.offset(headed, 18, "\n"), 0, "/** b */\n")));
+
+        Assertions.assertTrue(diff.contains("@@ -1,3 +1,4 @@\n+/* header */\n line1\n"), diff);
+        Assertions.assertTrue(diff.contains("@@ -14,6 +15,7 @@\n"), diff);
+    }
+
+    /**
+     * A last line without a terminator is marked on both sides of the change.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void missingTrailingNewline_isMarked() throws Exception {
+        final var full = UnifiedDiffTest.lines(5, "\n");
+        final var source = full.substring(0, full.length() - 1);
+        final var diff = this.formatAndApply(source, source,
+                List.of(new JavadocEdit(UnifiedDiffTest.offset(source, 5, "\n"), 5, "last")));
+
+        Assertions.assertTrue(diff.endsWith("""
+                -line5
+                \\ No newline at end of file
+                +last
+                \\ No newline at end of file
+                """), diff);
+    }
+
+    /**
+     * CRLF line terminators are kept on every line of the hunk.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    void crlfInput_keepsLineTerminators() throws Exception {
+        final var source = UnifiedDiffTest.lines(8, "\r\n");
+        final var diff = this.formatAndApply(source, source,
+                List.of(new JavadocEdit(UnifiedDiffTest.offset(source, 4, "\r\n"), 0, "/** doc */\r\n")));
+
+        Assertions.assertTrue(diff.contains("\n line3\r\n+/** doc */\r\n line4\r\n"), diff);
+    }
+
+    /**
+     * Formats the diff of the edits and applies it to the original file with git.
+     *
+     * @param source
+     *            the original text
+     * @param headed
+     *            the text after the header step
+     * @param edits
+     *            the edits of {@code headed}
+     *
+     * @return the diff
+     *
+     * @throws Exception
+     *             the exception
+     */
+    private String formatAndApply(final String source, final String headed, final List<JavadocEdit> edits)
+            throws Exception {
+        final var expected = new StringBuilder(headed);
+        for (var i = edits.size() - 1; i >= 0; i--) {
+            final var edit = edits.get(i);
+            expected.replace(edit.offset, edit.offset + edit.length, edit.text);
+        }
+        final var diff = UnifiedDiff.format("A.java", source, headed, edits);
+        final var file = this.tempDir.resolve("A.java");
+        Files.writeString(file, source, StandardCharsets.UTF_8);
+        Files.writeString(this.tempDir.resolve("change.patch"), diff, StandardCharsets.UTF_8);
+        GitTestSupport.git(this.tempDir, "apply", "--check", "change.patch");
+        GitTestSupport.git(this.tempDir, "apply", "change.patch");
+        Assertions.assertEquals(expected.toString(), Files.readString(file, StandardCharsets.UTF_8));
+        return diff;
+    }
+
+    /**
+     * Builds numbered lines.
+     *
+     * @param count
+     *            the number of lines
+     * @param terminator
+     *            the line terminator
+     *
+     * @return the text
+     */
+    private static String lines(final int count, final String terminator) {
+        final var sb = new StringBuilder();
+        for (var i = 1; i <= count; i++) {
+            sb.append("line").append(i).append(terminator);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gets the offset of a line.
+     *
+     * @param text
+     *            the text
+     * @param line
+     *            the one-based line number
+     * @param terminator
+     *            the line terminator
+     *
+     * @return the offset
+     */
+    private static int offset(final String text, final int line, final String terminator) {
+        var offset = 0;
+        for (var i = 1; i < line; i++) {
+            offset = text.indexOf(terminator, offset) + terminator.length();
+        }
+        return offset;
+    }
+}